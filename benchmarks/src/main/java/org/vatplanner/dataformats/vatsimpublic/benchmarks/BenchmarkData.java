@@ -0,0 +1,286 @@
+package org.vatplanner.dataformats.vatsimpublic.benchmarks;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.vatplanner.dataformats.vatsimpublic.export.JsonDataFileWriter;
+import org.vatplanner.dataformats.vatsimpublic.export.LegacyDataFileWriter;
+import org.vatplanner.dataformats.vatsimpublic.parser.DataFile;
+import org.vatplanner.dataformats.vatsimpublic.parser.vatspy.VatSpyFile;
+import org.vatplanner.dataformats.vatsimpublic.parser.vatspy.VatSpyFileParser;
+import org.vatplanner.dataformats.vatsimpublic.synthetic.SyntheticDataFileGenerator;
+
+/**
+ * Creates deterministic synthetic input for benchmarks. Real data files are not
+ * used as they are privacy-sensitive and would need to be redistributed with
+ * the benchmarks.
+ *
+ * <p>
+ * All data is derived from a fixed seed, so repeated runs (and runs against
+ * different versions of the library) process identical input.
+ * </p>
+ */
+public class BenchmarkData {
+    private static final long SEED = 20240401L;
+
+    private static final Instant START = Instant.parse("2024-04-01T12:00:00Z");
+    private static final Duration SNAPSHOT_INTERVAL = Duration.ofSeconds(15);
+
+    private static final int NUMBER_OF_AIRPORTS = 7500;
+    private static final int NUMBER_OF_FIRS = 400;
+
+    private static final String[] REMARKS = {
+        "PBN/A1B1C1D1L1O1S1 DOF/240401 RMK/TCAS",
+        "/v/ PBN/B1D1O1S1 RMK/NEW PILOT PLEASE BE PATIENT",
+        "/v/ RMK/LIVE ON TWITCH.TV/SOMEPILOT",
+        "/t/ RMK/CHARTS ON BOARD",
+        "PBN/A1 RMK/STREAMING YOUTUBE.COM/C/SOMECHANNEL",
+        "/v/",
+    };
+
+    private BenchmarkData() {
+        // utility class; hide constructor
+    }
+
+    /**
+     * Sizes of data files to benchmark with. Only the first three scales are
+     * benchmarked by default, larger scales have to be selected explicitly (for
+     * example <code>-p scale=EVENT_PEAK_10X</code>).
+     */
+    public static enum Scale {
+        /**
+         * A quiet moment on the network.
+         */
+        SMALL(45, 5),
+
+        /**
+         * Usual daily peak.
+         */
+        TYPICAL(1350, 150),
+
+        /**
+         * Peak of large events such as Cross the Pond.
+         */
+        EVENT_PEAK(4500, 500),
+
+        /**
+         * Three times the peak of large events.
+         */
+        EVENT_PEAK_3X(13500, 1500),
+
+        /**
+         * Ten times the peak of large events.
+         */
+        EVENT_PEAK_10X(45000, 5000);
+
+        private final int numberOfPilots;
+        private final int numberOfControllers;
+
+        private Scale(int numberOfPilots, int numberOfControllers) {
+            this.numberOfPilots = numberOfPilots;
+            this.numberOfControllers = numberOfControllers;
+        }
+
+        public int getNumberOfPilots() {
+            return numberOfPilots;
+        }
+
+        public int getNumberOfControllers() {
+            return numberOfControllers;
+        }
+    }
+
+    /**
+     * Creates a sequence of snapshots recorded at regular intervals using
+     * {@link SyntheticDataFileGenerator} on airports of
+     * {@link #createVatSpyDat(int, int)}.
+     *
+     * @param scale             size of each snapshot
+     * @param numberOfSnapshots number of snapshots to create
+     * @return snapshots in ascending order of recording time
+     */
+    public static List<DataFile> createSnapshots(Scale scale, int numberOfSnapshots) {
+        VatSpyFile vatSpyFile = new VatSpyFileParser().deserialize(createVatSpyDat(NUMBER_OF_AIRPORTS, NUMBER_OF_FIRS));
+
+        return new SyntheticDataFileGenerator(vatSpyFile)
+            .setSeed(SEED)
+            .setStartTime(START)
+            .setSnapshotInterval(SNAPSHOT_INTERVAL)
+            .setNumberOfPilots(scale.getNumberOfPilots())
+            .setNumberOfControllers(scale.getNumberOfControllers())
+            .generate(numberOfSnapshots);
+    }
+
+    /**
+     * Creates a single snapshot.
+     *
+     * @param scale size of snapshot
+     * @return snapshot
+     */
+    public static DataFile createDataFile(Scale scale) {
+        return createSnapshots(scale, 1).get(0);
+    }
+
+    private static String randomLetters(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('A' + random.nextInt(26)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Serializes the given {@link DataFile} to legacy format.
+     *
+     * @param dataFile data file to serialize
+     * @return serialized data file
+     */
+    public static String toLegacyFormat(DataFile dataFile) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        new LegacyDataFileWriter().serialize(dataFile, baos);
+        return new String(baos.toByteArray(), ISO_8859_1);
+    }
+
+    /**
+     * Serializes the given {@link DataFile} to JSON v3 format.
+     *
+     * @param dataFile data file to serialize
+     * @return serialized data file
+     */
+    public static String toJsonFormat(DataFile dataFile) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        new JsonDataFileWriter().serialize(dataFile, baos);
+        return new String(baos.toByteArray(), UTF_8);
+    }
+
+    /**
+     * Extracts all lines of the client sections (connected clients and prefiled
+     * flight plans) from a legacy data file.
+     *
+     * @param legacyDataFile data file in legacy format
+     * @param prefileSection true to extract the prefile section, false for
+     *                       connected clients
+     * @return raw client lines
+     */
+    public static List<String> extractClientLines(String legacyDataFile, boolean prefileSection) {
+        String wantedSection = prefileSection ? "!PREFILE:" : "!CLIENTS:";
+
+        List<String> lines = new ArrayList<>();
+        boolean inSection = false;
+        for (String line : legacyDataFile.split("\r?\n")) {
+            if (line.startsWith("!")) {
+                inSection = line.equals(wantedSection);
+            } else if (inSection && !line.startsWith(";") && !line.isEmpty()) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Creates content of a synthetic <code>VATSpy.dat</code> file.
+     *
+     * @param numberOfAirports number of airports to include
+     * @param numberOfFirs     number of FIRs to include
+     * @return content of <code>VATSpy.dat</code>
+     */
+    public static String createVatSpyDat(int numberOfAirports, int numberOfFirs) {
+        Random random = new Random(SEED);
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("; synthetic benchmark data\n[Countries]\n");
+        for (int i = 0; i < 26 * 26; i++) {
+            sb.append("Country ").append(i).append('|')
+              .append((char) ('A' + i / 26)).append((char) ('A' + i % 26))
+              .append("|Center\n");
+        }
+
+        sb.append("[Airports]\n");
+        for (int i = 0; i < numberOfAirports; i++) {
+            sb.append(String.format(
+                Locale.ROOT, "%s|Airport %d|%.5f|%.5f|%s|F%03d|%d\n",
+                randomLetters(random, 4), i,
+                random.nextDouble() * 180.0 - 90.0, random.nextDouble() * 360.0 - 180.0,
+                (i % 3 == 0) ? "" : randomLetters(random, 3), i % numberOfFirs, (i % 50 == 0) ? 1 : 0
+            ));
+        }
+
+        sb.append("[FIRs]\n");
+        for (int i = 0; i < numberOfFirs; i++) {
+            sb.append(String.format(Locale.ROOT, "F%03d|FIR %d|F%03d|F%03d\n", i, i, i, i));
+        }
+
+        sb.append("[UIRs]\n");
+        for (int i = 0; i + 3 < numberOfFirs; i += 4) {
+            sb.append(String.format(Locale.ROOT, "U%03d|UIR %d|F%03d,F%03d,F%03d,F%03d\n", i, i, i, i + 1, i + 2, i + 3));
+        }
+
+        sb.append("[IDL]\n");
+        for (int i = 0; i < 20; i++) {
+            sb.append(String.format(Locale.ROOT, "%.1f|%.1f\n", -90.0 + i * 9.0, (i % 2 == 0) ? 180.0 : -172.5));
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Creates content of a synthetic <code>FIRBoundaries.dat</code> file.
+     *
+     * @param numberOfFirs         number of FIR boundaries to include
+     * @param pointsPerBoundary    number of points per boundary
+     * @return content of <code>FIRBoundaries.dat</code>
+     */
+    public static String createFirBoundariesDat(int numberOfFirs, int pointsPerBoundary) {
+        Random random = new Random(SEED);
+        StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < numberOfFirs; i++) {
+            double centerLatitude = random.nextDouble() * 140.0 - 70.0;
+            double centerLongitude = random.nextDouble() * 340.0 - 170.0;
+            double radius = 1.0 + random.nextDouble() * 8.0;
+
+            sb.append(String.format(
+                Locale.ROOT, "F%03d|%d|0|%d|%.5f|%.5f|%.5f|%.5f|%.5f|%.5f\n",
+                i, (i % 10 == 0) ? 1 : 0, pointsPerBoundary,
+                centerLatitude - radius, centerLongitude - radius,
+                centerLatitude + radius, centerLongitude + radius,
+                centerLatitude, centerLongitude
+            ));
+
+            for (int j = 0; j < pointsPerBoundary; j++) {
+                double angle = 2.0 * Math.PI * j / pointsPerBoundary;
+                sb.append(String.format(
+                    Locale.ROOT, "%.5f|%.5f\n",
+                    centerLatitude + radius * Math.sin(angle),
+                    centerLongitude + radius * Math.cos(angle)
+                ));
+            }
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Creates a corpus of flight plan remarks, some of which mention streaming
+     * channels.
+     *
+     * @param size number of remarks
+     * @return remarks
+     */
+    public static List<String> createRemarks(int size) {
+        Random random = new Random(SEED);
+        List<String> remarks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            remarks.add(REMARKS[random.nextInt(REMARKS.length)] + " OPR/" + randomLetters(random, 3));
+        }
+        return remarks;
+    }
+}
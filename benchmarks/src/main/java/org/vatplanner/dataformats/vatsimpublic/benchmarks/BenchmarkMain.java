@@ -0,0 +1,58 @@
+package org.vatplanner.dataformats.vatsimpublic.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.ProfilerConfig;
+
+/**
+ * Runs JMH with the defaults wanted for regression tracking: The GC profiler is
+ * always enabled (allocation rates are as relevant as timings for this library)
+ * and results are written as JSON to <code>jmh-result.json</code> unless
+ * specified otherwise. All regular JMH command line options are supported, for
+ * example <code>-rf csv -rff results.csv</code> or a regular expression to
+ * select benchmarks.
+ */
+public class BenchmarkMain {
+    private static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    private BenchmarkMain() {
+        // utility class; hide constructor
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        if (commandLineOptions.shouldHelp() || commandLineOptions.shouldList() || commandLineOptions.shouldListProfilers()
+            || commandLineOptions.shouldListResultFormats() || commandLineOptions.shouldListWithParams()) {
+            // informational options are handled by JMH's regular entry point
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(commandLineOptions);
+
+        if (!hasGCProfiler(commandLineOptions)) {
+            builder.addProfiler(GCProfiler.class);
+        }
+
+        Options options = builder.resultFormat(commandLineOptions.getResultFormat().orElse(ResultFormatType.JSON))
+                                 .result(commandLineOptions.getResult().orElse(DEFAULT_RESULT_FILE))
+                                 .build();
+
+        new Runner(options).run();
+    }
+
+    private static boolean hasGCProfiler(CommandLineOptions commandLineOptions) {
+        for (ProfilerConfig profiler : commandLineOptions.getProfilers()) {
+            String name = profiler.getKlass();
+            if ("gc".equals(name) || GCProfiler.class.getName().equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
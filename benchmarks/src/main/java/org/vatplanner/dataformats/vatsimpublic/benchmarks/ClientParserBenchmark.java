@@ -0,0 +1,56 @@
+package org.vatplanner.dataformats.vatsimpublic.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vatplanner.dataformats.vatsimpublic.benchmarks.BenchmarkData.Scale;
+import org.vatplanner.dataformats.vatsimpublic.parser.Client;
+import org.vatplanner.dataformats.vatsimpublic.parser.legacy.ClientParser;
+
+/**
+ * Measures parsing of a single line from the legacy <code>CLIENTS</code>
+ * section. Lines are cycled through so that all client types are covered
+ * without letting the JIT specialize on a single constant input.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ClientParserBenchmark {
+    private String[] lines;
+    private int index;
+
+    private final ClientParser parser = new ClientParser().setIsParsingPrefileSection(false);
+
+    @Setup
+    public void setUp() {
+        String content = BenchmarkData.toLegacyFormat(BenchmarkData.createDataFile(Scale.TYPICAL));
+        List<String> clientLines = BenchmarkData.extractClientLines(content, false);
+        lines = clientLines.toArray(new String[0]);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetIndex() {
+        index = 0;
+    }
+
+    @Benchmark
+    public Client parseLine() {
+        String line = lines[index];
+        index = (index + 1) % lines.length;
+        return parser.parse(line);
+    }
+}
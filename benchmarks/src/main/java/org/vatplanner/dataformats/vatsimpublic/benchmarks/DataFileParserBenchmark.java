@@ -0,0 +1,56 @@
+package org.vatplanner.dataformats.vatsimpublic.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vatplanner.dataformats.vatsimpublic.benchmarks.BenchmarkData.Scale;
+import org.vatplanner.dataformats.vatsimpublic.parser.DataFile;
+import org.vatplanner.dataformats.vatsimpublic.parser.json.v3.DataFileProcessor;
+import org.vatplanner.dataformats.vatsimpublic.parser.legacy.DataFileParser;
+
+/**
+ * Measures parsing of complete data files in legacy and JSON v3 format.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DataFileParserBenchmark {
+    @Param({ "SMALL", "TYPICAL", "EVENT_PEAK" })
+    private Scale scale;
+
+    private String legacyContent;
+    private String jsonContent;
+
+    private final DataFileParser legacyParser = new DataFileParser();
+    private final DataFileProcessor jsonProcessor = new DataFileProcessor();
+
+    @Setup
+    public void setUp() {
+        DataFile dataFile = BenchmarkData.createDataFile(scale);
+        legacyContent = BenchmarkData.toLegacyFormat(dataFile);
+        jsonContent = BenchmarkData.toJsonFormat(dataFile);
+    }
+
+    @Benchmark
+    public DataFile legacy() {
+        return legacyParser.deserialize(legacyContent);
+    }
+
+    @Benchmark
+    public DataFile json() {
+        return jsonProcessor.deserialize(jsonContent);
+    }
+}
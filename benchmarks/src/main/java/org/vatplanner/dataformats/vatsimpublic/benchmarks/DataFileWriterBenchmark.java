@@ -0,0 +1,69 @@
+package org.vatplanner.dataformats.vatsimpublic.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vatplanner.dataformats.vatsimpublic.benchmarks.BenchmarkData.Scale;
+import org.vatplanner.dataformats.vatsimpublic.export.JsonDataFileWriter;
+import org.vatplanner.dataformats.vatsimpublic.export.LegacyDataFileWriter;
+import org.vatplanner.dataformats.vatsimpublic.export.Writer;
+import org.vatplanner.dataformats.vatsimpublic.parser.DataFile;
+
+/**
+ * Measures serialization of complete data files.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DataFileWriterBenchmark {
+    private static final int OUTPUT_BUFFER_SIZE = 16 * 1024 * 1024;
+
+    @Param({ "SMALL", "TYPICAL", "EVENT_PEAK" })
+    private Scale scale;
+
+    private DataFile dataFile;
+
+    private final LegacyDataFileWriter legacyWriter = new LegacyDataFileWriter();
+    private final LegacyDataFileWriter legacyDirectByteWriter = new LegacyDataFileWriter().setDirectByteEncoding(true);
+    private final JsonDataFileWriter jsonWriter = new JsonDataFileWriter();
+
+    @Setup
+    public void setUp() {
+        dataFile = BenchmarkData.createDataFile(scale);
+    }
+
+    @Benchmark
+    public int legacy() {
+        return write(legacyWriter);
+    }
+
+    @Benchmark
+    public int legacyDirectByteEncoding() {
+        return write(legacyDirectByteWriter);
+    }
+
+    @Benchmark
+    public int json() {
+        return write(jsonWriter);
+    }
+
+    private int write(Writer<DataFile> writer) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(OUTPUT_BUFFER_SIZE);
+        writer.serialize(dataFile, baos);
+        return baos.size();
+    }
+}
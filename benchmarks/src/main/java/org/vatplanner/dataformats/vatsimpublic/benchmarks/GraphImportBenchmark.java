@@ -0,0 +1,67 @@
+package org.vatplanner.dataformats.vatsimpublic.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vatplanner.dataformats.vatsimpublic.benchmarks.BenchmarkData.Scale;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.CompactStatusEntityFactory;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.DefaultStatusEntityFactory;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.StatusEntityFactory;
+import org.vatplanner.dataformats.vatsimpublic.graph.GraphImport;
+import org.vatplanner.dataformats.vatsimpublic.parser.DataFile;
+
+/**
+ * Measures import of a sequence of consecutive snapshots into a fresh
+ * {@link GraphImport}. Snapshots are parsed in advance, so only the import
+ * itself is measured.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GraphImportBenchmark {
+    private static final int NUMBER_OF_SNAPSHOTS = 20;
+
+    @Param({ "SMALL", "TYPICAL", "EVENT_PEAK" })
+    private Scale scale;
+
+    @Param({ "default", "compact" })
+    private String entityFactory;
+
+    private List<DataFile> snapshots;
+
+    @Setup
+    public void setUp() {
+        snapshots = BenchmarkData.createSnapshots(scale, NUMBER_OF_SNAPSHOTS);
+    }
+
+    @Benchmark
+    public GraphImport importSnapshots() {
+        GraphImport graphImport = new GraphImport(createEntityFactory());
+        for (DataFile snapshot : snapshots) {
+            graphImport.importDataFile(snapshot);
+        }
+        return graphImport;
+    }
+
+    private StatusEntityFactory createEntityFactory() {
+        if ("compact".equals(entityFactory)) {
+            return new CompactStatusEntityFactory();
+        }
+
+        return new DefaultStatusEntityFactory();
+    }
+}
@@ -0,0 +1,99 @@
+package org.vatplanner.dataformats.vatsimpublic.benchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.vatplanner.dataformats.vatsimpublic.benchmarks.BenchmarkData.Scale;
+import org.vatplanner.dataformats.vatsimpublic.parser.DataFile;
+import org.vatplanner.dataformats.vatsimpublic.privacyfilter.DataFileFilter;
+import org.vatplanner.dataformats.vatsimpublic.privacyfilter.DataFileFilterConfiguration;
+import org.vatplanner.dataformats.vatsimpublic.privacyfilter.ExternalAccountExtraction;
+import org.vatplanner.dataformats.vatsimpublic.privacyfilter.JsonDataFileFilter;
+
+/**
+ * Measures the privacy filter chain on complete data files as well as the
+ * extraction of external accounts from flight plan remarks. Account extraction
+ * is also measured for the previous implementation without keyword prefilter
+ * ({@link FindLoopAccountExtraction}) on the same remarks as a baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrivacyFilterBenchmark {
+    private static final int LEGACY_FORMAT_VERSION = 8;
+    private static final int NUMBER_OF_REMARKS = 1000;
+
+    @Param({ "SMALL", "TYPICAL", "EVENT_PEAK" })
+    private Scale scale;
+
+    private String legacyContent;
+    private String jsonContent;
+    private List<String> remarks;
+
+    private DataFileFilter legacyFilter;
+    private JsonDataFileFilter jsonFilter;
+    private final ExternalAccountExtraction externalAccountExtraction = new ExternalAccountExtraction();
+    private final FindLoopAccountExtraction findLoopAccountExtraction = new FindLoopAccountExtraction();
+
+    @Setup
+    public void setUp() {
+        DataFile dataFile = BenchmarkData.createDataFile(scale);
+        legacyContent = BenchmarkData.toLegacyFormat(dataFile);
+        jsonContent = BenchmarkData.toJsonFormat(dataFile);
+        remarks = BenchmarkData.createRemarks(NUMBER_OF_REMARKS);
+
+        DataFileFilterConfiguration configuration = new DataFileFilterConfiguration()
+            .setRemoveRealNameAndHomebase(true)
+            .setSubstituteObserverPrefix(true)
+            // removal of only streaming channels is not implemented yet, remove full remarks instead
+            .setFlightPlanRemarksRemoveAllIfContaining(Arrays.asList("TWITCH", "YOUTUBE"));
+
+        legacyFilter = new DataFileFilter(configuration);
+        jsonFilter = new JsonDataFileFilter(configuration);
+    }
+
+    @Benchmark
+    public String legacy() {
+        return legacyFilter.filter(LEGACY_FORMAT_VERSION, legacyContent);
+    }
+
+    @Benchmark
+    public String json() {
+        return jsonFilter.filter(jsonContent);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void extractExternalAccounts(Blackhole blackhole) {
+        for (String remark : remarks) {
+            Set<String> accounts = externalAccountExtraction.extractAccounts(remark);
+            blackhole.consume(accounts);
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void extractExternalAccountsBaseline(Blackhole blackhole) {
+        for (String remark : remarks) {
+            Set<String> accounts = findLoopAccountExtraction.extractAccounts(remark);
+            blackhole.consume(accounts);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.vatplanner.dataformats.vatsimpublic.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vatplanner.dataformats.vatsimpublic.parser.vatspy.FIRBoundaryFile;
+import org.vatplanner.dataformats.vatsimpublic.parser.vatspy.FIRBoundaryFileParser;
+import org.vatplanner.dataformats.vatsimpublic.parser.vatspy.VatSpyFile;
+import org.vatplanner.dataformats.vatsimpublic.parser.vatspy.VatSpyFileParser;
+
+/**
+ * Measures parsing of VAT-Spy data files. Sizes roughly match the actual files
+ * as distributed by VAT-Spy data project.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VatSpyParserBenchmark {
+    private static final int NUMBER_OF_AIRPORTS = 7500;
+    private static final int NUMBER_OF_FIRS = 400;
+    private static final int POINTS_PER_BOUNDARY = 250;
+
+    private String vatSpyContent;
+    private String firBoundaryContent;
+
+    private final VatSpyFileParser vatSpyParser = new VatSpyFileParser();
+    private final FIRBoundaryFileParser firBoundaryParser = new FIRBoundaryFileParser();
+
+    @Setup
+    public void setUp() {
+        vatSpyContent = BenchmarkData.createVatSpyDat(NUMBER_OF_AIRPORTS, NUMBER_OF_FIRS);
+        firBoundaryContent = BenchmarkData.createFirBoundariesDat(NUMBER_OF_FIRS, POINTS_PER_BOUNDARY);
+    }
+
+    @Benchmark
+    public VatSpyFile vatSpy() {
+        return vatSpyParser.deserialize(vatSpyContent);
+    }
+
+    @Benchmark
+    public FIRBoundaryFile firBoundaries() {
+        return firBoundaryParser.deserialize(firBoundaryContent);
+    }
+}
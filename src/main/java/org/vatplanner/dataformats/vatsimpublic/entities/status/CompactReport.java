@@ -0,0 +1,358 @@
+package org.vatplanner.dataformats.vatsimpublic.entities.status;
+
+import static java.util.Collections.emptyList;
+import static org.vatplanner.dataformats.vatsimpublic.entities.status.Facility.normalizeFacilityName;
+
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Memory-efficient variant of {@link Report}. Instead of holding a hash set per
+ * callsign and copying all flights on every call to {@link #getFlights()},
+ * flights and facilities are kept in plain arrays in order of being added. An
+ * open-addressed index table (linear probing over callsigns and facility names)
+ * provides lookups without any boxing or additional node objects.
+ *
+ * <p>
+ * Storage is sized from {@link #setNumberOfConnectedClients(int)} if called
+ * before any entities have been added and grows automatically if needed.
+ * </p>
+ *
+ * <p>
+ * Collections returned by {@link #getFlights()} and {@link #getFacilities()}
+ * are unmodifiable live views backed by this report; they are not copied. Both
+ * implement {@link RandomAccess}, so iterating them by index does not allocate
+ * anything.
+ * </p>
+ *
+ * <p>
+ * Like {@link Report}, instances are not thread-safe.
+ * </p>
+ *
+ * @see CompactStatusEntityFactory
+ */
+public class CompactReport extends Report {
+
+    private static final int MINIMUM_CAPACITY = 8;
+    private static final int NOT_FOUND = -1;
+
+    private static final Flight[] NO_FLIGHTS = new Flight[0];
+    private static final Facility[] NO_FACILITIES = new Facility[0];
+    private static final int[] NO_SLOTS = new int[0];
+
+    private Flight[] flights = NO_FLIGHTS;
+    private int numFlights = 0;
+    private int[] flightSlots = NO_SLOTS; // index + 1 into flights, 0 = free
+
+    private Facility[] facilities = NO_FACILITIES;
+    private int numFacilities = 0;
+    private int[] facilitySlots = NO_SLOTS; // index + 1 into facilities, 0 = free
+
+    private final List<Flight> flightsView = new ArrayView<Flight>() {
+        @Override
+        public Flight get(int index) {
+            checkIndex(index, numFlights);
+            return flights[index];
+        }
+
+        @Override
+        public int size() {
+            return numFlights;
+        }
+    };
+
+    private final List<Facility> facilitiesView = new ArrayView<Facility>() {
+        @Override
+        public Facility get(int index) {
+            checkIndex(index, numFacilities);
+            return facilities[index];
+        }
+
+        @Override
+        public int size() {
+            return numFacilities;
+        }
+    };
+
+    /**
+     * Creates a new compact report for the given timestamp.
+     * <p>
+     * See {@link Report#Report(Instant)} for important restrictions.
+     * </p>
+     *
+     * @param recordTime time of recording the report (must be unique in graph)
+     */
+    public CompactReport(Instant recordTime) {
+        super(recordTime);
+    }
+
+    @Override
+    public Collection<Facility> getFacilities() {
+        return facilitiesView;
+    }
+
+    @Override
+    public Facility getFacilityByName(String name) {
+        int index = findFacilityIndex(normalizeFacilityName(name));
+        if (index == NOT_FOUND) {
+            return null;
+        }
+
+        return facilities[index];
+    }
+
+    @Override
+    public Report addFacility(Facility facility) {
+        // TODO: reject if another facility has already been added by this name
+
+        String name = facility.getName();
+        int index = findFacilityIndex(name);
+        if (index != NOT_FOUND) {
+            facilities[index] = facility;
+            return this;
+        }
+
+        if (numFacilities == facilities.length) {
+            growFacilities(Math.max(MINIMUM_CAPACITY, numFacilities * 2));
+        }
+
+        facilities[numFacilities] = facility;
+        insertSlot(facilitySlots, hash(name), numFacilities);
+        numFacilities++;
+
+        return this;
+    }
+
+    @Override
+    public Collection<Flight> getFlights() {
+        return flightsView;
+    }
+
+    @Override
+    public Collection<Flight> getFlightsByCallsign(String callsign) {
+        if (numFlights == 0) {
+            return emptyList();
+        }
+
+        List<Flight> out = null;
+        int mask = flightSlots.length - 1;
+        int slot = hash(callsign) & mask;
+        int entry;
+        while ((entry = flightSlots[slot]) != 0) {
+            Flight flight = flights[entry - 1];
+            if (Objects.equals(callsign, flight.getCallsign())) {
+                if (out == null) {
+                    out = new ArrayList<>(1);
+                }
+                out.add(flight);
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (out == null) {
+            return emptyList();
+        }
+
+        return out;
+    }
+
+    @Override
+    public Report addFlight(Flight flight) {
+        String callsign = flight.getCallsign();
+        int hash = hash(callsign);
+
+        if (numFlights > 0) {
+            int mask = flightSlots.length - 1;
+            int slot = hash & mask;
+            int entry;
+            while ((entry = flightSlots[slot]) != 0) {
+                if (flights[entry - 1] == flight) {
+                    // already recorded
+                    return this;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        if (numFlights == flights.length) {
+            growFlights(Math.max(MINIMUM_CAPACITY, numFlights * 2));
+        }
+
+        flights[numFlights] = flight;
+        insertSlot(flightSlots, hash, numFlights);
+        numFlights++;
+
+        // TODO: is there any reference that should be set/check on flights?
+        return this;
+    }
+
+    /**
+     * Removes the given flight from the report. Remaining flights keep their order.
+     * As this requires the index table to be rebuilt, removal takes linear time.
+     *
+     * @param flight flight to be removed from this report
+     * @return this instance for method-chaining
+     */
+    @Override
+    public Report removeFlight(Flight flight) {
+        int index = NOT_FOUND;
+        for (int i = 0; i < numFlights; i++) {
+            if (flights[i] == flight) {
+                index = i;
+                break;
+            }
+        }
+
+        if (index == NOT_FOUND) {
+            return this;
+        }
+
+        numFlights--;
+        System.arraycopy(flights, index + 1, flights, index, numFlights - index);
+        flights[numFlights] = null;
+
+        Arrays.fill(flightSlots, 0);
+        for (int i = 0; i < numFlights; i++) {
+            insertSlot(flightSlots, hash(flights[i].getCallsign()), i);
+        }
+
+        return this;
+    }
+
+    /**
+     * Sets the total number of connected clients at time of record creation. If
+     * no flights have been added yet, flight storage is pre-sized to hold that many
+     * entities.
+     *
+     * @param numberOfConnectedClients total number of connected clients
+     * @return this instance for method-chaining
+     */
+    @Override
+    public Report setNumberOfConnectedClients(int numberOfConnectedClients) {
+        super.setNumberOfConnectedClients(numberOfConnectedClients);
+
+        // connected clients are mostly pilots; prefilings are not included but
+        // number of facilities is overestimated, so pilots should roughly fit
+        if ((numFlights == 0) && (numberOfConnectedClients > flights.length)) {
+            growFlights(numberOfConnectedClients);
+        }
+
+        return this;
+    }
+
+    /**
+     * Reduces allocated storage to the minimum required for all currently recorded
+     * entities. This is useful to call after a report has been fully imported if
+     * it is going to be retained for a long time.
+     *
+     * @return this instance for method-chaining
+     */
+    public CompactReport trimToSize() {
+        if (flights.length > numFlights) {
+            growFlights(numFlights);
+        }
+
+        if (facilities.length > numFacilities) {
+            growFacilities(numFacilities);
+        }
+
+        return this;
+    }
+
+    private int findFacilityIndex(String name) {
+        if (numFacilities == 0) {
+            return NOT_FOUND;
+        }
+
+        int mask = facilitySlots.length - 1;
+        int slot = hash(name) & mask;
+        int entry;
+        while ((entry = facilitySlots[slot]) != 0) {
+            Facility facility = facilities[entry - 1];
+            if (Objects.equals(name, facility.getName())) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        return NOT_FOUND;
+    }
+
+    private void growFlights(int capacity) {
+        Flight[] newFlights = new Flight[capacity];
+        System.arraycopy(flights, 0, newFlights, 0, numFlights);
+        flights = newFlights;
+
+        flightSlots = createSlots(capacity);
+        for (int i = 0; i < numFlights; i++) {
+            insertSlot(flightSlots, hash(flights[i].getCallsign()), i);
+        }
+    }
+
+    private void growFacilities(int capacity) {
+        Facility[] newFacilities = new Facility[capacity];
+        System.arraycopy(facilities, 0, newFacilities, 0, numFacilities);
+        facilities = newFacilities;
+
+        facilitySlots = createSlots(capacity);
+        for (int i = 0; i < numFacilities; i++) {
+            insertSlot(facilitySlots, hash(facilities[i].getName()), i);
+        }
+    }
+
+    /**
+     * Creates a new slot table for the given number of entries. Table length is a
+     * power of two keeping the load factor at or below 0.5.
+     *
+     * @param capacity number of entries to be indexed
+     * @return empty slot table
+     */
+    private static int[] createSlots(int capacity) {
+        if (capacity == 0) {
+            return NO_SLOTS;
+        }
+
+        int length = Integer.highestOneBit(Math.max(capacity * 2 - 1, 1)) << 1;
+        return new int[length];
+    }
+
+    private static void insertSlot(int[] slots, int hash, int index) {
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = index + 1;
+    }
+
+    private static int hash(String s) {
+        if (s == null) {
+            return 0;
+        }
+
+        // spread higher bits as table length is a power of two
+        int h = s.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static void checkIndex(int index, int size) {
+        if ((index < 0) || (index >= size)) {
+            throw new IndexOutOfBoundsException("index " + index + ", size " + size);
+        }
+    }
+
+    /**
+     * Base for unmodifiable live views on internal arrays. {@link AbstractList}
+     * already rejects all modifications.
+     *
+     * @param <T> element type
+     */
+    private abstract static class ArrayView<T> extends AbstractList<T> implements RandomAccess {
+    }
+}
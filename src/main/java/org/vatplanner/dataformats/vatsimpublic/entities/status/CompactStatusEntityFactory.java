@@ -0,0 +1,16 @@
+package org.vatplanner.dataformats.vatsimpublic.entities.status;
+
+import java.time.Instant;
+
+/**
+ * Factory producing default implementations of graph entities except for
+ * {@link Report}s which are created as {@link CompactReport}s to reduce memory
+ * overhead of retaining many reports.
+ */
+public class CompactStatusEntityFactory extends DefaultStatusEntityFactory {
+
+    @Override
+    public Report createReport(Instant recordTime) {
+        return new CompactReport(recordTime);
+    }
+}
@@ -196,4 +196,16 @@ public enum ControllerRating {
     public int getLegacyId() {
         return statusFileId;
     }
+
+    /**
+     * Returns the short name used to refer to this {@link ControllerRating} in
+     * JSON data files.
+     *
+     * @return short name as used in JSON data files
+     * @see #resolveShortName(String)
+     */
+    public String getShortName() {
+        // see resolveShortName: I is the only rating named differently in JSON
+        return (this == I) ? "I1" : name();
+    }
 }
@@ -230,6 +230,39 @@ public class Facility {
         return this;
     }
 
+    /**
+     * Checks if the message is already known and updates it, otherwise adds it to
+     * the facility. Unlike {@link #seenMessage(Report, String, StatusEntityFactory)}
+     * the message is only compared by its de-duplicated content; texts do not need
+     * to be compared. Messages added by this method do not hold a copy of the text
+     * but refer to the given shared content.
+     *
+     * @param report  report the message appears in
+     * @param content de-duplicated message content, see {@link FacilityMessageStore}
+     * @param factory to instantiate new message if needed
+     * @return this instance for method-chaining
+     */
+    public Facility seenMessage(Report report, FacilityMessageContent content, StatusEntityFactory factory) {
+        FacilityMessage lastMessage = null;
+        if (!messagesSortedByRecordTime.isEmpty()) {
+            lastMessage = messagesSortedByRecordTime.last();
+        }
+
+        boolean isLastMessage = (lastMessage != null)
+            && content.equals(lastMessage.getContent());
+
+        if (isLastMessage) {
+            lastMessage.seenInReport(report);
+        } else {
+            messagesSortedByRecordTime.add(
+                factory.createFacilityMessage(this)
+                       .setContent(content)
+                       .seenInReport(report));
+        }
+
+        return this;
+    }
+
     /**
      * Normalizes a facility name. Normalization is performed by trimming the input
      * and converting it to upper case.
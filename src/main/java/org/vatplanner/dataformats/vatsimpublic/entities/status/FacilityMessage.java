@@ -13,6 +13,7 @@ public class FacilityMessage {
 
     private Report reportFirstSeen;
     private String message;
+    private FacilityMessageContent content;
 
     /**
      * Creates a new message posted for a facility.
@@ -61,11 +62,43 @@ public class FacilityMessage {
      * @return message content
      */
     public String getMessage() {
+        if (content != null) {
+            return content.getText();
+        }
+
         return message;
     }
 
     public FacilityMessage setMessage(String message) {
         this.message = message;
+        this.content = null;
+        return this;
+    }
+
+    /**
+     * Returns the de-duplicated message content if the message has been recorded
+     * through a {@link FacilityMessageStore}.
+     *
+     * @return de-duplicated message content; null if message was set as plain
+     *     string
+     * @see #setContent(FacilityMessageContent)
+     */
+    public FacilityMessageContent getContent() {
+        return content;
+    }
+
+    /**
+     * Sets the message to de-duplicated content obtained from a
+     * {@link FacilityMessageStore}. This replaces any message previously set by
+     * {@link #setMessage(String)}; the message will only be held by the given
+     * content.
+     *
+     * @param content de-duplicated message content
+     * @return this instance for method-chaining
+     */
+    public FacilityMessage setContent(FacilityMessageContent content) {
+        this.content = content;
+        this.message = null;
         return this;
     }
 
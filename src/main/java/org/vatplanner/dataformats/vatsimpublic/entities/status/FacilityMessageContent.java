@@ -0,0 +1,115 @@
+package org.vatplanner.dataformats.vatsimpublic.entities.status;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Immutable, de-duplicated content of a {@link FacilityMessage}. Instances are
+ * addressed by a digest of their text and should only be obtained from a
+ * {@link FacilityMessageStore} which guarantees that identical texts result in
+ * the same instance. Content can thus be compared by reference or digest
+ * instead of comparing full texts.
+ *
+ * <p>
+ * Text may be held compressed, in which case it is decompressed on every call
+ * to {@link #getText()}.
+ * </p>
+ *
+ * @see FacilityMessageStore
+ */
+public class FacilityMessageContent {
+
+    private final byte[] digest;
+    private final int hashCode;
+
+    private final String text;
+    private final byte[] compressedText;
+
+    FacilityMessageContent(byte[] digest, String text, byte[] compressedText) {
+        this.digest = digest;
+        this.hashCode = Arrays.hashCode(digest);
+        this.text = text;
+        this.compressedText = compressedText;
+    }
+
+    /**
+     * Returns the message text.
+     *
+     * @return message text
+     */
+    public String getText() {
+        if (compressedText == null) {
+            return text;
+        }
+
+        return decompress(compressedText);
+    }
+
+    /**
+     * Indicates if the text is held in compressed form.
+     *
+     * @return true if text is held compressed, false if not
+     */
+    public boolean isCompressed() {
+        return compressedText != null;
+    }
+
+    /**
+     * Returns the digest identifying this content.
+     *
+     * @return digest identifying this content (copy)
+     */
+    public byte[] getDigest() {
+        return Arrays.copyOf(digest, digest.length);
+    }
+
+    private static String decompress(byte[] compressed) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+
+            ByteArrayOutputStream baos = new ByteArrayOutputStream(compressed.length * 4);
+            byte[] buffer = new byte[1024];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if ((length == 0) && inflater.needsInput()) {
+                    throw new IllegalStateException("compressed message content is truncated");
+                }
+                baos.write(buffer, 0, length);
+            }
+
+            return new String(baos.toByteArray(), StandardCharsets.UTF_8);
+        } catch (DataFormatException ex) {
+            throw new IllegalStateException("compressed message content is corrupted", ex);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+
+        if (!(obj instanceof FacilityMessageContent)) {
+            return false;
+        }
+
+        FacilityMessageContent other = (FacilityMessageContent) obj;
+        return (hashCode == other.hashCode) && Arrays.equals(digest, other.digest);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return "FacilityMessageContent(" + getText() + ")";
+    }
+}
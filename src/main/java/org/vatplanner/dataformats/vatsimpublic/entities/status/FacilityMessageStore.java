@@ -0,0 +1,163 @@
+package org.vatplanner.dataformats.vatsimpublic.entities.status;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Content-addressed store for texts of {@link FacilityMessage}s (controller
+ * information and ATIS). ATIS texts are long, repeat across facilities and
+ * often toggle between a few variants, so every distinct text is only held
+ * once and shared by all messages referring to it.
+ *
+ * <p>
+ * Texts are addressed by their SHA-256 digest. Identical texts always result
+ * in the same {@link FacilityMessageContent} instance, so messages can be
+ * matched by reference instead of comparing full strings.
+ * </p>
+ *
+ * <p>
+ * Optionally, texts can be held compressed. Only texts of at least
+ * {@link #MINIMUM_COMPRESSION_LENGTH} characters are compressed and only if
+ * compression actually saves memory. Compressed texts need to be decompressed
+ * each time they are read, so compression trades CPU time for memory.
+ * </p>
+ *
+ * <p>
+ * Instances are thread-safe and can be shared by multiple graph imports.
+ * </p>
+ */
+public class FacilityMessageStore {
+
+    /**
+     * Texts shorter than this number of characters will never be compressed.
+     */
+    public static final int MINIMUM_COMPRESSION_LENGTH = 128;
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private static final ThreadLocal<MessageDigest> MESSAGE_DIGEST = ThreadLocal.withInitial(
+        FacilityMessageStore::createMessageDigest
+    );
+
+    private final boolean compress;
+    private final Map<ByteBuffer, FacilityMessageContent> contentsByDigest = new HashMap<>();
+
+    /**
+     * Creates a new store holding all texts uncompressed.
+     */
+    public FacilityMessageStore() {
+        this(false);
+    }
+
+    /**
+     * Creates a new store.
+     *
+     * @param compress true to hold texts compressed where it saves memory, false
+     *                 to hold all texts uncompressed
+     */
+    public FacilityMessageStore(boolean compress) {
+        this.compress = compress;
+    }
+
+    /**
+     * Returns the canonical content for the given text. If the text has not been
+     * seen before, it is added to the store.
+     *
+     * @param text message text
+     * @return canonical content for given text; same instance for identical texts
+     */
+    public FacilityMessageContent intern(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+
+        MessageDigest messageDigest = MESSAGE_DIGEST.get();
+        messageDigest.reset();
+        byte[] digest = messageDigest.digest(bytes);
+        ByteBuffer key = ByteBuffer.wrap(digest);
+
+        synchronized (contentsByDigest) {
+            FacilityMessageContent content = contentsByDigest.get(key);
+            if (content != null) {
+                return content;
+            }
+        }
+
+        FacilityMessageContent content = createContent(digest, text, bytes);
+
+        synchronized (contentsByDigest) {
+            FacilityMessageContent previous = contentsByDigest.putIfAbsent(key, content);
+            if (previous != null) {
+                // another thread was faster
+                return previous;
+            }
+        }
+
+        return content;
+    }
+
+    /**
+     * Returns the number of distinct texts held by this store.
+     *
+     * @return number of distinct texts
+     */
+    public int size() {
+        synchronized (contentsByDigest) {
+            return contentsByDigest.size();
+        }
+    }
+
+    /**
+     * Indicates if texts are held compressed by this store.
+     *
+     * @return true if texts are compressed where it saves memory, false if not
+     */
+    public boolean isCompressing() {
+        return compress;
+    }
+
+    private FacilityMessageContent createContent(byte[] digest, String text, byte[] bytes) {
+        if (compress && (text.length() >= MINIMUM_COMPRESSION_LENGTH)) {
+            byte[] compressed = compress(bytes);
+
+            // Java strings need at least one byte per character (more if not Latin-1)
+            if (compressed.length < text.length()) {
+                return new FacilityMessageContent(digest, null, compressed);
+            }
+        }
+
+        return new FacilityMessageContent(digest, text, null);
+    }
+
+    private static byte[] compress(byte[] bytes) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+
+            ByteArrayOutputStream baos = new ByteArrayOutputStream(bytes.length / 2);
+            byte[] buffer = new byte[1024];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                baos.write(buffer, 0, length);
+            }
+
+            return baos.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static MessageDigest createMessageDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException ex) {
+            // all Java platforms are required to support SHA-256
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not available", ex);
+        }
+    }
+}
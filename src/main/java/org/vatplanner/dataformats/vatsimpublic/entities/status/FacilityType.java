@@ -121,4 +121,15 @@ public enum FacilityType {
     public int getLegacyId() {
         return statusFileId;
     }
+
+    /**
+     * Returns the short name used to refer to this {@link FacilityType} in JSON
+     * data files.
+     *
+     * @return short name as used in JSON data files
+     * @see #resolveShortName(String)
+     */
+    public String getShortName() {
+        return shortName;
+    }
 }
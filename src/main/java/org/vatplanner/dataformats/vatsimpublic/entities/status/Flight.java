@@ -48,6 +48,9 @@ public class Flight {
     private SortedSet<TrackPoint> track;
     private Set<Report> reconstructedReports;
     private Map<TrackPoint, FlightEvent> events;
+    private Map<TrackPoint, String> eventAirportCodes;
+    private FlightPhase phase;
+    private boolean completed;
 
     private static final Comparator<Connection> CONNECTIONS_COMPARATOR = (Connection x, Connection y) -> {
         // ascending order of logon time
@@ -216,6 +219,26 @@ public class Flight {
         return this;
     }
 
+    /**
+     * Removes a single point from the track. Points marked with an event cannot be
+     * removed.
+     *
+     * @param point point to remove from this flight's track
+     * @return this instance for method-chaining
+     * @throws IllegalArgumentException if point is marked with an event
+     */
+    public Flight removeTrackPoint(TrackPoint point) {
+        if ((events != null) && events.containsKey(point)) {
+            throw new IllegalArgumentException("track point is marked with an event and cannot be removed");
+        }
+
+        if (track != null) {
+            track.remove(point);
+        }
+
+        return this;
+    }
+
     /**
      * Computes the earliest time at which the flight appeared in records.
      *
@@ -406,6 +429,88 @@ public class Flight {
         return unmodifiableMap(events);
     }
 
+    /**
+     * Records the airport an event has occurred at, for example the airport a
+     * flight departed from or landed at.
+     *
+     * @param trackPoint  track point of event
+     * @param airportCode code of airport the event occurred at
+     * @throws IllegalArgumentException if any argument is null or point has no
+     *                                  event assigned
+     */
+    public void setEventAirportCode(TrackPoint trackPoint, String airportCode) {
+        if (airportCode == null) {
+            throw new IllegalArgumentException("airport code must not be null");
+        }
+
+        if ((trackPoint == null) || (events == null) || !events.containsKey(trackPoint)) {
+            throw new IllegalArgumentException("track point must be marked with an event");
+        }
+
+        if (eventAirportCodes == null) {
+            eventAirportCodes = new HashMap<>();
+        }
+
+        eventAirportCodes.put(trackPoint, airportCode);
+    }
+
+    /**
+     * Returns the code of the airport the event at given track point occurred at.
+     *
+     * @param trackPoint track point of event
+     * @return code of airport the event occurred at; null if unknown
+     */
+    public String getEventAirportCode(TrackPoint trackPoint) {
+        if (eventAirportCodes == null) {
+            return null;
+        }
+
+        return eventAirportCodes.get(trackPoint);
+    }
+
+    /**
+     * Returns the phase the flight is in as of last recorded track point.
+     *
+     * @return current flight phase; null if unknown
+     */
+    public FlightPhase getPhase() {
+        return phase;
+    }
+
+    /**
+     * Sets the phase the flight is in as of last recorded track point.
+     *
+     * @param phase current flight phase; null if unknown
+     * @return this instance for method-chaining
+     */
+    public Flight setPhase(FlightPhase phase) {
+        this.phase = phase;
+        return this;
+    }
+
+    /**
+     * Checks if the flight has been completed, i.e. the aircraft took off again
+     * after landing without disconnecting. Further track points are then recorded
+     * on a new flight.
+     *
+     * @return true if completed, false if the flight may still be continued
+     */
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    /**
+     * Marks the flight as completed, so it will not be continued by any later
+     * report.
+     *
+     * @return this instance for method-chaining
+     * @see #isCompleted()
+     */
+    public Flight markAsCompleted() {
+        completed = true;
+        return this;
+    }
+
     /**
      * Checks if the flight is airborne as of last recorded track point and event.
      *
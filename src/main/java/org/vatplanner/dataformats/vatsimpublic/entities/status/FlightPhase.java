@@ -0,0 +1,55 @@
+package org.vatplanner.dataformats.vatsimpublic.entities.status;
+
+/**
+ * Phases a tracked flight passes through. Phases are derived from the recorded
+ * track and only change after the new condition has been observed on multiple
+ * track points, so single outliers do not cause a phase change.
+ */
+public enum FlightPhase {
+    /**
+     * The aircraft is on ground and has not taken off yet (includes being
+     * parked).
+     */
+    TAXI(false),
+
+    /**
+     * The aircraft has just taken off and is still close to the altitude it
+     * departed from.
+     */
+    TAKEOFF(true),
+
+    /**
+     * The aircraft is airborne and climbing.
+     */
+    CLIMB(true),
+
+    /**
+     * The aircraft is airborne and holding its altitude.
+     */
+    CRUISE(true),
+
+    /**
+     * The aircraft is airborne and descending.
+     */
+    DESCENT(true),
+
+    /**
+     * The aircraft has landed and is on ground again.
+     */
+    LANDED(false);
+
+    private final boolean isAirborne;
+
+    private FlightPhase(boolean isAirborne) {
+        this.isAirborne = isAirborne;
+    }
+
+    /**
+     * Checks if the aircraft is airborne during this phase.
+     *
+     * @return true if airborne, false if on ground
+     */
+    public boolean isAirborne() {
+        return isAirborne;
+    }
+}
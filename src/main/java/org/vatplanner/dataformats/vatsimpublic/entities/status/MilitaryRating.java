@@ -58,4 +58,15 @@ public enum MilitaryRating {
             return null;
         }
     }
+
+    /**
+     * Returns the short name used to refer to this {@link MilitaryRating} in JSON
+     * data files.
+     *
+     * @return short name as used in JSON data files
+     * @see #resolveShortName(String)
+     */
+    public String getShortName() {
+        return name();
+    }
 }
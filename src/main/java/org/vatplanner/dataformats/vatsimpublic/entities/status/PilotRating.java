@@ -129,4 +129,15 @@ public enum PilotRating {
     public static PilotRating resolveShortName(String shortName) {
         return ratingByShortName.get(shortName);
     }
+
+    /**
+     * Returns the short name used to refer to this {@link PilotRating} in JSON
+     * data files.
+     *
+     * @return short name as used in JSON data files
+     * @see #resolveShortName(String)
+     */
+    public String getShortName() {
+        return shortName;
+    }
 }
@@ -1,5 +1,6 @@
 package org.vatplanner.dataformats.vatsimpublic.entities.status;
 
+import static java.util.Collections.emptyList;
 import static java.util.Collections.unmodifiableCollection;
 import static org.vatplanner.dataformats.vatsimpublic.entities.status.Facility.normalizeFacilityName;
 
@@ -20,8 +21,8 @@ import org.vatplanner.dataformats.vatsimpublic.parser.DataFileMetaData;
  */
 public class Report {
 
-    private final Map<String, Facility> facilitiesByName = new HashMap<>();
-    private final Map<String, Set<Flight>> flightsByCallsign = new HashMap<>();
+    private Map<String, Facility> facilitiesByName;
+    private Map<String, Set<Flight>> flightsByCallsign;
 
     private final Instant recordTime;
     private int numberOfConnectedClients;
@@ -46,6 +47,10 @@ public class Report {
      * @return facilities visible on this report
      */
     public Collection<Facility> getFacilities() {
+        if (facilitiesByName == null) {
+            return emptyList();
+        }
+
         return unmodifiableCollection(facilitiesByName.values());
     }
 
@@ -58,6 +63,10 @@ public class Report {
      *     recorded
      */
     public Facility getFacilityByName(String name) {
+        if (facilitiesByName == null) {
+            return null;
+        }
+
         return facilitiesByName.get(normalizeFacilityName(name));
     }
 
@@ -71,6 +80,10 @@ public class Report {
     public Report addFacility(Facility facility) {
         // TODO: reject if another facility has already been added by this name
 
+        if (facilitiesByName == null) {
+            facilitiesByName = new HashMap<>();
+        }
+
         facilitiesByName.put(facility.getName(), facility);
 
         // TODO: set/check report on facility's connection?
@@ -84,6 +97,10 @@ public class Report {
      * @return flights visible on this report
      */
     public Collection<Flight> getFlights() {
+        if (flightsByCallsign == null) {
+            return emptyList();
+        }
+
         return flightsByCallsign.values()
                                 .stream()
                                 .flatMap(Set::stream)
@@ -98,6 +115,10 @@ public class Report {
      * @return this instance for method-chaining
      */
     public Report addFlight(Flight flight) {
+        if (flightsByCallsign == null) {
+            flightsByCallsign = new HashMap<>();
+        }
+
         Set<Flight> flightsForCallsign = flightsByCallsign.computeIfAbsent(flight.getCallsign(), x -> new HashSet<>());
         flightsForCallsign.add(flight);
 
@@ -105,6 +126,50 @@ public class Report {
         return this;
     }
 
+    /**
+     * Removes the given flight from the report. This is needed if all data of the
+     * flight recorded for this report has been moved to another flight.
+     *
+     * @param flight flight to be removed from this report
+     * @return this instance for method-chaining
+     */
+    public Report removeFlight(Flight flight) {
+        if (flightsByCallsign == null) {
+            return this;
+        }
+
+        Set<Flight> flightsForCallsign = flightsByCallsign.get(flight.getCallsign());
+        if (flightsForCallsign != null) {
+            flightsForCallsign.remove(flight);
+            if (flightsForCallsign.isEmpty()) {
+                flightsByCallsign.remove(flight.getCallsign());
+            }
+        }
+
+        return this;
+    }
+
+    /**
+     * Returns all flights visible on this report under the given callsign. Usually
+     * only one flight is visible per callsign but different members may have
+     * pre-filed or connected using the same callsign at the same time.
+     *
+     * @param callsign callsign to look up flights for; not normalized
+     * @return flights visible on this report under given callsign; never null
+     */
+    public Collection<Flight> getFlightsByCallsign(String callsign) {
+        if (flightsByCallsign == null) {
+            return emptyList();
+        }
+
+        Set<Flight> flights = flightsByCallsign.get(callsign);
+        if (flights == null) {
+            return emptyList();
+        }
+
+        return unmodifiableCollection(flights);
+    }
+
     /**
      * Returns the time a record has been created. This is equal to the time a
      * processed data file has originally been created (see
@@ -134,5 +199,4 @@ public class Report {
     }
 
     // TODO: unit tests
-    // TODO: add getter to lookup flights for callsign
 }
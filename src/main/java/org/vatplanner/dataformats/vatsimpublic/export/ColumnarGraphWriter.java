@@ -0,0 +1,322 @@
+package org.vatplanner.dataformats.vatsimpublic.export;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.BarometricPressure;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.Flight;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.FlightPlan;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.GeoCoordinates;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.Member;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.Report;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.TrackPoint;
+import org.vatplanner.dataformats.vatsimpublic.export.ColumnarTable.DoubleColumn;
+import org.vatplanner.dataformats.vatsimpublic.export.ColumnarTable.IntColumn;
+import org.vatplanner.dataformats.vatsimpublic.export.ColumnarTable.LongColumn;
+import org.vatplanner.dataformats.vatsimpublic.graph.GraphIndex;
+
+/**
+ * Exports all {@link Flight}s indexed by a {@link GraphIndex} including their
+ * {@link FlightPlan}s and {@link TrackPoint}s to a compact columnar binary
+ * format for analytics.
+ *
+ * <p>
+ * Output is written incrementally while walking
+ * {@link GraphIndex#getAllMembers()}: rows are buffered per table only until a
+ * row group is complete, so memory consumption does not depend on the size of
+ * the graph except for the dictionary of distinct strings.
+ * </p>
+ *
+ * <p>
+ * The following tables are exported. Flights are numbered sequentially in
+ * order of export; that number is used as <code>flight_id</code> to relate all
+ * tables. Times are given in milliseconds since epoch.
+ * </p>
+ *
+ * <ul>
+ * <li><code>flights</code> (ID 1): <code>flight_id</code>,
+ * <code>vatsim_id</code>, <code>callsign</code></li>
+ * <li><code>flight_plans</code> (ID 2): <code>flight_id</code>,
+ * <code>revision</code>, <code>first_seen</code>, <code>aircraft_type</code>,
+ * <code>departure</code>, <code>destination</code>, <code>alternate</code>,
+ * <code>true_air_speed</code>, <code>altitude</code> (feet)</li>
+ * <li><code>track_points</code> (ID 3): <code>flight_id</code>,
+ * <code>time</code>, <code>latitude</code>, <code>longitude</code>,
+ * <code>altitude</code> (feet), <code>ground_speed</code> (knots),
+ * <code>heading</code>, <code>transponder</code> (decimal, see
+ * {@link TrackPoint#getTransponderCode()}), <code>qnh</code>
+ * (hectopascals)</li>
+ * </ul>
+ *
+ * <p>
+ * All numbers are big-endian as written by {@link DataOutputStream}, strings
+ * are encoded as by {@link DataOutputStream#writeUTF(String)}. Column types are
+ * 32-bit integers (1), 64-bit integers (2), 64-bit floating-point numbers (3)
+ * and dictionary-encoded strings (4) which are stored as 32-bit indices. Null
+ * is encoded as the minimum value of integer types, NaN or dictionary index -1;
+ * unavailable values indicated as negative numbers on the exported entities
+ * are exported as null.
+ * </p>
+ *
+ * <pre>
+ * file      := magic "VPCG" version:u8 numTables:u8 schema* block* end
+ * schema    := tableId:u8 name numColumns:u8 (name type:u8)*
+ * block     := 1:u8 numEntries:i32 string*                (dictionary entries)
+ *            | 2:u8 tableId:u8 numRows:i32 column*        (row group)
+ * column    := [min max] numBytes:i32 value*
+ * end       := 0:u8 (tableId:u8 totalRows:i64)*
+ * </pre>
+ *
+ * <p>
+ * The dictionary is shared by all tables and written incrementally; entries
+ * continue the indices of all previously written entries and are always
+ * written before the first row group referring to them. Columns of a row group
+ * are prefixed by their minimum and maximum non-null values (null if all values
+ * are null) in the column's type, except for dictionary-encoded columns which
+ * have no statistics. The byte length allows readers to skip columns.
+ * </p>
+ *
+ * <p>
+ * Writers can be shared by multiple threads once configured.
+ * </p>
+ */
+public class ColumnarGraphWriter implements Writer<GraphIndex> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ColumnarGraphWriter.class);
+
+    private static final byte[] MAGIC = {'V', 'P', 'C', 'G'};
+    private static final byte FORMAT_VERSION = 1;
+
+    private static final byte BLOCK_END = 0;
+    private static final byte BLOCK_DICTIONARY = 1;
+    private static final byte BLOCK_ROW_GROUP = 2;
+
+    private static final byte TABLE_FLIGHTS = 1;
+    private static final byte TABLE_FLIGHT_PLANS = 2;
+    private static final byte TABLE_TRACK_POINTS = 3;
+
+    private static final int DEFAULT_ROW_GROUP_SIZE = 65536;
+
+    private int rowGroupSize = DEFAULT_ROW_GROUP_SIZE;
+
+    /**
+     * Sets the maximum number of rows per row group. Smaller row groups need
+     * less memory while writing and allow readers to skip data more selectively
+     * based on column statistics; larger row groups reduce overhead.
+     *
+     * @param rowGroupSize maximum number of rows per row group
+     * @return this instance for method-chaining
+     * @throws IllegalArgumentException if not positive
+     */
+    public ColumnarGraphWriter setRowGroupSize(int rowGroupSize) {
+        if (rowGroupSize < 1) {
+            throw new IllegalArgumentException("row group size must be positive; got " + rowGroupSize);
+        }
+
+        this.rowGroupSize = rowGroupSize;
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of rows per row group.
+     *
+     * @return maximum number of rows per row group
+     * @see #setRowGroupSize(int)
+     */
+    public int getRowGroupSize() {
+        return rowGroupSize;
+    }
+
+    @Override
+    public void serialize(GraphIndex content, OutputStream os) {
+        try {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os));
+            Export export = new Export(out, rowGroupSize);
+
+            export.writeHeader();
+            for (Member member : content.getAllMembers()) {
+                for (Flight flight : member.getFlights()) {
+                    export.addFlight(member, flight);
+                }
+            }
+            export.finish();
+
+            out.flush();
+        } catch (Exception ex) {
+            LOGGER.warn("Columnar export of graph failed", ex);
+        }
+    }
+
+    /**
+     * Holds all state of a single export.
+     */
+    private static class Export {
+        private final DataOutputStream out;
+        private final StringDictionary dictionary = new StringDictionary();
+
+        private final ColumnarTable flights;
+        private final IntColumn flightId;
+        private final IntColumn flightVatsimId;
+        private final IntColumn flightCallsign;
+
+        private final ColumnarTable flightPlans;
+        private final IntColumn flightPlanFlightId;
+        private final IntColumn flightPlanRevision;
+        private final LongColumn flightPlanFirstSeen;
+        private final IntColumn flightPlanAircraftType;
+        private final IntColumn flightPlanDeparture;
+        private final IntColumn flightPlanDestination;
+        private final IntColumn flightPlanAlternate;
+        private final IntColumn flightPlanTrueAirSpeed;
+        private final IntColumn flightPlanAltitude;
+
+        private final ColumnarTable trackPoints;
+        private final IntColumn trackPointFlightId;
+        private final LongColumn trackPointTime;
+        private final DoubleColumn trackPointLatitude;
+        private final DoubleColumn trackPointLongitude;
+        private final IntColumn trackPointAltitude;
+        private final IntColumn trackPointGroundSpeed;
+        private final IntColumn trackPointHeading;
+        private final IntColumn trackPointTransponder;
+        private final DoubleColumn trackPointQnh;
+
+        private int nextFlightId = 0;
+
+        private Export(DataOutputStream out, int rowGroupSize) {
+            this.out = out;
+
+            flights = new ColumnarTable(TABLE_FLIGHTS, "flights", rowGroupSize);
+            flightId = flights.addIntColumn("flight_id");
+            flightVatsimId = flights.addIntColumn("vatsim_id");
+            flightCallsign = flights.addDictionaryColumn("callsign");
+
+            flightPlans = new ColumnarTable(TABLE_FLIGHT_PLANS, "flight_plans", rowGroupSize);
+            flightPlanFlightId = flightPlans.addIntColumn("flight_id");
+            flightPlanRevision = flightPlans.addIntColumn("revision");
+            flightPlanFirstSeen = flightPlans.addLongColumn("first_seen");
+            flightPlanAircraftType = flightPlans.addDictionaryColumn("aircraft_type");
+            flightPlanDeparture = flightPlans.addDictionaryColumn("departure");
+            flightPlanDestination = flightPlans.addDictionaryColumn("destination");
+            flightPlanAlternate = flightPlans.addDictionaryColumn("alternate");
+            flightPlanTrueAirSpeed = flightPlans.addIntColumn("true_air_speed");
+            flightPlanAltitude = flightPlans.addIntColumn("altitude");
+
+            trackPoints = new ColumnarTable(TABLE_TRACK_POINTS, "track_points", rowGroupSize);
+            trackPointFlightId = trackPoints.addIntColumn("flight_id");
+            trackPointTime = trackPoints.addLongColumn("time");
+            trackPointLatitude = trackPoints.addDoubleColumn("latitude");
+            trackPointLongitude = trackPoints.addDoubleColumn("longitude");
+            trackPointAltitude = trackPoints.addIntColumn("altitude");
+            trackPointGroundSpeed = trackPoints.addIntColumn("ground_speed");
+            trackPointHeading = trackPoints.addIntColumn("heading");
+            trackPointTransponder = trackPoints.addIntColumn("transponder");
+            trackPointQnh = trackPoints.addDoubleColumn("qnh");
+        }
+
+        private ColumnarTable[] tables() {
+            return new ColumnarTable[]{flights, flightPlans, trackPoints};
+        }
+
+        private void writeHeader() throws IOException {
+            out.write(MAGIC);
+            out.writeByte(FORMAT_VERSION);
+
+            ColumnarTable[] tables = tables();
+            out.writeByte(tables.length);
+            for (ColumnarTable table : tables) {
+                table.writeSchema(out);
+            }
+        }
+
+        private void addFlight(Member member, Flight flight) throws IOException {
+            int id = nextFlightId++;
+
+            flightId.add(id);
+            flightVatsimId.add(member.getVatsimId());
+            flightCallsign.add(dictionary.encode(flight.getCallsign()));
+            endRow(flights);
+
+            for (FlightPlan flightPlan : flight.getFlightPlans()) {
+                flightPlanFlightId.add(id);
+                flightPlanRevision.add(flightPlan.getRevision());
+                Report reportFirstSeen = flightPlan.getReportFirstSeen();
+                flightPlanFirstSeen.add((reportFirstSeen == null) ? ColumnarTable.NULL_LONG : reportFirstSeen.getRecordTime().toEpochMilli());
+                flightPlanAircraftType.add(dictionary.encode(flightPlan.getAircraftType()));
+                flightPlanDeparture.add(dictionary.encode(flightPlan.getDepartureAirportCode()));
+                flightPlanDestination.add(dictionary.encode(flightPlan.getDestinationAirportCode()));
+                flightPlanAlternate.add(dictionary.encode(flightPlan.getAlternateAirportCode()));
+                flightPlanTrueAirSpeed.add(nullIfNegative(flightPlan.getTrueAirSpeed()));
+                flightPlanAltitude.add(flightPlan.getAltitudeFeet());
+                endRow(flightPlans);
+            }
+
+            for (TrackPoint trackPoint : flight.getTrack()) {
+                trackPointFlightId.add(id);
+
+                Report report = trackPoint.getReport();
+                trackPointTime.add((report == null) ? ColumnarTable.NULL_LONG : report.getRecordTime().toEpochMilli());
+
+                GeoCoordinates coordinates = trackPoint.getGeoCoordinates();
+                if (coordinates == null) {
+                    trackPointLatitude.add(Double.NaN);
+                    trackPointLongitude.add(Double.NaN);
+                    trackPointAltitude.add(ColumnarTable.NULL_INT);
+                } else {
+                    trackPointLatitude.add(coordinates.getLatitude());
+                    trackPointLongitude.add(coordinates.getLongitude());
+                    trackPointAltitude.add(coordinates.getAltitudeFeet());
+                }
+
+                trackPointGroundSpeed.add(nullIfNegative(trackPoint.getGroundSpeed()));
+                trackPointHeading.add(nullIfNegative(trackPoint.getHeading()));
+                trackPointTransponder.add(nullIfNegative(trackPoint.getTransponderCode()));
+
+                BarometricPressure qnh = trackPoint.getQnh();
+                trackPointQnh.add((qnh == null) ? Double.NaN : qnh.getHectopascals());
+
+                endRow(trackPoints);
+            }
+        }
+
+        private void endRow(ColumnarTable table) throws IOException {
+            if (table.endRow()) {
+                writeRowGroup(table);
+            }
+        }
+
+        private void writeRowGroup(ColumnarTable table) throws IOException {
+            // row groups may only refer to dictionary entries which have already
+            // been written
+            if (dictionary.hasPendingEntries()) {
+                out.writeByte(BLOCK_DICTIONARY);
+                dictionary.writePendingEntries(out);
+            }
+
+            out.writeByte(BLOCK_ROW_GROUP);
+            table.writeRowGroup(out);
+        }
+
+        private void finish() throws IOException {
+            ColumnarTable[] tables = tables();
+            for (ColumnarTable table : tables) {
+                if (!table.isEmpty()) {
+                    writeRowGroup(table);
+                }
+            }
+
+            out.writeByte(BLOCK_END);
+            for (ColumnarTable table : tables) {
+                out.writeByte(table.getId());
+                out.writeLong(table.getTotalRows());
+            }
+        }
+
+        private static int nullIfNegative(int value) {
+            return (value < 0) ? ColumnarTable.NULL_INT : value;
+        }
+    }
+}
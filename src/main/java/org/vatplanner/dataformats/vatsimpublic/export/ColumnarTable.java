@@ -0,0 +1,321 @@
+package org.vatplanner.dataformats.vatsimpublic.export;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Buffers one row group of a table written by {@link ColumnarGraphWriter}.
+ * Columns hold primitive arrays which are reused for all row groups, so memory
+ * consumption only depends on the configured row group size.
+ *
+ * <p>
+ * Rows are added by appending exactly one value to each column, then calling
+ * {@link #endRow()}. Null values are encoded by sentinels which are excluded
+ * from column statistics: {@link #NULL_INT}, {@link #NULL_LONG},
+ * {@link Double#NaN} and {@link StringDictionary#NULL_INDEX}.
+ * </p>
+ *
+ * <p>
+ * Instances are not thread-safe.
+ * </p>
+ */
+class ColumnarTable {
+
+    static final byte TYPE_INT32 = 1;
+    static final byte TYPE_INT64 = 2;
+    static final byte TYPE_FLOAT64 = 3;
+    static final byte TYPE_DICTIONARY = 4;
+
+    static final int NULL_INT = Integer.MIN_VALUE;
+    static final long NULL_LONG = Long.MIN_VALUE;
+
+    private final byte id;
+    private final String name;
+    private final int rowGroupSize;
+    private final List<Column> columns = new ArrayList<>();
+
+    private int numRows;
+    private long totalRows;
+
+    /**
+     * Common base of all columns.
+     */
+    abstract static class Column {
+        private final String name;
+        private final byte type;
+
+        private Column(String name, byte type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        abstract int size();
+
+        /**
+         * Writes statistics, byte length and values of the first given number of
+         * rows.
+         *
+         * @param numRows number of rows to write
+         * @param out     stream to write to
+         * @throws IOException if writing fails
+         */
+        abstract void write(int numRows, DataOutputStream out) throws IOException;
+
+        abstract void clear();
+    }
+
+    static class IntColumn extends Column {
+        private final int[] values;
+        private int size;
+
+        private IntColumn(String name, byte type, int capacity) {
+            super(name, type);
+            values = new int[capacity];
+        }
+
+        void add(int value) {
+            values[size++] = value;
+        }
+
+        @Override
+        int size() {
+            return size;
+        }
+
+        @Override
+        void write(int numRows, DataOutputStream out) throws IOException {
+            if (super.type != TYPE_DICTIONARY) {
+                // dictionary indices only depend on order of appearance, so min/max
+                // would not tell anything about the actual content
+                int min = NULL_INT;
+                int max = NULL_INT;
+                for (int i = 0; i < numRows; i++) {
+                    int value = values[i];
+                    if (value == NULL_INT) {
+                        continue;
+                    }
+
+                    if ((min == NULL_INT) || (value < min)) {
+                        min = value;
+                    }
+                    if ((max == NULL_INT) || (value > max)) {
+                        max = value;
+                    }
+                }
+                out.writeInt(min);
+                out.writeInt(max);
+            }
+
+            out.writeInt(numRows * Integer.BYTES);
+            for (int i = 0; i < numRows; i++) {
+                out.writeInt(values[i]);
+            }
+        }
+
+        @Override
+        void clear() {
+            size = 0;
+        }
+    }
+
+    static class LongColumn extends Column {
+        private final long[] values;
+        private int size;
+
+        private LongColumn(String name, int capacity) {
+            super(name, TYPE_INT64);
+            values = new long[capacity];
+        }
+
+        void add(long value) {
+            values[size++] = value;
+        }
+
+        @Override
+        int size() {
+            return size;
+        }
+
+        @Override
+        void write(int numRows, DataOutputStream out) throws IOException {
+            long min = NULL_LONG;
+            long max = NULL_LONG;
+            for (int i = 0; i < numRows; i++) {
+                long value = values[i];
+                if (value == NULL_LONG) {
+                    continue;
+                }
+
+                if ((min == NULL_LONG) || (value < min)) {
+                    min = value;
+                }
+                if ((max == NULL_LONG) || (value > max)) {
+                    max = value;
+                }
+            }
+            out.writeLong(min);
+            out.writeLong(max);
+
+            out.writeInt(numRows * Long.BYTES);
+            for (int i = 0; i < numRows; i++) {
+                out.writeLong(values[i]);
+            }
+        }
+
+        @Override
+        void clear() {
+            size = 0;
+        }
+    }
+
+    static class DoubleColumn extends Column {
+        private final double[] values;
+        private int size;
+
+        private DoubleColumn(String name, int capacity) {
+            super(name, TYPE_FLOAT64);
+            values = new double[capacity];
+        }
+
+        void add(double value) {
+            values[size++] = value;
+        }
+
+        @Override
+        int size() {
+            return size;
+        }
+
+        @Override
+        void write(int numRows, DataOutputStream out) throws IOException {
+            // comparisons with NaN are always false, so NaN only remains if all
+            // values are null
+            double min = Double.NaN;
+            double max = Double.NaN;
+            for (int i = 0; i < numRows; i++) {
+                double value = values[i];
+                if (Double.isNaN(min) || (value < min)) {
+                    min = value;
+                }
+                if (Double.isNaN(max) || (value > max)) {
+                    max = value;
+                }
+            }
+            out.writeDouble(min);
+            out.writeDouble(max);
+
+            out.writeInt(numRows * Double.BYTES);
+            for (int i = 0; i < numRows; i++) {
+                out.writeDouble(values[i]);
+            }
+        }
+
+        @Override
+        void clear() {
+            size = 0;
+        }
+    }
+
+    /**
+     * Creates a new table.
+     *
+     * @param id           ID used to refer to the table in row groups
+     * @param name         name of table as written to the file header
+     * @param rowGroupSize maximum number of rows per row group
+     */
+    ColumnarTable(byte id, String name, int rowGroupSize) {
+        this.id = id;
+        this.name = name;
+        this.rowGroupSize = rowGroupSize;
+    }
+
+    IntColumn addIntColumn(String columnName) {
+        return addColumn(new IntColumn(columnName, TYPE_INT32, rowGroupSize));
+    }
+
+    IntColumn addDictionaryColumn(String columnName) {
+        return addColumn(new IntColumn(columnName, TYPE_DICTIONARY, rowGroupSize));
+    }
+
+    LongColumn addLongColumn(String columnName) {
+        return addColumn(new LongColumn(columnName, rowGroupSize));
+    }
+
+    DoubleColumn addDoubleColumn(String columnName) {
+        return addColumn(new DoubleColumn(columnName, rowGroupSize));
+    }
+
+    private <T extends Column> T addColumn(T column) {
+        columns.add(column);
+        return column;
+    }
+
+    byte getId() {
+        return id;
+    }
+
+    long getTotalRows() {
+        return totalRows;
+    }
+
+    /**
+     * Completes the current row.
+     *
+     * @return true if the row group is full and needs to be written, false if
+     *     more rows can be added
+     * @throws IllegalStateException if not all columns have received a value
+     */
+    boolean endRow() {
+        numRows++;
+        for (Column column : columns) {
+            if (column.size() != numRows) {
+                throw new IllegalStateException(
+                    "column " + column.name + " of table " + name + " holds " + column.size()
+                        + " values but " + numRows + " rows have been completed"
+                );
+            }
+        }
+
+        return numRows >= rowGroupSize;
+    }
+
+    boolean isEmpty() {
+        return numRows == 0;
+    }
+
+    /**
+     * Writes the table's schema.
+     *
+     * @param out stream to write to
+     * @throws IOException if writing fails
+     */
+    void writeSchema(DataOutputStream out) throws IOException {
+        out.writeByte(id);
+        out.writeUTF(name);
+        out.writeByte(columns.size());
+        for (Column column : columns) {
+            out.writeUTF(column.name);
+            out.writeByte(column.type);
+        }
+    }
+
+    /**
+     * Writes all buffered rows as a row group and clears the buffers.
+     *
+     * @param out stream to write to
+     * @throws IOException if writing fails
+     */
+    void writeRowGroup(DataOutputStream out) throws IOException {
+        out.writeByte(id);
+        out.writeInt(numRows);
+        for (Column column : columns) {
+            column.write(numRows, out);
+            column.clear();
+        }
+
+        totalRows += numRows;
+        numRows = 0;
+    }
+}
@@ -0,0 +1,515 @@
+package org.vatplanner.dataformats.vatsimpublic.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.ControllerRating;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.FacilityType;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.MilitaryRating;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.PilotRating;
+import org.vatplanner.dataformats.vatsimpublic.parser.Client;
+import org.vatplanner.dataformats.vatsimpublic.parser.ClientType;
+import org.vatplanner.dataformats.vatsimpublic.parser.DataFile;
+import org.vatplanner.dataformats.vatsimpublic.parser.DataFileMetaData;
+import org.vatplanner.dataformats.vatsimpublic.parser.FSDServer;
+
+/**
+ * Provides serialization for a {@link DataFile} object to the JSON data file
+ * format version 3 as currently provided by VATSIM.
+ *
+ * <p>
+ * Output is streamed directly to the {@link OutputStream} as compact UTF-8
+ * encoded JSON without building an intermediate object tree, so memory
+ * consumption does not grow with the size of the data file. Written data files
+ * can be read back by
+ * {@link org.vatplanner.dataformats.vatsimpublic.parser.json.v3.DataFileProcessor}.
+ * </p>
+ *
+ * <p>
+ * Clients are assigned to sections by their raw {@link ClientType}; clients
+ * without a type are omitted. Information which is not available on the
+ * {@link DataFile} (for example missing timestamps or unset ratings) is
+ * written as <code>null</code>. Unset heading, transponder code, QNH in inHg
+ * and true air speed are mandatory when parsing and are written as
+ * <code>0</code> instead, as also used by VATSIM. Flight plans are only written
+ * for online pilots if any basic flight plan information has been set;
+ * prefiled flight plans are always written. Ratings and facility types are
+ * referred to by the IDs also used by VATSIM; the corresponding mappings are
+ * written with the data file.
+ * </p>
+ *
+ * <p>
+ * Writers are stateless and can be shared by multiple threads.
+ * </p>
+ */
+public class JsonDataFileWriter implements Writer<DataFile> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JsonDataFileWriter.class);
+
+    private static final int FORMAT_VERSION = 3;
+
+    // defaults written by VATSIM for unknown values which are mandatory on parsing
+    private static final int DEFAULT_CLIENT_HEADING = 0;
+    private static final double DEFAULT_CLIENT_QNH_INCH_MERCURY = 0.0;
+    private static final int DEFAULT_CLIENT_TRANSPONDER = 0;
+    private static final int DEFAULT_CLIENT_TRUE_AIR_SPEED = 0;
+
+    private static final String CONTROLLER_MESSAGE_LINE_SEPARATOR = "\n";
+
+    private static final DateTimeFormatter UPDATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmss")
+                                                                               .withZone(ZoneId.of("UTC"));
+
+    private static final Map<ControllerRating, String> CONTROLLER_RATING_LONG_NAMES = new EnumMap<>(ControllerRating.class);
+    private static final Map<FacilityType, String> FACILITY_TYPE_LONG_NAMES = new EnumMap<>(FacilityType.class);
+    private static final Map<PilotRating, IdAndLongName> PILOT_RATINGS = new EnumMap<>(PilotRating.class);
+    private static final Map<MilitaryRating, IdAndLongName> MILITARY_RATINGS = new EnumMap<>(MilitaryRating.class);
+
+    static {
+        // names as published by VATSIM on JSON data files
+        CONTROLLER_RATING_LONG_NAMES.put(ControllerRating.INAC, "Inactive");
+        CONTROLLER_RATING_LONG_NAMES.put(ControllerRating.SUS, "Suspended");
+        CONTROLLER_RATING_LONG_NAMES.put(ControllerRating.OBS, "Observer");
+        CONTROLLER_RATING_LONG_NAMES.put(ControllerRating.S1, "Tower Trainee");
+        CONTROLLER_RATING_LONG_NAMES.put(ControllerRating.S2, "Tower Controller");
+        CONTROLLER_RATING_LONG_NAMES.put(ControllerRating.S3, "Senior Student");
+        CONTROLLER_RATING_LONG_NAMES.put(ControllerRating.C1, "Enroute Controller");
+        CONTROLLER_RATING_LONG_NAMES.put(ControllerRating.C2, "Controller 2 (not in use)");
+        CONTROLLER_RATING_LONG_NAMES.put(ControllerRating.C3, "Senior Controller");
+        CONTROLLER_RATING_LONG_NAMES.put(ControllerRating.I, "Instructor");
+        CONTROLLER_RATING_LONG_NAMES.put(ControllerRating.I2, "Senior Instructor (not in use)");
+        CONTROLLER_RATING_LONG_NAMES.put(ControllerRating.I3, "Senior Instructor");
+        CONTROLLER_RATING_LONG_NAMES.put(ControllerRating.SUP, "Supervisor");
+        CONTROLLER_RATING_LONG_NAMES.put(ControllerRating.ADM, "Administrator");
+
+        FACILITY_TYPE_LONG_NAMES.put(FacilityType.OBSERVER, "Observer");
+        FACILITY_TYPE_LONG_NAMES.put(FacilityType.FSS, "Flight Service Station");
+        FACILITY_TYPE_LONG_NAMES.put(FacilityType.DELIVERY, "Clearance Delivery");
+        FACILITY_TYPE_LONG_NAMES.put(FacilityType.GROUND, "Ground");
+        FACILITY_TYPE_LONG_NAMES.put(FacilityType.TOWER, "Tower");
+        FACILITY_TYPE_LONG_NAMES.put(FacilityType.APPROACH_DEPARTURE, "Approach/Departure");
+        FACILITY_TYPE_LONG_NAMES.put(FacilityType.CENTER, "Enroute");
+
+        // pilot ratings are identified by bit masks
+        PILOT_RATINGS.put(PilotRating.UNRATED, new IdAndLongName(0, "Basic Member"));
+        PILOT_RATINGS.put(PilotRating.PPL, new IdAndLongName(1, "Private Pilot License"));
+        PILOT_RATINGS.put(PilotRating.IR, new IdAndLongName(3, "Instrument Rating"));
+        PILOT_RATINGS.put(PilotRating.CMEL, new IdAndLongName(7, "Commercial Multi-Engine License"));
+        PILOT_RATINGS.put(PilotRating.ATPL, new IdAndLongName(15, "Airline Transport Pilot License"));
+        PILOT_RATINGS.put(PilotRating.FI, new IdAndLongName(31, "Flight Instructor"));
+        PILOT_RATINGS.put(PilotRating.FE, new IdAndLongName(63, "Flight Examiner"));
+
+        MILITARY_RATINGS.put(MilitaryRating.M0, new IdAndLongName(0, "No Military Rating"));
+        MILITARY_RATINGS.put(MilitaryRating.M1, new IdAndLongName(1, "Military Pilot License"));
+        MILITARY_RATINGS.put(MilitaryRating.M2, new IdAndLongName(3, "Military Instrument Rating"));
+        MILITARY_RATINGS.put(MilitaryRating.M3, new IdAndLongName(7, "Military Multi-Engine Rating"));
+        MILITARY_RATINGS.put(MilitaryRating.M4, new IdAndLongName(15, "Military Mission Ready Pilot"));
+    }
+
+    private static class IdAndLongName {
+        private final int id;
+        private final String longName;
+
+        private IdAndLongName(int id, String longName) {
+            this.id = id;
+            this.longName = longName;
+        }
+    }
+
+    @Override
+    public void serialize(DataFile content, OutputStream os) {
+        try {
+            BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8));
+            JsonStreamWriter json = new JsonStreamWriter(bw);
+
+            Collection<Client> clients = nonNull(content.getClients());
+
+            json.beginObject();
+
+            json.name("general");
+            encodeGeneralSection(content.getMetaData(), json);
+
+            json.name("pilots").beginArray();
+            for (Client client : clients) {
+                if (client.getRawClientType() == ClientType.PILOT_CONNECTED) {
+                    encodePilot(client, json);
+                }
+            }
+            json.endArray();
+
+            json.name("controllers").beginArray();
+            for (Client client : clients) {
+                if (client.getRawClientType() == ClientType.ATC_CONNECTED) {
+                    encodeControllerOrAtis(client, false, json);
+                }
+            }
+            json.endArray();
+
+            json.name("atis").beginArray();
+            for (Client client : clients) {
+                if (client.getRawClientType() == ClientType.ATIS) {
+                    encodeControllerOrAtis(client, true, json);
+                }
+            }
+            json.endArray();
+
+            json.name("servers").beginArray();
+            for (FSDServer server : nonNull(content.getFsdServers())) {
+                encodeServer(server, json);
+            }
+            json.endArray();
+
+            json.name("prefiles").beginArray();
+            for (Client client : clients) {
+                if (client.getRawClientType() == ClientType.PILOT_PREFILED) {
+                    encodePrefile(client, json);
+                }
+            }
+            json.endArray();
+
+            encodeMappings(json);
+
+            json.endObject();
+
+            bw.flush();
+        } catch (Exception ex) {
+            LOGGER.warn("Serialization of JSON v3 DataFile failed", ex);
+        }
+    }
+
+    private static <T> Collection<T> nonNull(Collection<T> collection) {
+        return (collection != null) ? collection : Collections.emptyList();
+    }
+
+    private void encodeGeneralSection(DataFileMetaData metaData, JsonStreamWriter json) throws IOException {
+        if (metaData == null) {
+            metaData = new DataFileMetaData();
+        }
+
+        json.beginObject();
+
+        json.name("version").value(FORMAT_VERSION);
+
+        json.name("reload");
+        Duration retrievalInterval = metaData.getMinimumDataFileRetrievalInterval();
+        if (retrievalInterval == null) {
+            json.nullValue();
+        } else {
+            json.value((long) Math.ceil(retrievalInterval.getSeconds() / 60.0));
+        }
+
+        Instant timestamp = metaData.getTimestamp();
+        json.name("update").value((timestamp == null) ? null : UPDATE_FORMATTER.format(timestamp));
+        json.name("update_timestamp");
+        encodeTimestamp(timestamp, json);
+
+        json.name("connected_clients").value(metaData.getNumberOfConnectedClients());
+        json.name("unique_users").value(metaData.getNumberOfUniqueConnectedUsers());
+
+        json.endObject();
+    }
+
+    private void encodePilot(Client client, JsonStreamWriter json) throws IOException {
+        json.beginObject();
+
+        json.name("cid").value(client.getVatsimID());
+        json.name("name").value(client.getRealName());
+        json.name("callsign").value(client.getCallsign());
+        json.name("server").value(client.getServerId());
+
+        json.name("pilot_rating");
+        encodeMappedId(PILOT_RATINGS.get(client.getPilotRating()), json);
+
+        json.name("military_rating");
+        encodeMappedId(MILITARY_RATINGS.get(client.getMilitaryRating()), json);
+
+        json.name("latitude").value(client.getLatitude());
+        json.name("longitude").value(client.getLongitude());
+        json.name("altitude").value(client.getAltitudeFeet());
+        json.name("groundspeed").value(client.getGroundSpeed());
+
+        json.name("transponder");
+        encodeTransponder(client.getTransponderCodeDecimal(), json);
+
+        json.name("heading").value(orDefaultIfNegative(client.getHeading(), DEFAULT_CLIENT_HEADING));
+        json.name("qnh_i_hg").value(orDefaultIfNaN(client.getQnhInchMercury(), DEFAULT_CLIENT_QNH_INCH_MERCURY));
+        json.name("qnh_mb").value(client.getQnhHectopascal());
+
+        json.name("flight_plan");
+        if (hasFlightPlan(client)) {
+            encodeFlightPlan(client, json);
+        } else {
+            json.nullValue();
+        }
+
+        json.name("logon_time");
+        encodeTimestamp(client.getLogonTime(), json);
+
+        json.name("last_updated");
+        encodeTimestamp(client.getLastUpdated(), json);
+
+        json.endObject();
+    }
+
+    private boolean hasFlightPlan(Client client) {
+        return !isNullOrEmpty(client.getRawFlightPlanType())
+            || !isNullOrEmpty(client.getAircraftType())
+            || !isNullOrEmpty(client.getFiledDepartureAirportCode())
+            || !isNullOrEmpty(client.getFiledDestinationAirportCode())
+            || !isNullOrEmpty(client.getFiledRoute())
+            || (client.getFlightPlanRevision() >= 0);
+    }
+
+    private static boolean isNullOrEmpty(String s) {
+        return (s == null) || s.isEmpty();
+    }
+
+    private void encodeFlightPlan(Client client, JsonStreamWriter json) throws IOException {
+        json.beginObject();
+
+        json.name("flight_rules").value(client.getRawFlightPlanType());
+        json.name("aircraft").value(client.getAircraftType());
+        json.name("aircraft_faa").value(client.getAircraftTypeFaa());
+        json.name("aircraft_short").value(client.getAircraftTypeShort());
+        json.name("departure").value(client.getFiledDepartureAirportCode());
+        json.name("arrival").value(client.getFiledDestinationAirportCode());
+        json.name("alternate").value(client.getFiledAlternateAirportCode());
+
+        json.name("cruise_tas").value(
+            Integer.toString(orDefaultIfNegative(client.getFiledTrueAirSpeed(), DEFAULT_CLIENT_TRUE_AIR_SPEED))
+        );
+        json.name("altitude").value(client.getRawFiledAltitude());
+        json.name("deptime").value(Integer.toString(client.getRawDepartureTimePlanned()));
+
+        json.name("enroute_time");
+        encodeDirectConcatenatedDuration(client.getFiledTimeEnroute(), json);
+
+        json.name("fuel_time");
+        encodeDirectConcatenatedDuration(client.getFiledTimeFuel(), json);
+
+        json.name("remarks").value(client.getFlightPlanRemarks());
+        json.name("route").value(client.getFiledRoute());
+
+        int revision = client.getFlightPlanRevision();
+        if (revision >= 0) {
+            json.name("revision_id").value(revision);
+        }
+
+        int assignedTransponderCode = client.getAssignedTransponderCodeDecimal();
+        if (assignedTransponderCode >= 0) {
+            json.name("assigned_transponder");
+            encodeTransponder(assignedTransponderCode, json);
+        }
+
+        json.endObject();
+    }
+
+    private void encodeControllerOrAtis(Client client, boolean isAtis, JsonStreamWriter json) throws IOException {
+        json.beginObject();
+
+        json.name("cid").value(client.getVatsimID());
+        json.name("name").value(client.getRealName());
+        json.name("callsign").value(client.getCallsign());
+
+        json.name("frequency");
+        int frequency = client.getServedFrequencyKilohertz();
+        if (frequency < 0) {
+            // negative means not set
+            json.nullValue();
+        } else {
+            json.value(String.format(Locale.ROOT, "%d.%03d", frequency / 1000, frequency % 1000));
+        }
+
+        json.name("facility");
+        FacilityType facilityType = client.getFacilityType();
+        if (facilityType == null) {
+            json.nullValue();
+        } else {
+            json.value(facilityType.getLegacyId());
+        }
+
+        json.name("rating");
+        ControllerRating controllerRating = client.getControllerRating();
+        if (controllerRating == null) {
+            json.nullValue();
+        } else {
+            json.value(controllerRating.getLegacyId());
+        }
+
+        json.name("server").value(client.getServerId());
+
+        json.name("visual_range").value(client.getVisualRange());
+
+        if (isAtis) {
+            json.name("atis_code").value(client.getAtisDesignator());
+        }
+
+        json.name("text_atis");
+        encodeControllerMessage(client.getControllerMessage(), json);
+
+        json.name("last_updated");
+        encodeTimestamp(client.getLastUpdated(), json);
+
+        json.name("logon_time");
+        encodeTimestamp(client.getLogonTime(), json);
+
+        json.endObject();
+    }
+
+    private void encodeControllerMessage(String controllerMessage, JsonStreamWriter json) throws IOException {
+        if (isNullOrEmpty(controllerMessage)) {
+            // VATSIM provides null instead of an empty array
+            json.nullValue();
+            return;
+        }
+
+        json.beginArray();
+
+        int lineStart = 0;
+        while (true) {
+            int lineEnd = controllerMessage.indexOf(CONTROLLER_MESSAGE_LINE_SEPARATOR, lineStart);
+            if (lineEnd < 0) {
+                json.value(controllerMessage.substring(lineStart));
+                break;
+            }
+
+            json.value(controllerMessage.substring(lineStart, lineEnd));
+            lineStart = lineEnd + CONTROLLER_MESSAGE_LINE_SEPARATOR.length();
+        }
+
+        json.endArray();
+    }
+
+    private void encodePrefile(Client client, JsonStreamWriter json) throws IOException {
+        json.beginObject();
+
+        json.name("cid").value(client.getVatsimID());
+        json.name("name").value(client.getRealName());
+        json.name("callsign").value(client.getCallsign());
+
+        json.name("flight_plan");
+        encodeFlightPlan(client, json);
+
+        json.name("last_updated");
+        encodeTimestamp(client.getLastUpdated(), json);
+
+        json.endObject();
+    }
+
+    private void encodeServer(FSDServer server, JsonStreamWriter json) throws IOException {
+        json.beginObject();
+
+        json.name("ident").value(server.getId());
+        json.name("hostname_or_ip").value(server.getAddress());
+        json.name("location").value(server.getLocation());
+        json.name("name").value(server.getName());
+        json.name("clients_connection_allowed").value(server.isClientConnectionAllowed() ? 1 : 0);
+        json.name("client_connections_allowed").value(server.isClientConnectionAllowed());
+        json.name("is_sweatbox").value(server.isSweatbox());
+
+        json.endObject();
+    }
+
+    private void encodeMappings(JsonStreamWriter json) throws IOException {
+        json.name("facilities").beginArray();
+        for (FacilityType facilityType : FacilityType.values()) {
+            json.beginObject();
+            json.name("id").value(facilityType.getLegacyId());
+            json.name("short").value(facilityType.getShortName());
+            json.name("long").value(FACILITY_TYPE_LONG_NAMES.get(facilityType));
+            json.endObject();
+        }
+        json.endArray();
+
+        json.name("ratings").beginArray();
+        for (ControllerRating controllerRating : ControllerRating.values()) {
+            json.beginObject();
+            json.name("id").value(controllerRating.getLegacyId());
+            json.name("short").value(controllerRating.getShortName());
+            json.name("long").value(CONTROLLER_RATING_LONG_NAMES.get(controllerRating));
+            json.endObject();
+        }
+        json.endArray();
+
+        json.name("pilot_ratings").beginArray();
+        for (PilotRating pilotRating : PilotRating.values()) {
+            encodeLongKeyMapping(pilotRating.getShortName(), PILOT_RATINGS.get(pilotRating), json);
+        }
+        json.endArray();
+
+        json.name("military_ratings").beginArray();
+        for (MilitaryRating militaryRating : MilitaryRating.values()) {
+            encodeLongKeyMapping(militaryRating.getShortName(), MILITARY_RATINGS.get(militaryRating), json);
+        }
+        json.endArray();
+    }
+
+    private void encodeLongKeyMapping(String shortName, IdAndLongName idAndLongName, JsonStreamWriter json) throws IOException {
+        json.beginObject();
+        json.name("id").value(idAndLongName.id);
+        json.name("short_name").value(shortName);
+        json.name("long_name").value(idAndLongName.longName);
+        json.endObject();
+    }
+
+    private void encodeMappedId(IdAndLongName idAndLongName, JsonStreamWriter json) throws IOException {
+        if (idAndLongName == null) {
+            json.nullValue();
+        } else {
+            json.value(idAndLongName.id);
+        }
+    }
+
+    private void encodeTimestamp(Instant timestamp, JsonStreamWriter json) throws IOException {
+        if (timestamp == null) {
+            json.nullValue();
+        } else {
+            json.value(timestamp.toString());
+        }
+    }
+
+    private static int orDefaultIfNegative(int value, int defaultValue) {
+        // negative means not set
+        return (value < 0) ? defaultValue : value;
+    }
+
+    private static double orDefaultIfNaN(double value, double defaultValue) {
+        // NaN means not set
+        return Double.isNaN(value) ? defaultValue : value;
+    }
+
+    private void encodeTransponder(int transponderCodeDecimal, JsonStreamWriter json) throws IOException {
+        json.value(String.format(
+            Locale.ROOT,
+            "%04d",
+            orDefaultIfNegative(transponderCodeDecimal, DEFAULT_CLIENT_TRANSPONDER)
+        ));
+    }
+
+    private void encodeDirectConcatenatedDuration(Duration duration, JsonStreamWriter json) throws IOException {
+        if (duration == null) {
+            json.nullValue();
+            return;
+        }
+
+        // hours and minutes concatenated as used by VATSIM, e.g. 0130 for 1:30h
+        long minutes = duration.toMinutes();
+        long absoluteMinutes = Math.abs(minutes);
+        json.value(
+            ((minutes < 0) ? "-" : "")
+                + String.format(Locale.ROOT, "%02d%02d", absoluteMinutes / 60, absoluteMinutes % 60)
+        );
+    }
+}
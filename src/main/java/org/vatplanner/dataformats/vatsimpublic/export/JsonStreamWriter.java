@@ -0,0 +1,225 @@
+package org.vatplanner.dataformats.vatsimpublic.export;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Minimal streaming JSON emitter used by {@link JsonDataFileWriter} to write
+ * compact JSON directly to a {@link Writer} without building an object tree
+ * first.
+ *
+ * <p>
+ * Separators are inserted automatically; callers only need to open and close
+ * objects and arrays in the correct order and provide a name before each value
+ * inside an object. Structure is not validated beyond what is needed to place
+ * separators.
+ * </p>
+ *
+ * <p>
+ * Instances are not thread-safe.
+ * </p>
+ */
+class JsonStreamWriter {
+
+    private static final int INITIAL_DEPTH_CAPACITY = 8;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final Writer writer;
+
+    // one flag per nesting level, set once the first element has been written
+    private boolean[] hasElements = new boolean[INITIAL_DEPTH_CAPACITY];
+    private int depth;
+    private boolean expectingValueForName;
+
+    /**
+     * Creates a new emitter writing to the given {@link Writer}.
+     *
+     * @param writer receives JSON output
+     */
+    JsonStreamWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    private void beforeValue() throws IOException {
+        if (expectingValueForName) {
+            // separator has already been written with the name
+            expectingValueForName = false;
+            return;
+        }
+
+        separateElement();
+    }
+
+    private void separateElement() throws IOException {
+        if (depth == 0) {
+            return;
+        }
+
+        if (hasElements[depth - 1]) {
+            writer.write(',');
+        } else {
+            hasElements[depth - 1] = true;
+        }
+    }
+
+    private void open(char ch) throws IOException {
+        beforeValue();
+        writer.write(ch);
+
+        if (depth == hasElements.length) {
+            hasElements = Arrays.copyOf(hasElements, depth * 2);
+        }
+        hasElements[depth++] = false;
+    }
+
+    private void close(char ch) throws IOException {
+        depth--;
+        writer.write(ch);
+    }
+
+    JsonStreamWriter beginObject() throws IOException {
+        open('{');
+        return this;
+    }
+
+    JsonStreamWriter endObject() throws IOException {
+        close('}');
+        return this;
+    }
+
+    JsonStreamWriter beginArray() throws IOException {
+        open('[');
+        return this;
+    }
+
+    JsonStreamWriter endArray() throws IOException {
+        close(']');
+        return this;
+    }
+
+    /**
+     * Writes the name of the next value inside an object.
+     *
+     * @param name name of next value; must not be null
+     * @return this instance for method-chaining
+     * @throws IOException if writing fails
+     */
+    JsonStreamWriter name(String name) throws IOException {
+        separateElement();
+        writeString(name);
+        writer.write(':');
+        expectingValueForName = true;
+        return this;
+    }
+
+    /**
+     * Writes the given string, escaped as needed.
+     *
+     * @param value string to write; null writes a JSON <code>null</code>
+     * @return this instance for method-chaining
+     * @throws IOException if writing fails
+     */
+    JsonStreamWriter value(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+
+        beforeValue();
+        writeString(value);
+        return this;
+    }
+
+    JsonStreamWriter value(long value) throws IOException {
+        beforeValue();
+        writer.write(Long.toString(value));
+        return this;
+    }
+
+    /**
+     * Writes the given floating-point number. JSON is unable to represent NaN
+     * and infinity, so those are written as <code>null</code> instead.
+     *
+     * @param value number to write
+     * @return this instance for method-chaining
+     * @throws IOException if writing fails
+     */
+    JsonStreamWriter value(double value) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return nullValue();
+        }
+
+        beforeValue();
+        writer.write(Double.toString(value));
+        return this;
+    }
+
+    JsonStreamWriter value(boolean value) throws IOException {
+        beforeValue();
+        writer.write(value ? "true" : "false");
+        return this;
+    }
+
+    JsonStreamWriter nullValue() throws IOException {
+        beforeValue();
+        writer.write("null");
+        return this;
+    }
+
+    private void writeString(String s) throws IOException {
+        writer.write('"');
+
+        // write unescaped runs in one call
+        int runStart = 0;
+        int length = s.length();
+        for (int i = 0; i < length; i++) {
+            char ch = s.charAt(i);
+            if ((ch >= 0x20) && (ch != '"') && (ch != '\\')) {
+                continue;
+            }
+
+            writer.write(s, runStart, i - runStart);
+            runStart = i + 1;
+
+            switch (ch) {
+                case '"':
+                    writer.write("\\\"");
+                    break;
+
+                case '\\':
+                    writer.write("\\\\");
+                    break;
+
+                case '\n':
+                    writer.write("\\n");
+                    break;
+
+                case '\r':
+                    writer.write("\\r");
+                    break;
+
+                case '\t':
+                    writer.write("\\t");
+                    break;
+
+                case '\b':
+                    writer.write("\\b");
+                    break;
+
+                case '\f':
+                    writer.write("\\f");
+                    break;
+
+                default:
+                    writer.write("\\u00");
+                    writer.write(HEX_DIGITS[ch >> 4]);
+                    writer.write(HEX_DIGITS[ch & 0xF]);
+                    break;
+            }
+        }
+        writer.write(s, runStart, length - runStart);
+
+        writer.write('"');
+    }
+}
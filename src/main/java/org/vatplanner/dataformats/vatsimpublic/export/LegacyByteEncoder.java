@@ -0,0 +1,320 @@
+package org.vatplanner.dataformats.vatsimpublic.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.text.DecimalFormatSymbols;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Growable ISO-8859-1 byte buffer used by {@link LegacyDataFileWriter} to
+ * encode data files directly to bytes. The buffer is meant to be reused; after
+ * warm-up, encoding does not allocate any objects except for rare fallback
+ * cases.
+ *
+ * <p>
+ * All methods produce exactly the same bytes as appending the equivalent
+ * {@link String} representation to an ISO-8859-1 encoded
+ * {@link java.io.OutputStreamWriter} would: characters which cannot be encoded
+ * are replaced by <code>?</code>, a surrogate pair being replaced by a single
+ * <code>?</code>. Fixed-point numbers are formatted identical to
+ * {@link String#format(String, Object...)} using the default locale.
+ * </p>
+ *
+ * <p>
+ * Instances are not thread-safe.
+ * </p>
+ */
+class LegacyByteEncoder {
+
+    private static final int INITIAL_CAPACITY = 8192;
+
+    private static final byte REPLACEMENT = (byte) '?';
+    private static final char SEPARATOR = ':';
+    private static final byte SEPARATOR_REPLACEMENT = (byte) ' ';
+    private static final char CONTROLLER_MESSAGE_LINEBREAK = '\n';
+    private static final byte[] CONTROLLER_MESSAGE_LINEBREAK_REPLACEMENT = {(byte) 0x5E, (byte) 0xA7};
+
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1000, 10000, 100000};
+
+    // Scaled values below this limit are guaranteed to be off by less than
+    // AMBIGUITY_MARGIN from the decimal representation used by String.format,
+    // so rounding can only differ for values closer to a tie than that.
+    private static final double MAXIMUM_SCALED_VALUE = 1e9;
+    private static final double AMBIGUITY_MARGIN = 1e-6;
+
+    private static final int SECONDS_PER_DAY = 86400;
+    private static final int MINIMUM_FAST_YEAR = 1;
+    private static final int MAXIMUM_FAST_YEAR = 9999;
+
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int size;
+    private boolean isPlainNumberLocale;
+
+    /**
+     * Empties the buffer for reuse, keeping allocated capacity.
+     */
+    void reset() {
+        size = 0;
+        isPlainNumberLocale = checkPlainNumberLocale();
+    }
+
+    private static boolean checkPlainNumberLocale() {
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(Locale.getDefault(Locale.Category.FORMAT));
+        return (symbols.getZeroDigit() == '0') && (symbols.getDecimalSeparator() == '.');
+    }
+
+    /**
+     * Writes all buffered bytes to the given stream.
+     *
+     * @param os stream to write to
+     * @throws IOException if writing fails
+     */
+    void writeTo(OutputStream os) throws IOException {
+        os.write(buffer, 0, size);
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void ensureRemaining(int numBytes) {
+        if (buffer.length - size < numBytes) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + numBytes));
+        }
+    }
+
+    private void put(byte b) {
+        ensureRemaining(1);
+        buffer[size++] = b;
+    }
+
+    /**
+     * Appends a single character.
+     *
+     * @param ch character to append
+     * @return this instance for method-chaining
+     */
+    LegacyByteEncoder append(char ch) {
+        put((ch <= 0xFF) ? (byte) ch : REPLACEMENT);
+        return this;
+    }
+
+    /**
+     * Appends the given text as is.
+     *
+     * @param s text to append; must not be null
+     * @return this instance for method-chaining
+     */
+    LegacyByteEncoder append(CharSequence s) {
+        encode(s, false, false);
+        return this;
+    }
+
+    /**
+     * Appends the given field content, replacing separators by spaces.
+     *
+     * @param s field content to append; null appends nothing
+     * @return this instance for method-chaining
+     */
+    LegacyByteEncoder appendSanitized(String s) {
+        if (s != null) {
+            encode(s, true, false);
+        }
+        return this;
+    }
+
+    /**
+     * Appends the given controller message, replacing line breaks by the legacy
+     * line break sequence and separators by spaces.
+     *
+     * @param s controller message to append; must not be null
+     * @return this instance for method-chaining
+     */
+    LegacyByteEncoder appendControllerMessage(String s) {
+        encode(s, true, true);
+        return this;
+    }
+
+    private void encode(CharSequence s, boolean replaceSeparator, boolean replaceLineBreak) {
+        int length = s.length();
+        ensureRemaining(length);
+
+        for (int i = 0; i < length; i++) {
+            char ch = s.charAt(i);
+            if (ch <= 0xFF) {
+                if (replaceSeparator && (ch == SEPARATOR)) {
+                    buffer[size++] = SEPARATOR_REPLACEMENT;
+                } else if (replaceLineBreak && (ch == CONTROLLER_MESSAGE_LINEBREAK)) {
+                    // replacement needs one byte more than reserved
+                    ensureRemaining(length - i + 1);
+                    buffer[size++] = CONTROLLER_MESSAGE_LINEBREAK_REPLACEMENT[0];
+                    buffer[size++] = CONTROLLER_MESSAGE_LINEBREAK_REPLACEMENT[1];
+                } else {
+                    buffer[size++] = (byte) ch;
+                }
+            } else {
+                buffer[size++] = REPLACEMENT;
+                if (Character.isHighSurrogate(ch) && (i + 1 < length) && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    // a surrogate pair encodes a single character
+                    i++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Appends the decimal representation of the given number, identical to
+     * {@link Long#toString(long)}.
+     *
+     * @param x number to append
+     * @return this instance for method-chaining
+     */
+    LegacyByteEncoder append(long x) {
+        if (x == Long.MIN_VALUE) {
+            return append(Long.toString(x));
+        }
+
+        if (x < 0) {
+            put((byte) '-');
+            x = -x;
+        }
+
+        int numDigits = 1;
+        for (long limit = 10; (numDigits < 19) && (x >= limit); limit *= 10) {
+            numDigits++;
+        }
+
+        ensureRemaining(numDigits);
+        for (int i = size + numDigits - 1; i >= size; i--) {
+            buffer[i] = (byte) ('0' + (x % 10));
+            x /= 10;
+        }
+        size += numDigits;
+
+        return this;
+    }
+
+    /**
+     * Appends the given number zero-padded to the given number of digits,
+     * identical to <code>String.format("%0Nd", x)</code> for a non-negative
+     * number using a plain number locale.
+     *
+     * @param x         non-negative number to append
+     * @param numDigits minimum number of digits
+     */
+    private void appendZeroPadded(long x, int numDigits) {
+        ensureRemaining(numDigits);
+        for (int i = size + numDigits - 1; i >= size; i--) {
+            buffer[i] = (byte) ('0' + (x % 10));
+            x /= 10;
+        }
+        size += numDigits;
+    }
+
+    /**
+     * Appends a frequency in kilohertz as megahertz with three decimals,
+     * identical to <code>String.format("%d.%03d", kHz / 1000, kHz % 1000)</code>.
+     *
+     * @param kilohertz non-negative frequency in kilohertz
+     * @return this instance for method-chaining
+     */
+    LegacyByteEncoder appendFrequency(int kilohertz) {
+        if (!isPlainNumberLocale) {
+            return append(String.format("%d.%03d", kilohertz / 1000, kilohertz % 1000));
+        }
+
+        append(kilohertz / 1000);
+        put((byte) '.');
+        appendZeroPadded(kilohertz % 1000, 3);
+
+        return this;
+    }
+
+    /**
+     * Appends the given number with a fixed number of decimals, identical to
+     * <code>String.format("%.Nf", value)</code>.
+     *
+     * <p>
+     * {@link String#format(String, Object...)} rounds the shortest decimal
+     * representation of a double half-up. Scaling the binary value instead
+     * yields the same result except for values very close to a tie which are
+     * rare enough to be delegated to {@link String#format(String, Object...)}.
+     * </p>
+     *
+     * @param value    number to append
+     * @param decimals number of decimals, at most 5
+     * @return this instance for method-chaining
+     */
+    LegacyByteEncoder appendFixedPoint(double value, int decimals) {
+        long scale = POWERS_OF_TEN[decimals];
+        double scaled = Math.abs(value) * scale;
+        long rounded = (long) scaled;
+        double fraction = scaled - rounded;
+
+        boolean isFastPathApplicable = isPlainNumberLocale
+            && (scaled < MAXIMUM_SCALED_VALUE)
+            && (Math.abs(fraction - 0.5) > AMBIGUITY_MARGIN);
+        if (!isFastPathApplicable) {
+            // also covers NaN and infinity
+            return append(String.format("%." + decimals + "f", value));
+        }
+
+        if (fraction > 0.5) {
+            rounded++;
+        }
+
+        // also applies to negative zero, same as String.format
+        if (Double.compare(value, 0.0) < 0) {
+            put((byte) '-');
+        }
+
+        append(rounded / scale);
+        put((byte) '.');
+        appendZeroPadded(rounded % scale, decimals);
+
+        return this;
+    }
+
+    /**
+     * Appends the given timestamp in UTC as <code>yyyyMMddHHmmss</code>,
+     * identical to formatting it with the given {@link DateTimeFormatter} which
+     * must use that pattern.
+     *
+     * @param timestamp timestamp to append
+     * @param formatter formatter to fall back to for years outside 1..9999
+     * @return this instance for method-chaining
+     */
+    LegacyByteEncoder appendTimestamp(Instant timestamp, DateTimeFormatter formatter) {
+        long epochSecond = timestamp.getEpochSecond();
+        long epochDay = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+        int secondOfDay = (int) Math.floorMod(epochSecond, SECONDS_PER_DAY);
+
+        // civil date from days since epoch, see Howard Hinnant's "chrono-compatible
+        // low-level date algorithms"
+        long shiftedDay = epochDay + 719468;
+        long era = Math.floorDiv(shiftedDay, 146097);
+        long dayOfEra = shiftedDay - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        long day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        long month = (shiftedMonth < 10) ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + ((month <= 2) ? 1 : 0);
+
+        if ((year < MINIMUM_FAST_YEAR) || (year > MAXIMUM_FAST_YEAR)) {
+            return append(formatter.format(timestamp));
+        }
+
+        appendZeroPadded(year, 4);
+        appendZeroPadded(month, 2);
+        appendZeroPadded(day, 2);
+        appendZeroPadded(secondOfDay / 3600, 2);
+        appendZeroPadded((secondOfDay / 60) % 60, 2);
+        appendZeroPadded(secondOfDay % 60, 2);
+
+        return this;
+    }
+}
@@ -10,6 +10,10 @@ import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,6 +29,23 @@ import org.vatplanner.dataformats.vatsimpublic.utils.StringUtils;
 /**
  * Provides serialization for a {@link DataFile} object back to the legacy
  * CSV-like format whose service was officially terminated in March 2021.
+ *
+ * <p>
+ * By default, output is written through a {@link java.io.Writer}. For high
+ * volume exports, {@link #setDirectByteEncoding(boolean)} enables a mode which
+ * encodes directly to reusable ISO-8859-1 byte buffers instead, avoiding most
+ * intermediate objects; clients can additionally be encoded in parallel by
+ * providing an {@link Executor} to {@link #setParallelEncodingExecutor(Executor)}.
+ * Both modes produce byte-identical output. In direct byte encoding mode,
+ * output is only written after all content has been encoded, so nothing is
+ * written if encoding fails.
+ * </p>
+ *
+ * <p>
+ * Writers can be shared by multiple threads once configured. Direct byte
+ * encoding keeps its buffers per thread to reuse them for all following
+ * calls.
+ * </p>
  */
 public class LegacyDataFileWriter implements Writer<DataFile> {
     private static final Logger LOGGER = LoggerFactory.getLogger(LegacyDataFileWriter.class);
@@ -48,13 +69,60 @@ public class LegacyDataFileWriter implements Writer<DataFile> {
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmss")
                                                                              .withZone(ZoneId.of("UTC"));
 
+    // Header as present in last revision (including whitespace). Not sure why this
+    // was kept while other headers had been removed; maybe some client needs these?
+    // Let's do some cargo cult...
+    private static final String LEGACY_CLIENTS_HEADER = "; !CLIENTS section -         "
+        + "callsign:cid:realname:clienttype:frequency:latitude:longitude:altitude:groundspeed:"
+        + "planned_aircraft:planned_tascruise:planned_depairport:planned_altitude:planned_destairport:"
+        + "server:protrevision:rating:transponder:facilitytype:visualrange:"
+        + "planned_revision:planned_flighttype:planned_deptime:planned_actdeptime:planned_hrsenroute:planned_minenroute:"
+        + "planned_hrsfuel:planned_minfuel:planned_altairport:planned_remarks:planned_route:"
+        + "planned_depairport_lat:planned_depairport_lon:planned_destairport_lat:planned_destairport_lon:"
+        + "atis_message:time_last_atis_received:time_logon:heading:QNH_iHg:QNH_Mb:";
+
     private static final String CONTROLLER_MESSAGE_LINEBREAK = new String(
         new byte[]{(byte) 0x5E, (byte) 0xA7},
         Charset.forName("ISO-8859-1")
     );
 
+    private static final int CLIENT_CHUNK_SIZE = 256;
+
     private final String header;
 
+    private boolean directByteEncoding = false;
+    private Executor parallelEncodingExecutor = null;
+
+    private final ThreadLocal<ByteEncodingBuffers> byteEncodingBuffers = ThreadLocal.withInitial(ByteEncodingBuffers::new);
+
+    /**
+     * Buffers reused by all direct byte encodings on the same thread.
+     */
+    private static class ByteEncodingBuffers {
+        private final LegacyByteEncoder head = new LegacyByteEncoder();
+        private final LegacyByteEncoder middle = new LegacyByteEncoder();
+        private final LegacyByteEncoder prefiles = new LegacyByteEncoder();
+        private final List<LegacyByteEncoder> chunks = new ArrayList<>();
+        private final List<Client> onlineClients = new ArrayList<>();
+        private final List<Client> prefiledClients = new ArrayList<>();
+
+        private LegacyByteEncoder getChunk(int index) {
+            while (chunks.size() <= index) {
+                chunks.add(new LegacyByteEncoder());
+            }
+
+            LegacyByteEncoder chunk = chunks.get(index);
+            chunk.reset();
+            return chunk;
+        }
+
+        private void clearClients() {
+            // avoid retaining references to serialized content
+            onlineClients.clear();
+            prefiledClients.clear();
+        }
+    }
+
     public LegacyDataFileWriter() {
         this.header = "";
     }
@@ -84,6 +152,56 @@ public class LegacyDataFileWriter implements Writer<DataFile> {
         return s + LINE_END + COMMENT_PREFIX + LINE_END;
     }
 
+    /**
+     * Enables or disables direct encoding to ISO-8859-1 byte buffers. Output is
+     * identical in both modes. Direct byte encoding is disabled by default.
+     *
+     * @param directByteEncoding true to encode directly to bytes, false to write
+     *                           through a {@link java.io.Writer}
+     * @return this instance for method-chaining
+     */
+    public LegacyDataFileWriter setDirectByteEncoding(boolean directByteEncoding) {
+        this.directByteEncoding = directByteEncoding;
+        return this;
+    }
+
+    /**
+     * Returns whether direct encoding to byte buffers is enabled.
+     *
+     * @return true if encoding directly to bytes, false if writing through a
+     *     {@link java.io.Writer}
+     * @see #setDirectByteEncoding(boolean)
+     */
+    public boolean isDirectByteEncoding() {
+        return directByteEncoding;
+    }
+
+    /**
+     * Sets an executor to encode chunks of clients in parallel on. Only applies
+     * to direct byte encoding; see {@link #setDirectByteEncoding(boolean)}.
+     * Parallel encoding only pays off for large numbers of clients; small data
+     * files are always encoded on the calling thread. Parallel encoding is
+     * disabled by default.
+     *
+     * @param parallelEncodingExecutor executor to encode clients on; null to
+     *                                 encode sequentially
+     * @return this instance for method-chaining
+     */
+    public LegacyDataFileWriter setParallelEncodingExecutor(Executor parallelEncodingExecutor) {
+        this.parallelEncodingExecutor = parallelEncodingExecutor;
+        return this;
+    }
+
+    /**
+     * Returns the executor used to encode clients in parallel.
+     *
+     * @return executor to encode clients on; null if encoding sequentially
+     * @see #setParallelEncodingExecutor(Executor)
+     */
+    public Executor getParallelEncodingExecutor() {
+        return parallelEncodingExecutor;
+    }
+
     private void encodeGeneralSection(DataFile content, BufferedWriter bw) throws IOException {
         // TODO: share constants with parser
 
@@ -155,7 +273,8 @@ public class LegacyDataFileWriter implements Writer<DataFile> {
         bw.append(sanitize(client.getCallsign()));
         bw.append(SEPARATOR);
 
-        bw.append(Integer.toString(client.getVatsimID()));
+        // missing IDs are left empty (negative IDs would not be parseable)
+        bw.append(toStringOrDefaultIfNegative(client.getVatsimID(), ""));
         bw.append(SEPARATOR);
 
         bw.append(sanitize(client.getRealName()));
@@ -197,10 +316,15 @@ public class LegacyDataFileWriter implements Writer<DataFile> {
         bw.append(sanitize(client.getServerId()));
         bw.append(SEPARATOR);
 
-        bw.append(toStringOrDefaultIfNegative(client.getProtocolVersion(), DEFAULT_CLIENT_PROTOCOL_VERSION));
+        boolean isOnline = (client.getRawClientType() != ClientType.PILOT_PREFILED);
+
+        bw.append(toStringOrDefaultIfNegative(
+            client.getProtocolVersion(),
+            isOnline ? DEFAULT_CLIENT_PROTOCOL_VERSION : ""
+        ));
         bw.append(SEPARATOR);
 
-        bw.append(encodeControllerRating(client.getControllerRating()));
+        bw.append(encodeControllerRating(client.getControllerRating(), isOnline));
         bw.append(SEPARATOR);
 
         bw.append(encodeTransponder(client.getTransponderCodeDecimal()));
@@ -354,8 +478,13 @@ public class LegacyDataFileWriter implements Writer<DataFile> {
         return Integer.toString(transponderCodeDecimal);
     }
 
-    private String encodeControllerRating(ControllerRating controllerRating) {
+    private String encodeControllerRating(ControllerRating controllerRating, boolean isOnline) {
         if (controllerRating == null) {
+            if (!isOnline) {
+                // prefiled flight plans must not indicate any rating
+                return "";
+            }
+
             controllerRating = ControllerRating.OBS;
         }
 
@@ -446,27 +575,261 @@ public class LegacyDataFileWriter implements Writer<DataFile> {
         bw.append(LINE_END);
     }
 
+    private void encodeGeneralSection(DataFile content, LegacyByteEncoder out) {
+        DataFileMetaData metaData = content.getMetaData();
+        out.append("!GENERAL:").append(LINE_END);
+
+        out.append("VERSION = ").append(FORMAT_VERSION).append(LINE_END);
+
+        out.append("RELOAD = ")
+           .append((int) Math.ceil(metaData.getMinimumDataFileRetrievalInterval().getSeconds() / 60.0))
+           .append(LINE_END);
+
+        out.append("UPDATE = ").appendTimestamp(metaData.getTimestamp(), TIME_FORMATTER).append(LINE_END);
+
+        out.append("CONNECTED CLIENTS = ").append(metaData.getNumberOfConnectedClients()).append(LINE_END);
+
+        out.append("UNIQUE USERS = ").append(metaData.getNumberOfUniqueConnectedUsers()).append(LINE_END);
+    }
+
+    private void encodeSectionStart(String sectionName, LegacyByteEncoder out) {
+        out.append(COMMENT_PREFIX).append(LINE_END);
+        out.append(COMMENT_PREFIX).append(LINE_END);
+        out.append('!').append(sectionName).append(':').append(LINE_END);
+    }
+
+    private void encodeClient(Client client, LegacyByteEncoder out) {
+        out.appendSanitized(client.getCallsign()).append(SEPARATOR);
+        appendOrDefaultIfNegative(client.getVatsimID(), "", out);
+        out.appendSanitized(client.getRealName()).append(SEPARATOR);
+        out.append(encodeClientType(client.getRawClientType())).append(SEPARATOR);
+
+        int frequency = client.getServedFrequencyKilohertz();
+        if (frequency >= 0) {
+            out.appendFrequency(frequency);
+        }
+        out.append(SEPARATOR);
+
+        encodeCoordinate(client.getLatitude(), out);
+        out.append(SEPARATOR);
+
+        encodeCoordinate(client.getLongitude(), out);
+        out.append(SEPARATOR);
+
+        out.append(client.getAltitudeFeet()).append(SEPARATOR);
+        appendOrDefaultIfNegative(client.getGroundSpeed(), "", out);
+        out.appendSanitized(client.getAircraftType()).append(SEPARATOR);
+        out.append(client.getFiledTrueAirSpeed()).append(SEPARATOR);
+        out.appendSanitized(client.getFiledDepartureAirportCode()).append(SEPARATOR);
+        out.appendSanitized(client.getRawFiledAltitude()).append(SEPARATOR);
+        out.appendSanitized(client.getFiledDestinationAirportCode()).append(SEPARATOR);
+        out.appendSanitized(client.getServerId()).append(SEPARATOR);
+        boolean isOnline = (client.getRawClientType() != ClientType.PILOT_PREFILED);
+        appendOrDefaultIfNegative(client.getProtocolVersion(), isOnline ? DEFAULT_CLIENT_PROTOCOL_VERSION : "", out);
+        ControllerRating controllerRating = client.getControllerRating();
+        if (controllerRating != null) {
+            out.append(controllerRating.getLegacyId());
+        } else if (isOnline) {
+            out.append(ControllerRating.OBS.getLegacyId());
+        }
+        out.append(SEPARATOR);
+        out.append(Math.max(client.getTransponderCodeDecimal(), 0)).append(SEPARATOR);
+        FacilityType facilityType = client.getFacilityType();
+        out.append((facilityType != null) ? facilityType.getLegacyId() : FacilityType.OBSERVER.getLegacyId())
+           .append(SEPARATOR);
+        appendOrDefaultIfNegative(client.getVisualRange(), DEFAULT_CLIENT_VISUAL_RANGE, out);
+        appendOrDefaultIfNegative(client.getFlightPlanRevision(), DEFAULT_CLIENT_FLIGHT_PLAN_REVISION, out);
+        out.appendSanitized(client.getRawFlightPlanType()).append(SEPARATOR);
+        appendOrDefaultIfNegative(client.getRawDepartureTimePlanned(), DEFAULT_CLIENT_DEPARTURE_TIME_PLANNED, out);
+        appendOrDefaultIfNegative(client.getRawDepartureTimeActual(), DEFAULT_CLIENT_DEPARTURE_TIME_ACTUAL, out);
+
+        Duration timeEnroute = client.getFiledTimeEnroute();
+        encodeHours(timeEnroute, out);
+        encodeMinutes(timeEnroute, out);
+
+        Duration timeFuel = client.getFiledTimeFuel();
+        encodeHours(timeFuel, out);
+        encodeMinutes(timeFuel, out);
+
+        out.appendSanitized(client.getFiledAlternateAirportCode()).append(SEPARATOR);
+        out.appendSanitized(client.getFlightPlanRemarks()).append(SEPARATOR);
+        out.appendSanitized(client.getFiledRoute()).append(SEPARATOR);
+
+        // airport coordinates - those were never seen in the wild (always just 0) and
+        // removed from JSON
+        out.append("0:0:0:0:");
+
+        String controllerMessage = client.getControllerMessage();
+        out.appendControllerMessage(controllerMessage).append(SEPARATOR);
+
+        ClientType clientType = client.getRawClientType();
+        boolean isATC = (clientType == ClientType.ATC_CONNECTED) || (clientType == ClientType.ATIS);
+        Instant lastUpdated = client.getLastUpdated();
+        if (isATC && !controllerMessage.isEmpty() && (lastUpdated != null)) {
+            out.appendTimestamp(lastUpdated, TIME_FORMATTER);
+        }
+        out.append(SEPARATOR);
+
+        Instant logonTime = client.getLogonTime();
+        if (isOnline && (logonTime != null)) {
+            out.appendTimestamp(logonTime, TIME_FORMATTER);
+        }
+        out.append(SEPARATOR);
+
+        appendOrDefaultIfNegative(client.getHeading(), DEFAULT_CLIENT_HEADING, out);
+
+        double qnhInchMercury = client.getQnhInchMercury();
+        if (Double.isNaN(qnhInchMercury)) {
+            // NaN is used to indicate that no QNH is available
+            out.append(DEFAULT_CLIENT_QNH_INCH_MERCURY);
+        } else {
+            out.appendFixedPoint(qnhInchMercury, 2);
+        }
+        out.append(SEPARATOR);
+
+        appendOrDefaultIfNegative(client.getQnhHectopascal(), DEFAULT_CLIENT_QNH_HECTOPASCALS, out);
+
+        out.append(LINE_END);
+    }
+
+    private void encodeCoordinate(double coordinate, LegacyByteEncoder out) {
+        // NaN is used to indicate that no coordinate is available
+        if (!Double.isNaN(coordinate)) {
+            out.appendFixedPoint(coordinate, 5);
+        }
+    }
+
+    private void encodeHours(Duration duration, LegacyByteEncoder out) {
+        if (duration != null) {
+            out.append(duration.toHours());
+        }
+        out.append(SEPARATOR);
+    }
+
+    private void encodeMinutes(Duration duration, LegacyByteEncoder out) {
+        if (duration != null) {
+            out.append(duration.toMinutes() % 60);
+        }
+        out.append(SEPARATOR);
+    }
+
+    private void appendOrDefaultIfNegative(int x, String defaultValue, LegacyByteEncoder out) {
+        if (x < 0) {
+            out.append(defaultValue);
+        } else {
+            out.append(x);
+        }
+        out.append(SEPARATOR);
+    }
+
+    private void encodeFsdServer(FSDServer server, LegacyByteEncoder out) {
+        out.appendSanitized(server.getName()).append(SEPARATOR);
+        out.appendSanitized(server.getAddress()).append(SEPARATOR);
+        out.appendSanitized(server.getLocation()).append(SEPARATOR);
+        out.appendSanitized(server.getId()).append(SEPARATOR);
+        out.append(server.isClientConnectionAllowed() ? "1" : "0").append(SEPARATOR);
+        out.append(LINE_END);
+    }
+
+    private void serializeDirectBytes(DataFile content, OutputStream os) throws IOException {
+        ByteEncodingBuffers buffers = byteEncodingBuffers.get();
+        try {
+            LegacyByteEncoder head = buffers.head;
+            head.reset();
+            head.append(header);
+            head.append(LEGACY_CLIENTS_HEADER).append(LINE_END);
+            encodeGeneralSection(content, head);
+            encodeSectionStart("CLIENTS", head);
+
+            LegacyByteEncoder middle = buffers.middle;
+            middle.reset();
+            encodeSectionStart("SERVERS", middle);
+            for (FSDServer server : content.getFsdServers()) {
+                encodeFsdServer(server, middle);
+            }
+            encodeSectionStart("PREFILE", middle);
+
+            Executor executor = parallelEncodingExecutor;
+            boolean isParallel = (executor != null) && (content.getClients().size() > CLIENT_CHUNK_SIZE);
+            if (!isParallel) {
+                // online clients directly follow the head while prefilings are
+                // collected separately, so all clients only need to be iterated once
+                LegacyByteEncoder prefiles = buffers.prefiles;
+                prefiles.reset();
+                for (Client client : content.getClients()) {
+                    encodeClient(client, (client.getRawClientType() == ClientType.PILOT_PREFILED) ? prefiles : head);
+                }
+
+                head.writeTo(os);
+                middle.writeTo(os);
+                prefiles.writeTo(os);
+                return;
+            }
+
+            for (Client client : content.getClients()) {
+                if (client.getRawClientType() == ClientType.PILOT_PREFILED) {
+                    buffers.prefiledClients.add(client);
+                } else {
+                    buffers.onlineClients.add(client);
+                }
+            }
+
+            List<LegacyByteEncoder> onlineChunks = new ArrayList<>();
+            List<LegacyByteEncoder> prefiledChunks = new ArrayList<>();
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            int numChunks = submitChunks(buffers.onlineClients, buffers, 0, onlineChunks, futures, executor);
+            submitChunks(buffers.prefiledClients, buffers, numChunks, prefiledChunks, futures, executor);
+
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+            head.writeTo(os);
+            for (LegacyByteEncoder chunk : onlineChunks) {
+                chunk.writeTo(os);
+            }
+            middle.writeTo(os);
+            for (LegacyByteEncoder chunk : prefiledChunks) {
+                chunk.writeTo(os);
+            }
+        } finally {
+            buffers.clearClients();
+        }
+    }
+
+    private int submitChunks(List<Client> clients, ByteEncodingBuffers buffers, int firstChunkIndex, List<LegacyByteEncoder> chunks, List<CompletableFuture<Void>> futures, Executor executor) {
+        int chunkIndex = firstChunkIndex;
+        for (int start = 0; start < clients.size(); start += CLIENT_CHUNK_SIZE) {
+            List<Client> chunkClients = clients.subList(start, Math.min(start + CLIENT_CHUNK_SIZE, clients.size()));
+            LegacyByteEncoder chunk = buffers.getChunk(chunkIndex++);
+            chunks.add(chunk);
+            futures.add(CompletableFuture.runAsync(() -> {
+                for (Client client : chunkClients) {
+                    encodeClient(client, chunk);
+                }
+            }, executor));
+        }
+
+        return chunkIndex;
+    }
+
     @Override
     public void serialize(DataFile content, OutputStream os) {
+        if (directByteEncoding) {
+            try {
+                serializeDirectBytes(content, os);
+                os.flush();
+            } catch (Exception ex) {
+                LOGGER.warn("Serialization of legacy DataFile failed", ex);
+            }
+            return;
+        }
+
         try {
             OutputStreamWriter osw = new OutputStreamWriter(os, StandardCharsets.ISO_8859_1);
             BufferedWriter bw = new BufferedWriter(osw);
 
             bw.append(header);
 
-            // Header as present in last revision (including whitespace). Not sure why this
-            // was kept while other headers had been removed; maybe some client needs these?
-            // Let's do some cargo cult...
-            bw.append(
-                "; !CLIENTS section -         "
-                    + "callsign:cid:realname:clienttype:frequency:latitude:longitude:altitude:groundspeed:"
-                    + "planned_aircraft:planned_tascruise:planned_depairport:planned_altitude:planned_destairport:"
-                    + "server:protrevision:rating:transponder:facilitytype:visualrange:"
-                    + "planned_revision:planned_flighttype:planned_deptime:planned_actdeptime:planned_hrsenroute:planned_minenroute:"
-                    + "planned_hrsfuel:planned_minfuel:planned_altairport:planned_remarks:planned_route:"
-                    + "planned_depairport_lat:planned_depairport_lon:planned_destairport_lat:planned_destairport_lon:"
-                    + "atis_message:time_last_atis_received:time_logon:heading:QNH_iHg:QNH_Mb:"
-            );
+            bw.append(LEGACY_CLIENTS_HEADER);
             bw.append(LINE_END);
 
             encodeGeneralSection(content, bw);
@@ -0,0 +1,75 @@
+package org.vatplanner.dataformats.vatsimpublic.export;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns sequential indices to strings for dictionary encoding by
+ * {@link ColumnarGraphWriter}. Entries added since the last call to
+ * {@link #writePendingEntries(DataOutputStream)} are remembered so the
+ * dictionary can be written incrementally ahead of the row groups referring to
+ * it.
+ *
+ * <p>
+ * Instances are not thread-safe.
+ * </p>
+ */
+class StringDictionary {
+
+    /**
+     * Index used to encode null.
+     */
+    static final int NULL_INDEX = -1;
+
+    private final Map<String, Integer> indexByString = new HashMap<>();
+    private final List<String> pendingEntries = new ArrayList<>();
+
+    /**
+     * Returns the index of the given string, adding it to the dictionary if
+     * needed.
+     *
+     * @param s string to encode; may be null
+     * @return index of the string; {@link #NULL_INDEX} for null
+     */
+    int encode(String s) {
+        if (s == null) {
+            return NULL_INDEX;
+        }
+
+        Integer index = indexByString.get(s);
+        if (index == null) {
+            index = indexByString.size();
+            indexByString.put(s, index);
+            pendingEntries.add(s);
+        }
+
+        return index;
+    }
+
+    int size() {
+        return indexByString.size();
+    }
+
+    boolean hasPendingEntries() {
+        return !pendingEntries.isEmpty();
+    }
+
+    /**
+     * Writes all entries added since the last call, continuing the indices of
+     * previously written entries.
+     *
+     * @param out stream to write to
+     * @throws IOException if writing fails
+     */
+    void writePendingEntries(DataOutputStream out) throws IOException {
+        out.writeInt(pendingEntries.size());
+        for (String entry : pendingEntries) {
+            out.writeUTF(entry);
+        }
+        pendingEntries.clear();
+    }
+}
@@ -0,0 +1,173 @@
+package org.vatplanner.dataformats.vatsimpublic.extraction;
+
+import org.vatplanner.dataformats.vatsimpublic.icao.ICAOField10PBNParser;
+import org.vatplanner.dataformats.vatsimpublic.utils.MemoizingCache;
+
+/**
+ * Memoizes extractors and parsers by their raw input. Flight plan fields such
+ * as aircraft type/equipment (<code>A20N/M-SDE2E3FGHIJ1RWXY/LB1</code>),
+ * altitude (<code>FL350</code>) or remarks (<code>/V/</code>) repeat a lot
+ * across pilots and reports, so results of all regular expressions run by the
+ * extractors can be reused instead of being recomputed for every occurrence.
+ *
+ * <p>
+ * All extractors are immutable after construction, so cached instances can be
+ * shared freely. Instances of this class are thread-safe and can be shared by
+ * multiple imports.
+ * </p>
+ *
+ * <p>
+ * Each extractor type is held in a separate bounded cache; hit rates can be
+ * retrieved individually for monitoring.
+ * </p>
+ */
+public class ExtractorCache {
+
+    /**
+     * Default maximum number of entries per extractor type.
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 10000;
+
+    private final MemoizingCache<String, AltitudeParser> altitudeParsers;
+    private final MemoizingCache<String, RemarksExtractor> remarksExtractors;
+    private final MemoizingCache<String, AircraftTypeExtractor> aircraftTypeExtractors;
+    private final MemoizingCache<String, ICAOField10PBNParser> icaoField10PBNParsers;
+
+    /**
+     * Creates a new cache holding at most {@link #DEFAULT_MAXIMUM_SIZE} entries
+     * per extractor type.
+     */
+    public ExtractorCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Creates a new cache holding at most the given number of entries per
+     * extractor type.
+     *
+     * @param maximumSize maximum number of entries per extractor type; must be
+     *                    positive
+     */
+    public ExtractorCache(int maximumSize) {
+        altitudeParsers = new MemoizingCache<>(maximumSize);
+        remarksExtractors = new MemoizingCache<>(maximumSize);
+        aircraftTypeExtractors = new MemoizingCache<>(maximumSize);
+        icaoField10PBNParsers = new MemoizingCache<>(maximumSize);
+    }
+
+    /**
+     * Returns an {@link AltitudeParser} for the given raw altitude.
+     *
+     * @param s raw altitude as filed
+     * @return parser holding result for given input
+     */
+    public AltitudeParser getAltitudeParser(String s) {
+        return altitudeParsers.get(s, AltitudeParser::new);
+    }
+
+    /**
+     * Returns a {@link RemarksExtractor} for the given flight plan remarks.
+     *
+     * @param s flight plan remarks
+     * @return extractor holding result for given input
+     */
+    public RemarksExtractor getRemarksExtractor(String s) {
+        return remarksExtractors.get(s, RemarksExtractor::new);
+    }
+
+    /**
+     * Returns an {@link AircraftTypeExtractor} for the given aircraft type field.
+     *
+     * @param s aircraft type field as provided by data files
+     * @return extractor holding result for given input
+     */
+    public AircraftTypeExtractor getAircraftTypeExtractor(String s) {
+        return aircraftTypeExtractors.get(s, AircraftTypeExtractor::new);
+    }
+
+    /**
+     * Returns an {@link ICAOField10PBNParser} for the given combined field 10
+     * information.
+     *
+     * @param s combined field 10 information; may be null
+     * @return parser holding result for given input
+     */
+    public ICAOField10PBNParser getICAOField10PBNParser(String s) {
+        return icaoField10PBNParsers.get(s, ICAOField10PBNParser::new);
+    }
+
+    /**
+     * Returns the cache used for {@link AltitudeParser}s, e.g. to query
+     * statistics.
+     *
+     * @return cache used for {@link AltitudeParser}s
+     */
+    public MemoizingCache<String, AltitudeParser> getAltitudeParsers() {
+        return altitudeParsers;
+    }
+
+    /**
+     * Returns the cache used for {@link RemarksExtractor}s, e.g. to query
+     * statistics.
+     *
+     * @return cache used for {@link RemarksExtractor}s
+     */
+    public MemoizingCache<String, RemarksExtractor> getRemarksExtractors() {
+        return remarksExtractors;
+    }
+
+    /**
+     * Returns the cache used for {@link AircraftTypeExtractor}s, e.g. to query
+     * statistics.
+     *
+     * @return cache used for {@link AircraftTypeExtractor}s
+     */
+    public MemoizingCache<String, AircraftTypeExtractor> getAircraftTypeExtractors() {
+        return aircraftTypeExtractors;
+    }
+
+    /**
+     * Returns the cache used for {@link ICAOField10PBNParser}s, e.g. to query
+     * statistics.
+     *
+     * @return cache used for {@link ICAOField10PBNParser}s
+     */
+    public MemoizingCache<String, ICAOField10PBNParser> getICAOField10PBNParsers() {
+        return icaoField10PBNParsers;
+    }
+
+    /**
+     * Returns the combined hit rate over all extractor types.
+     *
+     * @return ratio of cache hits over all extractor types (0.0..1.0); 0.0 if no
+     *     lookups have been performed yet
+     */
+    public double getHitRate() {
+        long hits = altitudeParsers.getHits()
+            + remarksExtractors.getHits()
+            + aircraftTypeExtractors.getHits()
+            + icaoField10PBNParsers.getHits();
+
+        long total = hits
+            + altitudeParsers.getMisses()
+            + remarksExtractors.getMisses()
+            + aircraftTypeExtractors.getMisses()
+            + icaoField10PBNParsers.getMisses();
+
+        if (total == 0) {
+            return 0.0;
+        }
+
+        return (double) hits / total;
+    }
+
+    /**
+     * Removes all cached extractors and resets statistics.
+     */
+    public void clear() {
+        altitudeParsers.clear();
+        remarksExtractors.clear();
+        aircraftTypeExtractors.clear();
+        icaoField10PBNParsers.clear();
+    }
+}
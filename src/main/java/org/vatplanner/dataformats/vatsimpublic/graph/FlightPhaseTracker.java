@@ -0,0 +1,344 @@
+package org.vatplanner.dataformats.vatsimpublic.graph;
+
+import static java.util.Collections.unmodifiableList;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.vatplanner.dataformats.vatsimpublic.entities.status.FlightPhase;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.GeoCoordinates;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.TrackPoint;
+
+/**
+ * Incrementally determines the {@link FlightPhase} of a single flight from its
+ * track points. Each track point is processed in O(1) by only comparing it to
+ * the state held from previous track points; the track is never searched.
+ *
+ * <p>
+ * Phase changes use hysteresis: A change between ground and air needs to be
+ * confirmed by {@link #CONFIRMATION_TRACK_POINTS} consecutive track points and
+ * uses different speed thresholds depending on direction. Changes between
+ * climb, cruise and descent also need to be confirmed and use separate
+ * thresholds for entering and leaving a climb or descent. Track points which do
+ * not indicate ground speed neither confirm nor reject a pending change.
+ * </p>
+ *
+ * <p>
+ * Track points are expected to be processed in chronological order. Instances
+ * are not thread-safe.
+ * </p>
+ */
+class FlightPhaseTracker {
+
+    /**
+     * Number of consecutive track points needed to confirm a phase change.
+     */
+    static final int CONFIRMATION_TRACK_POINTS = 2;
+
+    /**
+     * Lowest ground speed in knots to consider an airplane to be airborne
+     * (obviously does not apply to rotary-wing aircraft such as helicopters). While
+     * minimum airborne IAS for airplanes is usually around 70kt, we only have
+     * ground speed and need to take typical wind speeds into account which are
+     * subtracted from IAS.
+     */
+    private static final int MINIMUM_GROUND_SPEED_AIRBORNE = 50;
+
+    /**
+     * Highest ground speed in knots to consider an airborne airplane to have
+     * landed. Lower than {@link #MINIMUM_GROUND_SPEED_AIRBORNE} so that aircraft
+     * moving close to the threshold do not toggle between ground and air.
+     */
+    private static final int MAXIMUM_GROUND_SPEED_LANDED = 40;
+
+    /**
+     * Height in feet above the departure altitude up to which a departing flight
+     * remains in {@link FlightPhase#TAKEOFF}.
+     */
+    private static final int MAXIMUM_TAKEOFF_HEIGHT_FEET = 1500;
+
+    /**
+     * Vertical speed in feet per minute needed to enter a climb or descent.
+     */
+    private static final double MINIMUM_VERTICAL_SPEED_ENTER = 500.0;
+
+    /**
+     * Vertical speed in feet per minute needed to remain in a climb or descent.
+     */
+    private static final double MINIMUM_VERTICAL_SPEED_REMAIN = 250.0;
+
+    private static final double SECONDS_PER_MINUTE = 60.0;
+
+    private static final int UNKNOWN_ALTITUDE = Integer.MIN_VALUE;
+
+    /**
+     * Transitions between ground and air as observed on a processed track point.
+     */
+    enum Transition {
+        /**
+         * No transition between ground and air has occurred.
+         */
+        NONE,
+
+        /**
+         * The flight has been confirmed to be airborne for the first time.
+         */
+        DEPARTED,
+
+        /**
+         * The flight has been confirmed to be on ground again after it was
+         * airborne.
+         */
+        LANDED,
+
+        /**
+         * The flight has been confirmed to be airborne again after it has already
+         * landed; this is a new flight.
+         */
+        DEPARTED_AGAIN;
+    }
+
+    private FlightPhase phase;
+    private TrackPoint lastTrackPoint;
+    private int groundAltitudeFeet = UNKNOWN_ALTITUDE;
+
+    // pending change between ground and air
+    private final List<TrackPoint> pendingTrackPoints = new ArrayList<>();
+    private int pendingConfirmations;
+    private TrackPoint trackPointBeforePending;
+
+    // pending change between climb, cruise and descent
+    private FlightPhase pendingVerticalPhase;
+    private int pendingVerticalConfirmations;
+
+    private final List<TrackPoint> eventTrackPoints = new ArrayList<>();
+    private TrackPoint trackPointBeforeEvent;
+
+    /**
+     * Returns the current phase.
+     *
+     * @return current phase; null if no track point indicating a ground speed has
+     *     been processed yet
+     */
+    FlightPhase getPhase() {
+        return phase;
+    }
+
+    /**
+     * Returns all track points which have been processed since the flight was
+     * first observed in the state confirmed by the latest transition, in
+     * chronological order. The first track point marks the event of the
+     * transition; the last track point is the one which confirmed it.
+     *
+     * @return track points from event up to confirmation of latest transition;
+     *     empty if last processed track point caused no transition
+     */
+    List<TrackPoint> getEventTrackPoints() {
+        return unmodifiableList(eventTrackPoints);
+    }
+
+    /**
+     * Returns the track point which has been processed just before the event of
+     * the latest transition.
+     *
+     * @return track point processed before event; null if unavailable or last
+     *     processed track point caused no transition
+     */
+    TrackPoint getTrackPointBeforeEvent() {
+        return trackPointBeforeEvent;
+    }
+
+    /**
+     * Processes the next track point of the flight.
+     *
+     * @param trackPoint next track point; must be recorded after all previously
+     *                   processed track points
+     * @return transition confirmed by the given track point
+     */
+    Transition update(TrackPoint trackPoint) {
+        eventTrackPoints.clear();
+        trackPointBeforeEvent = null;
+
+        Transition transition = updateGroundState(trackPoint);
+        if ((transition == Transition.NONE) && (phase != null) && phase.isAirborne()) {
+            updateVerticalPhase(trackPoint);
+        }
+
+        lastTrackPoint = trackPoint;
+
+        return transition;
+    }
+
+    private Transition updateGroundState(TrackPoint trackPoint) {
+        int groundSpeed = trackPoint.getGroundSpeed();
+        if (groundSpeed < 0) {
+            // no evidence either way
+            if (!pendingTrackPoints.isEmpty()) {
+                pendingTrackPoints.add(trackPoint);
+            }
+            return Transition.NONE;
+        }
+
+        if (phase == null) {
+            // first observation cannot be confirmed by anything earlier
+            if (groundSpeed >= MINIMUM_GROUND_SPEED_AIRBORNE) {
+                // vertical movement is unknown until next track point
+                phase = FlightPhase.CRUISE;
+                eventTrackPoints.add(trackPoint);
+                return Transition.DEPARTED;
+            }
+
+            phase = FlightPhase.TAXI;
+            groundAltitudeFeet = getAltitudeFeet(trackPoint);
+            return Transition.NONE;
+        }
+
+        boolean indicatesChange = phase.isAirborne()
+            ? (groundSpeed < MAXIMUM_GROUND_SPEED_LANDED)
+            : (groundSpeed >= MINIMUM_GROUND_SPEED_AIRBORNE);
+
+        if (!indicatesChange) {
+            pendingTrackPoints.clear();
+            pendingConfirmations = 0;
+
+            if (!phase.isAirborne()) {
+                updateGroundAltitude(trackPoint);
+            }
+
+            return Transition.NONE;
+        }
+
+        if (pendingTrackPoints.isEmpty()) {
+            trackPointBeforePending = lastTrackPoint;
+        }
+        pendingTrackPoints.add(trackPoint);
+        pendingConfirmations++;
+
+        if (pendingConfirmations < CONFIRMATION_TRACK_POINTS) {
+            return Transition.NONE;
+        }
+
+        eventTrackPoints.addAll(pendingTrackPoints);
+        trackPointBeforeEvent = trackPointBeforePending;
+        pendingTrackPoints.clear();
+        pendingConfirmations = 0;
+        trackPointBeforePending = null;
+        pendingVerticalPhase = null;
+        pendingVerticalConfirmations = 0;
+
+        if (phase.isAirborne()) {
+            phase = FlightPhase.LANDED;
+            groundAltitudeFeet = getAltitudeFeet(eventTrackPoints.get(0));
+            return Transition.LANDED;
+        }
+
+        boolean hasLandedBefore = (phase == FlightPhase.LANDED);
+        if (trackPointBeforeEvent != null) {
+            updateGroundAltitude(trackPointBeforeEvent);
+        }
+        phase = (groundAltitudeFeet != UNKNOWN_ALTITUDE) ? classifyTakeoff(trackPoint) : FlightPhase.CLIMB;
+
+        return hasLandedBefore ? Transition.DEPARTED_AGAIN : Transition.DEPARTED;
+    }
+
+    private void updateVerticalPhase(TrackPoint trackPoint) {
+        if (phase == FlightPhase.TAKEOFF) {
+            phase = classifyTakeoff(trackPoint);
+            return;
+        }
+
+        double verticalSpeed = getVerticalSpeedFeetPerMinute(lastTrackPoint, trackPoint);
+        if (Double.isNaN(verticalSpeed)) {
+            return;
+        }
+
+        FlightPhase indicatedPhase = classifyVerticalSpeed(verticalSpeed);
+        if (indicatedPhase == phase) {
+            pendingVerticalPhase = null;
+            pendingVerticalConfirmations = 0;
+            return;
+        }
+
+        if (indicatedPhase != pendingVerticalPhase) {
+            pendingVerticalPhase = indicatedPhase;
+            pendingVerticalConfirmations = 0;
+        }
+
+        pendingVerticalConfirmations++;
+        if (pendingVerticalConfirmations >= CONFIRMATION_TRACK_POINTS) {
+            phase = indicatedPhase;
+            pendingVerticalPhase = null;
+            pendingVerticalConfirmations = 0;
+        }
+    }
+
+    private FlightPhase classifyTakeoff(TrackPoint trackPoint) {
+        int altitudeFeet = getAltitudeFeet(trackPoint);
+        if ((altitudeFeet == UNKNOWN_ALTITUDE)
+            || (altitudeFeet - groundAltitudeFeet < MAXIMUM_TAKEOFF_HEIGHT_FEET)) {
+            return FlightPhase.TAKEOFF;
+        }
+
+        return FlightPhase.CLIMB;
+    }
+
+    private FlightPhase classifyVerticalSpeed(double verticalSpeed) {
+        if ((phase == FlightPhase.CLIMB) && (verticalSpeed >= MINIMUM_VERTICAL_SPEED_REMAIN)) {
+            return FlightPhase.CLIMB;
+        }
+
+        if ((phase == FlightPhase.DESCENT) && (verticalSpeed <= -MINIMUM_VERTICAL_SPEED_REMAIN)) {
+            return FlightPhase.DESCENT;
+        }
+
+        if (verticalSpeed >= MINIMUM_VERTICAL_SPEED_ENTER) {
+            return FlightPhase.CLIMB;
+        }
+
+        if (verticalSpeed <= -MINIMUM_VERTICAL_SPEED_ENTER) {
+            return FlightPhase.DESCENT;
+        }
+
+        return FlightPhase.CRUISE;
+    }
+
+    private void updateGroundAltitude(TrackPoint trackPoint) {
+        int altitudeFeet = getAltitudeFeet(trackPoint);
+        if (altitudeFeet != UNKNOWN_ALTITUDE) {
+            groundAltitudeFeet = altitudeFeet;
+        }
+    }
+
+    private static double getVerticalSpeedFeetPerMinute(TrackPoint previous, TrackPoint current) {
+        if (previous == null) {
+            return Double.NaN;
+        }
+
+        int previousAltitudeFeet = getAltitudeFeet(previous);
+        int currentAltitudeFeet = getAltitudeFeet(current);
+        if ((previousAltitudeFeet == UNKNOWN_ALTITUDE) || (currentAltitudeFeet == UNKNOWN_ALTITUDE)) {
+            return Double.NaN;
+        }
+
+        Duration duration = Duration.between(
+            previous.getReport().getRecordTime(),
+            current.getReport().getRecordTime()
+        );
+        if (duration.isNegative() || duration.isZero()) {
+            return Double.NaN;
+        }
+
+        double minutes = duration.toMillis() / 1000.0 / SECONDS_PER_MINUTE;
+        return (currentAltitudeFeet - previousAltitudeFeet) / minutes;
+    }
+
+    private static int getAltitudeFeet(TrackPoint trackPoint) {
+        GeoCoordinates coordinates = trackPoint.getGeoCoordinates();
+        if (coordinates == null) {
+            return UNKNOWN_ALTITUDE;
+        }
+
+        return coordinates.getAltitudeFeet();
+    }
+}
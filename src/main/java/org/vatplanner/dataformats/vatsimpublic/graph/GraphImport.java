@@ -8,15 +8,16 @@ import static org.vatplanner.dataformats.vatsimpublic.parser.ClientType.ATC_CONN
 import static org.vatplanner.dataformats.vatsimpublic.parser.ClientType.ATIS;
 import static org.vatplanner.dataformats.vatsimpublic.parser.ClientType.PILOT_CONNECTED;
 import static org.vatplanner.dataformats.vatsimpublic.parser.ClientType.PILOT_PREFILED;
-import static org.vatplanner.dataformats.vatsimpublic.utils.CollectionHelpers.findPrevious;
 import static org.vatplanner.dataformats.vatsimpublic.utils.TimeHelpers.findClosestPlausibleTimestampForFlightPlanField;
 import static org.vatplanner.dataformats.vatsimpublic.utils.TimeHelpers.isLessOrEqualThan;
 import static org.vatplanner.dataformats.vatsimpublic.utils.ValueHelpers.inRange;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.function.Predicate;
@@ -25,10 +26,12 @@ import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.vatplanner.dataformats.vatsimpublic.entities.TimeSpan;
 import org.vatplanner.dataformats.vatsimpublic.entities.status.BarometricPressure;
 import org.vatplanner.dataformats.vatsimpublic.entities.status.CommunicationMode;
 import org.vatplanner.dataformats.vatsimpublic.entities.status.Connection;
 import org.vatplanner.dataformats.vatsimpublic.entities.status.Facility;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.FacilityMessageStore;
 import org.vatplanner.dataformats.vatsimpublic.entities.status.Flight;
 import org.vatplanner.dataformats.vatsimpublic.entities.status.FlightEvent;
 import org.vatplanner.dataformats.vatsimpublic.entities.status.FlightPlan;
@@ -41,9 +44,9 @@ import org.vatplanner.dataformats.vatsimpublic.entities.status.StatusEntityFacto
 import org.vatplanner.dataformats.vatsimpublic.entities.status.TrackPoint;
 import org.vatplanner.dataformats.vatsimpublic.entities.status.WakeTurbulenceCategory;
 import org.vatplanner.dataformats.vatsimpublic.extraction.AircraftTypeExtractor;
-import org.vatplanner.dataformats.vatsimpublic.extraction.AltitudeParser;
+import org.vatplanner.dataformats.vatsimpublic.extraction.ExtractorCache;
 import org.vatplanner.dataformats.vatsimpublic.extraction.RealNameHomeBaseExtractor;
-import org.vatplanner.dataformats.vatsimpublic.extraction.RemarksExtractor;
+import org.vatplanner.dataformats.vatsimpublic.graph.FlightPhaseTracker.Transition;
 import org.vatplanner.dataformats.vatsimpublic.icao.CommunicationCapability;
 import org.vatplanner.dataformats.vatsimpublic.icao.ICAOField10PBNParser;
 import org.vatplanner.dataformats.vatsimpublic.icao.NavigationApproachCapability;
@@ -51,6 +54,8 @@ import org.vatplanner.dataformats.vatsimpublic.parser.Client;
 import org.vatplanner.dataformats.vatsimpublic.parser.ClientType;
 import org.vatplanner.dataformats.vatsimpublic.parser.DataFile;
 import org.vatplanner.dataformats.vatsimpublic.parser.DataFileMetaData;
+import org.vatplanner.dataformats.vatsimpublic.parser.vatspy.Airport;
+import org.vatplanner.dataformats.vatsimpublic.spatial.SphericalKdTree;
 import org.vatplanner.dataformats.vatsimpublic.utils.TimeHelpers;
 
 /**
@@ -62,7 +67,11 @@ public class GraphImport {
     private static final Logger LOGGER = LoggerFactory.getLogger(GraphImport.class);
 
     private final StatusEntityFactory entityFactory;
+    private final ExtractorCache extractorCache;
+    private final FacilityMessageStore facilityMessageStore;
+    private SphericalKdTree<Airport> airportIndex;
     private final GraphIndex index = new GraphIndex();
+    private final Map<Flight, FlightPhaseTracker> phaseTrackers = new HashMap<>();
 
     /*
      * TODO: fine-tune and/or make configurable; compensate for missed data files as
@@ -85,15 +94,6 @@ public class GraphImport {
 
     private static final double FACTOR_KPH_TO_NM = 0.539957;
 
-    /**
-     * Lowest ground speed in knots to consider an airplane to be airborne
-     * (obviously does not apply to rotary-wing aircraft such as helicopters). While
-     * minimum airborne IAS for airplanes is usually around 70kt, we only have
-     * ground speed and need to take typical wind speeds into account which are
-     * subtracted from IAS.
-     */
-    private static final int MINIMUM_GROUND_SPEED_AIRBORNE = 50;
-
     /**
      * According to Wikipedia the fastest airplane so far flew with ~3500kph "air
      * speed" (IAS? TAS?). We add a bit of extra for ground speed and allow some
@@ -111,6 +111,12 @@ public class GraphImport {
     private static final Duration MAXIMUM_FLIGHT_DURATION = Duration.ofHours(48); /* ... let's allow some in-air
                                                                                      refueling because we are simming */
 
+    /**
+     * Maximum distance of a ground event (departure, landing) to an airport to
+     * label the event with that airport.
+     */
+    private static final double MAXIMUM_EVENT_AIRPORT_DISTANCE_NAUTICAL_MILES = 5.0;
+
     private static final Pattern PATTERN_VALID_TRANSPONDER_CODE = Pattern.compile("^[0-7]{0,4}$");
 
     /**
@@ -130,7 +136,35 @@ public class GraphImport {
      * @param entityFactory factory to instantiate entities
      */
     public GraphImport(StatusEntityFactory entityFactory) {
+        this(entityFactory, new ExtractorCache());
+    }
+
+    /**
+     * Creates a new graph import using the given factory to instantiate entities.
+     * Flight plan information is decoded through the given {@link ExtractorCache}
+     * which may be shared with other imports.
+     *
+     * @param entityFactory  factory to instantiate entities
+     * @param extractorCache cache to decode flight plan information through
+     */
+    public GraphImport(StatusEntityFactory entityFactory, ExtractorCache extractorCache) {
+        this(entityFactory, extractorCache, new FacilityMessageStore());
+    }
+
+    /**
+     * Creates a new graph import using the given factory to instantiate entities.
+     * Flight plan information is decoded through the given {@link ExtractorCache}
+     * and facility messages are de-duplicated through the given
+     * {@link FacilityMessageStore}; both may be shared with other imports.
+     *
+     * @param entityFactory        factory to instantiate entities
+     * @param extractorCache       cache to decode flight plan information through
+     * @param facilityMessageStore store to de-duplicate facility messages through
+     */
+    public GraphImport(StatusEntityFactory entityFactory, ExtractorCache extractorCache, FacilityMessageStore facilityMessageStore) {
         this.entityFactory = entityFactory;
+        this.extractorCache = extractorCache;
+        this.facilityMessageStore = facilityMessageStore;
     }
 
     /**
@@ -174,9 +208,42 @@ public class GraphImport {
             importClient(report, client);
         }
 
+        updateTimeIndexes(report);
+        pruneFlightPhaseTrackers(report);
+
         return report;
     }
 
+    private void updateTimeIndexes(final Report report) {
+        Instant recordTime = report.getRecordTime();
+
+        TimeIntervalIndex<Connection> connectionTimeIndex = index.getConnectionTimeIndex();
+
+        TimeIntervalIndex<Flight> flightTimeIndex = index.getFlightTimeIndex();
+        for (Flight flight : report.getFlights()) {
+            flightTimeIndex.expandTo(flight, recordTime);
+
+            Connection connection = flight.getLatestConnection();
+            if ((connection != null) && (connection.getLastReport() == report)) {
+                // flights split from a connection (second takeoff) do not start at logon
+                if (connection.getFirstReport() == report) {
+                    flightTimeIndex.expandTo(flight, connection.getLogonTime());
+                }
+                connectionTimeIndex.expandTo(connection, connection.getLogonTime())
+                                   .expandTo(connection, recordTime);
+            }
+        }
+
+        TimeIntervalIndex<Facility> facilityTimeIndex = index.getFacilityTimeIndex();
+        for (Facility facility : report.getFacilities()) {
+            Connection connection = facility.getConnection();
+            facilityTimeIndex.expandTo(facility, connection.getLogonTime())
+                             .expandTo(facility, recordTime);
+            connectionTimeIndex.expandTo(connection, connection.getLogonTime())
+                               .expandTo(connection, recordTime);
+        }
+    }
+
     private void importClient(final Report report, final Client client) {
         // ignore system services
         if (isSystemService(client)) {
@@ -255,7 +322,7 @@ public class GraphImport {
         report.addFacility(facility);
         facility.getConnection().seenInReport(report);
         facility.seenOnFrequencyKilohertz(client.getServedFrequencyKilohertz());
-        facility.seenMessage(report, client.getControllerMessage(), entityFactory);
+        facility.seenMessage(report, facilityMessageStore.intern(client.getControllerMessage()), entityFactory);
     }
 
     private Member getMember(final Client client) {
@@ -317,9 +384,8 @@ public class GraphImport {
         if (needsFuzzyReconstruction && (callsign != null) && !callsign.isEmpty()) {
             Report previousReport = index.getLatestReportBefore(report);
             if (previousReport != null) {
-                List<Flight> matchingFlights = previousReport.getFlights()
+                List<Flight> matchingFlights = previousReport.getFlightsByCallsign(callsign)
                                                              .stream()
-                                                             .filter(x -> callsign.equals(x.getCallsign()))
                                                              .filter(x -> x.getLatestConnection() != null)
                                                              .filter(
                                                                  x -> isLessOrEqualThan(
@@ -343,10 +409,12 @@ public class GraphImport {
             return;
         }
 
-        // find last flight of member under same callsign
+        // find last flight of member under same callsign; flights completed by a
+        // second takeoff have been continued by another flight
         Flight flight = member.getFlights()
                               .stream()
                               .filter(x -> x.getCallsign().equals(callsign))
+                              .filter(x -> !x.isCompleted())
                               .max((x, y) -> x.getLatestVisibleTime().compareTo(y.getLatestVisibleTime()))
                               .orElse(null);
 
@@ -374,6 +442,7 @@ public class GraphImport {
             }
 
             if (clientHasFlightPlan && (flightPlan != null) && !isSameFlight(flightPlan, client)) {
+                phaseTrackers.remove(flight);
                 flightPlan = null;
                 flight = null;
             }
@@ -389,6 +458,7 @@ public class GraphImport {
                  * TODO: check if we actually got at least 1 or 2 reports since then, otherwise
                  * we may have had a network outage
                  */
+                phaseTrackers.remove(flight);
                 flight = null;
                 flightPlan = null;
             }
@@ -399,6 +469,23 @@ public class GraphImport {
             flightPlan = null;
         }
 
+        // track flight phase; a second takeoff completes the flight and starts a new one
+        TrackPoint trackPoint = createTrackPoint(report, client);
+        FlightPhaseTracker phaseTracker = (flight != null) ? phaseTrackers.get(flight) : null;
+        if (phaseTracker == null) {
+            phaseTracker = new FlightPhaseTracker();
+        }
+
+        Transition transition = (trackPoint != null) ? phaseTracker.update(trackPoint) : Transition.NONE;
+        Flight completedFlight = null;
+        if (transition == Transition.DEPARTED_AGAIN) {
+            completedFlight = flight;
+            completedFlight.markAsCompleted();
+            phaseTrackers.remove(completedFlight);
+            flight = null;
+            flightPlan = null;
+        }
+
         // create new flight if unavailable
         if (flight == null) {
             flight = entityFactory.createFlight(member, callsign);
@@ -442,7 +529,10 @@ public class GraphImport {
         }
 
         // add track point
-        addTrackPointToFlight(report, client, flight);
+        phaseTrackers.put(flight, phaseTracker);
+        if (trackPoint != null) {
+            addTrackPointToFlight(trackPoint, flight, completedFlight, phaseTracker, transition);
+        }
 
         // create new flight plan if available but not continued
         if ((flightPlan == null) && clientHasFlightPlan) {
@@ -454,10 +544,6 @@ public class GraphImport {
          * TODO: check distance between last and current position for plausibility and
          * start new flight if aircraft "jumped" to a new location?
          */
-        /*
-         * TODO: track flight phases and mark flight completed after landing, trigger
-         * new flight when aircraft moves/departs again?
-         */
     }
 
     private boolean isSameFlight(final FlightPlan flightPlan, final Client client) {
@@ -472,7 +558,7 @@ public class GraphImport {
         }
 
         // TODO: perform all checks case insensitive/normalized?
-        AircraftTypeExtractor extractor = new AircraftTypeExtractor(client.getAircraftType());
+        AircraftTypeExtractor extractor = extractorCache.getAircraftTypeExtractor(client.getAircraftType());
         String previousType = flightPlan.getAircraftType();
         if ((previousType != null) && !previousType.equals(extractor.getAircraftType())) {
             return false;
@@ -501,43 +587,142 @@ public class GraphImport {
         return true;
     }
 
-    private void addTrackPointToFlight(final Report report, final Client client, final Flight flight) {
-        TrackPoint trackPoint = createTrackPoint(report, client);
-        if (trackPoint == null) {
+    private void addTrackPointToFlight(final TrackPoint trackPoint, final Flight flight, final Flight completedFlight, final FlightPhaseTracker phaseTracker, final Transition transition) {
+        trackPoint.setFlight(flight);
+        flight.addTrackPoint(trackPoint);
+        flight.setPhase(phaseTracker.getPhase());
+
+        if (transition == Transition.NONE) {
             return;
         }
 
-        trackPoint.setFlight(flight);
-        flight.addTrackPoint(trackPoint);
+        List<TrackPoint> eventTrackPoints = phaseTracker.getEventTrackPoints();
+        TrackPoint trackPointBeforeEvent = phaseTracker.getTrackPointBeforeEvent();
+
+        if (completedFlight != null) {
+            // takeoff has been confirmed after some track points were already recorded
+            // on the completed flight; move them to the new flight
+            for (TrackPoint eventTrackPoint : eventTrackPoints) {
+                moveTrackPoint(eventTrackPoint, completedFlight, flight);
+            }
+
+            if ((trackPointBeforeEvent != null) && !completedFlight.getEvents().containsKey(trackPointBeforeEvent)) {
+                moveTrackPoint(trackPointBeforeEvent, completedFlight, flight);
+            }
+
+            updateTimeIndexForSplitFlights(completedFlight, flight);
+        }
+
+        if ((trackPointBeforeEvent != null) && (trackPointBeforeEvent.getFlight() != flight)) {
+            // point remains with the completed flight (e.g. marked as landed)
+            trackPointBeforeEvent = null;
+        }
 
-        // check for events and mark
-        /*
-         * TODO: analyze much earlier in import and use information about flight phase
-         * to split flights on (i.e. only one takeoff and landing per flight)
-         */
-        // TODO: mark only if multiple track points have confirmed stable condition
         /*
          * TODO: take difference in height from start position into account to determine
          * airborne state (would allow state for rotary-wing aircraft to be detected
          * more reliably)
          */
-        boolean wasAirborne = flight.isAirborne();
-        boolean hasLanded = flight.hasLanded();
-        boolean hasSpeedToBeAirborne = (trackPoint.getGroundSpeed() >= MINIMUM_GROUND_SPEED_AIRBORNE);
-        if (!hasLanded) {
-            if (!wasAirborne && hasSpeedToBeAirborne) {
-                flight.markEvent(trackPoint, FlightEvent.AIRBORNE);
-
-                TrackPoint previousTrackPoint = findPrevious(flight.getTrack(), trackPoint).orElse(null);
-                if (previousTrackPoint != null) {
-                    flight.markEvent(previousTrackPoint, FlightEvent.BEFORE_AIRBORNE);
-                }
-            } else if (wasAirborne && !hasSpeedToBeAirborne) {
-                flight.markEvent(trackPoint, FlightEvent.LANDED);
+        TrackPoint eventTrackPoint = eventTrackPoints.get(0);
+        if (transition == Transition.LANDED) {
+            flight.markEvent(eventTrackPoint, FlightEvent.LANDED);
+            labelEventAirport(flight, eventTrackPoint);
+        } else {
+            flight.markEvent(eventTrackPoint, FlightEvent.AIRBORNE);
+
+            if (trackPointBeforeEvent != null) {
+                flight.markEvent(trackPointBeforeEvent, FlightEvent.BEFORE_AIRBORNE);
+                labelEventAirport(flight, trackPointBeforeEvent);
             }
         }
     }
 
+    private void moveTrackPoint(final TrackPoint trackPoint, final Flight from, final Flight to) {
+        if (trackPoint.getFlight() != from) {
+            return;
+        }
+
+        from.removeTrackPoint(trackPoint);
+        trackPoint.setFlight(to);
+        to.addTrackPoint(trackPoint);
+
+        // a flight only has one track point per report, so the report now belongs
+        // to the new flight only
+        trackPoint.getReport()
+                  .removeFlight(from)
+                  .addFlight(to);
+    }
+
+    /**
+     * Corrects the indexed periods of two flights after track points have been
+     * moved from the completed to the continuing flight. The completed flight ends
+     * with its last remaining track point while the continuing flight starts with
+     * the first moved one.
+     *
+     * @param completedFlight flight track points have been moved from
+     * @param continuingFlight flight track points have been moved to
+     */
+    private void updateTimeIndexForSplitFlights(final Flight completedFlight, final Flight continuingFlight) {
+        TimeIntervalIndex<Flight> flightTimeIndex = index.getFlightTimeIndex();
+
+        TimeSpan completedTimeSpan = flightTimeIndex.getTimeSpan(completedFlight);
+        SortedSet<TrackPoint> completedTrack = completedFlight.getTrack();
+        if ((completedTimeSpan != null) && !completedTrack.isEmpty()) {
+            flightTimeIndex.remove(completedFlight)
+                           .expandTo(completedFlight, completedTimeSpan.getStart())
+                           .expandTo(completedFlight, completedTrack.last().getReport().getRecordTime());
+        }
+
+        for (TrackPoint trackPoint : continuingFlight.getTrack()) {
+            flightTimeIndex.expandTo(continuingFlight, trackPoint.getReport().getRecordTime());
+        }
+    }
+
+    /**
+     * Drops phase trackers of flights whose connection has not been seen for
+     * longer than they could be continued. Such flights will be reset on their
+     * next appearance, so their trackers would never be used again.
+     *
+     * <p>
+     * Age is determined by the last report the connection has been seen in, not
+     * by the last track point: flights may continue to be seen without recording
+     * any track points (e.g. while reporting invalid coordinates) and must keep
+     * their phase in that case.
+     * </p>
+     *
+     * @param report report which has just been imported
+     */
+    private void pruneFlightPhaseTrackers(final Report report) {
+        Instant oldestContinuableRecordTime = report.getRecordTime().minus(MAXIMUM_AGE_FOR_CONTINUED_FLIGHT);
+
+        phaseTrackers.keySet().removeIf(flight -> {
+            Connection connection = flight.getLatestConnection();
+            Report lastReport = (connection != null) ? connection.getLastReport() : null;
+            return (lastReport == null) || lastReport.getRecordTime().isBefore(oldestContinuableRecordTime);
+        });
+    }
+
+    private void labelEventAirport(final Flight flight, final TrackPoint trackPoint) {
+        if (airportIndex == null) {
+            return;
+        }
+
+        GeoCoordinates coordinates = trackPoint.getGeoCoordinates();
+        if (coordinates == null) {
+            return;
+        }
+
+        Airport airport = airportIndex.getNearestWithin(
+            coordinates.getLatitude(),
+            coordinates.getLongitude(),
+            MAXIMUM_EVENT_AIRPORT_DISTANCE_NAUTICAL_MILES,
+            null
+        );
+        if (airport != null) {
+            flight.setEventAirportCode(trackPoint, airport.getIcaoCode());
+        }
+    }
+
     private TrackPoint createTrackPoint(final Report report, final Client client) {
         // check coordinates for validity
         double latitude = client.getLatitude();
@@ -680,11 +865,12 @@ public class GraphImport {
                                       .orElse(null);
 
         if (flightPlan == null) {
-            int altitudeFeet = new AltitudeParser(client.getRawFiledAltitude()).getFeet();
-            CommunicationMode communicationMode = new RemarksExtractor(client.getFlightPlanRemarks()).getCommunicationMode();
+            int altitudeFeet = extractorCache.getAltitudeParser(client.getRawFiledAltitude()).getFeet();
+            CommunicationMode communicationMode = extractorCache.getRemarksExtractor(client.getFlightPlanRemarks())
+                                                                .getCommunicationMode();
             FlightPlanType flightPlanType = FlightPlanType.resolveFlightPlanCode(client.getRawFlightPlanType());
 
-            AircraftTypeExtractor aircraftTypeExtractor = new AircraftTypeExtractor(client.getAircraftType());
+            AircraftTypeExtractor aircraftTypeExtractor = extractorCache.getAircraftTypeExtractor(client.getAircraftType());
             WakeTurbulenceCategory wakeTurbulenceCategory = WakeTurbulenceCategory.resolveFlightPlanCode(
                 aircraftTypeExtractor.getWakeCategory()
             );
@@ -697,7 +883,7 @@ public class GraphImport {
                 // TODO: extract PBN using RemarksExtractor and forward to parser
                 // TODO: save information
 
-                ICAOField10PBNParser icaoField10PBNParser = new ICAOField10PBNParser(equipmentCode);
+                ICAOField10PBNParser icaoField10PBNParser = extractorCache.getICAOField10PBNParser(equipmentCode);
                 Set<CommunicationCapability> communicationCapabilities = icaoField10PBNParser.getCommunicationCapabilities();
                 Set<NavigationApproachCapability> navigationApproachCapabilities = icaoField10PBNParser.getNavigationApproachCapabilities();
 
@@ -758,10 +944,9 @@ public class GraphImport {
     }
 
     private Flight findMatchingFlightByFlightPlanAirports(final Report report, final Client client) {
-        return report.getFlights()
+        return report.getFlightsByCallsign(client.getCallsign())
                      .stream()
-                     .filter(x -> x.getMember().getVatsimId() == client.getVatsimID()
-                         && x.getCallsign().equals(client.getCallsign()))
+                     .filter(x -> x.getMember().getVatsimId() == client.getVatsimID())
                      .map(Flight::getFlightPlans)
                      .filter(not(SortedSet::isEmpty))
                      .map(SortedSet::last)
@@ -783,6 +968,47 @@ public class GraphImport {
         return index;
     }
 
+    /**
+     * Returns the cache used to decode flight plan information, e.g. to query
+     * statistics.
+     *
+     * @return cache used to decode flight plan information
+     */
+    public ExtractorCache getExtractorCache() {
+        return extractorCache;
+    }
+
+    /**
+     * Returns the store used to de-duplicate facility messages.
+     *
+     * @return store used to de-duplicate facility messages
+     */
+    public FacilityMessageStore getFacilityMessageStore() {
+        return facilityMessageStore;
+    }
+
+    /**
+     * Sets the airports to label departure and landing events with. Events are
+     * only labeled if an airport has been set and is located close to the event.
+     *
+     * @param airportIndex airports to label events with; null to disable labeling
+     * @return this instance for method-chaining
+     * @see SphericalKdTree#forAirports(java.util.Collection, boolean)
+     */
+    public GraphImport setAirportIndex(SphericalKdTree<Airport> airportIndex) {
+        this.airportIndex = airportIndex;
+        return this;
+    }
+
+    /**
+     * Returns the airports used to label departure and landing events.
+     *
+     * @return airports used to label events; null if events are not labeled
+     */
+    public SphericalKdTree<Airport> getAirportIndex() {
+        return airportIndex;
+    }
+
     private Duration nullDurationIfOutOfRange(Duration duration, Duration minimum, Duration maximum) {
         if ((duration != null)
             && !TimeHelpers.isLessThan(duration, minimum)
@@ -3,23 +3,51 @@ package org.vatplanner.dataformats.vatsimpublic.graph;
 import static java.util.Collections.unmodifiableCollection;
 
 import java.time.Instant;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.NavigableMap;
-import java.util.TreeMap;
+import java.util.List;
+import java.util.RandomAccess;
 
+import org.vatplanner.dataformats.vatsimpublic.entities.status.Connection;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.Facility;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.Flight;
 import org.vatplanner.dataformats.vatsimpublic.entities.status.Member;
 import org.vatplanner.dataformats.vatsimpublic.entities.status.Report;
+import org.vatplanner.dataformats.vatsimpublic.utils.IntObjectHashMap;
 
 /**
  * Keeps track of unique entities and time-related indexes needed during graph
  * import.
+ *
+ * <p>
+ * Members are indexed by primitive VATSIM IDs, avoiding boxing on every
+ * lookup. Reports must be added in strictly chronological order, which allows
+ * them to be held in plain arrays sorted by recording time (epoch seconds) and
+ * looked up by binary search.
+ * </p>
+ *
+ * <p>
+ * Periods of time in which connections, flights and facilities have been seen
+ * are held in {@link TimeIntervalIndex}es to answer point-in-time and range
+ * queries. These indexes are maintained by {@link GraphImport}.
+ * </p>
  */
 public class GraphIndex {
 
-    private final Map<Integer, Member> membersByVatsimId = new HashMap<>();
-    private final NavigableMap<Instant, Report> reportsByRecordTime = new TreeMap<>();
+    private static final int INITIAL_REPORT_CAPACITY = 64;
+
+    private final IntObjectHashMap<Member> membersByVatsimId = new IntObjectHashMap<>();
+
+    private long[] reportEpochSeconds = new long[INITIAL_REPORT_CAPACITY];
+    private Report[] reports = new Report[INITIAL_REPORT_CAPACITY];
+    private int numReports = 0;
+
+    private final List<Report> reportsView = new ReportsView();
+
+    private final TimeIntervalIndex<Connection> connectionsByTime = new TimeIntervalIndex<>();
+    private final TimeIntervalIndex<Flight> flightsByTime = new TimeIntervalIndex<>();
+    private final TimeIntervalIndex<Facility> facilitiesByTime = new TimeIntervalIndex<>();
 
     /**
      * Adds a new member to the index. Members are uniquely identified by VATSIM ID,
@@ -35,12 +63,32 @@ public class GraphIndex {
     /**
      * Adds a new report to the index. Reports are indexed uniquely by recording
      * time, so two different reports must not have the same recording time.
+     * Reports must be added in chronological order.
      *
-     * @param report report to add; unique by recording time
+     * @param report report to add; unique by recording time, must be later than
+     *               all previously added reports
+     * @throws IllegalArgumentException if the report is not recorded after all
+     *                                  previously added reports
      */
     public void add(Report report) {
-        // TODO: fail if already registered
-        reportsByRecordTime.put(report.getRecordTime(), report);
+        Instant recordTime = report.getRecordTime();
+
+        if ((numReports > 0) && !recordTime.isAfter(reports[numReports - 1].getRecordTime())) {
+            throw new IllegalArgumentException(
+                "reports must be added in chronological order; tried to add " + recordTime + " after "
+                    + reports[numReports - 1].getRecordTime()
+            );
+        }
+
+        if (numReports == reports.length) {
+            int newCapacity = reports.length * 2;
+            reportEpochSeconds = Arrays.copyOf(reportEpochSeconds, newCapacity);
+            reports = Arrays.copyOf(reports, newCapacity);
+        }
+
+        reportEpochSeconds[numReports] = recordTime.getEpochSecond();
+        reports[numReports] = report;
+        numReports++;
     }
 
     /**
@@ -50,7 +98,8 @@ public class GraphIndex {
      * @return next oldest report by recording time; null if unavailable
      */
     public Report getLatestReportBefore(Report report) {
-        return getValue(reportsByRecordTime.lowerEntry(report.getRecordTime()));
+        int index = findFirstNotBefore(report.getRecordTime()) - 1;
+        return (index < 0) ? null : reports[index];
     }
 
     /**
@@ -63,17 +112,13 @@ public class GraphIndex {
         return membersByVatsimId.get(vatsimId);
     }
 
-    private <T> T getValue(Map.Entry<?, T> entry) {
-        return (entry == null) ? null : entry.getValue();
-    }
-
     /**
-     * Returns all indexed reports.
+     * Returns all indexed reports in chronological order.
      *
      * @return all indexed reports
      */
     public Collection<Report> getAllReports() {
-        return unmodifiableCollection(reportsByRecordTime.values());
+        return reportsView;
     }
 
     /**
@@ -82,7 +127,7 @@ public class GraphIndex {
      * @return true if index holds reports, false if report index is empty
      */
     public boolean hasReports() {
-        return !reportsByRecordTime.isEmpty();
+        return numReports > 0;
     }
 
     /**
@@ -92,7 +137,8 @@ public class GraphIndex {
      * @return true if already indexed, false if not
      */
     public boolean hasReportWithRecordTime(Instant recordTime) {
-        return reportsByRecordTime.containsKey(recordTime);
+        int index = findFirstNotBefore(recordTime);
+        return (index < numReports) && reports[index].getRecordTime().equals(recordTime);
     }
 
     /**
@@ -103,7 +149,7 @@ public class GraphIndex {
      * @return true if a later report has already been indexed, false if not
      */
     public boolean hasReportAfterRecordTime(Instant recordTime) {
-        return reportsByRecordTime.higherKey(recordTime) != null;
+        return (numReports > 0) && reports[numReports - 1].getRecordTime().isAfter(recordTime);
     }
 
     /**
@@ -115,5 +161,81 @@ public class GraphIndex {
         return unmodifiableCollection(membersByVatsimId.values());
     }
 
-    // TODO: unit tests
+    /**
+     * Returns the index of {@link Connection} lifetimes, spanning from logon time
+     * to the last report a connection has been seen in.
+     *
+     * @return time index of connections
+     */
+    public TimeIntervalIndex<Connection> getConnectionTimeIndex() {
+        return connectionsByTime;
+    }
+
+    /**
+     * Returns the index of visible time spans of {@link Flight}s, spanning from
+     * first connection or pre-filing to the last report a flight has been seen
+     * in.
+     *
+     * @return time index of flights
+     */
+    public TimeIntervalIndex<Flight> getFlightTimeIndex() {
+        return flightsByTime;
+    }
+
+    /**
+     * Returns the index of {@link Facility} sessions, spanning from logon time to
+     * the last report a facility has been seen in.
+     *
+     * @return time index of facilities
+     */
+    public TimeIntervalIndex<Facility> getFacilityTimeIndex() {
+        return facilitiesByTime;
+    }
+
+    /**
+     * Searches for the first report not recorded before the given time.
+     *
+     * @param recordTime time to search for
+     * @return index of first report recorded at or after given time;
+     *         {@link #numReports} if all reports have been recorded before
+     */
+    private int findFirstNotBefore(Instant recordTime) {
+        long epochSecond = recordTime.getEpochSecond();
+
+        int low = 0;
+        int high = numReports;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+
+            int comparison = Long.compare(reportEpochSeconds[mid], epochSecond);
+            if (comparison == 0) {
+                // only sub-second precision remains to be compared
+                comparison = reports[mid].getRecordTime().compareTo(recordTime);
+            }
+
+            if (comparison < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+
+    private class ReportsView extends AbstractList<Report> implements RandomAccess {
+        @Override
+        public Report get(int index) {
+            if ((index < 0) || (index >= numReports)) {
+                throw new IndexOutOfBoundsException("index " + index + " out of bounds for size " + numReports);
+            }
+
+            return reports[index];
+        }
+
+        @Override
+        public int size() {
+            return numReports;
+        }
+    }
 }
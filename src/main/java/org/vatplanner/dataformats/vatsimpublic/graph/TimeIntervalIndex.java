@@ -0,0 +1,347 @@
+package org.vatplanner.dataformats.vatsimpublic.graph;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.vatplanner.dataformats.vatsimpublic.entities.TimeSpan;
+
+/**
+ * Indexes items by the period of time they have been seen in, allowing to
+ * query all items present at a point in time or during a range of time.
+ *
+ * <p>
+ * Items are held in a small unsorted buffer and a logarithmic number of static
+ * levels of doubling size. Each level is an implicit interval tree (items
+ * sorted by start of period, augmented with the maximum end of each subtree).
+ * When the buffer overflows, it is merged with all consecutive occupied levels
+ * into the next free level, so every item is only sorted O(log n) times over
+ * the lifetime of the index. Queries visit all levels in O(log² n + k) for k
+ * results and never sort the index.
+ * </p>
+ *
+ * <p>
+ * Periods are expanded incrementally while data is being imported. Extending
+ * the end of a period (the usual case for items still being seen) updates the
+ * item in place in O(log n). Moving the start of a period to an earlier time or
+ * removing an item detaches it from its level; detached items are re-added
+ * through the buffer.
+ * </p>
+ *
+ * <p>
+ * All periods are inclusive and held in millisecond precision. Instances are
+ * not thread-safe.
+ * </p>
+ *
+ * @param <T> type of indexed items
+ */
+public class TimeIntervalIndex<T> {
+
+    private static final Comparator<Entry<?>> ENTRY_START_COMPARATOR = (a, b) -> Long.compare(a.start, b.start);
+
+    /**
+     * Maximum number of items held unsorted before they are merged into levels.
+     */
+    static final int BUFFER_CAPACITY = 32;
+
+    private final Map<T, Entry<T>> entriesByItem = new HashMap<>();
+    private final List<Entry<T>> buffer = new ArrayList<>();
+    private final List<Level<T>> levels = new ArrayList<>();
+
+    private long numberOfSortedEntries = 0;
+
+    private static class Entry<T> {
+        private final T item;
+        private long start;
+        private long end;
+
+        private Level<T> level;
+        private int levelIndex;
+
+        private Entry(T item, long timestamp) {
+            this.item = item;
+            this.start = timestamp;
+            this.end = timestamp;
+        }
+    }
+
+    private static class Level<T> {
+        private final Entry<T>[] entries;
+        private final long[] starts;
+        private final long[] ends;
+        private final long[] maximumEnds;
+
+        private Level(Entry<T>[] entries) {
+            this.entries = entries;
+
+            int size = entries.length;
+            starts = new long[size];
+            ends = new long[size];
+            maximumEnds = new long[size];
+
+            for (int i = 0; i < size; i++) {
+                Entry<T> entry = entries[i];
+                entry.level = this;
+                entry.levelIndex = i;
+                starts[i] = entry.start;
+                ends[i] = entry.end;
+            }
+
+            computeMaximumEnds(0, size);
+        }
+
+        private long computeMaximumEnds(int low, int high) {
+            if (low >= high) {
+                return Long.MIN_VALUE;
+            }
+
+            int mid = (low + high) >>> 1;
+            long maximum = Math.max(
+                ends[mid],
+                Math.max(computeMaximumEnds(low, mid), computeMaximumEnds(mid + 1, high))
+            );
+            maximumEnds[mid] = maximum;
+
+            return maximum;
+        }
+
+        private void extendEnd(int index, long end) {
+            ends[index] = end;
+
+            // update all subtrees on the path from root down to the entry
+            int low = 0;
+            int high = entries.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                maximumEnds[mid] = Math.max(maximumEnds[mid], end);
+
+                if (index == mid) {
+                    return;
+                } else if (index < mid) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+        }
+
+        private void detach(Entry<T> entry) {
+            // slot is skipped by queries; bounds of subtrees remain valid
+            entries[entry.levelIndex] = null;
+            entry.level = null;
+        }
+
+        private void collectOverlapping(int low, int high, long queryStart, long queryEnd, List<Entry<T>> out) {
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+
+                // nothing in this subtree reaches into the queried range
+                if (maximumEnds[mid] < queryStart) {
+                    return;
+                }
+
+                collectOverlapping(low, mid, queryStart, queryEnd, out);
+
+                // everything from here on starts after the queried range
+                if (starts[mid] > queryEnd) {
+                    return;
+                }
+
+                if ((ends[mid] >= queryStart) && (entries[mid] != null)) {
+                    out.add(entries[mid]);
+                }
+
+                // continue with right subtree
+                low = mid + 1;
+            }
+        }
+
+        private void collectAttached(List<Entry<T>> out) {
+            for (Entry<T> entry : entries) {
+                if (entry != null) {
+                    out.add(entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Expands the period of given item to include the given time. Items are
+     * added to the index if they have not been indexed yet.
+     *
+     * @param item item to expand period for
+     * @param time time to include in period; ignored if null
+     * @return this instance for method-chaining
+     */
+    public TimeIntervalIndex<T> expandTo(T item, Instant time) {
+        if (time == null) {
+            return this;
+        }
+
+        long millis = time.toEpochMilli();
+
+        Entry<T> entry = entriesByItem.get(item);
+        if (entry == null) {
+            entry = new Entry<>(item, millis);
+            entriesByItem.put(item, entry);
+            addToBuffer(entry);
+        } else if (millis < entry.start) {
+            entry.start = millis;
+            if (entry.level != null) {
+                // order of level would change; sort again via buffer
+                entry.level.detach(entry);
+                addToBuffer(entry);
+            }
+        } else if (millis > entry.end) {
+            entry.end = millis;
+            if (entry.level != null) {
+                entry.level.extendEnd(entry.levelIndex, millis);
+            }
+        }
+
+        return this;
+    }
+
+    /**
+     * Removes the given item from the index. Use this to correct the period of
+     * an item which has become too long, then expand it again as needed.
+     *
+     * @param item item to remove
+     * @return this instance for method-chaining
+     */
+    public TimeIntervalIndex<T> remove(T item) {
+        Entry<T> entry = entriesByItem.remove(item);
+        if (entry == null) {
+            return this;
+        }
+
+        if (entry.level != null) {
+            entry.level.detach(entry);
+        } else {
+            buffer.remove(entry);
+        }
+
+        return this;
+    }
+
+    /**
+     * Returns the indexed period of given item.
+     *
+     * @param item item to look up
+     * @return indexed period of item; null if item is not indexed
+     */
+    public TimeSpan getTimeSpan(T item) {
+        Entry<T> entry = entriesByItem.get(item);
+        if (entry == null) {
+            return null;
+        }
+
+        return new TimeSpan().expandTo(Instant.ofEpochMilli(entry.start))
+                             .expandTo(Instant.ofEpochMilli(entry.end));
+    }
+
+    /**
+     * Returns all items whose period includes the given point in time.
+     *
+     * @param time point in time to query
+     * @return all items present at given time; sorted by start of their period
+     */
+    public List<T> getAt(Instant time) {
+        return getOverlapping(time, time);
+    }
+
+    /**
+     * Returns all items whose period overlaps the given range of time. Both start
+     * and end of the range are inclusive.
+     *
+     * @param start start of range to query (inclusive)
+     * @param end   end of range to query (inclusive)
+     * @return all items present at any time during given range; sorted by start
+     *     of their period
+     * @throws IllegalArgumentException if end is before start
+     */
+    public List<T> getOverlapping(Instant start, Instant end) {
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("end " + end + " must not be before start " + start);
+        }
+
+        long queryStart = start.toEpochMilli();
+        long queryEnd = end.toEpochMilli();
+
+        List<Entry<T>> entries = new ArrayList<>();
+        for (Level<T> level : levels) {
+            if (level != null) {
+                level.collectOverlapping(0, level.entries.length, queryStart, queryEnd, entries);
+            }
+        }
+
+        for (Entry<T> entry : buffer) {
+            if ((entry.start <= queryEnd) && (entry.end >= queryStart)) {
+                entries.add(entry);
+            }
+        }
+
+        entries.sort(ENTRY_START_COMPARATOR);
+
+        List<T> out = new ArrayList<>(entries.size());
+        for (Entry<T> entry : entries) {
+            out.add(entry.item);
+        }
+        return out;
+    }
+
+    /**
+     * Returns the number of indexed items.
+     *
+     * @return number of indexed items
+     */
+    public int size() {
+        return entriesByItem.size();
+    }
+
+    /**
+     * Returns the total number of entries sorted into levels since creation of
+     * this index.
+     *
+     * @return total number of sorted entries
+     */
+    long getNumberOfSortedEntries() {
+        return numberOfSortedEntries;
+    }
+
+    private void addToBuffer(Entry<T> entry) {
+        buffer.add(entry);
+        if (buffer.size() > BUFFER_CAPACITY) {
+            flushBuffer();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void flushBuffer() {
+        List<Entry<T>> carry = new ArrayList<>(buffer);
+        buffer.clear();
+
+        // merge with all consecutive occupied levels like a binary counter
+        int levelNumber = 0;
+        while ((levelNumber < levels.size()) && (levels.get(levelNumber) != null)) {
+            levels.get(levelNumber).collectAttached(carry);
+            levels.set(levelNumber, null);
+            levelNumber++;
+        }
+
+        Entry<T>[] entries = carry.toArray(new Entry[0]);
+        Arrays.sort(entries, ENTRY_START_COMPARATOR);
+        numberOfSortedEntries += entries.length;
+
+        Level<T> level = new Level<>(entries);
+        if (levelNumber < levels.size()) {
+            levels.set(levelNumber, level);
+        } else {
+            levels.add(level);
+        }
+    }
+}
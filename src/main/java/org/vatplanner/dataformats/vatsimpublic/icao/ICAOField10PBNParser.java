@@ -1,5 +1,7 @@
 package org.vatplanner.dataformats.vatsimpublic.icao;
 
+import static java.util.Collections.unmodifiableSet;
+
 import java.util.HashSet;
 import java.util.Set;
 import java.util.regex.Matcher;
@@ -84,11 +86,11 @@ public class ICAOField10PBNParser {
     }
 
     public Set<CommunicationCapability> getCommunicationCapabilities() {
-        return communicationCapabilities;
+        return unmodifiableSet(communicationCapabilities);
     }
 
     public Set<NavigationApproachCapability> getNavigationApproachCapabilities() {
-        return navigationApproachCapabilities;
+        return unmodifiableSet(navigationApproachCapabilities);
     }
 
     public boolean hasTransponder() {
@@ -5,11 +5,13 @@ import static org.vatplanner.dataformats.vatsimpublic.utils.Comparisons.equalsNu
 import java.time.Duration;
 import java.time.Instant;
 
+import org.vatplanner.dataformats.vatsimpublic.MinimumRetrievalIntervalProvider;
+
 /**
  * Meta data found in the <code>general</code> section of VATSIM's data status
  * file.
  */
-public class DataFileMetaData {
+public class DataFileMetaData implements MinimumRetrievalIntervalProvider {
 
     private int versionFormat = -1;
     private Instant timestamp = null;
@@ -119,6 +121,17 @@ public class DataFileMetaData {
         return this;
     }
 
+    /**
+     * Returns the requested minimum retrieval interval for data files.
+     *
+     * @return requested minimum retrieval interval for data files; null if not set
+     * @see #getMinimumDataFileRetrievalInterval()
+     */
+    @Override
+    public Duration getMinimumRetrievalInterval() {
+        return minimumDataFileRetrievalInterval;
+    }
+
     /**
      * Returns the requested minimum retrieval interval for ATIS information via
      * "web page interface".
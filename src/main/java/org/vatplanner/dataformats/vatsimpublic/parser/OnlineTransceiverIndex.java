@@ -0,0 +1,326 @@
+package org.vatplanner.dataformats.vatsimpublic.parser;
+
+import static org.vatplanner.dataformats.vatsimpublic.spatial.GeoMath.NAUTICAL_MILES_PER_DEGREE_LATITUDE;
+import static org.vatplanner.dataformats.vatsimpublic.spatial.GeoMath.distanceNauticalMiles;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.vatplanner.dataformats.vatsimpublic.utils.IntObjectHashMap;
+
+/**
+ * Joins the stations of an {@link OnlineTransceiversFile} with the
+ * {@link Client}s of a {@link DataFile} recorded at the same time. Transceivers
+ * are indexed by frequency and call sign, so questions like "who is on 121.500
+ * MHz near X" can be answered without scanning all stations.
+ *
+ * <p>
+ * The index is meant to be kept for the lifetime of a poller and
+ * {@link #update(DataFile, OnlineTransceiversFile)}d with every new pair of
+ * files. Both files are iterated only once per update. All internal maps,
+ * lists and {@link Entry} objects are retained and reused on following updates,
+ * so once the index has warmed up only the call sign map needs to allocate
+ * memory again. As a consequence, all results are live views which are only
+ * valid until the next update; copy them if they need to be kept for longer.
+ * </p>
+ *
+ * <p>
+ * Clients are matched by call sign. Prefiled flight plans are ignored as they
+ * may share the call sign of a connected client and cannot have any
+ * transceivers. Transceivers without a known frequency are only indexed by call
+ * sign.
+ * </p>
+ *
+ * <p>
+ * Instances are not thread-safe.
+ * </p>
+ */
+public class OnlineTransceiverIndex {
+    private final IntObjectHashMap<List<Entry>> entriesByFrequencyHertz = new IntObjectHashMap<>();
+    private final Map<String, Station> stationsByCallsign = new HashMap<>();
+
+    private final List<Entry> entryPool = new ArrayList<>();
+    private final List<Station> stationPool = new ArrayList<>();
+    private int entryPoolUsed = 0;
+    private int stationPoolUsed = 0;
+
+    /**
+     * A single transceiver joined with the {@link Client} using it.
+     */
+    public static class Entry {
+        private Station station;
+        private OnlineTransceiver transceiver;
+
+        private Entry() {
+            // only instantiated by index
+        }
+
+        /**
+         * Returns the call sign of the station the transceiver belongs to.
+         *
+         * @return call sign of station
+         */
+        public String getCallsign() {
+            return station.callsign;
+        }
+
+        /**
+         * Returns the {@link Client} using the transceiver. Clients may be missing
+         * if the files have not been recorded at exactly the same time.
+         *
+         * @return client using the transceiver; empty if not listed in data file
+         */
+        public Optional<Client> getClient() {
+            return Optional.ofNullable(station.client);
+        }
+
+        /**
+         * Returns the indexed transceiver.
+         *
+         * @return transceiver including its frequency and position
+         */
+        public OnlineTransceiver getTransceiver() {
+            return transceiver;
+        }
+    }
+
+    private static class Candidate {
+        private final Entry entry;
+        private final double distance;
+
+        private Candidate(Entry entry, double distance) {
+            this.entry = entry;
+            this.distance = distance;
+        }
+    }
+
+    private static class Station {
+        private String callsign;
+        private Client client;
+        private final List<Entry> entries = new ArrayList<>();
+
+        private void reset(String callsign) {
+            this.callsign = callsign;
+            this.client = null;
+            entries.clear();
+        }
+    }
+
+    /**
+     * Rebuilds the index from the given files, reusing memory of the previous
+     * update. All results returned before are invalidated.
+     *
+     * @param dataFile         data file providing clients; may be null
+     * @param transceiversFile transceivers file providing stations; may be null
+     * @return this instance for method-chaining
+     */
+    public OnlineTransceiverIndex update(DataFile dataFile, OnlineTransceiversFile transceiversFile) {
+        clear();
+
+        Collection<Client> clients = (dataFile != null) ? dataFile.getClients() : null;
+        if (clients != null) {
+            for (Client client : clients) {
+                if ((client.getCallsign() == null) || (client.getRawClientType() == ClientType.PILOT_PREFILED)) {
+                    continue;
+                }
+
+                Station station = stationsByCallsign.get(client.getCallsign());
+                if (station == null) {
+                    station = obtainStation(client.getCallsign());
+                }
+
+                if (station.client == null) {
+                    station.client = client;
+                }
+            }
+        }
+
+        Collection<OnlineTransceiverStation> transceiverStations = (transceiversFile != null) ? transceiversFile.getStations() : null;
+        if (transceiverStations != null) {
+            for (OnlineTransceiverStation transceiverStation : transceiverStations) {
+                // stations may repeat (see OnlineTransceiversFile), so the same
+                // object collects all transceivers for a call sign
+                Station station = stationsByCallsign.get(transceiverStation.getCallsign());
+                if (station == null) {
+                    station = obtainStation(transceiverStation.getCallsign());
+                }
+
+                for (OnlineTransceiver transceiver : transceiverStation.getTransceivers()) {
+                    Entry entry = obtainEntry(station, transceiver);
+                    station.entries.add(entry);
+
+                    int frequencyHertz = transceiver.getFrequencyHertz();
+                    if (frequencyHertz == OnlineTransceiver.UNAVAILABLE_INTEGER) {
+                        continue;
+                    }
+
+                    List<Entry> entriesOnFrequency = entriesByFrequencyHertz.get(frequencyHertz);
+                    if (entriesOnFrequency == null) {
+                        entriesOnFrequency = new ArrayList<>();
+                        entriesByFrequencyHertz.put(frequencyHertz, entriesOnFrequency);
+                    }
+                    entriesOnFrequency.add(entry);
+                }
+            }
+        }
+
+        return this;
+    }
+
+    private void clear() {
+        // frequency lists are kept (and will remain empty if a frequency is no
+        // longer in use) as only a limited number of channels exists
+        for (List<Entry> entries : entriesByFrequencyHertz.values()) {
+            entries.clear();
+        }
+
+        stationsByCallsign.clear();
+
+        for (int i = 0; i < entryPoolUsed; i++) {
+            Entry entry = entryPool.get(i);
+            entry.station = null;
+            entry.transceiver = null;
+        }
+        entryPoolUsed = 0;
+
+        for (int i = 0; i < stationPoolUsed; i++) {
+            stationPool.get(i).reset(null);
+        }
+        stationPoolUsed = 0;
+    }
+
+    private Station obtainStation(String callsign) {
+        Station station;
+        if (stationPoolUsed < stationPool.size()) {
+            station = stationPool.get(stationPoolUsed);
+        } else {
+            station = new Station();
+            stationPool.add(station);
+        }
+        stationPoolUsed++;
+
+        station.reset(callsign);
+        stationsByCallsign.put(callsign, station);
+
+        return station;
+    }
+
+    private Entry obtainEntry(Station station, OnlineTransceiver transceiver) {
+        Entry entry;
+        if (entryPoolUsed < entryPool.size()) {
+            entry = entryPool.get(entryPoolUsed);
+        } else {
+            entry = new Entry();
+            entryPool.add(entry);
+        }
+        entryPoolUsed++;
+
+        entry.station = station;
+        entry.transceiver = transceiver;
+
+        return entry;
+    }
+
+    /**
+     * Returns all transceivers tuned to the given frequency.
+     *
+     * @param frequencyHertz frequency in hertz, for example 121500000 for 121.500
+     *                       MHz
+     * @return unmodifiable live view of all transceivers on the frequency; empty
+     *     if none
+     */
+    public List<Entry> getByFrequencyHertz(int frequencyHertz) {
+        List<Entry> entries = entriesByFrequencyHertz.get(frequencyHertz);
+        if (entries == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Finds all stations having a transceiver tuned to the given frequency within
+     * the given distance of a location. Each station is only returned once,
+     * represented by its closest transceiver.
+     *
+     * @param frequencyHertz           frequency in hertz
+     * @param latitude                 latitude of reference location
+     * @param longitude                longitude of reference location
+     * @param maxDistanceNauticalMiles maximum distance of transceivers to the
+     *                                 reference location
+     * @return closest transceiver of all stations within range, ordered by
+     *     increasing distance
+     */
+    public List<Entry> findByFrequencyHertzNear(int frequencyHertz, double latitude, double longitude, double maxDistanceNauticalMiles) {
+        List<Entry> entries = entriesByFrequencyHertz.get(frequencyHertz);
+        if ((entries == null) || entries.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Candidate> candidates = new ArrayList<>();
+        for (Entry entry : entries) {
+            OnlineTransceiver transceiver = entry.transceiver;
+
+            // latitude difference is a lower bound of the distance, so most
+            // transceivers can be discarded without calculating the actual distance
+            if (Math.abs(transceiver.getLatitude() - latitude) * NAUTICAL_MILES_PER_DEGREE_LATITUDE > maxDistanceNauticalMiles) {
+                continue;
+            }
+
+            double distance = distanceNauticalMiles(latitude, longitude, transceiver.getLatitude(), transceiver.getLongitude());
+
+            // NaN coordinates fail this check as well
+            if (distance <= maxDistanceNauticalMiles) {
+                candidates.add(new Candidate(entry, distance));
+            }
+        }
+
+        candidates.sort(Comparator.comparingDouble(candidate -> candidate.distance));
+
+        List<Entry> out = new ArrayList<>();
+        Set<Station> seenStations = new HashSet<>();
+        for (Candidate candidate : candidates) {
+            if (seenStations.add(candidate.entry.station)) {
+                out.add(candidate.entry);
+            }
+        }
+
+        return out;
+    }
+
+    /**
+     * Returns all transceivers of the station using the given call sign.
+     *
+     * @param callsign call sign of station
+     * @return unmodifiable live view of all transceivers of the station; empty if
+     *     unknown or the station has no transceivers
+     */
+    public List<Entry> getByCallsign(String callsign) {
+        Station station = stationsByCallsign.get(callsign);
+        if (station == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(station.entries);
+    }
+
+    /**
+     * Returns the {@link Client} connected using the given call sign.
+     *
+     * @param callsign call sign of client
+     * @return client; empty if not listed in data file
+     */
+    public Optional<Client> getClientByCallsign(String callsign) {
+        Station station = stationsByCallsign.get(callsign);
+        if (station == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(station.client);
+    }
+}
@@ -26,7 +26,7 @@ public class JsonHelpers {
             ));
         }
 
-        return Optional.of(object);
+        return Optional.ofNullable(object);
     }
 
     public static <T> Optional<T> getOptional(Function<JsonKey, T> parentAccessor, JsonKey key, String section, ParserLogEntryCollector logCollector) {
@@ -89,6 +89,11 @@ public class JsonHelpers {
     }
 
     private static <T> Optional<T> cast(Object object, Class<T> targetClass, String section, String location, ParserLogEntryCollector logCollector) {
+        if (object == null) {
+            // missing values have already been logged if mandatory
+            return Optional.empty();
+        }
+
         if (!targetClass.isInstance(object)) {
             logCollector.addParserLogEntry(new ParserLogEntry(
                 section,
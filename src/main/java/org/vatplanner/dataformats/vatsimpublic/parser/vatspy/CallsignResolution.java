@@ -0,0 +1,71 @@
+package org.vatplanner.dataformats.vatsimpublic.parser.vatspy;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Result of resolving an ATC callsign through a {@link VatSpyIndex}. Exactly
+ * one of airport, FIR or UIR is set. Instances are immutable and shared between
+ * all callsigns resolving to the same prefix.
+ */
+public class CallsignResolution {
+    private final String matchedPrefix;
+    private final Optional<Airport> airport;
+    private final Optional<FlightInformationRegion> flightInformationRegion;
+    private final Optional<UpperInformationRegion> upperInformationRegion;
+    private final List<FlightInformationRegion> flightInformationRegions;
+
+    private CallsignResolution(String matchedPrefix, Airport airport, FlightInformationRegion flightInformationRegion, UpperInformationRegion upperInformationRegion, List<FlightInformationRegion> flightInformationRegions) {
+        this.matchedPrefix = matchedPrefix;
+        this.airport = Optional.ofNullable(airport);
+        this.flightInformationRegion = Optional.ofNullable(flightInformationRegion);
+        this.upperInformationRegion = Optional.ofNullable(upperInformationRegion);
+        this.flightInformationRegions = Collections.unmodifiableList(flightInformationRegions);
+    }
+
+    static CallsignResolution forAirport(String matchedPrefix, Airport airport) {
+        return new CallsignResolution(matchedPrefix, airport, null, null, Collections.emptyList());
+    }
+
+    static CallsignResolution forFlightInformationRegion(String matchedPrefix, FlightInformationRegion fir) {
+        return new CallsignResolution(matchedPrefix, null, fir, null, Collections.singletonList(fir));
+    }
+
+    static CallsignResolution forUpperInformationRegion(String matchedPrefix, UpperInformationRegion uir, List<FlightInformationRegion> firs) {
+        return new CallsignResolution(matchedPrefix, null, null, uir, firs);
+    }
+
+    /**
+     * Returns the callsign prefix which has been matched, for example
+     * <code>EDDF</code> for <code>EDDF_N_TWR</code> or <code>EDGG_E</code> for
+     * <code>EDGG_E_CTR</code>.
+     *
+     * @return matched callsign prefix
+     */
+    public String getMatchedPrefix() {
+        return matchedPrefix;
+    }
+
+    public Optional<Airport> getAirport() {
+        return airport;
+    }
+
+    public Optional<FlightInformationRegion> getFlightInformationRegion() {
+        return flightInformationRegion;
+    }
+
+    public Optional<UpperInformationRegion> getUpperInformationRegion() {
+        return upperInformationRegion;
+    }
+
+    /**
+     * Returns all FIRs covered by the resolved station. This is the resolved FIR
+     * itself or all FIRs an UIR has been expanded to; empty for airports.
+     *
+     * @return all FIRs covered by the resolved station, never null
+     */
+    public List<FlightInformationRegion> getFlightInformationRegions() {
+        return flightInformationRegions;
+    }
+}
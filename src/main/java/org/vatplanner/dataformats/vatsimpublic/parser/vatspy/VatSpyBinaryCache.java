@@ -0,0 +1,469 @@
+package org.vatplanner.dataformats.vatsimpublic.parser.vatspy;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.vatplanner.commons.geo.GeoPoint2D;
+import org.vatplanner.dataformats.vatsimpublic.parser.ParserLogEntry;
+import org.vatplanner.dataformats.vatsimpublic.parser.ParserLogEntryCollector;
+
+/**
+ * Binary cache for VAT-Spy reference data ({@link VatSpyFile} and
+ * {@link FIRBoundaryFile}).
+ *
+ * <p>
+ * Parsing the original text files is slow as every line needs to be matched by
+ * a regular expression. This cache compiles the parsed data into a compact
+ * binary file which is memory-mapped and decoded without any text parsing on
+ * load. The cache file records a SHA-256 hash of the source files it was
+ * compiled from; {@link #loadOrParse(Path, Path, Charset, Path)} only uses the
+ * cache if the hash matches the current source files and falls back to parsing
+ * (then recompiling the cache) otherwise.
+ * </p>
+ *
+ * <p>
+ * {@link ParserLogEntry}s are retained, except for their attached
+ * {@link Throwable}s which cannot be restored from cache.
+ * </p>
+ */
+public class VatSpyBinaryCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VatSpyBinaryCache.class);
+
+    private static final int MAGIC = 0x56535043; // "VSPC"
+    private static final int FORMAT_VERSION = 1;
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private static final int NULL_STRING_LENGTH = -1;
+
+    private VatSpyBinaryCache() {
+        // utility class; hide constructor
+    }
+
+    /**
+     * Holds VAT-Spy reference data loaded from cache or parsed from source files.
+     */
+    public static class Data {
+        private final VatSpyFile vatSpyFile;
+        private final FIRBoundaryFile firBoundaryFile;
+        private final boolean isFromCache;
+
+        private Data(VatSpyFile vatSpyFile, FIRBoundaryFile firBoundaryFile, boolean isFromCache) {
+            this.vatSpyFile = vatSpyFile;
+            this.firBoundaryFile = firBoundaryFile;
+            this.isFromCache = isFromCache;
+        }
+
+        /**
+         * Returns the content of <code>VATSpy.dat</code>.
+         *
+         * @return content of <code>VATSpy.dat</code>
+         */
+        public VatSpyFile getVatSpyFile() {
+            return vatSpyFile;
+        }
+
+        /**
+         * Returns the content of <code>FIRBoundaries.dat</code>.
+         *
+         * @return content of <code>FIRBoundaries.dat</code>
+         */
+        public FIRBoundaryFile getFIRBoundaryFile() {
+            return firBoundaryFile;
+        }
+
+        /**
+         * Indicates if the data has been loaded from cache.
+         *
+         * @return true if loaded from cache, false if source files were parsed
+         */
+        public boolean isFromCache() {
+            return isFromCache;
+        }
+    }
+
+    /**
+     * Loads VAT-Spy reference data from cache if the cache is up-to-date,
+     * otherwise parses the source files and recompiles the cache. Failing to
+     * write the cache is only logged.
+     *
+     * @param vatSpyDat         path to <code>VATSpy.dat</code>
+     * @param firBoundariesDat  path to <code>FIRBoundaries.dat</code>
+     * @param sourceCharset     character set of source files
+     * @param cacheFile         path to cache file; does not need to exist
+     * @return loaded reference data
+     * @throws IOException if source files cannot be read
+     */
+    public static Data loadOrParse(Path vatSpyDat, Path firBoundariesDat, Charset sourceCharset, Path cacheFile) throws IOException {
+        byte[] vatSpyBytes = Files.readAllBytes(vatSpyDat);
+        byte[] firBoundariesBytes = Files.readAllBytes(firBoundariesDat);
+        byte[] sourceHash = hash(vatSpyBytes, firBoundariesBytes);
+
+        if (Files.isRegularFile(cacheFile)) {
+            Data cached = load(cacheFile, sourceHash);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        LOGGER.debug("VAT-Spy cache {} is missing or outdated, parsing source files", cacheFile);
+
+        VatSpyFile vatSpyFile = new VatSpyFileParser().deserialize(
+            new InputStreamReader(new ByteArrayInputStream(vatSpyBytes), sourceCharset)
+        );
+        FIRBoundaryFile firBoundaryFile = new FIRBoundaryFileParser().deserialize(
+            new InputStreamReader(new ByteArrayInputStream(firBoundariesBytes), sourceCharset)
+        );
+
+        try {
+            write(vatSpyFile, firBoundaryFile, sourceHash, cacheFile);
+        } catch (IOException ex) {
+            LOGGER.warn("failed to write VAT-Spy cache {}", cacheFile, ex);
+        }
+
+        return new Data(vatSpyFile, firBoundaryFile, false);
+    }
+
+    /**
+     * Calculates the hash identifying the given source files.
+     *
+     * @param vatSpyDat        raw content of <code>VATSpy.dat</code>
+     * @param firBoundariesDat raw content of <code>FIRBoundaries.dat</code>
+     * @return hash identifying the source files
+     */
+    public static byte[] hash(byte[] vatSpyDat, byte[] firBoundariesDat) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException ex) {
+            // all Java platforms are required to support SHA-256
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not available", ex);
+        }
+
+        // lengths separate both files so content cannot shift between them
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(0, vatSpyDat.length));
+        digest.update(vatSpyDat);
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(0, firBoundariesDat.length));
+        digest.update(firBoundariesDat);
+
+        return digest.digest();
+    }
+
+    /**
+     * Writes the given reference data to a cache file. The file is written to a
+     * temporary file first and then moved to its final location, so concurrent
+     * readers never see an incomplete cache.
+     *
+     * @param vatSpyFile      content of <code>VATSpy.dat</code>
+     * @param firBoundaryFile content of <code>FIRBoundaries.dat</code>
+     * @param sourceHash      hash of source files, see
+     *                        {@link #hash(byte[], byte[])}
+     * @param cacheFile       path to write cache to
+     * @throws IOException if writing fails
+     */
+    public static void write(VatSpyFile vatSpyFile, FIRBoundaryFile firBoundaryFile, byte[] sourceHash, Path cacheFile) throws IOException {
+        Path directory = cacheFile.toAbsolutePath().getParent();
+        Path temporaryFile = Files.createTempFile(directory, cacheFile.getFileName().toString(), ".tmp");
+
+        try {
+            try (OutputStream os = Files.newOutputStream(temporaryFile)) {
+                write(vatSpyFile, firBoundaryFile, sourceHash, os);
+            }
+
+            try {
+                Files.move(temporaryFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temporaryFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * Writes the given reference data in cache format to a stream.
+     *
+     * @param vatSpyFile      content of <code>VATSpy.dat</code>
+     * @param firBoundaryFile content of <code>FIRBoundaries.dat</code>
+     * @param sourceHash      hash of source files, see
+     *                        {@link #hash(byte[], byte[])}
+     * @param os              stream to write to; will not be closed
+     * @throws IOException if writing fails
+     */
+    public static void write(VatSpyFile vatSpyFile, FIRBoundaryFile firBoundaryFile, byte[] sourceHash, OutputStream os) throws IOException {
+        DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(os));
+
+        dos.writeInt(MAGIC);
+        dos.writeInt(FORMAT_VERSION);
+        dos.writeInt(sourceHash.length);
+        dos.write(sourceHash);
+
+        dos.writeInt(vatSpyFile.getCountries().size());
+        for (Country country : vatSpyFile.getCountries()) {
+            writeString(dos, country.getName());
+            writeString(dos, country.getIcaoPrefix());
+            writeString(dos, country.getCenterName().orElse(null));
+        }
+
+        dos.writeInt(vatSpyFile.getAirports().size());
+        for (Airport airport : vatSpyFile.getAirports()) {
+            writeString(dos, airport.getIcaoCode());
+            writeString(dos, airport.getName());
+            writePoint(dos, airport.getLocation());
+            writeString(dos, airport.getAlternativeCode().orElse(null));
+            writeString(dos, airport.getFlightInformationRegionId());
+            dos.writeBoolean(airport.isPseudo());
+        }
+
+        dos.writeInt(vatSpyFile.getFlightInformationRegions().size());
+        for (FlightInformationRegion fir : vatSpyFile.getFlightInformationRegions()) {
+            writeString(dos, fir.getId());
+            writeString(dos, fir.getName());
+            writeString(dos, fir.getCallsignPrefix().orElse(null));
+            writeString(dos, fir.getBoundaryId().orElse(null));
+        }
+
+        dos.writeInt(vatSpyFile.getUpperInformationRegions().size());
+        for (UpperInformationRegion uir : vatSpyFile.getUpperInformationRegions()) {
+            writeString(dos, uir.getId());
+            writeString(dos, uir.getName());
+            dos.writeInt(uir.getFlightInformationRegionIds().size());
+            for (String firId : uir.getFlightInformationRegionIds()) {
+                writeString(dos, firId);
+            }
+        }
+
+        writePoints(dos, vatSpyFile.getInternationalDateLine());
+        writeParserLogEntries(dos, vatSpyFile.getParserLogEntries());
+
+        dos.writeInt(firBoundaryFile.getBoundaries().size());
+        for (FIRBoundary boundary : firBoundaryFile.getBoundaries()) {
+            writeString(dos, boundary.getId());
+            dos.writeBoolean(boundary.isOceanic());
+            dos.writeBoolean(boundary.isExtension());
+            writePoint(dos, boundary.getBoundsMinimum());
+            writePoint(dos, boundary.getBoundsMaximum());
+            writePoint(dos, boundary.getCenterPoint());
+            writePoints(dos, boundary.getPoints());
+        }
+
+        writeParserLogEntries(dos, firBoundaryFile.getParserLogEntries());
+
+        dos.flush();
+    }
+
+    /**
+     * Loads reference data from the given cache file if it has been compiled from
+     * source files matching the given hash.
+     *
+     * @param cacheFile          cache file to load
+     * @param expectedSourceHash hash of current source files, see
+     *                           {@link #hash(byte[], byte[])}
+     * @return reference data loaded from cache; null if cache is outdated, has an
+     *     incompatible format or is corrupted
+     * @throws IOException if the cache file cannot be read
+     */
+    public static Data load(Path cacheFile, byte[] expectedSourceHash) throws IOException {
+        try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return load(buffer, expectedSourceHash);
+        }
+    }
+
+    /**
+     * Loads reference data from the given buffer holding cache data if it has been
+     * compiled from source files matching the given hash.
+     *
+     * @param buffer             buffer holding cache data
+     * @param expectedSourceHash hash of current source files, see
+     *                           {@link #hash(byte[], byte[])}
+     * @return reference data loaded from cache; null if cache is outdated, has an
+     *     incompatible format or is corrupted
+     */
+    public static Data load(ByteBuffer buffer, byte[] expectedSourceHash) {
+        try {
+            if ((buffer.getInt() != MAGIC) || (buffer.getInt() != FORMAT_VERSION)) {
+                LOGGER.debug("VAT-Spy cache has an incompatible format");
+                return null;
+            }
+
+            byte[] sourceHash = new byte[buffer.getInt()];
+            buffer.get(sourceHash);
+            if (!Arrays.equals(sourceHash, expectedSourceHash)) {
+                LOGGER.debug("VAT-Spy cache is outdated");
+                return null;
+            }
+
+            VatSpyFile vatSpyFile = new VatSpyFile();
+
+            int numCountries = buffer.getInt();
+            for (int i = 0; i < numCountries; i++) {
+                vatSpyFile.addCountry(new Country(readString(buffer), readString(buffer), readString(buffer)));
+            }
+
+            int numAirports = buffer.getInt();
+            for (int i = 0; i < numAirports; i++) {
+                vatSpyFile.addAirport(new Airport(
+                    readString(buffer),
+                    readString(buffer),
+                    readPoint(buffer),
+                    readString(buffer),
+                    readString(buffer),
+                    readBoolean(buffer)
+                ));
+            }
+
+            int numFlightInformationRegions = buffer.getInt();
+            for (int i = 0; i < numFlightInformationRegions; i++) {
+                vatSpyFile.addFlightInformationRegion(new FlightInformationRegion(
+                    readString(buffer), readString(buffer), readString(buffer), readString(buffer)
+                ));
+            }
+
+            int numUpperInformationRegions = buffer.getInt();
+            for (int i = 0; i < numUpperInformationRegions; i++) {
+                String id = readString(buffer);
+                String name = readString(buffer);
+                int numFirs = buffer.getInt();
+                List<String> firIds = new ArrayList<>(numFirs);
+                for (int j = 0; j < numFirs; j++) {
+                    firIds.add(readString(buffer));
+                }
+                vatSpyFile.addUpperInformationRegion(new UpperInformationRegion(id, name, firIds));
+            }
+
+            for (GeoPoint2D point : readPoints(buffer)) {
+                vatSpyFile.addInternationalDateLinePoint(point);
+            }
+
+            readParserLogEntries(buffer, vatSpyFile);
+
+            FIRBoundaryFile firBoundaryFile = new FIRBoundaryFile();
+
+            int numBoundaries = buffer.getInt();
+            for (int i = 0; i < numBoundaries; i++) {
+                firBoundaryFile.add(new FIRBoundary(
+                    readString(buffer),
+                    readBoolean(buffer),
+                    readBoolean(buffer),
+                    readPoint(buffer),
+                    readPoint(buffer),
+                    readPoint(buffer),
+                    readPoints(buffer)
+                ));
+            }
+
+            readParserLogEntries(buffer, firBoundaryFile);
+
+            return new Data(vatSpyFile, firBoundaryFile, true);
+        } catch (BufferUnderflowException | IllegalArgumentException ex) {
+            LOGGER.warn("VAT-Spy cache is corrupted", ex);
+            return null;
+        }
+    }
+
+    private static void writeString(DataOutputStream dos, String s) throws IOException {
+        if (s == null) {
+            dos.writeInt(NULL_STRING_LENGTH);
+            return;
+        }
+
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        dos.writeInt(bytes.length);
+        dos.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NULL_STRING_LENGTH) {
+            return null;
+        }
+
+        if ((length < 0) || (length > buffer.remaining())) {
+            throw new IllegalArgumentException("invalid string length " + length);
+        }
+
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static boolean readBoolean(ByteBuffer buffer) {
+        return buffer.get() != 0;
+    }
+
+    private static void writePoint(DataOutputStream dos, GeoPoint2D point) throws IOException {
+        dos.writeDouble(point.getLatitude());
+        dos.writeDouble(point.getLongitude());
+    }
+
+    private static GeoPoint2D readPoint(ByteBuffer buffer) {
+        return new GeoPoint2D(buffer.getDouble(), buffer.getDouble());
+    }
+
+    private static void writePoints(DataOutputStream dos, List<GeoPoint2D> points) throws IOException {
+        dos.writeInt(points.size());
+        for (GeoPoint2D point : points) {
+            writePoint(dos, point);
+        }
+    }
+
+    private static List<GeoPoint2D> readPoints(ByteBuffer buffer) {
+        int numPoints = buffer.getInt();
+        if ((numPoints < 0) || (numPoints > buffer.remaining() / (2 * Double.BYTES))) {
+            throw new IllegalArgumentException("invalid number of points " + numPoints);
+        }
+
+        List<GeoPoint2D> points = new ArrayList<>(numPoints);
+        for (int i = 0; i < numPoints; i++) {
+            points.add(readPoint(buffer));
+        }
+        return points;
+    }
+
+    private static void writeParserLogEntries(DataOutputStream dos, Collection<ParserLogEntry> entries) throws IOException {
+        dos.writeInt(entries.size());
+        for (ParserLogEntry entry : entries) {
+            writeString(dos, entry.getSection());
+            writeString(dos, entry.getLineContent());
+            dos.writeBoolean(entry.isLineRejected());
+            writeString(dos, entry.getMessage());
+        }
+    }
+
+    private static void readParserLogEntries(ByteBuffer buffer, ParserLogEntryCollector collector) {
+        int numEntries = buffer.getInt();
+        for (int i = 0; i < numEntries; i++) {
+            collector.addParserLogEntry(new ParserLogEntry(
+                readString(buffer),
+                readString(buffer),
+                readBoolean(buffer),
+                readString(buffer),
+                null
+            ));
+        }
+    }
+}
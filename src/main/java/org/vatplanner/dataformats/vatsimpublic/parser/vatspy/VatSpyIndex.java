@@ -0,0 +1,325 @@
+package org.vatplanner.dataformats.vatsimpublic.parser.vatspy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable index on the content of a {@link VatSpyFile} for fast lookups by
+ * ICAO code, alternative code, FIR/UIR ID and ATC callsign.
+ *
+ * <p>
+ * The index is a snapshot taken on construction; later modifications of the
+ * {@link VatSpyFile} are not reflected. All lookups are case-sensitive except
+ * for {@link #resolveCallsign(String)} which normalizes callsigns to upper case.
+ * Instances are thread-safe.
+ * </p>
+ *
+ * <p>
+ * Callsigns are resolved following VAT-Spy's rules: The last part after an
+ * underscore determines the type of station, the remaining parts are matched
+ * against a prefix trie, preferring the longest match that ends on an
+ * underscore boundary. Airport stations ({@code DEL}, {@code RMP}, {@code GND},
+ * {@code TWR}, {@code APP}, {@code DEP}, {@code ATIS}) are matched by ICAO code
+ * or alternative code, for example <code>EDDF_N_TWR</code> resolves to the
+ * airport <code>EDDF</code>. Center stations ({@code CTR}, {@code FSS}) are
+ * matched by FIR callsign prefix, FIR ID or UIR ID, in that order of
+ * precedence, for example <code>EDGG_CTR</code> resolves to the FIR
+ * <code>EDGG</code> while <code>EURM_CTR</code> resolves to the UIR
+ * <code>EURM</code> and all FIRs it consists of. Non-pseudo airports take
+ * precedence over pseudo airports and ICAO codes over alternative codes; ties
+ * are decided by order of appearance in the file.
+ * </p>
+ */
+public class VatSpyIndex {
+    private static final char CALLSIGN_SEPARATOR = '_';
+
+    private static final String[] AIRPORT_SUFFIXES = { "DEL", "RMP", "GND", "TWR", "APP", "DEP", "ATIS" };
+    private static final String[] CENTER_SUFFIXES = { "CTR", "FSS" };
+
+    private final Map<String, Airport> airportsByIcaoCode = new HashMap<>();
+    private final Map<String, List<Airport>> airportsByAlternativeCode = new HashMap<>();
+    private final Map<String, List<FlightInformationRegion>> flightInformationRegionsById = new HashMap<>();
+    private final Map<String, UpperInformationRegion> upperInformationRegionsById = new HashMap<>();
+    private final Map<String, List<FlightInformationRegion>> flightInformationRegionsByUpperInformationRegionId = new HashMap<>();
+
+    private final PrefixTrie<CallsignResolution> airportCallsigns = new PrefixTrie<>();
+    private final PrefixTrie<CallsignResolution> centerCallsigns = new PrefixTrie<>();
+
+    /**
+     * Character-based trie storing values for strings. Lookups do not allocate
+     * any objects.
+     *
+     * @param <T> type of values
+     */
+    private static class PrefixTrie<T> {
+        private final Node<T> root = new Node<>();
+
+        private static class Node<T> {
+            private char[] keys = new char[0];
+            @SuppressWarnings("unchecked")
+            private Node<T>[] children = new Node[0];
+            private T value;
+
+            private Node<T> child(char key) {
+                int index = Arrays.binarySearch(keys, key);
+                return (index < 0) ? null : children[index];
+            }
+
+            private Node<T> getOrAddChild(char key) {
+                int index = Arrays.binarySearch(keys, key);
+                if (index >= 0) {
+                    return children[index];
+                }
+
+                int insertAt = -index - 1;
+                Node<T> child = new Node<>();
+
+                char[] newKeys = new char[keys.length + 1];
+                System.arraycopy(keys, 0, newKeys, 0, insertAt);
+                System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+                newKeys[insertAt] = key;
+
+                Node<T>[] newChildren = Arrays.copyOf(children, children.length + 1);
+                System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+                newChildren[insertAt] = child;
+
+                keys = newKeys;
+                children = newChildren;
+
+                return child;
+            }
+        }
+
+        /**
+         * Stores the given value unless a value has already been stored for the
+         * same key.
+         *
+         * @param key   key to store value for
+         * @param value value to store
+         */
+        void putIfAbsent(String key, T value) {
+            Node<T> node = root;
+            for (int i = 0; i < key.length(); i++) {
+                node = node.getOrAddChild(key.charAt(i));
+            }
+
+            if (node.value == null) {
+                node.value = value;
+            }
+        }
+
+        /**
+         * Finds the value stored for the longest prefix of the given string region
+         * which is followed by a separator or the end of the region.
+         *
+         * @param s         string to search
+         * @param end       exclusive end index of the region starting at 0
+         * @param separator character delimiting the parts of the string
+         * @return value of longest prefix; null if no prefix matches
+         */
+        T findLongestPrefix(String s, int end, char separator) {
+            T found = null;
+            Node<T> node = root;
+            for (int i = 0; i < end; i++) {
+                char ch = s.charAt(i);
+                if ((ch == separator) && (node.value != null)) {
+                    found = node.value;
+                }
+
+                node = node.child(ch);
+                if (node == null) {
+                    return found;
+                }
+            }
+
+            return (node.value != null) ? node.value : found;
+        }
+    }
+
+    /**
+     * Builds an index on the current content of the given {@link VatSpyFile}.
+     *
+     * @param vatSpyFile file to index
+     */
+    public VatSpyIndex(VatSpyFile vatSpyFile) {
+        indexAirports(vatSpyFile.getAirports());
+        indexRegions(vatSpyFile.getFlightInformationRegions(), vatSpyFile.getUpperInformationRegions());
+    }
+
+    private void indexAirports(Iterable<Airport> airports) {
+        List<Airport> prioritized = new ArrayList<>();
+        for (Airport airport : airports) {
+            if (!airport.isPseudo()) {
+                prioritized.add(airport);
+            }
+        }
+        for (Airport airport : airports) {
+            if (airport.isPseudo()) {
+                prioritized.add(airport);
+            }
+        }
+
+        for (Airport airport : prioritized) {
+            airportsByIcaoCode.putIfAbsent(airport.getIcaoCode(), airport);
+            airportCallsigns.putIfAbsent(
+                airport.getIcaoCode(),
+                CallsignResolution.forAirport(airport.getIcaoCode(), airport)
+            );
+        }
+
+        for (Airport airport : prioritized) {
+            airport.getAlternativeCode().ifPresent(alternativeCode -> {
+                airportsByAlternativeCode.computeIfAbsent(alternativeCode, x -> new ArrayList<>()).add(airport);
+                airportCallsigns.putIfAbsent(
+                    alternativeCode,
+                    CallsignResolution.forAirport(alternativeCode, airport)
+                );
+            });
+        }
+    }
+
+    private void indexRegions(Iterable<FlightInformationRegion> firs, Iterable<UpperInformationRegion> uirs) {
+        for (FlightInformationRegion fir : firs) {
+            flightInformationRegionsById.computeIfAbsent(fir.getId(), x -> new ArrayList<>()).add(fir);
+            fir.getCallsignPrefix().ifPresent(callsignPrefix -> centerCallsigns.putIfAbsent(
+                callsignPrefix,
+                CallsignResolution.forFlightInformationRegion(callsignPrefix, fir)
+            ));
+        }
+
+        for (FlightInformationRegion fir : firs) {
+            centerCallsigns.putIfAbsent(
+                fir.getId(),
+                CallsignResolution.forFlightInformationRegion(fir.getId(), fir)
+            );
+        }
+
+        for (UpperInformationRegion uir : uirs) {
+            if (upperInformationRegionsById.putIfAbsent(uir.getId(), uir) != null) {
+                continue;
+            }
+
+            // expand in order of FIRs in file for stable results
+            List<FlightInformationRegion> expanded = new ArrayList<>();
+            for (FlightInformationRegion fir : firs) {
+                if (uir.getFlightInformationRegionIds().contains(fir.getId())) {
+                    expanded.add(fir);
+                }
+            }
+            expanded = Collections.unmodifiableList(expanded);
+
+            flightInformationRegionsByUpperInformationRegionId.put(uir.getId(), expanded);
+            centerCallsigns.putIfAbsent(
+                uir.getId(),
+                CallsignResolution.forUpperInformationRegion(uir.getId(), uir, expanded)
+            );
+        }
+    }
+
+    /**
+     * Looks up an airport by ICAO code. Non-pseudo airports are preferred if the
+     * code is used multiple times.
+     *
+     * @param icaoCode ICAO code of airport
+     * @return airport; empty if not found
+     */
+    public Optional<Airport> getAirportByIcaoCode(String icaoCode) {
+        return Optional.ofNullable(airportsByIcaoCode.get(icaoCode));
+    }
+
+    /**
+     * Looks up all airports using the given alternative code (IATA code or FAA
+     * LID). Non-pseudo airports are listed first.
+     *
+     * @param alternativeCode alternative code of airports
+     * @return all airports using the code; empty if none
+     */
+    public List<Airport> getAirportsByAlternativeCode(String alternativeCode) {
+        return Collections.unmodifiableList(
+            airportsByAlternativeCode.getOrDefault(alternativeCode, Collections.emptyList())
+        );
+    }
+
+    /**
+     * Looks up all FIRs with given ID. VAT-Spy lists some FIRs multiple times
+     * with different callsign prefixes or boundaries, for example to separate
+     * oceanic from domestic sectors.
+     *
+     * @param id FIR ID
+     * @return all FIRs with given ID in order of appearance; empty if none
+     */
+    public List<FlightInformationRegion> getFlightInformationRegionsById(String id) {
+        return Collections.unmodifiableList(
+            flightInformationRegionsById.getOrDefault(id, Collections.emptyList())
+        );
+    }
+
+    /**
+     * Looks up an UIR by ID.
+     *
+     * @param id UIR ID
+     * @return UIR; empty if not found
+     */
+    public Optional<UpperInformationRegion> getUpperInformationRegionById(String id) {
+        return Optional.ofNullable(upperInformationRegionsById.get(id));
+    }
+
+    /**
+     * Expands the UIR of given ID to all FIRs it consists of. FIR IDs which are
+     * not defined in the file are omitted.
+     *
+     * @param id UIR ID
+     * @return all FIRs of the UIR in order of appearance; empty if UIR is unknown
+     */
+    public List<FlightInformationRegion> getFlightInformationRegionsByUpperInformationRegionId(String id) {
+        return flightInformationRegionsByUpperInformationRegionId.getOrDefault(id, Collections.emptyList());
+    }
+
+    /**
+     * Resolves an ATC callsign to the airport, FIR or UIR it is staffing; see
+     * class description for matching rules.
+     *
+     * @param callsign ATC callsign, for example <code>EDDF_N_TWR</code>
+     * @return resolved station; empty if the callsign could not be resolved or
+     *     does not denote an airport or center station
+     */
+    public Optional<CallsignResolution> resolveCallsign(String callsign) {
+        if (callsign == null) {
+            return Optional.empty();
+        }
+
+        String normalized = callsign.trim().toUpperCase(Locale.ROOT);
+        int suffixSeparator = normalized.lastIndexOf(CALLSIGN_SEPARATOR);
+        if (suffixSeparator <= 0) {
+            return Optional.empty();
+        }
+
+        PrefixTrie<CallsignResolution> trie;
+        if (hasSuffix(normalized, suffixSeparator, AIRPORT_SUFFIXES)) {
+            trie = airportCallsigns;
+        } else if (hasSuffix(normalized, suffixSeparator, CENTER_SUFFIXES)) {
+            trie = centerCallsigns;
+        } else {
+            return Optional.empty();
+        }
+
+        return Optional.ofNullable(trie.findLongestPrefix(normalized, suffixSeparator, CALLSIGN_SEPARATOR));
+    }
+
+    private static boolean hasSuffix(String callsign, int suffixSeparator, String[] suffixes) {
+        int suffixStart = suffixSeparator + 1;
+        int suffixLength = callsign.length() - suffixStart;
+        for (String suffix : suffixes) {
+            if ((suffix.length() == suffixLength) && callsign.startsWith(suffix, suffixStart)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
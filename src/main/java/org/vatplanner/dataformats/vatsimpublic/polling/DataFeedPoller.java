@@ -0,0 +1,582 @@
+package org.vatplanner.dataformats.vatsimpublic.polling;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.vatplanner.dataformats.vatsimpublic.MinimumRetrievalIntervalProvider;
+import org.vatplanner.dataformats.vatsimpublic.parser.DataFile;
+import org.vatplanner.dataformats.vatsimpublic.parser.NetworkInformation;
+import org.vatplanner.dataformats.vatsimpublic.parser.Parser;
+
+/**
+ * Periodically retrieves and parses a data feed over HTTP while avoiding
+ * redundant downloads and parsing.
+ *
+ * <p>
+ * URLs are provided by a {@link Supplier}, usually backed by
+ * {@link NetworkInformation#getDataUrls(org.vatplanner.dataformats.vatsimpublic.parser.NetworkInformationDataKeyProvider)}.
+ * All listed URLs are treated as mirrors of each other: If a request fails, the
+ * next mirror is tried immediately and will remain in use for following polls
+ * until it fails as well.
+ * </p>
+ *
+ * <p>
+ * Each poll sends conditional requests ({@code If-None-Match} and
+ * {@code If-Modified-Since}) based on validators previously received from the
+ * same mirror, so unchanged feeds are answered with <code>304 Not
+ * Modified</code> instead of being downloaded again. Content which has been
+ * downloaded is only parsed if it differs from the content processed last,
+ * judged by a SHA-256 hash and an optional update marker (such as the
+ * <code>UPDATE</code> timestamp of a {@link DataFile}, see
+ * {@link DataFileUpdateMarkerExtractor}). Only parsed results are handed to the
+ * consumer.
+ * </p>
+ *
+ * <p>
+ * The delay between polls honors the minimum retrieval interval requested by
+ * the last parsed result (see {@link MinimumRetrievalIntervalProvider}) but will
+ * never be shorter than the configured minimum interval. A random jitter is
+ * added to avoid synchronized requests of many clients. After failures, polls
+ * are retried at the configured failure retry interval instead.
+ * </p>
+ *
+ * <p>
+ * Polls can either be run manually by calling {@link #poll()} or scheduled on
+ * an executor using {@link #start(ScheduledExecutorService)}. Instances are
+ * thread-safe.
+ * </p>
+ *
+ * @param <T> type of parsed results
+ */
+public class DataFeedPoller<T> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DataFeedPoller.class);
+
+    /**
+     * Default minimum interval between polls if feed does not request a longer
+     * interval.
+     */
+    public static final Duration DEFAULT_MINIMUM_INTERVAL = Duration.ofSeconds(15);
+
+    /**
+     * Default maximum random delay added to each interval.
+     */
+    public static final Duration DEFAULT_MAXIMUM_JITTER = Duration.ofSeconds(2);
+
+    /**
+     * Default interval before retrying after all mirrors failed.
+     */
+    public static final Duration DEFAULT_FAILURE_RETRY_INTERVAL = Duration.ofSeconds(30);
+
+    /**
+     * Default timeout for connecting and reading.
+     */
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final int BUFFER_SIZE = 16384;
+
+    private static final String HEADER_ACCEPT_ENCODING = "Accept-Encoding";
+    private static final String HEADER_CONTENT_ENCODING = "Content-Encoding";
+    private static final String HEADER_ETAG = "ETag";
+    private static final String HEADER_IF_MODIFIED_SINCE = "If-Modified-Since";
+    private static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+    private static final String HEADER_LAST_MODIFIED = "Last-Modified";
+    private static final String ENCODING_GZIP = "gzip";
+
+    private final Parser<T> parser;
+
+    private Supplier<List<URL>> urlSupplier = Collections::emptyList;
+    private Consumer<? super T> consumer = result -> {
+        // ignore by default
+    };
+    private Function<? super T, ? extends MinimumRetrievalIntervalProvider> intervalProviderExtractor = DataFeedPoller::castToIntervalProvider;
+    private Function<byte[], String> updateMarkerExtractor = content -> null;
+    private Charset charset = UTF_8;
+    private Duration minimumInterval = DEFAULT_MINIMUM_INTERVAL;
+    private Duration maximumJitter = DEFAULT_MAXIMUM_JITTER;
+    private Duration failureRetryInterval = DEFAULT_FAILURE_RETRY_INTERVAL;
+    private Duration timeout = DEFAULT_TIMEOUT;
+    private Random random = new Random();
+
+    private final Map<URL, Validators> validatorsByUrl = new HashMap<>();
+    private int mirrorIndex = 0;
+    private byte[] lastContentHash;
+    private String lastUpdateMarker;
+    private Duration requestedInterval;
+    private Outcome lastOutcome;
+
+    private final Object scheduleLock = new Object();
+    private ScheduledExecutorService executor;
+    private ScheduledFuture<?> scheduledPoll;
+
+    /**
+     * Outcome of a single poll.
+     */
+    public static enum Outcome {
+        /**
+         * New content has been downloaded, parsed and handed to the consumer.
+         */
+        UPDATED,
+
+        /**
+         * The server indicated that content has not been modified since last
+         * retrieval; nothing has been downloaded.
+         */
+        NOT_MODIFIED,
+
+        /**
+         * Content has been downloaded but is identical to the last processed
+         * content; it has not been parsed.
+         */
+        UNCHANGED_CONTENT,
+
+        /**
+         * Content has been downloaded but carries the same update marker as the
+         * last processed content; it has not been parsed.
+         */
+        UNCHANGED_UPDATE_MARKER,
+
+        /**
+         * Content could not be retrieved or parsed from any mirror.
+         */
+        FAILED;
+    }
+
+    private static class Validators {
+        private final String etag;
+        private final String lastModified;
+
+        private Validators(String etag, String lastModified) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+    }
+
+    private static class Response {
+        private final int statusCode;
+        private final byte[] content;
+        private final Validators validators;
+
+        private Response(int statusCode, byte[] content, Validators validators) {
+            this.statusCode = statusCode;
+            this.content = content;
+            this.validators = validators;
+        }
+    }
+
+    /**
+     * Creates a new poller using the given parser.
+     *
+     * @param parser parses retrieved content
+     */
+    public DataFeedPoller(Parser<T> parser) {
+        if (parser == null) {
+            throw new IllegalArgumentException("parser must not be null");
+        }
+
+        this.parser = parser;
+    }
+
+    /**
+     * Sets the URLs to poll. All URLs are expected to be mirrors of each other.
+     *
+     * @param urls mirror URLs, tried in given order
+     * @return this instance for method-chaining
+     */
+    public DataFeedPoller<T> setUrls(List<URL> urls) {
+        List<URL> copy = Collections.unmodifiableList(Arrays.asList(urls.toArray(new URL[0])));
+        return setUrlSupplier(() -> copy);
+    }
+
+    /**
+     * Sets a supplier to query for URLs before each poll. This allows mirrors to
+     * be updated, for example from a periodically reloaded
+     * {@link NetworkInformation}.
+     *
+     * @param urlSupplier provides mirror URLs, tried in given order
+     * @return this instance for method-chaining
+     */
+    public DataFeedPoller<T> setUrlSupplier(Supplier<List<URL>> urlSupplier) {
+        this.urlSupplier = urlSupplier;
+        return this;
+    }
+
+    /**
+     * Sets the consumer to hand parsed results to. The consumer is called from
+     * the polling thread.
+     *
+     * @param consumer receives parsed results
+     * @return this instance for method-chaining
+     */
+    public DataFeedPoller<T> setConsumer(Consumer<? super T> consumer) {
+        this.consumer = consumer;
+        return this;
+    }
+
+    /**
+     * Sets the function to locate the {@link MinimumRetrievalIntervalProvider} on
+     * a parsed result, for example <code>DataFile::getMetaData</code>. By
+     * default, results are only used if they implement the interface themselves.
+     *
+     * @param intervalProviderExtractor locates the interval provider of parsed
+     *                                  results; may return null
+     * @return this instance for method-chaining
+     */
+    public DataFeedPoller<T> setIntervalProviderExtractor(Function<? super T, ? extends MinimumRetrievalIntervalProvider> intervalProviderExtractor) {
+        this.intervalProviderExtractor = intervalProviderExtractor;
+        return this;
+    }
+
+    /**
+     * Sets the function to extract an update marker from raw content. Content
+     * with the same marker as previously processed content is not parsed again.
+     * No markers are extracted by default.
+     *
+     * @param updateMarkerExtractor extracts update markers from raw content; may
+     *                              return null if no marker is found
+     * @return this instance for method-chaining
+     * @see DataFileUpdateMarkerExtractor
+     */
+    public DataFeedPoller<T> setUpdateMarkerExtractor(Function<byte[], String> updateMarkerExtractor) {
+        this.updateMarkerExtractor = updateMarkerExtractor;
+        return this;
+    }
+
+    /**
+     * Sets the character set to decode content with. Defaults to UTF-8.
+     *
+     * @param charset character set of content
+     * @return this instance for method-chaining
+     */
+    public DataFeedPoller<T> setCharset(Charset charset) {
+        this.charset = charset;
+        return this;
+    }
+
+    /**
+     * Sets the minimum interval between polls. Longer intervals requested by the
+     * feed take precedence.
+     *
+     * @param minimumInterval minimum interval between polls
+     * @return this instance for method-chaining
+     * @throws IllegalArgumentException if interval is negative
+     */
+    public DataFeedPoller<T> setMinimumInterval(Duration minimumInterval) {
+        this.minimumInterval = requireNonNegative(minimumInterval, "minimum interval");
+        return this;
+    }
+
+    /**
+     * Sets the maximum random delay to add to each interval. Set to zero to
+     * disable jitter.
+     *
+     * @param maximumJitter maximum random delay
+     * @return this instance for method-chaining
+     * @throws IllegalArgumentException if jitter is negative
+     */
+    public DataFeedPoller<T> setMaximumJitter(Duration maximumJitter) {
+        this.maximumJitter = requireNonNegative(maximumJitter, "maximum jitter");
+        return this;
+    }
+
+    /**
+     * Sets the interval to wait before polling again after all mirrors failed.
+     *
+     * @param failureRetryInterval interval to wait after failure
+     * @return this instance for method-chaining
+     * @throws IllegalArgumentException if interval is negative
+     */
+    public DataFeedPoller<T> setFailureRetryInterval(Duration failureRetryInterval) {
+        this.failureRetryInterval = requireNonNegative(failureRetryInterval, "failure retry interval");
+        return this;
+    }
+
+    /**
+     * Sets the timeout for connecting to a mirror and for reading from it.
+     *
+     * @param timeout connect and read timeout
+     * @return this instance for method-chaining
+     * @throws IllegalArgumentException if timeout is not positive
+     */
+    public DataFeedPoller<T> setTimeout(Duration timeout) {
+        if ((timeout == null) || timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("timeout must be positive, got " + timeout);
+        }
+
+        this.timeout = timeout;
+        return this;
+    }
+
+    DataFeedPoller<T> setRandom(Random random) {
+        this.random = random;
+        return this;
+    }
+
+    private static Duration requireNonNegative(Duration duration, String description) {
+        if ((duration == null) || duration.isNegative()) {
+            throw new IllegalArgumentException(description + " must not be negative, got " + duration);
+        }
+        return duration;
+    }
+
+    private static MinimumRetrievalIntervalProvider castToIntervalProvider(Object result) {
+        return (result instanceof MinimumRetrievalIntervalProvider) ? (MinimumRetrievalIntervalProvider) result : null;
+    }
+
+    /**
+     * Starts polling on the given executor. The first poll is run immediately,
+     * following polls are scheduled according to
+     * {@link #getDelayBeforeNextPoll()}.
+     *
+     * @param executor executor to run polls on
+     * @return this instance for method-chaining
+     * @throws IllegalStateException if already started
+     */
+    public DataFeedPoller<T> start(ScheduledExecutorService executor) {
+        synchronized (scheduleLock) {
+            if (this.executor != null) {
+                throw new IllegalStateException("poller has already been started");
+            }
+
+            this.executor = executor;
+            scheduleNextPoll(Duration.ZERO);
+        }
+
+        return this;
+    }
+
+    /**
+     * Stops polling. A poll currently in progress will complete but no further
+     * polls will be scheduled.
+     */
+    public void stop() {
+        synchronized (scheduleLock) {
+            executor = null;
+            if (scheduledPoll != null) {
+                scheduledPoll.cancel(false);
+                scheduledPoll = null;
+            }
+        }
+    }
+
+    private void scheduleNextPoll(Duration delay) {
+        scheduledPoll = executor.schedule(this::runScheduledPoll, delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void runScheduledPoll() {
+        try {
+            poll();
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Poll failed unexpectedly", ex);
+        }
+
+        synchronized (scheduleLock) {
+            if (executor != null) {
+                scheduleNextPoll(getDelayBeforeNextPoll());
+            }
+        }
+    }
+
+    /**
+     * Polls the feed once, trying all mirrors until one succeeds.
+     *
+     * @return outcome of the poll
+     */
+    public synchronized Outcome poll() {
+        List<URL> urls = urlSupplier.get();
+        if ((urls == null) || urls.isEmpty()) {
+            LOGGER.warn("No URLs available to poll");
+            lastOutcome = Outcome.FAILED;
+            return lastOutcome;
+        }
+
+        for (int attempt = 0; attempt < urls.size(); attempt++) {
+            URL url = urls.get(mirrorIndex % urls.size());
+            try {
+                lastOutcome = poll(url);
+                return lastOutcome;
+            } catch (IOException | RuntimeException ex) {
+                LOGGER.warn("Polling {} failed, rotating to next mirror", url, ex);
+                mirrorIndex = (mirrorIndex + 1) % urls.size();
+            }
+        }
+
+        lastOutcome = Outcome.FAILED;
+        return lastOutcome;
+    }
+
+    private Outcome poll(URL url) throws IOException {
+        Response response = fetch(url, validatorsByUrl.get(url));
+        if (response.statusCode == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            return Outcome.NOT_MODIFIED;
+        }
+
+        byte[] contentHash = hash(response.content);
+        if (Arrays.equals(contentHash, lastContentHash)) {
+            validatorsByUrl.put(url, response.validators);
+            return Outcome.UNCHANGED_CONTENT;
+        }
+
+        String updateMarker = updateMarkerExtractor.apply(response.content);
+        if ((updateMarker != null) && updateMarker.equals(lastUpdateMarker)) {
+            validatorsByUrl.put(url, response.validators);
+            lastContentHash = contentHash;
+            return Outcome.UNCHANGED_UPDATE_MARKER;
+        }
+
+        T result;
+        try (Reader reader = new InputStreamReader(new ByteArrayInputStream(response.content), charset)) {
+            result = parser.deserialize(reader);
+        }
+
+        // only remember content once it has been processed successfully, so
+        // failed content will be retrieved again on next poll
+        validatorsByUrl.put(url, response.validators);
+        lastContentHash = contentHash;
+        lastUpdateMarker = updateMarker;
+
+        MinimumRetrievalIntervalProvider intervalProvider = intervalProviderExtractor.apply(result);
+        requestedInterval = (intervalProvider != null) ? intervalProvider.getMinimumRetrievalInterval() : null;
+
+        try {
+            consumer.accept(result);
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Consumer failed to process result polled from {}", url, ex);
+        }
+
+        return Outcome.UPDATED;
+    }
+
+    private Response fetch(URL url, Validators validators) throws IOException {
+        URLConnection connection = url.openConnection();
+        if (!(connection instanceof HttpURLConnection)) {
+            throw new IOException("not an HTTP URL: " + url);
+        }
+
+        HttpURLConnection httpConnection = (HttpURLConnection) connection;
+        try {
+            httpConnection.setConnectTimeout((int) timeout.toMillis());
+            httpConnection.setReadTimeout((int) timeout.toMillis());
+            httpConnection.setUseCaches(false);
+            httpConnection.setRequestProperty(HEADER_ACCEPT_ENCODING, ENCODING_GZIP);
+            if (validators != null) {
+                if (validators.etag != null) {
+                    httpConnection.setRequestProperty(HEADER_IF_NONE_MATCH, validators.etag);
+                }
+                if (validators.lastModified != null) {
+                    httpConnection.setRequestProperty(HEADER_IF_MODIFIED_SINCE, validators.lastModified);
+                }
+            }
+
+            int statusCode = httpConnection.getResponseCode();
+            if (statusCode == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                return new Response(statusCode, null, validators);
+            }
+
+            if (statusCode != HttpURLConnection.HTTP_OK) {
+                throw new IOException("unexpected HTTP status " + statusCode + " from " + url);
+            }
+
+            Validators newValidators = new Validators(
+                httpConnection.getHeaderField(HEADER_ETAG),
+                httpConnection.getHeaderField(HEADER_LAST_MODIFIED)
+            );
+
+            try (InputStream is = decode(httpConnection)) {
+                return new Response(statusCode, readFully(is), newValidators);
+            }
+        } finally {
+            httpConnection.disconnect();
+        }
+    }
+
+    private static InputStream decode(HttpURLConnection connection) throws IOException {
+        InputStream is = connection.getInputStream();
+        if (ENCODING_GZIP.equalsIgnoreCase(connection.getHeaderField(HEADER_CONTENT_ENCODING))) {
+            return new GZIPInputStream(is, BUFFER_SIZE);
+        }
+        return is;
+    }
+
+    private static byte[] readFully(InputStream is) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = is.read(buffer)) >= 0) {
+            baos.write(buffer, 0, read);
+        }
+        return baos.toByteArray();
+    }
+
+    private static byte[] hash(byte[] content) {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM).digest(content);
+        } catch (NoSuchAlgorithmException ex) {
+            // all Java platforms are required to support SHA-256
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not available", ex);
+        }
+    }
+
+    /**
+     * Returns the outcome of the last poll.
+     *
+     * @return outcome of last poll; null if not polled yet
+     */
+    public synchronized Outcome getLastOutcome() {
+        return lastOutcome;
+    }
+
+    /**
+     * Returns the delay to wait before polling again, based on the outcome of the
+     * last poll. Includes a random jitter, so results differ between calls.
+     *
+     * @return delay to wait before next poll
+     */
+    public synchronized Duration getDelayBeforeNextPoll() {
+        if (lastOutcome == null) {
+            return Duration.ZERO;
+        }
+
+        Duration interval = minimumInterval;
+        if (lastOutcome == Outcome.FAILED) {
+            interval = failureRetryInterval;
+        } else if ((requestedInterval != null) && (requestedInterval.compareTo(interval) > 0)) {
+            interval = requestedInterval;
+        }
+
+        long jitterMillis = maximumJitter.toMillis();
+        if (jitterMillis > 0) {
+            interval = interval.plusMillis((long) (random.nextDouble() * jitterMillis));
+        }
+
+        return interval;
+    }
+}
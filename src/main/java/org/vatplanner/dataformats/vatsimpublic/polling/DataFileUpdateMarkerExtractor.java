@@ -0,0 +1,72 @@
+package org.vatplanner.dataformats.vatsimpublic.polling;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.vatplanner.dataformats.vatsimpublic.parser.DataFile;
+
+/**
+ * Extracts the update timestamp of raw {@link DataFile}s without parsing them,
+ * to be used as update marker by {@link DataFeedPoller}. Both the legacy format
+ * (<code>UPDATE = ...</code> in the <code>GENERAL</code> section) and JSON
+ * formats (<code>"update": "..."</code> in the <code>general</code> object) are
+ * supported.
+ *
+ * <p>
+ * Only the beginning of the content is searched as the general section is
+ * expected to be located at the start of data files. <code>null</code> is
+ * returned if no timestamp is found, so the content will always be parsed.
+ * </p>
+ */
+public class DataFileUpdateMarkerExtractor implements Function<byte[], String> {
+    private static final int DEFAULT_MAXIMUM_SEARCH_LENGTH = 16384;
+
+    private static final Pattern PATTERN = Pattern.compile(
+        "^UPDATE\\s*=\\s*(\\S+)\\s*$|\"update\"\\s*:\\s*\"([^\"]*)\"",
+        Pattern.MULTILINE
+    );
+    private static final int PATTERN_LEGACY = 1;
+    private static final int PATTERN_JSON = 2;
+
+    private final int maximumSearchLength;
+
+    /**
+     * Creates a new extractor searching the first 16 KiB of content.
+     */
+    public DataFileUpdateMarkerExtractor() {
+        this(DEFAULT_MAXIMUM_SEARCH_LENGTH);
+    }
+
+    /**
+     * Creates a new extractor searching the given number of bytes at the start of
+     * content.
+     *
+     * @param maximumSearchLength maximum number of bytes to search
+     * @throws IllegalArgumentException if length is not positive
+     */
+    public DataFileUpdateMarkerExtractor(int maximumSearchLength) {
+        if (maximumSearchLength < 1) {
+            throw new IllegalArgumentException("maximum search length must be positive, got " + maximumSearchLength);
+        }
+
+        this.maximumSearchLength = maximumSearchLength;
+    }
+
+    @Override
+    public String apply(byte[] content) {
+        // markers are pure ASCII, so decoding as ISO-8859-1 is safe regardless of
+        // actual character set and cannot fail on truncated multi-byte characters
+        String s = new String(content, 0, Math.min(content.length, maximumSearchLength), ISO_8859_1);
+
+        Matcher matcher = PATTERN.matcher(s);
+        if (!matcher.find()) {
+            return null;
+        }
+
+        String legacy = matcher.group(PATTERN_LEGACY);
+        return (legacy != null) ? legacy : matcher.group(PATTERN_JSON);
+    }
+}
@@ -0,0 +1,368 @@
+package org.vatplanner.dataformats.vatsimpublic.privacyfilter;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.vatplanner.dataformats.vatsimpublic.parser.DataFile;
+import org.vatplanner.dataformats.vatsimpublic.parser.DataFileMetaData;
+import org.vatplanner.dataformats.vatsimpublic.parser.legacy.DataFileParser;
+import org.vatplanner.dataformats.vatsimpublic.privacyfilter.errorhandling.ErrorHandlingStrategy;
+
+/**
+ * Applies a {@link DataFileFilter} to many legacy data files in parallel, for
+ * example to publish a filtered archive.
+ *
+ * <p>
+ * Each file is filtered to a temporary file in the output directory and then
+ * verified by parsing the original as well as the filtered file to
+ * {@link DataFile}s and calling
+ * {@link DataFileFilter#verifyNoAdditionalLogMessages(DataFile, DataFile)}.
+ * Parsing the original file runs concurrently to filtering, so only two
+ * sequential passes remain per file while all files are processed in parallel.
+ * Only verified results are moved to their final location which is done
+ * atomically if supported by the file system; readers of the output directory
+ * will thus never see partially written or unverified files.
+ * </p>
+ *
+ * <p>
+ * The outcome of processing each file is returned as a {@link Result} holding
+ * the {@link FilterReport} of all errors handled by {@link ErrorHandlingStrategy}s.
+ * Failure to process one file does not affect other files.
+ * </p>
+ *
+ * <p>
+ * See {@link DataFileFilter} for a disclaimer which fully applies to batch
+ * processing as well.
+ * </p>
+ */
+public class BatchDataFileFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchDataFileFilter.class);
+
+    private static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+
+    private final DataFileFilter filter;
+    private final int parallelism;
+    private final DataFileParser parser = new DataFileParser();
+
+    /**
+     * Status of processing a single file.
+     */
+    public enum Status {
+        /**
+         * File has been filtered, verified and written to output directory.
+         */
+        PUBLISHED,
+
+        /**
+         * Filtering has been aborted by an {@link ErrorHandlingStrategy}; no output
+         * has been written.
+         */
+        ABORTED,
+
+        /**
+         * Filtered file failed verification as it yielded additional parser log
+         * messages; no output has been written.
+         */
+        VERIFICATION_FAILED,
+
+        /**
+         * File could not be processed, for example due to I/O errors or an
+         * unsupported format version; no output has been written.
+         */
+        FAILED;
+    }
+
+    /**
+     * Outcome of processing a single file.
+     */
+    public static class Result {
+        private final Path inputFile;
+        private final Path outputFile;
+        private final Status status;
+        private final FilterReport filterReport;
+        private final Throwable exception;
+
+        Result(Path inputFile, Path outputFile, Status status, FilterReport filterReport, Throwable exception) {
+            this.inputFile = inputFile;
+            this.outputFile = outputFile;
+            this.status = status;
+            this.filterReport = filterReport;
+            this.exception = exception;
+        }
+
+        /**
+         * Returns the file which has been processed.
+         *
+         * @return input file
+         */
+        public Path getInputFile() {
+            return inputFile;
+        }
+
+        /**
+         * Returns the location the filtered file was meant to be written to. The
+         * file only exists if {@link #getStatus()} is {@link Status#PUBLISHED}.
+         *
+         * @return output file location
+         */
+        public Path getOutputFile() {
+            return outputFile;
+        }
+
+        /**
+         * Returns the status of processing.
+         *
+         * @return status of processing
+         */
+        public Status getStatus() {
+            return status;
+        }
+
+        /**
+         * Returns the report of all errors handled while filtering. If filtering
+         * was aborted, the report covers all lines processed until then.
+         *
+         * @return report of errors handled while filtering
+         */
+        public FilterReport getFilterReport() {
+            return filterReport;
+        }
+
+        /**
+         * Returns the exception which caused processing to fail or abort, if any.
+         *
+         * @return exception causing failure; null if not failed by exception
+         */
+        public Throwable getException() {
+            return exception;
+        }
+    }
+
+    /**
+     * Holds a filtered temporary file and its parsed content.
+     */
+    private static class FilteredFile {
+        private final Path temporaryFile;
+        private final DataFile dataFile;
+
+        private FilteredFile(Path temporaryFile, DataFile dataFile) {
+            this.temporaryFile = temporaryFile;
+            this.dataFile = dataFile;
+        }
+    }
+
+    /**
+     * Creates a new batch filter processing as many files in parallel as
+     * processors are available.
+     *
+     * @param filter filter to apply to all files; must not be null
+     */
+    public BatchDataFileFilter(DataFileFilter filter) {
+        this(filter, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a new batch filter using the given number of threads.
+     *
+     * @param filter      filter to apply to all files; must not be null
+     * @param parallelism number of threads to use; must be at least 1
+     */
+    public BatchDataFileFilter(DataFileFilter filter, int parallelism) {
+        if (filter == null) {
+            throw new IllegalArgumentException("filter must not be null");
+        }
+
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1, got " + parallelism);
+        }
+
+        this.filter = filter;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Filters all given files into the output directory, keeping their file
+     * names. Existing files in output directory are replaced. This method blocks
+     * until all files have been processed.
+     *
+     * @param inputFiles      legacy data files to filter; file names must be unique
+     * @param outputDirectory existing directory to write filtered files to; must
+     *                        not be any directory an input file is located in
+     * @return outcome of processing each file, in order of input files
+     * @throws IllegalArgumentException if file names are not unique or input files
+     *                                  are located in output directory
+     */
+    public List<Result> filter(Collection<Path> inputFiles, Path outputDirectory) {
+        Set<Path> fileNames = new HashSet<>();
+        for (Path inputFile : inputFiles) {
+            if (!fileNames.add(inputFile.getFileName())) {
+                throw new IllegalArgumentException("input file names must be unique: " + inputFile.getFileName());
+            }
+
+            Path inputDirectory = inputFile.toAbsolutePath().getParent();
+            if (outputDirectory.toAbsolutePath().equals(inputDirectory)) {
+                throw new IllegalArgumentException("input file " + inputFile + " is located in output directory");
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<CompletableFuture<Result>> futures = new ArrayList<>();
+            for (Path inputFile : inputFiles) {
+                futures.add(process(inputFile, outputDirectory.resolve(inputFile.getFileName()), executor));
+            }
+
+            List<Result> results = new ArrayList<>();
+            for (CompletableFuture<Result> future : futures) {
+                results.add(future.join());
+            }
+
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Schedules all steps needed to process a single file. Original file is
+     * parsed independently from filtering; verification and publication start
+     * when both tasks have completed. No task blocks while waiting for another,
+     * so the executor's threads are never exhausted by waiting tasks.
+     *
+     * @param inputFile  file to process
+     * @param outputFile location to write filtered file to
+     * @param executor   executor to run tasks on
+     * @return result of processing, available when all steps completed
+     */
+    private CompletableFuture<Result> process(Path inputFile, Path outputFile, ExecutorService executor) {
+        FilterReport report = new FilterReport();
+
+        CompletableFuture<DataFile> originalFuture = CompletableFuture.supplyAsync(() -> parse(inputFile), executor);
+        CompletableFuture<FilteredFile> filteredFuture = CompletableFuture.supplyAsync(() -> filterToTemporaryFile(inputFile, outputFile, report), executor);
+
+        return CompletableFuture.allOf(originalFuture, filteredFuture)
+                                .handle((unused, unusedException) -> verifyAndPublish(inputFile, outputFile, report, originalFuture, filteredFuture));
+    }
+
+    private FilteredFile filterToTemporaryFile(Path inputFile, Path outputFile, FilterReport report) {
+        Path temporaryFile = null;
+        try {
+            temporaryFile = Files.createTempFile(outputFile.getParent(), outputFile.getFileName().toString(), TEMPORARY_FILE_SUFFIX);
+
+            try (
+                InputStream is = new BufferedInputStream(Files.newInputStream(inputFile));
+                OutputStream os = new BufferedOutputStream(Files.newOutputStream(temporaryFile))
+            ) {
+                filter.filter(is, os, report);
+            }
+
+            return new FilteredFile(temporaryFile, parse(temporaryFile));
+        } catch (IOException ex) {
+            deleteQuietly(temporaryFile);
+            throw new UncheckedIOException(ex);
+        } catch (RuntimeException ex) {
+            deleteQuietly(temporaryFile);
+            throw ex;
+        }
+    }
+
+    private Result verifyAndPublish(Path inputFile, Path outputFile, FilterReport report, CompletableFuture<DataFile> originalFuture, CompletableFuture<FilteredFile> filteredFuture) {
+        // both futures have already completed, so joining does not block
+        FilteredFile filtered;
+        try {
+            filtered = filteredFuture.join();
+        } catch (CompletionException ex) {
+            Throwable cause = ex.getCause();
+            Status status = (cause instanceof ErrorHandlingStrategy.FailWithException) ? Status.ABORTED : Status.FAILED;
+            LOGGER.warn("filtering {} failed: {}", inputFile, cause.toString());
+            return new Result(inputFile, outputFile, status, report, cause);
+        }
+
+        try {
+            DataFile original = originalFuture.join();
+
+            // files of other formats are not recognized by the filter and would be
+            // copied unfiltered; both parses would then yield the same log messages
+            DataFileMetaData metaData = original.getMetaData();
+            int formatVersion = (metaData != null) ? metaData.getVersionFormat() : -1;
+            if (!filter.isFormatVersionSupported(formatVersion)) {
+                LOGGER.warn("{} has unsupported format version {}, not publishing", inputFile, formatVersion);
+                return new Result(
+                    inputFile, outputFile, Status.FAILED, report,
+                    new IllegalArgumentException("unsupported format version: " + formatVersion)
+                );
+            }
+
+            if (!filter.verifyNoAdditionalLogMessages(original, filtered.dataFile)) {
+                LOGGER.warn("filtered output of {} yields additional parser log messages, not publishing", inputFile);
+                return new Result(inputFile, outputFile, Status.VERIFICATION_FAILED, report, null);
+            }
+
+            moveAtomically(filtered.temporaryFile, outputFile);
+            return new Result(inputFile, outputFile, Status.PUBLISHED, report, null);
+        } catch (CompletionException ex) {
+            LOGGER.warn("parsing {} failed: {}", inputFile, ex.getCause().toString());
+            return new Result(inputFile, outputFile, Status.FAILED, report, ex.getCause());
+        } catch (IOException ex) {
+            LOGGER.warn("publishing {} failed: {}", outputFile, ex.toString());
+            return new Result(inputFile, outputFile, Status.FAILED, report, ex);
+        } catch (RuntimeException ex) {
+            // must not fail the future as that would abort the whole batch
+            LOGGER.warn("verifying or publishing {} failed", inputFile, ex);
+            return new Result(inputFile, outputFile, Status.FAILED, report, ex);
+        } finally {
+            deleteQuietly(filtered.temporaryFile);
+        }
+    }
+
+    private DataFile parse(Path file) {
+        try (BufferedReader reader = Files.newBufferedReader(file, ISO_8859_1)) {
+            return parser.deserialize(reader);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            LOGGER.warn("failed to delete temporary file {}", file, ex);
+        }
+    }
+}
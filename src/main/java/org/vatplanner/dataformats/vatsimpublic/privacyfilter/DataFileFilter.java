@@ -1,9 +1,40 @@
 package org.vatplanner.dataformats.vatsimpublic.privacyfilter;
 
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.vatplanner.dataformats.vatsimpublic.privacyfilter.FilterReport.ErrorType.INCOMPLETE_FILTERING;
+import static org.vatplanner.dataformats.vatsimpublic.privacyfilter.FilterReport.ErrorType.UNSTABLE_RESULT;
+import static org.vatplanner.dataformats.vatsimpublic.privacyfilter.FilterReport.ErrorType.UNWANTED_MODIFICATION;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+import org.vatplanner.dataformats.vatsimpublic.parser.Client;
+import org.vatplanner.dataformats.vatsimpublic.parser.ClientFields;
 import org.vatplanner.dataformats.vatsimpublic.parser.DataFile;
 import org.vatplanner.dataformats.vatsimpublic.parser.DataFileMetaData;
+import org.vatplanner.dataformats.vatsimpublic.parser.ParserLogEntry;
+import org.vatplanner.dataformats.vatsimpublic.parser.legacy.ClientParser;
 import org.vatplanner.dataformats.vatsimpublic.privacyfilter.errorhandling.ErrorHandlingStrategy;
 
 /**
@@ -27,13 +58,19 @@ import org.vatplanner.dataformats.vatsimpublic.privacyfilter.errorhandling.Error
  * Filtering data files and verifying results may be a rather slow process. The
  * filter has been written with permanent archival and forwarding of unparsed
  * but pre-filtered data files in mind where filtering is a central one-time
- * operation which is thus not required to run efficiently. If you just want to
+ * operation which is thus not required to run efficiently. Files are processed
+ * line by line as a stream, so memory usage only depends on the longest line,
+ * not on file size. If you just want to
  * extract some limited amount of data then you will most-likely find that you
  * are better off just discarding individual fields from parsed data file
  * objects or copying wanted data selectively from {@link DataFile} objects
  * instead of bothering with this filter.
  * </p>
  * <p>
+ * This filter only processes legacy data files. Use {@link JsonDataFileFilter}
+ * to apply the same configuration to JSON data files in format version 3.
+ * </p>
+ * <p>
  * <strong>DISCLAIMER:</strong><br>
  * THERE IS NO GUARANTEE THAT THE PROVIDED PRIVACY FILTERING MECHANISM WORKS
  * RELIABLY, NEITHER IN TERMS OF PROTECTING PRIVACY NOR MAINTAINING INTEGRITY OR
@@ -60,9 +97,23 @@ public class DataFileFilter {
 
     private final DataFileFilterConfiguration configuration;
     private final List<VerifiableClientFilter<?>> filterChain;
+    private final List<VerifiableClientFieldFilter<?>> fieldFilterChain;
+    private final List<RawFieldVerification> rawFieldVerifications;
+    private final BitSet expectedRawFieldIndexes = new BitSet();
 
     private static final int SUPPORTED_FORMAT_VERSION = 8;
 
+    private static final Pattern PATTERN_SECTION_HEAD = Pattern.compile("!([^:]+):");
+    private static final int PATTERN_SECTION_HEAD_NAME = 1;
+
+    private static final String SECTION_NAME_CLIENTS = "CLIENTS";
+    private static final String SECTION_NAME_PREFILE = "PREFILE";
+
+    // number of fields on a syntactically complete client line (41 separators)
+    private static final int MINIMUM_CLIENT_LINE_FIELDS = 42;
+
+    private static final List<ClientFields.FieldAccess<?>> ALL_CLIENT_FIELDS = new ArrayList<>(ClientFields.getAllFields());
+
     /**
      * Initializes a new data filter for given configuration. Note that
      * configuration must be final; any later modification to configuration may not
@@ -78,10 +129,85 @@ public class DataFileFilter {
 
         filterChain = getVerifiableClientFilterFactory()
             .buildFromConfiguration(configuration);
+        fieldFilterChain = asFieldFilterChain(filterChain);
+        rawFieldVerifications = configuration.isFieldDiffVerification()
+            ? asRawFieldVerifications(fieldFilterChain, expectedRawFieldIndexes)
+            : null;
 
         this.configuration = configuration;
     }
 
+    /**
+     * Locates the raw fields affected by the given chain so filter results can be
+     * verified on raw fields directly. This requires all affected fields to be
+     * {@link String}s which are held verbatim by a raw field, and no raw field to
+     * be affected by more than one filter.
+     *
+     * @param fieldFilterChain        chain of field filters; may be null
+     * @param expectedRawFieldIndexes receives the indexes of all affected raw
+     *                                fields
+     * @return verifications of all affected raw fields; null if full verification
+     *     is required
+     */
+    private static List<RawFieldVerification> asRawFieldVerifications(List<VerifiableClientFieldFilter<?>> fieldFilterChain, BitSet expectedRawFieldIndexes) {
+        if (fieldFilterChain == null) {
+            return null;
+        }
+
+        List<RawFieldVerification> out = new ArrayList<>();
+        for (VerifiableClientFieldFilter<?> filter : fieldFilterChain) {
+            for (ClientFields.FieldAccess<?> field : filter.getAffectedFields()) {
+                if (!(field instanceof ClientFields.StringFields)) {
+                    return null;
+                }
+            }
+
+            @SuppressWarnings("unchecked")
+            VerifiableClientFieldFilter<String> stringFilter = (VerifiableClientFieldFilter<String>) filter;
+            for (ClientFields.FieldAccess<String> field : stringFilter.getAffectedFields()) {
+                int index = stringFilter.getRawFieldIndex(field);
+                if (expectedRawFieldIndexes.get(index)) {
+                    expectedRawFieldIndexes.clear();
+                    return null;
+                }
+
+                expectedRawFieldIndexes.set(index);
+                out.add(new RawFieldVerification(stringFilter, field, index));
+            }
+        }
+
+        return out;
+    }
+
+    /**
+     * Checks if the given chain can be applied on fields in a single pass and
+     * returns it as a chain of field filters if possible. This requires all
+     * filters to operate on fields and no field to be affected by more than one
+     * filter, so each filter can be verified against the original line.
+     *
+     * @param filterChain filter chain to check
+     * @return chain of field filters; null if filters need to be applied one by one
+     */
+    private static List<VerifiableClientFieldFilter<?>> asFieldFilterChain(List<VerifiableClientFilter<?>> filterChain) {
+        List<VerifiableClientFieldFilter<?>> out = new ArrayList<>();
+        Set<ClientFields.FieldAccess<?>> affectedFields = new HashSet<>();
+        for (VerifiableClientFilter<?> filter : filterChain) {
+            if (!(filter instanceof VerifiableClientFieldFilter)) {
+                return null;
+            }
+
+            for (ClientFields.FieldAccess<?> field : filter.getAffectedFields()) {
+                if (!affectedFields.add(field)) {
+                    return null;
+                }
+            }
+
+            out.add((VerifiableClientFieldFilter<?>) filter);
+        }
+
+        return out;
+    }
+
     VerifiableClientFilterFactory getVerifiableClientFilterFactory() {
         return new VerifiableClientFilterFactory();
     }
@@ -107,6 +233,10 @@ public class DataFileFilter {
      * {@link #verifyNoAdditionalLogMessages(DataFile, DataFile)} afterwards. Error
      * handling will be performed as configured through strategies.
      * <p>
+     * This method holds the complete file in memory; use
+     * {@link #filter(Reader, Writer)} to filter large files.
+     * </p>
+     * <p>
      * <b>Disclaimer (again):</b> The filter may fail to apply properly and not only
      * corrupt data but also fail to implement all configured filtering steps as you
      * would expect. Use at your own risk and read the full disclaimer on class
@@ -114,18 +244,343 @@ public class DataFileFilter {
      * </p>
      *
      * @param formatVersion format version as available from
-     *                      {@link DataFileMetaData#getVersionFormat()} after parsing
+     *                      {@link DataFileMetaData#getVersionFormat()} after parsing;
+     *                      must be supported (see
+     *                      {@link #isFormatVersionSupported(int)})
      * @param original      raw data file to apply filter to
      * @return filtered data file (may be erroneous or incompletely filtered!)
+     * @throws IllegalArgumentException                if the format version is not
+     *                                                 supported
+     * @throws ErrorHandlingStrategy.FailWithException if filtering was aborted by
+     *                                                 error handling
      */
     public String filter(int formatVersion, String original) {
         /*
          * QUESTION: return an object with a filter error log instead of just the
          * datafile string?
          */
-        // FIXME: implement
-        // FIXME: use checkEqualMetadata
-        return null;
+        if (!isFormatVersionSupported(formatVersion)) {
+            // other formats would pass through unfiltered as no sections are recognized
+            throw new IllegalArgumentException("unsupported format version: " + formatVersion);
+        }
+
+        StringWriter writer = new StringWriter(original.length());
+        try (StringReader reader = new StringReader(original)) {
+            filter(reader, writer);
+        } catch (IOException ex) {
+            throw new RuntimeException("filtering failed", ex);
+        }
+
+        return writer.toString();
+    }
+
+    /**
+     * Filters a raw data file read from the given {@link InputStream} as configured
+     * and writes the result to the given {@link OutputStream}. Both streams are
+     * read/written using ISO8859-1 character set as used by legacy data files.
+     * Streams will not be closed. See {@link #filter(Reader, Writer)} for details.
+     *
+     * @param in  provides raw data file to apply filter to
+     * @param out receives filtered data file (may be erroneous or incompletely
+     *            filtered!)
+     * @throws IOException                             if reading or writing fails
+     * @throws ErrorHandlingStrategy.FailWithException if filtering was aborted by
+     *                                                 error handling
+     */
+    public void filter(InputStream in, OutputStream out) throws IOException {
+        filter(in, out, null);
+    }
+
+    /**
+     * Filters a raw data file read from the given {@link InputStream} as configured
+     * and writes the result to the given {@link OutputStream} while recording all
+     * handled errors to the given {@link FilterReport}. Both streams are
+     * read/written using ISO8859-1 character set as used by legacy data files.
+     * Streams will not be closed. See {@link #filter(Reader, Writer, FilterReport)}
+     * for details.
+     *
+     * @param in     provides raw data file to apply filter to
+     * @param out    receives filtered data file (may be erroneous or incompletely
+     *               filtered!)
+     * @param report receives all errors handled during filtering; may be null
+     * @throws IOException                             if reading or writing fails
+     * @throws ErrorHandlingStrategy.FailWithException if filtering was aborted by
+     *                                                 error handling
+     */
+    public void filter(InputStream in, OutputStream out, FilterReport report) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, ISO_8859_1));
+        filter(new InputStreamReader(in, ISO_8859_1), writer, report);
+        writer.flush();
+    }
+
+    /**
+     * Filters a raw data file read from the given {@link Reader} as configured and
+     * writes the result to the given {@link Writer}.
+     * <p>
+     * Data is processed line by line. All lines outside of client and prefile
+     * sections are copied unmodified, as are line endings. Lines of client and
+     * prefile sections are passed through the configured filters one by one. Each
+     * filter result is verified by parsing the line before and after filtering
+     * (or by comparing raw fields, see
+     * {@link DataFileFilterConfiguration#setFieldDiffVerification(boolean)});
+     * detected errors are handled by the configured {@link ErrorHandlingStrategy}s
+     * which may replace or remove the line or abort filtering. Output produced
+     * before an error aborts filtering will already have been written.
+     * </p>
+     * <p>
+     * Neither reader nor writer will be closed. Writer is not flushed.
+     * </p>
+     * <p>
+     * <b>Disclaimer (again):</b> The filter may fail to apply properly and not only
+     * corrupt data but also fail to implement all configured filtering steps as you
+     * would expect. Use at your own risk and read the full disclaimer on class
+     * JavaDoc before use!
+     * </p>
+     *
+     * @param reader provides raw data file to apply filter to
+     * @param writer receives filtered data file (may be erroneous or incompletely
+     *               filtered!)
+     * @throws IOException                             if reading or writing fails
+     * @throws ErrorHandlingStrategy.FailWithException if filtering was aborted by
+     *                                                 error handling
+     */
+    public void filter(Reader reader, Writer writer) throws IOException {
+        filter(reader, writer, null);
+    }
+
+    /**
+     * Filters a raw data file read from the given {@link Reader} as configured and
+     * writes the result to the given {@link Writer} while recording all handled
+     * errors to the given {@link FilterReport}. See {@link #filter(Reader, Writer)}
+     * for details.
+     * <p>
+     * If error handling aborts filtering, the error is recorded with
+     * {@link FilterReport.Outcome#ABORTED} before the exception is passed on.
+     * </p>
+     *
+     * @param reader provides raw data file to apply filter to
+     * @param writer receives filtered data file (may be erroneous or incompletely
+     *               filtered!)
+     * @param report receives all errors handled during filtering; may be null
+     * @throws IOException                             if reading or writing fails
+     * @throws ErrorHandlingStrategy.FailWithException if filtering was aborted by
+     *                                                 error handling
+     */
+    public void filter(Reader reader, Writer writer, FilterReport report) throws IOException {
+        ClientParser onlineClientParser = createClientParser().setIsParsingPrefileSection(false);
+        ClientParser prefileClientParser = createClientParser().setIsParsingPrefileSection(true);
+
+        FilterErrorHandler errorHandler = new FilterErrorHandler(configuration, report);
+        LineReader lineReader = new LineReader(reader);
+        ClientParser currentClientParser = null;
+        int lineNumber = 0;
+        String line;
+        while ((line = lineReader.readLine()) != null) {
+            lineNumber++;
+
+            Matcher matcher = PATTERN_SECTION_HEAD.matcher(line);
+            if (matcher.matches()) {
+                String sectionName = matcher.group(PATTERN_SECTION_HEAD_NAME);
+                if (SECTION_NAME_CLIENTS.equals(sectionName)) {
+                    currentClientParser = onlineClientParser;
+                } else if (SECTION_NAME_PREFILE.equals(sectionName)) {
+                    currentClientParser = prefileClientParser;
+                } else {
+                    currentClientParser = null;
+                }
+            } else if ((currentClientParser != null) && !isLineIrrelevant(line)) {
+                errorHandler.setLineNumber(lineNumber);
+                line = filterClientLine(line, currentClientParser, errorHandler);
+                if (line == null) {
+                    // line has been removed by error handling
+                    continue;
+                }
+            }
+
+            writer.write(line);
+            writer.write(lineReader.getLineEnding());
+        }
+    }
+
+    ClientParser createClientParser() {
+        return new ClientParser();
+    }
+
+    private boolean isLineIrrelevant(String line) {
+        return line.startsWith(";") || line.trim().isEmpty();
+    }
+
+    /**
+     * Applies the filter chain to a single line of a client or prefile section.
+     *
+     * @param line         raw line to filter
+     * @param clientParser parser to use for verification
+     * @param errorHandler handles detected errors
+     * @return filtered line; null if line should be removed
+     */
+    private String filterClientLine(String line, ClientParser clientParser, FilterErrorHandler errorHandler) {
+        if (rawFieldVerifications != null) {
+            return filterAndVerifyRawFields(line, errorHandler);
+        }
+
+        if (fieldFilterChain != null) {
+            // split and reassemble only once for the whole chain
+            return verify(line, applyFieldFilterChain(line), fieldFilterChain, this::applyFieldFilterChain, clientParser, errorHandler);
+        }
+
+        for (VerifiableClientFilter<?> filter : filterChain) {
+            line = verify(line, filter.apply(line), Collections.singletonList(filter), filter, clientParser, errorHandler);
+            if (line == null) {
+                return null;
+            }
+        }
+
+        return line;
+    }
+
+    private String applyFieldFilterChain(String line) {
+        RawClientLine fields = new RawClientLine(line);
+        applyFieldFilterChain(fields);
+        return fields.toString();
+    }
+
+    private void applyFieldFilterChain(RawClientLine fields) {
+        for (VerifiableClientFieldFilter<?> filter : fieldFilterChain) {
+            filter.applyToFields(fields);
+        }
+    }
+
+    /**
+     * Applies the field filter chain to a single line and verifies the result by
+     * comparing raw fields before and after filtering instead of parsing both
+     * lines. See {@link DataFileFilterConfiguration#setFieldDiffVerification(boolean)}.
+     *
+     * @param line         raw line to filter
+     * @param errorHandler handles detected errors
+     * @return filtered line if verified, otherwise result of error handling; null
+     *     if line should be removed
+     */
+    private String filterAndVerifyRawFields(String line, FilterErrorHandler errorHandler) {
+        RawClientLine fields = new RawClientLine(line);
+        applyFieldFilterChain(fields);
+        String filteredLine = fields.toString();
+
+        if (fields.getNumberOfFields() < MINIMUM_CLIENT_LINE_FIELDS) {
+            // filters may have been unable to locate their fields
+            return errorHandler.handle(INCOMPLETE_FILTERING, line, filteredLine, collectRawFieldVerificationFields());
+        }
+
+        if (!fields.isModified()) {
+            // confirmed by identity, nothing has been touched
+            return line;
+        }
+
+        for (int i = 0; i < fields.getNumberOfFields(); i++) {
+            if (!expectedRawFieldIndexes.get(i) && fields.isFieldModified(i)) {
+                return errorHandler.handle(UNWANTED_MODIFICATION, line, filteredLine, new ArrayList<>(ALL_CLIENT_FIELDS));
+            }
+        }
+
+        Collection<ClientFields.FieldAccess> incompleteFields = new ArrayList<>();
+        for (RawFieldVerification verification : rawFieldVerifications) {
+            int index = verification.index;
+            if (fields.isFieldModified(index) && !verification.verify(fields.getOriginalField(index), fields.getField(index))) {
+                incompleteFields.add(verification.field);
+            }
+        }
+        if (!incompleteFields.isEmpty()) {
+            return errorHandler.handle(INCOMPLETE_FILTERING, line, filteredLine, incompleteFields);
+        }
+
+        // fields now hold the filtered line, so the chain can be applied again
+        // without splitting
+        applyFieldFilterChain(fields);
+        if (!filteredLine.equals(fields.toString())) {
+            return errorHandler.handle(UNSTABLE_RESULT, line, filteredLine, collectRawFieldVerificationFields());
+        }
+
+        return filteredLine;
+    }
+
+    private Collection<ClientFields.FieldAccess> collectRawFieldVerificationFields() {
+        Collection<ClientFields.FieldAccess> out = new ArrayList<>();
+        for (RawFieldVerification verification : rawFieldVerifications) {
+            out.add(verification.field);
+        }
+
+        return out;
+    }
+
+    /**
+     * Verifies the result of applying the given filters to a line and performs
+     * error handling if needed.
+     *
+     * @param rawLine      line before filters were applied
+     * @param filteredLine line after filters were applied
+     * @param filters      all filters which have been applied; must not affect
+     *                     the same fields
+     * @param application  applies all filters again to check for stable results
+     * @param clientParser parser to use for verification
+     * @param errorHandler handles detected errors
+     * @return filtered line if verified, otherwise result of error handling; null
+     *     if line should be removed
+     */
+    private String verify(String rawLine, String filteredLine, List<? extends VerifiableClientFilter<?>> filters, UnaryOperator<String> application, ClientParser clientParser, FilterErrorHandler errorHandler) {
+        Set<ClientFields.FieldAccess<?>> affectedFields = new HashSet<>();
+        for (VerifiableClientFilter<?> filter : filters) {
+            affectedFields.addAll(filter.getAffectedFields());
+        }
+
+        Client original = parseOrNull(clientParser, rawLine);
+        if (original == null) {
+            // unable to verify anything; information may leak
+            return errorHandler.handle(INCOMPLETE_FILTERING, rawLine, filteredLine, new ArrayList<>(affectedFields));
+        }
+
+        Client filtered = parseOrNull(clientParser, filteredLine);
+        if (filtered == null) {
+            return errorHandler.handle(UNWANTED_MODIFICATION, rawLine, filteredLine, new ArrayList<>(ALL_CLIENT_FIELDS));
+        }
+
+        Collection<ClientFields.FieldAccess> unwantedModifications = new ArrayList<>();
+        for (ClientFields.FieldAccess<?> field : ALL_CLIENT_FIELDS) {
+            if (!affectedFields.contains(field) && !Objects.equals(field.getFrom(original), field.getFrom(filtered))) {
+                unwantedModifications.add(field);
+            }
+        }
+        if (!unwantedModifications.isEmpty()) {
+            return errorHandler.handle(UNWANTED_MODIFICATION, rawLine, filteredLine, unwantedModifications);
+        }
+
+        Collection<ClientFields.FieldAccess> incompleteFields = new ArrayList<>();
+        for (VerifiableClientFilter<?> filter : filters) {
+            collectUnverifiedFields(filter, original, filtered, incompleteFields);
+        }
+        if (!incompleteFields.isEmpty()) {
+            return errorHandler.handle(INCOMPLETE_FILTERING, rawLine, filteredLine, incompleteFields);
+        }
+
+        if (!filteredLine.equals(application.apply(filteredLine))) {
+            return errorHandler.handle(UNSTABLE_RESULT, rawLine, filteredLine, new ArrayList<>(affectedFields));
+        }
+
+        return filteredLine;
+    }
+
+    private <T> void collectUnverifiedFields(VerifiableClientFilter<T> filter, Client original, Client filtered, Collection<ClientFields.FieldAccess> out) {
+        for (ClientFields.FieldAccess<T> field : filter.getAffectedFields()) {
+            if (!filter.verifyAffectedField(field, field.getFrom(original), field.getFrom(filtered))) {
+                out.add(field);
+            }
+        }
+    }
+
+    private Client parseOrNull(ClientParser clientParser, String line) {
+        try {
+            return clientParser.parse(line);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
     }
 
     /**
@@ -150,6 +605,12 @@ public class DataFileFilter {
     /**
      * Checks that no additional log messages are found in filtered {@link DataFile}
      * as compared to original file.
+     * <p>
+     * Log entries are counted per section and whether a line has been rejected;
+     * the filtered file must not exceed the original count for any combination.
+     * Messages and line contents are not compared as they may quote filtered
+     * data.
+     * </p>
      *
      * @param original file parsed from original raw data
      * @param filtered file parsed from filtered output
@@ -157,8 +618,23 @@ public class DataFileFilter {
      *     additional log messages; false = additional log messages found)
      */
     public boolean verifyNoAdditionalLogMessages(DataFile original, DataFile filtered) {
-        // FIXME: implement
-        return false;
+        Map<String, Integer> remaining = new HashMap<>();
+        for (ParserLogEntry entry : original.getParserLogEntries()) {
+            remaining.merge(describeLogEntry(entry), 1, Integer::sum);
+        }
+
+        for (ParserLogEntry entry : filtered.getParserLogEntries()) {
+            Integer count = remaining.merge(describeLogEntry(entry), -1, Integer::sum);
+            if (count < 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private String describeLogEntry(ParserLogEntry entry) {
+        return entry.getSection() + "/" + entry.isLineRejected();
     }
 
     /**
@@ -175,4 +651,95 @@ public class DataFileFilter {
 
         return a.equals(b);
     }
+
+    /**
+     * Verification of a single affected raw field.
+     */
+    private static class RawFieldVerification {
+        private final VerifiableClientFieldFilter<String> filter;
+        private final ClientFields.FieldAccess<String> field;
+        private final int index;
+
+        private RawFieldVerification(VerifiableClientFieldFilter<String> filter, ClientFields.FieldAccess<String> field, int index) {
+            this.filter = filter;
+            this.field = field;
+            this.index = index;
+        }
+
+        private boolean verify(String original, String filtered) {
+            return filter.verifyAffectedField(field, original, filtered);
+        }
+    }
+
+    /**
+     * Reads lines from a {@link Reader} while remembering the exact line ending
+     * so output can reproduce it. Only the current line is held in memory.
+     */
+    private static class LineReader {
+        private static final int BUFFER_SIZE = 8192;
+
+        private final Reader reader;
+        private final char[] buffer = new char[BUFFER_SIZE];
+        private int position = 0;
+        private int limit = 0;
+
+        private final StringBuilder line = new StringBuilder();
+        private String lineEnding = "";
+
+        private LineReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * Reads the next line, excluding line ending.
+         *
+         * @return next line; null at end of input
+         * @throws IOException if reading fails
+         */
+        private String readLine() throws IOException {
+            line.setLength(0);
+            lineEnding = "";
+
+            boolean hasData = false;
+            while (fill()) {
+                hasData = true;
+                char ch = buffer[position++];
+                if (ch == '\n') {
+                    if ((line.length() > 0) && (line.charAt(line.length() - 1) == '\r')) {
+                        line.setLength(line.length() - 1);
+                        lineEnding = "\r\n";
+                    } else {
+                        lineEnding = "\n";
+                    }
+                    break;
+                }
+                line.append(ch);
+            }
+
+            return hasData ? line.toString() : null;
+        }
+
+        /**
+         * Returns the line ending of the last line read.
+         *
+         * @return line ending of last read line; empty if input ended without line
+         *     ending
+         */
+        private String getLineEnding() {
+            return lineEnding;
+        }
+
+        private boolean fill() throws IOException {
+            while (position >= limit) {
+                int read = reader.read(buffer, 0, buffer.length);
+                if (read < 0) {
+                    return false;
+                }
+                position = 0;
+                limit = read;
+            }
+
+            return true;
+        }
+    }
 }
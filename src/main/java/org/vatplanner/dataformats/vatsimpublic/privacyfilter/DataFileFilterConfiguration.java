@@ -44,6 +44,7 @@ public class DataFileFilterConfiguration {
     private boolean removeStreamingChannels = false;
     private boolean flightPlanRemarksRemoveAll = false;
     private Collection<String> flightPlanRemarksRemoveAllIfContaining = new ArrayList<>();
+    private boolean fieldDiffVerification = false;
 
     private ErrorHandlingStrategy unwantedModificationErrorHandlingStrategy = THROW_EXCEPTION;
     private ErrorHandlingStrategy incompleteFilteringErrorHandlingStrategy = THROW_EXCEPTION;
@@ -214,6 +215,42 @@ public class DataFileFilterConfiguration {
         return this;
     }
 
+    public boolean isFieldDiffVerification() {
+        return fieldDiffVerification;
+    }
+
+    /**
+     * By default, every filtered line is verified by parsing it before and after
+     * filtering and comparing all resulting {@link org.vatplanner.dataformats.vatsimpublic.parser.Client}
+     * fields. This is thorough but slow as two full client parsers run for every
+     * line.
+     * <p>
+     * When set to true, verification instead compares the raw fields split for
+     * filtering directly: Lines left unmodified by all filters are confirmed
+     * without further checks, a modification of any raw field not belonging to a
+     * filter is reported as unwanted modification and only raw fields actually
+     * changed by filters are verified for completeness. Verification effort is
+     * thus proportional to the number of modified fields instead of the number of
+     * lines.
+     * </p>
+     * <p>
+     * Note that this trades safety for speed: Unmodified fields and lines are
+     * trusted to not require filtering, so a filter failing to locate a field
+     * will only be detected if the line is too short to hold all client fields.
+     * Syntax of unmodified fields is not checked at all. Field-diff verification
+     * is only available if all enabled filters operate on disjoint raw fields;
+     * otherwise full verification is used.
+     * </p>
+     *
+     * @param fieldDiffVerification Verify filter results by comparing raw fields
+     *                              instead of parsed clients?
+     * @return this instance for method-chaining
+     */
+    public DataFileFilterConfiguration setFieldDiffVerification(boolean fieldDiffVerification) {
+        this.fieldDiffVerification = fieldDiffVerification;
+        return this;
+    }
+
     public ErrorHandlingStrategy getUnwantedModificationErrorHandlingStrategy() {
         return unwantedModificationErrorHandlingStrategy;
     }
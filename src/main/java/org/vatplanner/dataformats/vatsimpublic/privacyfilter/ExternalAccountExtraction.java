@@ -1,10 +1,15 @@
 package org.vatplanner.dataformats.vatsimpublic.privacyfilter;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.vatplanner.dataformats.vatsimpublic.utils.AhoCorasickMatcher;
+
 /**
  * Extracts what, by syntax, looks like it could possibly be an account
  * identifier for a streaming or social media service. The purpose of this
@@ -16,6 +21,13 @@ import java.util.regex.Pattern;
  * syntax indistinguishable from regular, not account-related information can
  * prevent detection.
  * <p>
+ * Every pattern used for extraction requires one of a few service names to be
+ * present. All service names are searched in a single pass first; patterns are
+ * then only attempted at positions where one of their service names has been
+ * found, so most field contents are processed without evaluating any regular
+ * expression.
+ * </p>
+ * <p>
  * Attempting to extract account information for purposes other than automated
  * removal of such information may violate privacy laws and local regulations;
  * be careful what you apply this extraction for.
@@ -64,6 +76,44 @@ public class ExternalAccountExtraction {
     );
     private static final int PATTERN_EXTRA_CHARS_KEEP = 1;
 
+    // Every match of PATTERN_1, PATTERN_3 and PATTERN_4 starts with one of the
+    // keywords listed for that pattern. PATTERN_2 matches end with its keywords
+    // which follow the account; candidate positions are found by scanning back
+    // from the keyword. Keywords must be kept in sync with patterns.
+    private static final String[] PATTERN_1_KEYWORDS = {"twitch", "youtu", "discord", "facebook.com", "hitbox.tv", "smashcast.tv", "mixer.com"};
+    private static final String[] PATTERN_2_KEYWORDS = {" on youtube", " on twitter", " on twitch", " on facebook", " on discord"};
+    private static final String[] PATTERN_3_KEYWORDS = {"youtube", "twitter", "twitch", "facebook"};
+    private static final String[] PATTERN_4_KEYWORDS = {"youtube", "twitter", "twitch", "facebook", "instagram"};
+
+    private static final int PATTERN_1_INDEX = 0;
+    private static final int PATTERN_2_INDEX = 1;
+    private static final int PATTERN_3_INDEX = 2;
+    private static final int PATTERN_4_INDEX = 3;
+    private static final int NUM_PATTERNS = 4;
+
+    private static final AhoCorasickMatcher KEYWORD_MATCHER;
+    private static final int[] PATTERN_INDEX_BY_KEYWORD;
+
+    static {
+        String[][] keywordsByPattern = new String[NUM_PATTERNS][];
+        keywordsByPattern[PATTERN_1_INDEX] = PATTERN_1_KEYWORDS;
+        keywordsByPattern[PATTERN_2_INDEX] = PATTERN_2_KEYWORDS;
+        keywordsByPattern[PATTERN_3_INDEX] = PATTERN_3_KEYWORDS;
+        keywordsByPattern[PATTERN_4_INDEX] = PATTERN_4_KEYWORDS;
+
+        List<String> keywords = new ArrayList<>();
+        List<Integer> patternIndexes = new ArrayList<>();
+        for (int patternIndex = 0; patternIndex < NUM_PATTERNS; patternIndex++) {
+            for (String keyword : keywordsByPattern[patternIndex]) {
+                keywords.add(keyword);
+                patternIndexes.add(patternIndex);
+            }
+        }
+
+        KEYWORD_MATCHER = new AhoCorasickMatcher(keywords);
+        PATTERN_INDEX_BY_KEYWORD = patternIndexes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
     private boolean checkPossibleAccount(String s) {
         Matcher matcher = PATTERN_NOACCOUNT.matcher(s);
         return !matcher.matches();
@@ -79,10 +129,19 @@ public class ExternalAccountExtraction {
     public Set<String> extractAccounts(String fieldContent) {
         HashSet<String> accounts = new HashSet<String>();
 
-        extractByPattern(fieldContent, accounts, PATTERN_1, PATTERN_1_ACCOUNT, true);
-        extractByPattern(fieldContent, accounts, PATTERN_2, PATTERN_2_ACCOUNT, false);
-        extractByPattern(fieldContent, accounts, PATTERN_3, PATTERN_3_ACCOUNT, false);
-        extractByPattern(fieldContent, accounts, PATTERN_4, PATTERN_4_ACCOUNT, false);
+        BitSet[] keywordPositions = new BitSet[NUM_PATTERNS];
+        KEYWORD_MATCHER.findAll(fieldContent, (keywordIndex, start) -> {
+            int patternIndex = PATTERN_INDEX_BY_KEYWORD[keywordIndex];
+            if (keywordPositions[patternIndex] == null) {
+                keywordPositions[patternIndex] = new BitSet();
+            }
+            keywordPositions[patternIndex].set(start);
+        });
+
+        extractByPattern(fieldContent, accounts, PATTERN_1, PATTERN_1_ACCOUNT, keywordPositions[PATTERN_1_INDEX], false, true);
+        extractByPattern(fieldContent, accounts, PATTERN_2, PATTERN_2_ACCOUNT, keywordPositions[PATTERN_2_INDEX], true, false);
+        extractByPattern(fieldContent, accounts, PATTERN_3, PATTERN_3_ACCOUNT, keywordPositions[PATTERN_3_INDEX], false, false);
+        extractByPattern(fieldContent, accounts, PATTERN_4, PATTERN_4_ACCOUNT, keywordPositions[PATTERN_4_INDEX], false, false);
 
         return accounts;
     }
@@ -96,23 +155,66 @@ public class ExternalAccountExtraction {
         return matcher.group(PATTERN_EXTRA_CHARS_KEEP);
     }
 
-    private void extractByPattern(String fieldContent, HashSet<String> accounts, Pattern pattern, int matcherGroup, boolean incrementalSearch) {
+    /**
+     * Extracts accounts by applying the given pattern at all keyword positions,
+     * yielding the same matches as searching the whole field content would.
+     * Incremental search continues after the start of each match, allowing
+     * overlapping matches; otherwise search continues after the end of each
+     * match.
+     *
+     * @param fieldContent             field content to extract information from
+     * @param accounts                 collects extracted accounts
+     * @param pattern                  pattern to apply
+     * @param matcherGroup             group of pattern holding the account
+     * @param keywordPositions         start positions of all keywords of the
+     *                                 pattern; null if none were found
+     * @param keywordPrecededByAccount true if account is matched before keyword
+     *                                 (pattern 2), false if matches start with
+     *                                 keyword
+     * @param incrementalSearch        true to also find overlapping matches
+     */
+    private void extractByPattern(String fieldContent, HashSet<String> accounts, Pattern pattern, int matcherGroup, BitSet keywordPositions, boolean keywordPrecededByAccount, boolean incrementalSearch) {
+        if (keywordPositions == null) {
+            return;
+        }
+
         Matcher matcher = pattern.matcher(fieldContent);
 
-        if (!incrementalSearch) {
-            while (matcher.find()) {
-                extractFromMatch(matcher, matcherGroup, accounts);
+        int searchStart = 0;
+        int keywordStart = keywordPositions.nextSetBit(0);
+        while (keywordStart >= 0) {
+            int matchStart = keywordStart;
+            if (keywordPrecededByAccount) {
+                while ((matchStart > searchStart) && isPattern2AccountCharacter(fieldContent.charAt(matchStart - 1))) {
+                    matchStart--;
+                }
             }
-        } else {
-            int startIndex = 0;
-            while (startIndex < fieldContent.length() && matcher.find(startIndex)) {
-                startIndex = matcher.start() + 1;
+
+            matcher.region(matchStart, fieldContent.length());
+            if (matcher.lookingAt()) {
+                searchStart = incrementalSearch ? matchStart + 1 : matcher.end();
 
                 extractFromMatch(matcher, matcherGroup, accounts);
             }
+
+            keywordStart = keywordPositions.nextSetBit(Math.max(keywordStart + 1, searchStart));
         }
     }
 
+    /**
+     * Checks if the given character is matched by the account group of
+     * {@link #PATTERN_2}; must be kept in sync with the pattern.
+     *
+     * @param ch character to check
+     * @return true if character can be part of account, false if not
+     */
+    private static boolean isPattern2AccountCharacter(char ch) {
+        return ((ch >= 'a') && (ch <= 'z'))
+            || ((ch >= 'A') && (ch <= 'Z'))
+            || ((ch >= '0') && (ch <= '9'))
+            || (ch == '_') || (ch == '-') || (ch == '.') || (ch == '"') || (ch == '\'');
+    }
+
     private void extractFromMatch(Matcher matcher, int matcherGroup, HashSet<String> accounts) {
         String account = matcher.group(matcherGroup);
 
@@ -0,0 +1,99 @@
+package org.vatplanner.dataformats.vatsimpublic.privacyfilter;
+
+import java.util.Collection;
+
+import org.vatplanner.dataformats.vatsimpublic.parser.ClientFields;
+import org.vatplanner.dataformats.vatsimpublic.privacyfilter.FilterReport.ErrorType;
+import org.vatplanner.dataformats.vatsimpublic.privacyfilter.FilterReport.Outcome;
+import org.vatplanner.dataformats.vatsimpublic.privacyfilter.errorhandling.ErrorHandlingStrategy;
+
+/**
+ * Passes errors detected during filtering to the {@link ErrorHandlingStrategy}
+ * configured for their type and records outcomes to a {@link FilterReport}, if
+ * requested. One instance is used per filtered file.
+ */
+class FilterErrorHandler {
+
+    private final DataFileFilterConfiguration configuration;
+    private final FilterReport report;
+    private int lineNumber;
+
+    /**
+     * Creates a new error handler.
+     *
+     * @param configuration configuration providing error handling strategies
+     * @param report        receives outcomes of error handling; may be null
+     */
+    FilterErrorHandler(DataFileFilterConfiguration configuration, FilterReport report) {
+        this.configuration = configuration;
+        this.report = report;
+    }
+
+    /**
+     * Sets the line number all following errors will be recorded for.
+     *
+     * @param lineNumber number of line in original input, starting at 1
+     */
+    void setLineNumber(int lineNumber) {
+        this.lineNumber = lineNumber;
+    }
+
+    /**
+     * Handles an error and records the outcome.
+     *
+     * @param errorType       type of detected error
+     * @param rawContent      content before filters were applied
+     * @param filteredContent erroneous content after filters were applied
+     * @param affectedFields  fields affected by the error
+     * @return result of error handling; null if content should be removed
+     * @throws ErrorHandlingStrategy.FailWithException if error handling aborts
+     *                                                 filtering
+     */
+    String handle(ErrorType errorType, String rawContent, String filteredContent, Collection<ClientFields.FieldAccess> affectedFields) {
+        ErrorHandlingStrategy strategy;
+        switch (errorType) {
+            case UNWANTED_MODIFICATION:
+                strategy = configuration.getUnwantedModificationErrorHandlingStrategy();
+                break;
+
+            case INCOMPLETE_FILTERING:
+                strategy = configuration.getIncompleteFilteringErrorHandlingStrategy();
+                break;
+
+            case UNSTABLE_RESULT:
+                strategy = configuration.getUnstableResultErrorHandlingStrategy();
+                break;
+
+            default:
+                throw new IllegalArgumentException("unsupported error type: " + errorType);
+        }
+
+        String result;
+        try {
+            result = strategy.handleError(rawContent, filteredContent, affectedFields);
+        } catch (ErrorHandlingStrategy.FailWithException ex) {
+            record(errorType, Outcome.ABORTED);
+            throw ex;
+        }
+
+        Outcome outcome;
+        if (result == null) {
+            outcome = Outcome.REMOVED;
+        } else if (result.equals(filteredContent)) {
+            outcome = Outcome.KEPT_FILTERED;
+        } else if (result.equals(rawContent)) {
+            outcome = Outcome.KEPT_ORIGINAL;
+        } else {
+            outcome = Outcome.REPLACED;
+        }
+        record(errorType, outcome);
+
+        return result;
+    }
+
+    private void record(ErrorType errorType, Outcome outcome) {
+        if (report != null) {
+            report.addEntry(lineNumber, errorType, outcome);
+        }
+    }
+}
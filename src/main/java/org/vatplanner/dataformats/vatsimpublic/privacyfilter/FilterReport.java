@@ -0,0 +1,178 @@
+package org.vatplanner.dataformats.vatsimpublic.privacyfilter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.vatplanner.dataformats.vatsimpublic.privacyfilter.errorhandling.ErrorHandlingStrategy;
+
+/**
+ * Records all errors detected while filtering a single data file together with
+ * the outcome of the {@link ErrorHandlingStrategy} which handled them. A report
+ * can be provided to {@link DataFileFilter#filter(java.io.Reader, java.io.Writer, FilterReport)}
+ * to learn which lines may require further attention.
+ *
+ * <p>
+ * Instances are not thread-safe; use one report per filtered file.
+ * </p>
+ */
+public class FilterReport {
+
+    private List<Entry> entries;
+
+    /**
+     * Type of error detected during filter verification. Each type is handled by
+     * the {@link ErrorHandlingStrategy} configured for it on
+     * {@link DataFileFilterConfiguration}.
+     */
+    public enum ErrorType {
+        /**
+         * Fields have been modified which should not have been affected by filters.
+         */
+        UNWANTED_MODIFICATION,
+
+        /**
+         * Filtering could not be verified to have been applied completely.
+         */
+        INCOMPLETE_FILTERING,
+
+        /**
+         * Applying filters again did not yield the same result.
+         */
+        UNSTABLE_RESULT;
+    }
+
+    /**
+     * Result of handling an error as determined from line content returned by the
+     * {@link ErrorHandlingStrategy}.
+     */
+    public enum Outcome {
+        /**
+         * Erroneous filter output has been kept.
+         */
+        KEPT_FILTERED,
+
+        /**
+         * Line content from before filtering has been kept.
+         */
+        KEPT_ORIGINAL,
+
+        /**
+         * Line has been replaced by some other content.
+         */
+        REPLACED,
+
+        /**
+         * Line has been removed.
+         */
+        REMOVED,
+
+        /**
+         * Filtering of the whole file has been aborted.
+         */
+        ABORTED;
+    }
+
+    /**
+     * A single error handled during filtering.
+     */
+    public static class Entry {
+        private final int lineNumber;
+        private final ErrorType errorType;
+        private final Outcome outcome;
+
+        Entry(int lineNumber, ErrorType errorType, Outcome outcome) {
+            this.lineNumber = lineNumber;
+            this.errorType = errorType;
+            this.outcome = outcome;
+        }
+
+        /**
+         * Returns the number of the line in original input the error was detected
+         * on.
+         *
+         * @return line number, starting at 1
+         */
+        public int getLineNumber() {
+            return lineNumber;
+        }
+
+        /**
+         * Returns the type of error which has been detected.
+         *
+         * @return type of error
+         */
+        public ErrorType getErrorType() {
+            return errorType;
+        }
+
+        /**
+         * Returns the outcome of error handling.
+         *
+         * @return outcome of error handling
+         */
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        @Override
+        public String toString() {
+            return "Entry(line " + lineNumber + ", " + errorType + " => " + outcome + ")";
+        }
+    }
+
+    void addEntry(int lineNumber, ErrorType errorType, Outcome outcome) {
+        if (entries == null) {
+            entries = new ArrayList<>();
+        }
+
+        entries.add(new Entry(lineNumber, errorType, outcome));
+    }
+
+    /**
+     * Returns all recorded errors in order of detection.
+     *
+     * @return all recorded errors; never null
+     */
+    public List<Entry> getEntries() {
+        if (entries == null) {
+            return Collections.emptyList();
+        }
+
+        return Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Counts all recorded errors of the given type.
+     *
+     * @param errorType type of error to count
+     * @return number of errors recorded for given type
+     */
+    public int countEntries(ErrorType errorType) {
+        return (int) getEntries().stream()
+                                 .filter(entry -> entry.getErrorType() == errorType)
+                                 .count();
+    }
+
+    /**
+     * Counts all recorded errors which have been handled with the given outcome.
+     *
+     * @param outcome outcome of error handling to count
+     * @return number of errors handled with given outcome
+     */
+    public int countEntries(Outcome outcome) {
+        return (int) getEntries().stream()
+                                 .filter(entry -> entry.getOutcome() == outcome)
+                                 .count();
+    }
+
+    /**
+     * Checks if any error has been recorded.
+     *
+     * @return true if errors have been recorded, false if filtering went without
+     *     any error
+     */
+    public boolean hasEntries() {
+        return (entries != null) && !entries.isEmpty();
+    }
+}
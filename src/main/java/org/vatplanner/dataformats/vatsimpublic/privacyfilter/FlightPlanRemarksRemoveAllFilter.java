@@ -6,9 +6,9 @@ import java.util.Collection;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 import org.vatplanner.dataformats.vatsimpublic.parser.ClientFields;
+import org.vatplanner.dataformats.vatsimpublic.utils.AhoCorasickMatcher;
 
 /**
  * Privacy filter which implements removal of free-text from flight plan
@@ -17,27 +17,21 @@ import org.vatplanner.dataformats.vatsimpublic.parser.ClientFields;
  * {@link DataFileFilterConfiguration#setFlightPlanRemarksRemoveAll(boolean)} or
  * {@link DataFileFilterConfiguration#setFlightPlanRemarksRemoveAllIfContaining(java.util.Collection)}.
  */
-public class FlightPlanRemarksRemoveAllFilter implements VerifiableClientFilter<String> {
+public class FlightPlanRemarksRemoveAllFilter implements VerifiableClientFieldFilter<String> {
     // TODO: check and maintain other prefiling system markers such as SimBrief
 
     private static final Set<ClientFields.FieldAccess<String>> AFFECTED_FIELDS = asUnmodifiableSet(
         ClientFields.StringFields.FLIGHT_PLAN_REMARKS
     );
 
-    private final Pattern patternFieldContentTrigger;
+    private final AhoCorasickMatcher triggerMatcher;
 
     private static final String VFPS_PREFIX = "+VFPS+";
     private static final String COMMUNICATION_FLAG_VOICE = "/V/";
     private static final String COMMUNICATION_FLAG_RECEIVE_ONLY = "/R/";
     private static final String COMMUNICATION_FLAG_TEXT = "/T/";
 
-    private static final Pattern PATTERN_APPLICATION = Pattern.compile(
-        "^([^:]*:[^:]*:[^:]*:[^:]*:[^:]*:[^:]*:[^:]*:[^:]*:[^:]*:[^:]*:[^:]*:[^:]*:[^:]*:[^:]*:[^:]*:[^:]*:[^:]*:[^:]*:[^:]*:[^:]*:[^:]*:[^:]*:[^:]*:[^:]*:[^:]*:[^:]*:[^:]*:[^:]*:[^:]*:)([^:]*)(:.*|)$",
-        Pattern.CASE_INSENSITIVE
-    );
-    private static final int PATTERN_APPLICATION_FIELDS_BEFORE = 1;
-    private static final int PATTERN_APPLICATION_FIELD_CONTENT = 2;
-    private static final int PATTERN_APPLICATION_FIELDS_AFTER = 3;
+    private static final int FIELD_INDEX_FLIGHT_PLAN_REMARKS = 29;
 
     private static final Pattern PATTERN_VERIFICATION_FILTERED = Pattern.compile(
         "^(\\+VFPS\\+|)(/[VRT]/|)$",
@@ -65,7 +59,7 @@ public class FlightPlanRemarksRemoveAllFilter implements VerifiableClientFilter<
      */
     public FlightPlanRemarksRemoveAllFilter(Collection<String> triggers) {
         if ((triggers == null) || triggers.isEmpty()) {
-            patternFieldContentTrigger = null;
+            triggerMatcher = null;
             return;
         }
 
@@ -74,17 +68,8 @@ public class FlightPlanRemarksRemoveAllFilter implements VerifiableClientFilter<
             throw new IllegalArgumentException("Triggers contain invalid search phrases (null or white-space only).");
         }
 
-        StringBuilder sb = new StringBuilder();
-        sb.append(".*(");
-        sb.append(
-            triggers
-                .stream()
-                .map(Pattern::quote)
-                .collect(Collectors.joining("|"))
-        );
-        sb.append(").*");
-
-        patternFieldContentTrigger = Pattern.compile(sb.toString(), Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+        // search time must not depend on number of triggers
+        triggerMatcher = new AhoCorasickMatcher(triggers);
     }
 
     /**
@@ -95,13 +80,12 @@ public class FlightPlanRemarksRemoveAllFilter implements VerifiableClientFilter<
      * @return true if given field content should be filtered
      */
     boolean isConditionMet(String fieldContent) {
-        if (patternFieldContentTrigger == null) {
+        if (triggerMatcher == null) {
             boolean isEmpty = (fieldContent == null) || fieldContent.trim().isEmpty();
             return !isEmpty;
         }
 
-        Matcher matcher = patternFieldContentTrigger.matcher(fieldContent);
-        return matcher.matches();
+        return triggerMatcher.containsAny(fieldContent);
     }
 
     @Override
@@ -178,19 +162,24 @@ public class FlightPlanRemarksRemoveAllFilter implements VerifiableClientFilter<
     }
 
     @Override
-    public String apply(String t) {
-        Matcher matcher = PATTERN_APPLICATION.matcher(t);
-        if (!matcher.matches()) {
-            return t;
+    public int getRawFieldIndex(ClientFields.FieldAccess<String> fieldAccess) {
+        if (fieldAccess == ClientFields.StringFields.FLIGHT_PLAN_REMARKS) {
+            return FIELD_INDEX_FLIGHT_PLAN_REMARKS;
         }
 
-        String fieldContent = matcher.group(PATTERN_APPLICATION_FIELD_CONTENT);
-        if (!isConditionMet(fieldContent)) {
-            return t;
+        throw new IllegalArgumentException("attempted to locate an unhandled field");
+    }
+
+    @Override
+    public void applyToFields(RawClientLine line) {
+        if (!line.hasField(FIELD_INDEX_FLIGHT_PLAN_REMARKS)) {
+            return;
         }
 
-        String fieldsBefore = matcher.group(PATTERN_APPLICATION_FIELDS_BEFORE);
-        String fieldsAfter = matcher.group(PATTERN_APPLICATION_FIELDS_AFTER);
+        String fieldContent = line.getField(FIELD_INDEX_FLIGHT_PLAN_REMARKS);
+        if (!isConditionMet(fieldContent)) {
+            return;
+        }
 
         boolean isFiledByVFPS = fieldContent.startsWith(VFPS_PREFIX);
         String expectedPrefix = isFiledByVFPS ? VFPS_PREFIX : "";
@@ -199,6 +188,6 @@ public class FlightPlanRemarksRemoveAllFilter implements VerifiableClientFilter<
 
         String filteredFieldContent = expectedPrefix + expectedCommunicationFlag;
 
-        return fieldsBefore + filteredFieldContent + fieldsAfter;
+        line.setField(FIELD_INDEX_FLIGHT_PLAN_REMARKS, filteredFieldContent);
     }
 }
@@ -0,0 +1,1033 @@
+package org.vatplanner.dataformats.vatsimpublic.privacyfilter;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.vatplanner.dataformats.vatsimpublic.utils.CollectionHelpers.asUnmodifiableSet;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.vatplanner.dataformats.vatsimpublic.parser.ClientFields;
+import org.vatplanner.dataformats.vatsimpublic.privacyfilter.FilterReport.ErrorType;
+import org.vatplanner.dataformats.vatsimpublic.privacyfilter.errorhandling.ErrorHandlingStrategy;
+
+/**
+ * Privacy filter for JSON data files in format version 3, offering the same
+ * filters as {@link DataFileFilter} does for legacy data files. See
+ * {@link DataFileFilter} for a full description and disclaimer which applies
+ * identically to this filter.
+ *
+ * <p>
+ * Input is streamed token by token directly to output without building a tree
+ * of JSON objects; only string values which may need to be filtered are
+ * decoded. All other content, including whitespace and escape sequences, is
+ * copied unmodified, so output is identical to input except for values which
+ * actually have been changed by filters. Malformed structure is rejected but
+ * numbers and literals are only checked to consist of valid characters. The
+ * format version given by <code>general.version</code> is checked as soon as it
+ * has been read; files of unsupported format versions are rejected before any
+ * further output is written. The following values are filtered:
+ * </p>
+ * <ul>
+ * <li><code>name</code> of all pilots, controllers, ATIS stations and prefiles
+ * (real name and homebase)</li>
+ * <li><code>callsign</code> of all pilots, controllers, ATIS stations and
+ * prefiles (observer callsigns)</li>
+ * <li><code>flight_plan.remarks</code> of all pilots and prefiles</li>
+ * </ul>
+ *
+ * <p>
+ * Filters are applied to the decoded value of each field, the same way
+ * {@link VerifiableClientFieldFilter}s are applied to fields of legacy data
+ * files. Each result is verified by
+ * {@link VerifiableClientFilter#verifyAffectedField(ClientFields.FieldAccess, Object, Object)}
+ * and checked for stability. Detected errors are handled by the
+ * {@link ErrorHandlingStrategy}s configured on
+ * {@link DataFileFilterConfiguration} which receive the original and filtered
+ * field value instead of complete lines. As individual values cannot be removed
+ * from a JSON document, a strategy requesting removal results in the value being
+ * replaced by an empty string. Since the document structure is never modified,
+ * unwanted modifications cannot occur.
+ * </p>
+ *
+ * <p>
+ * Instances are thread-safe and can be used to filter multiple files in
+ * parallel.
+ * </p>
+ */
+public class JsonDataFileFilter {
+
+    private static final int SUPPORTED_FORMAT_VERSION = 3;
+
+    // number of fields on a legacy client line, filters expect all fields to exist
+    private static final int NUMBER_OF_RAW_FIELDS = 42;
+
+    private static final Set<String> CLIENT_SECTIONS = asUnmodifiableSet("pilots", "controllers", "atis", "prefiles");
+    private static final Set<String> FLIGHT_PLAN_SECTIONS = asUnmodifiableSet("pilots", "prefiles");
+
+    private static final String KEY_GENERAL = "general";
+    private static final String KEY_VERSION = "version";
+    private static final String KEY_REAL_NAME = "name";
+    private static final String KEY_CALLSIGN = "callsign";
+    private static final String KEY_FLIGHT_PLAN = "flight_plan";
+    private static final String KEY_REMARKS = "remarks";
+
+    // keys relevant to locate filtered values; all other keys do not need to be
+    // remembered
+    private static final String[] RELEVANT_KEYS = {
+        "pilots", "controllers", "atis", "prefiles",
+        KEY_REAL_NAME, KEY_CALLSIGN, KEY_FLIGHT_PLAN, KEY_REMARKS,
+        KEY_GENERAL, KEY_VERSION
+    };
+
+    // relevant keys indexed by length; most keys read from input can be
+    // dismissed by their length or first character
+    private static final String[][] RELEVANT_KEYS_BY_LENGTH = groupByLength(RELEVANT_KEYS);
+    private static final char[][][] RELEVANT_KEY_CHARS_BY_LENGTH = toCharArrays(RELEVANT_KEYS_BY_LENGTH);
+
+    // deepest path element whose key is needed to locate filtered values
+    private static final int MAX_RELEVANT_KEY_DEPTH = 4;
+
+    private final DataFileFilterConfiguration configuration;
+    private final Map<ClientFields.StringFields, FieldFilterChain> filtersByField = new EnumMap<>(ClientFields.StringFields.class);
+
+    /**
+     * Initializes a new JSON data file filter for given configuration. Note that
+     * configuration must be final; any later modification to configuration may not
+     * apply to this filter instance or yield unexpected results.
+     *
+     * @param configuration configuration for this filter instance, must be final
+     *                      and not null
+     * @throws IllegalArgumentException if configuration requests a filter which
+     *                                  cannot be applied to JSON data files
+     */
+    public JsonDataFileFilter(DataFileFilterConfiguration configuration) {
+        if (configuration == null) {
+            throw new IllegalArgumentException("configuration must not be null");
+        }
+
+        for (VerifiableClientFilter<?> filter : getVerifiableClientFilterFactory().buildFromConfiguration(configuration)) {
+            addFilter(filter);
+        }
+
+        this.configuration = configuration;
+    }
+
+    private static String[][] groupByLength(String[] keys) {
+        int maxLength = 0;
+        for (String key : keys) {
+            maxLength = Math.max(maxLength, key.length());
+        }
+
+        String[][] keysByLength = new String[maxLength + 1][0];
+        for (String key : keys) {
+            String[] sameLength = keysByLength[key.length()];
+            sameLength = Arrays.copyOf(sameLength, sameLength.length + 1);
+            sameLength[sameLength.length - 1] = key;
+            keysByLength[key.length()] = sameLength;
+        }
+
+        return keysByLength;
+    }
+
+    private static char[][][] toCharArrays(String[][] keysByLength) {
+        char[][][] charsByLength = new char[keysByLength.length][][];
+        for (int length = 0; length < keysByLength.length; length++) {
+            String[] keys = keysByLength[length];
+            charsByLength[length] = new char[keys.length][];
+            for (int i = 0; i < keys.length; i++) {
+                charsByLength[length][i] = keys[i].toCharArray();
+            }
+        }
+
+        return charsByLength;
+    }
+
+    VerifiableClientFilterFactory getVerifiableClientFilterFactory() {
+        return new VerifiableClientFilterFactory();
+    }
+
+    private void addFilter(VerifiableClientFilter<?> filter) {
+        if (!(filter instanceof VerifiableClientFieldFilter)) {
+            throw new IllegalArgumentException("filter cannot be applied to JSON: " + filter.getClass().getName());
+        }
+
+        for (ClientFields.FieldAccess<?> field : filter.getAffectedFields()) {
+            if ((field != ClientFields.StringFields.REAL_NAME)
+                && (field != ClientFields.StringFields.CALLSIGN)
+                && (field != ClientFields.StringFields.FLIGHT_PLAN_REMARKS)) {
+                throw new IllegalArgumentException("field " + field.name() + " cannot be filtered on JSON");
+            }
+        }
+
+        // all supported fields are strings
+        @SuppressWarnings("unchecked")
+        VerifiableClientFieldFilter<String> stringFilter = (VerifiableClientFieldFilter<String>) filter;
+        for (ClientFields.FieldAccess<String> field : stringFilter.getAffectedFields()) {
+            filtersByField.computeIfAbsent((ClientFields.StringFields) field, FieldFilterChain::new)
+                          .add(stringFilter);
+        }
+    }
+
+    /**
+     * Checks if the given format version is officially supported. Format version is
+     * available from the <code>version</code> field of the <code>general</code>
+     * section.
+     *
+     * @param formatVersion version to query support for
+     * @return Is given format version supported? (true = supported, false =
+     *     unsupported)
+     */
+    public boolean isFormatVersionSupported(int formatVersion) {
+        return (formatVersion == SUPPORTED_FORMAT_VERSION);
+    }
+
+    /**
+     * Filters the given JSON data file as configured and returns the result.
+     * <p>
+     * This method holds the complete file in memory; use
+     * {@link #filter(Reader, Writer)} to filter large files.
+     * </p>
+     *
+     * @param original JSON data file to apply filter to
+     * @return filtered data file (may be erroneous or incompletely filtered!)
+     * @throws IllegalArgumentException                if input is no well-formed JSON
+     *                                                 or of an unsupported format
+     *                                                 version
+     * @throws ErrorHandlingStrategy.FailWithException if filtering was aborted by
+     *                                                 error handling
+     */
+    public String filter(String original) {
+        StringWriter writer = new StringWriter(original.length());
+        try (StringReader reader = new StringReader(original)) {
+            filter(reader, writer);
+        } catch (IOException ex) {
+            throw new RuntimeException("filtering failed", ex);
+        }
+
+        return writer.toString();
+    }
+
+    /**
+     * Filters a JSON data file read from the given {@link InputStream} as
+     * configured and writes the result to the given {@link OutputStream}. Both
+     * streams are read/written using UTF-8 character set. Streams will not be
+     * closed. See {@link #filter(Reader, Writer, FilterReport)} for details.
+     *
+     * @param in     provides JSON data file to apply filter to
+     * @param out    receives filtered data file (may be erroneous or incompletely
+     *               filtered!)
+     * @param report receives all errors handled during filtering; may be null
+     * @throws IOException                             if reading or writing fails
+     * @throws IllegalArgumentException                if input is no well-formed JSON
+     *                                                 or of an unsupported format
+     *                                                 version
+     * @throws ErrorHandlingStrategy.FailWithException if filtering was aborted by
+     *                                                 error handling
+     */
+    public void filter(InputStream in, OutputStream out, FilterReport report) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, UTF_8));
+        filter(new InputStreamReader(in, UTF_8), writer, report);
+        writer.flush();
+    }
+
+    /**
+     * Filters a JSON data file read from the given {@link Reader} as configured
+     * and writes the result to the given {@link Writer}. See
+     * {@link #filter(Reader, Writer, FilterReport)} for details.
+     *
+     * @param reader provides JSON data file to apply filter to
+     * @param writer receives filtered data file (may be erroneous or incompletely
+     *               filtered!)
+     * @throws IOException                             if reading or writing fails
+     * @throws IllegalArgumentException                if input is no well-formed JSON
+     *                                                 or of an unsupported format
+     *                                                 version
+     * @throws ErrorHandlingStrategy.FailWithException if filtering was aborted by
+     *                                                 error handling
+     */
+    public void filter(Reader reader, Writer writer) throws IOException {
+        filter(reader, writer, null);
+    }
+
+    /**
+     * Filters a JSON data file read from the given {@link Reader} as configured
+     * and writes the result to the given {@link Writer} while recording all
+     * handled errors to the given {@link FilterReport}. Errors are recorded with
+     * the line number the affected value starts on.
+     * <p>
+     * Output is written while reading; if input turns out not to be well-formed
+     * JSON or filtering gets aborted by error handling, output produced until
+     * then will already have been written. Neither reader nor writer will be
+     * closed. Writer is not flushed.
+     * </p>
+     *
+     * @param reader provides JSON data file to apply filter to
+     * @param writer receives filtered data file (may be erroneous or incompletely
+     *               filtered!)
+     * @param report receives all errors handled during filtering; may be null
+     * @throws IOException                             if reading or writing fails
+     * @throws IllegalArgumentException                if input is no well-formed JSON
+     *                                                 or of an unsupported format
+     *                                                 version
+     * @throws ErrorHandlingStrategy.FailWithException if filtering was aborted by
+     *                                                 error handling
+     */
+    public void filter(Reader reader, Writer writer, FilterReport report) throws IOException {
+        new JsonRewriter(reader, writer, new FilterErrorHandler(configuration, report)).rewrite();
+    }
+
+    /**
+     * All filters to be applied to a single field, in order.
+     */
+    private static class FieldFilterChain {
+        private final ClientFields.StringFields field;
+        private final List<VerifiableClientFieldFilter<String>> filters = new ArrayList<>();
+        private int rawFieldIndex = -1;
+
+        private FieldFilterChain(ClientFields.StringFields field) {
+            this.field = field;
+        }
+
+        private void add(VerifiableClientFieldFilter<String> filter) {
+            int filterRawFieldIndex = filter.getRawFieldIndex(field);
+            if ((rawFieldIndex >= 0) && (rawFieldIndex != filterRawFieldIndex)) {
+                throw new IllegalArgumentException("filters disagree on raw field index of " + field.name());
+            }
+
+            rawFieldIndex = filterRawFieldIndex;
+            filters.add(filter);
+        }
+
+        private String apply(String value) {
+            RawClientLine line = RawClientLine.forSingleField(NUMBER_OF_RAW_FIELDS, rawFieldIndex, value);
+            for (VerifiableClientFieldFilter<String> filter : filters) {
+                filter.applyToFields(line);
+            }
+
+            return line.getField(rawFieldIndex);
+        }
+
+        /**
+         * Filters and verifies a single value.
+         *
+         * @param original     value to filter
+         * @param errorHandler handles detected errors
+         * @return filtered value if verified, otherwise result of error handling
+         */
+        private String filter(String original, FilterErrorHandler errorHandler) {
+            String filtered = apply(original);
+
+            for (VerifiableClientFieldFilter<String> filter : filters) {
+                if (!filter.verifyAffectedField(field, original, filtered)) {
+                    return handleError(ErrorType.INCOMPLETE_FILTERING, original, filtered, errorHandler);
+                }
+            }
+
+            // unmodified values are stable by definition
+            if (!filtered.equals(original) && !filtered.equals(apply(filtered))) {
+                return handleError(ErrorType.UNSTABLE_RESULT, original, filtered, errorHandler);
+            }
+
+            return filtered;
+        }
+
+        private String handleError(ErrorType errorType, String original, String filtered, FilterErrorHandler errorHandler) {
+            Collection<ClientFields.FieldAccess> affectedFields = new ArrayList<>();
+            affectedFields.add(field);
+
+            String result = errorHandler.handle(errorType, original, filtered, affectedFields);
+            if (result == null) {
+                // values cannot be removed from JSON, clear instead
+                return "";
+            }
+
+            return result;
+        }
+    }
+
+    /**
+     * Copies JSON from a {@link Reader} to a {@link Writer} while replacing
+     * filtered string values. Unfiltered content is copied from the read buffer in
+     * blocks.
+     */
+    private class JsonRewriter {
+        private static final int BUFFER_SIZE = 8192;
+        private static final int INITIAL_MAX_DEPTH = 8;
+
+        private final Reader reader;
+        private final Writer writer;
+        private final FilterErrorHandler errorHandler;
+
+        private final char[] buffer = new char[BUFFER_SIZE];
+        private int position = 0;
+        private int limit = 0;
+
+        // start of buffer content which has been read but not copied yet
+        private int copyStart = 0;
+
+        // while capturing, read content is collected instead of being copied
+        private boolean isCapturing = false;
+        private final StringBuilder capture = new StringBuilder();
+
+        private int lineNumber = 1;
+
+        // current path through the document: keys of objects, null for arrays
+        private String[] pathKeys = new String[INITIAL_MAX_DEPTH];
+        private boolean[] pathIsArray = new boolean[INITIAL_MAX_DEPTH];
+        private int depth = 0;
+
+        private final StringBuilder decoded = new StringBuilder();
+
+        private JsonRewriter(Reader reader, Writer writer, FilterErrorHandler errorHandler) {
+            this.reader = reader;
+            this.writer = writer;
+            this.errorHandler = errorHandler;
+        }
+
+        private void rewrite() throws IOException {
+            skipWhitespace();
+            parseValue();
+            skipWhitespace();
+            if (peek() >= 0) {
+                throw malformed("unexpected content after end of document");
+            }
+            copyPending();
+        }
+
+        private void parseValue() throws IOException {
+            if (isFormatVersionPath()) {
+                checkFormatVersion();
+                return;
+            }
+
+            int ch = peek();
+            if (ch == '{') {
+                parseObject();
+            } else if (ch == '[') {
+                parseArray();
+            } else if (ch == '"') {
+                FieldFilterChain filterChain = findFilterChain();
+                if (filterChain == null) {
+                    skipString();
+                } else {
+                    filterString(filterChain);
+                }
+            } else {
+                skipLiteral();
+            }
+        }
+
+        private void parseObject() throws IOException {
+            expect('{');
+            push(false);
+
+            skipWhitespace();
+            if (peek() == '}') {
+                next();
+                depth--;
+                return;
+            }
+
+            while (true) {
+                if (skipIrrelevantMembers()) {
+                    break;
+                }
+
+                skipWhitespace();
+                if (peek() != '"') {
+                    throw malformed("expected object key");
+                }
+                pathKeys[depth - 1] = readKey();
+
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                parseValue();
+                skipWhitespace();
+
+                int ch = next();
+                if (ch == '}') {
+                    break;
+                } else if (ch != ',') {
+                    throw malformed("expected , or } in object");
+                }
+            }
+
+            depth--;
+        }
+
+        /**
+         * Fast path for the most frequent object members: keys which are not
+         * relevant followed by a string, number or literal. Such members are
+         * consumed directly from the buffer, in one pass and without any further
+         * processing, as long as they are completely held in the buffer and need no
+         * decoding. Parsing stops at the start of the first member which does not
+         * qualify, so it can be processed regularly.
+         *
+         * @return true if the end of the object has been consumed, false if members
+         *     remain to be parsed
+         */
+        private boolean skipIrrelevantMembers() {
+            char[] buf = buffer;
+            int lim = limit;
+            boolean keysMayBeRelevant = (depth <= MAX_RELEVANT_KEY_DEPTH);
+
+            int i = position;
+            while (true) {
+                int lines = 0;
+
+                // key
+                while ((i < lim) && (buf[i] <= ' ') && isWhitespace(buf[i])) {
+                    lines += (buf[i] == '\n') ? 1 : 0;
+                    i++;
+                }
+                if ((i >= lim) || (buf[i] != '"')) {
+                    return false;
+                }
+                int keyStart = ++i;
+                i = skipSimpleStringContent(buf, i, lim);
+                if ((i >= lim) || (buf[i] != '"')) {
+                    return false;
+                }
+                if (keysMayBeRelevant && (findRelevantKey(keyStart, i - keyStart) != null)) {
+                    return false;
+                }
+                i++;
+
+                while ((i < lim) && (buf[i] <= ' ') && isWhitespace(buf[i])) {
+                    lines += (buf[i] == '\n') ? 1 : 0;
+                    i++;
+                }
+                if ((i >= lim) || (buf[i] != ':')) {
+                    return false;
+                }
+                i++;
+
+                // value
+                while ((i < lim) && (buf[i] <= ' ') && isWhitespace(buf[i])) {
+                    lines += (buf[i] == '\n') ? 1 : 0;
+                    i++;
+                }
+                if (i >= lim) {
+                    return false;
+                }
+                if (buf[i] == '"') {
+                    i = skipSimpleStringContent(buf, i + 1, lim);
+                    if ((i >= lim) || (buf[i] != '"')) {
+                        return false;
+                    }
+                    i++;
+                } else if (isLiteralCharacter(buf[i])) {
+                    do {
+                        i++;
+                    } while ((i < lim) && isLiteralCharacter(buf[i]));
+                } else {
+                    return false;
+                }
+
+                // separator
+                while ((i < lim) && (buf[i] <= ' ') && isWhitespace(buf[i])) {
+                    lines += (buf[i] == '\n') ? 1 : 0;
+                    i++;
+                }
+                if (i >= lim) {
+                    return false;
+                }
+
+                char ch = buf[i++];
+                if ((ch != ',') && (ch != '}')) {
+                    return false;
+                }
+
+                // member is complete
+                position = i;
+                lineNumber += lines;
+
+                if (ch == '}') {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Scans the content of a string token in buffer up to the first character
+         * which needs special handling, which is the closing quote for all strings
+         * without escapes or line breaks.
+         *
+         * @param buf   buffer to scan
+         * @param start index of first character after the opening quote
+         * @param end   end of buffered content
+         * @return index of first character requiring special handling; end if none
+         */
+        private int skipSimpleStringContent(char[] buf, int start, int end) {
+            int i = start;
+            while (i < end) {
+                // one comparison suffices for most characters: only backslash is
+                // special at or above '#' while quote is the only other special
+                // character at or above space
+                char ch = buf[i];
+                if ((ch < '#') ? ((ch == '"') || (ch < ' ')) : (ch == '\\')) {
+                    break;
+                }
+                i++;
+            }
+            return i;
+        }
+
+        private void parseArray() throws IOException {
+            expect('[');
+            push(true);
+
+            skipWhitespace();
+            if (peek() == ']') {
+                next();
+                depth--;
+                return;
+            }
+
+            while (true) {
+                skipWhitespace();
+                parseValue();
+                skipWhitespace();
+
+                int ch = next();
+                if (ch == ']') {
+                    break;
+                } else if (ch != ',') {
+                    throw malformed("expected , or ] in array");
+                }
+            }
+
+            depth--;
+        }
+
+        private void push(boolean isArray) {
+            if (depth == pathKeys.length) {
+                pathKeys = Arrays.copyOf(pathKeys, depth * 2);
+                pathIsArray = Arrays.copyOf(pathIsArray, depth * 2);
+            }
+
+            pathKeys[depth] = null;
+            pathIsArray[depth] = isArray;
+            depth++;
+        }
+
+        private boolean isFormatVersionPath() {
+            return (depth == 2) && !pathIsArray[0] && !pathIsArray[1]
+                && KEY_GENERAL.equals(pathKeys[0]) && KEY_VERSION.equals(pathKeys[1]);
+        }
+
+        /**
+         * Reads the format version and rejects the file if it is not supported.
+         * Nothing is written once an unsupported version has been read.
+         *
+         * @throws IOException if reading fails
+         */
+        private void checkFormatVersion() throws IOException {
+            StringBuilder sb = new StringBuilder();
+            while (isLiteralCharacter(peek())) {
+                sb.append((char) next());
+            }
+
+            String formatVersion = sb.toString();
+            if (!isFormatVersionSupported(parseFormatVersion(formatVersion))) {
+                throw new IllegalArgumentException("unsupported format version: " + formatVersion);
+            }
+        }
+
+        private int parseFormatVersion(String s) {
+            try {
+                return Integer.parseInt(s);
+            } catch (NumberFormatException ex) {
+                return -1;
+            }
+        }
+
+        /**
+         * Determines the filters to apply to a string value at the current path.
+         *
+         * @return filters to apply; null if value is not to be filtered
+         */
+        private FieldFilterChain findFilterChain() {
+            if ((depth < 3) || pathIsArray[0] || !pathIsArray[1] || pathIsArray[2]) {
+                return null;
+            }
+
+            // keys are checked before sections as most keys are irrelevant
+            String section = pathKeys[0];
+            String clientKey = pathKeys[2];
+
+            if (depth == 3) {
+                if (KEY_REAL_NAME.equals(clientKey) && CLIENT_SECTIONS.contains(section)) {
+                    return filtersByField.get(ClientFields.StringFields.REAL_NAME);
+                } else if (KEY_CALLSIGN.equals(clientKey) && CLIENT_SECTIONS.contains(section)) {
+                    return filtersByField.get(ClientFields.StringFields.CALLSIGN);
+                }
+            } else if ((depth == 4) && !pathIsArray[3] && KEY_FLIGHT_PLAN.equals(clientKey)
+                && KEY_REMARKS.equals(pathKeys[3]) && FLIGHT_PLAN_SECTIONS.contains(section)) {
+                return filtersByField.get(ClientFields.StringFields.FLIGHT_PLAN_REMARKS);
+            }
+
+            return null;
+        }
+
+        private void filterString(FieldFilterChain filterChain) throws IOException {
+            // fast path: tokens without escapes located in buffer are read directly
+            // and remain in the block to be copied unless they are changed
+            if (fill() && (buffer[position] == '"')) {
+                int start = position + 1;
+                int end = start;
+                while ((end < limit) && (buffer[end] != '"') && (buffer[end] != '\\') && (buffer[end] != '\n')) {
+                    end++;
+                }
+
+                if ((end < limit) && (buffer[end] == '"')) {
+                    String original = new String(buffer, start, end - start);
+
+                    errorHandler.setLineNumber(lineNumber);
+                    String filtered = filterChain.filter(original, errorHandler);
+
+                    if (filtered.equals(original)) {
+                        position = end + 1;
+                    } else {
+                        copyPending();
+                        writeString(filtered);
+                        position = end + 1;
+                        copyStart = position;
+                    }
+
+                    return;
+                }
+            }
+
+            int valueLineNumber = lineNumber;
+
+            // hold back original token until we know if it has to be replaced
+            copyPending();
+            isCapturing = true;
+            capture.setLength(0);
+            String original = readString();
+            isCapturing = false;
+            copyStart = position;
+
+            errorHandler.setLineNumber(valueLineNumber);
+            String filtered = filterChain.filter(original, errorHandler);
+
+            if (filtered.equals(original)) {
+                writer.append(capture);
+            } else {
+                writeString(filtered);
+            }
+        }
+
+        private void writeString(String s) throws IOException {
+            StringBuilder sb = new StringBuilder(s.length() + 2);
+            sb.append('"');
+            for (int i = 0; i < s.length(); i++) {
+                char ch = s.charAt(i);
+                if (ch == '"' || ch == '\\') {
+                    sb.append('\\').append(ch);
+                } else if (ch == '\n') {
+                    sb.append("\\n");
+                } else if (ch == '\r') {
+                    sb.append("\\r");
+                } else if (ch == '\t') {
+                    sb.append("\\t");
+                } else if (ch < 0x20) {
+                    sb.append(String.format("\\u%04x", (int) ch));
+                } else {
+                    sb.append(ch);
+                }
+            }
+            sb.append('"');
+
+            writer.append(sb);
+        }
+
+        /**
+         * Reads a string token used as an object key. Keys are only decoded if they
+         * may be needed to locate filtered values.
+         *
+         * @return key if relevant, null if key is irrelevant
+         * @throws IOException if reading fails
+         */
+        private String readKey() throws IOException {
+            if (depth > MAX_RELEVANT_KEY_DEPTH) {
+                skipString();
+                return null;
+            }
+
+            // fast path: compare keys without escapes located in buffer directly
+            if (fill() && (buffer[position] == '"')) {
+                int start = position + 1;
+                int end = start;
+                while ((end < limit) && (buffer[end] != '"') && (buffer[end] != '\\') && (buffer[end] != '\n')) {
+                    end++;
+                }
+
+                if ((end < limit) && (buffer[end] == '"')) {
+                    position = end + 1;
+                    return findRelevantKey(start, end - start);
+                }
+            }
+
+            readString(decoded);
+            for (String relevantKey : RELEVANT_KEYS) {
+                if (relevantKey.contentEquals(decoded)) {
+                    return relevantKey;
+                }
+            }
+
+            return null;
+        }
+
+        private String findRelevantKey(int start, int length) {
+            if (length >= RELEVANT_KEYS_BY_LENGTH.length) {
+                return null;
+            }
+
+            char[][] relevantKeys = RELEVANT_KEY_CHARS_BY_LENGTH[length];
+            for (int keyIndex = 0; keyIndex < relevantKeys.length; keyIndex++) {
+                char[] relevantKey = relevantKeys[keyIndex];
+                int i = 0;
+                while ((i < length) && (relevantKey[i] == buffer[start + i])) {
+                    i++;
+                }
+
+                if (i == length) {
+                    return RELEVANT_KEYS_BY_LENGTH[length][keyIndex];
+                }
+            }
+
+            return null;
+        }
+
+        /**
+         * Reads and decodes a string token.
+         *
+         * @return decoded string content
+         * @throws IOException if reading fails
+         */
+        private String readString() throws IOException {
+            readString(decoded);
+            return decoded.toString();
+        }
+
+        private void readString(StringBuilder out) throws IOException {
+            expect('"');
+            out.setLength(0);
+
+            while (true) {
+                int ch = next();
+                if (ch < 0) {
+                    throw malformed("unterminated string");
+                } else if (ch == '"') {
+                    return;
+                } else if (ch == '\\') {
+                    out.append(readEscapedCharacter());
+                } else {
+                    out.append((char) ch);
+                }
+            }
+        }
+
+        private char readEscapedCharacter() throws IOException {
+            int ch = next();
+            switch (ch) {
+                case '"':
+                case '\\':
+                case '/':
+                    return (char) ch;
+
+                case 'b':
+                    return '\b';
+
+                case 'f':
+                    return '\f';
+
+                case 'n':
+                    return '\n';
+
+                case 'r':
+                    return '\r';
+
+                case 't':
+                    return '\t';
+
+                case 'u':
+                    int codeUnit = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(next(), 16);
+                        if (digit < 0) {
+                            throw malformed("invalid unicode escape sequence");
+                        }
+                        codeUnit = (codeUnit << 4) | digit;
+                    }
+                    return (char) codeUnit;
+
+                default:
+                    throw malformed("invalid escape sequence");
+            }
+        }
+
+        private void skipString() throws IOException {
+            expect('"');
+
+            while (fill()) {
+                // scan buffer directly, this is the most frequent operation
+                int i = position;
+                while (i < limit) {
+                    char ch = buffer[i];
+                    if (ch == '"') {
+                        position = i + 1;
+                        return;
+                    } else if (ch == '\\') {
+                        break;
+                    } else if (ch == '\n') {
+                        lineNumber++;
+                    }
+                    i++;
+                }
+                position = i;
+
+                if (i < limit) {
+                    // skip backslash and escaped character
+                    next();
+                    next();
+                }
+            }
+
+            throw malformed("unterminated string");
+        }
+
+        private void skipLiteral() throws IOException {
+            // the following character is checked by the enclosing structure
+            boolean isEmpty = true;
+            while (fill()) {
+                int i = position;
+                while ((i < limit) && isLiteralCharacter(buffer[i])) {
+                    i++;
+                }
+                isEmpty &= (i == position);
+                position = i;
+
+                if (i < limit) {
+                    break;
+                }
+            }
+
+            if (isEmpty) {
+                throw malformed("expected value");
+            }
+        }
+
+        private boolean isLiteralCharacter(int ch) {
+            return ((ch >= '0') && (ch <= '9'))
+                || ((ch >= 'a') && (ch <= 'z'))
+                || (ch == '-') || (ch == '+') || (ch == '.') || (ch == 'E');
+        }
+
+        private void skipWhitespace() throws IOException {
+            // most tokens are not preceded by whitespace
+            if ((position < limit) && (buffer[position] > ' ')) {
+                return;
+            }
+
+            while (fill()) {
+                int i = position;
+                while ((i < limit) && isWhitespace(buffer[i])) {
+                    if (buffer[i] == '\n') {
+                        lineNumber++;
+                    }
+                    i++;
+                }
+                position = i;
+
+                if (i < limit) {
+                    return;
+                }
+            }
+        }
+
+        private boolean isWhitespace(int ch) {
+            return (ch == ' ') || (ch == '\n') || (ch == '\r') || (ch == '\t');
+        }
+
+        private void expect(char expected) throws IOException {
+            if (next() != expected) {
+                throw malformed("expected " + expected);
+            }
+        }
+
+        private int peek() throws IOException {
+            if ((position >= limit) && !refill()) {
+                return -1;
+            }
+
+            return buffer[position];
+        }
+
+        private int next() throws IOException {
+            if ((position >= limit) && !refill()) {
+                return -1;
+            }
+
+            char ch = buffer[position++];
+            if (ch == '\n') {
+                lineNumber++;
+            }
+            if (isCapturing) {
+                capture.append(ch);
+            }
+
+            return ch;
+        }
+
+        private boolean fill() throws IOException {
+            return (position < limit) || refill();
+        }
+
+        private boolean refill() throws IOException {
+            while (position >= limit) {
+                copyPending();
+
+                int read = reader.read(buffer, 0, buffer.length);
+                if (read < 0) {
+                    return false;
+                }
+
+                position = 0;
+                limit = read;
+                copyStart = 0;
+            }
+
+            return true;
+        }
+
+        private void copyPending() throws IOException {
+            if (!isCapturing && (position > copyStart)) {
+                writer.write(buffer, copyStart, position - copyStart);
+            }
+            copyStart = position;
+        }
+
+        private IllegalArgumentException malformed(String message) {
+            return new IllegalArgumentException("malformed JSON in line " + lineNumber + ": " + message);
+        }
+    }
+}
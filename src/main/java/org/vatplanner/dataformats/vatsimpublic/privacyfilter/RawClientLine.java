@@ -0,0 +1,208 @@
+package org.vatplanner.dataformats.vatsimpublic.privacyfilter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holds the fields of a raw line from client or prefile sections of legacy
+ * VATSIM data files. The line is split into its colon-separated fields once on
+ * construction; fields can then be modified individually and are reassembled
+ * on {@link #toString()}. Original field content remains available after
+ * modification, so filter results can be compared field by field. Splitting is
+ * purely syntactical, so any line can be held; the number of fields available
+ * depends on the actual line content.
+ *
+ * <p>
+ * Instances are not thread-safe.
+ * </p>
+ */
+public class RawClientLine {
+
+    private static final char FIELD_SEPARATOR = ':';
+
+    private final String originalLine;
+    private final List<String> fields;
+    private String[] originalFields;
+    private boolean isModified = false;
+
+    /**
+     * Splits the given raw line into its fields.
+     *
+     * @param line raw line to split; must not be null
+     */
+    public RawClientLine(String line) {
+        if (line == null) {
+            throw new IllegalArgumentException("line must not be null");
+        }
+
+        this.originalLine = line;
+        this.fields = new ArrayList<>();
+
+        int start = 0;
+        int end;
+        while ((end = line.indexOf(FIELD_SEPARATOR, start)) >= 0) {
+            fields.add(line.substring(start, end));
+            start = end + 1;
+        }
+        fields.add(line.substring(start));
+    }
+
+    private RawClientLine(int numberOfFields, int index, String content) {
+        this.fields = new ArrayList<>(numberOfFields);
+        for (int i = 0; i < numberOfFields; i++) {
+            fields.add((i == index) ? content : "");
+        }
+
+        // only reassembled when needed
+        this.originalLine = null;
+    }
+
+    /**
+     * Creates a line consisting only of empty fields except for the given field.
+     * Field content is not checked for separators, so filters can be applied to
+     * values which did not originate from a legacy data file. Such lines should
+     * only be accessed field by field: {@link #toString()} joins all fields with
+     * separators, so the result only splits back into the same fields if the
+     * content does not contain any separator.
+     *
+     * @param numberOfFields total number of fields
+     * @param index          index of field to set, starting at 0
+     * @param content        content of field; must not be null
+     * @return line holding the given field
+     */
+    static RawClientLine forSingleField(int numberOfFields, int index, String content) {
+        if (content == null) {
+            throw new IllegalArgumentException("field content must not be null");
+        }
+
+        return new RawClientLine(numberOfFields, index, content);
+    }
+
+    /**
+     * Returns the number of fields the line consists of. A line without any
+     * separator consists of a single field.
+     *
+     * @return number of fields
+     */
+    public int getNumberOfFields() {
+        return fields.size();
+    }
+
+    /**
+     * Checks if the line holds a field at the given index.
+     *
+     * @param index index of field, starting at 0
+     * @return true if field exists, false if line is too short
+     */
+    public boolean hasField(int index) {
+        return (index >= 0) && (index < fields.size());
+    }
+
+    /**
+     * Returns the content of the field at the given index.
+     *
+     * @param index index of field, starting at 0
+     * @return field content
+     * @throws IndexOutOfBoundsException if field does not exist
+     */
+    public String getField(int index) {
+        return fields.get(index);
+    }
+
+    /**
+     * Replaces the content of the field at the given index.
+     *
+     * @param index   index of field, starting at 0
+     * @param content new field content; must not contain the field separator
+     * @return this instance for method-chaining
+     * @throws IndexOutOfBoundsException if field does not exist
+     * @throws IllegalArgumentException  if content is null or contains the field
+     *                                   separator
+     */
+    public RawClientLine setField(int index, String content) {
+        if (content == null) {
+            throw new IllegalArgumentException("field content must not be null");
+        }
+
+        if (content.indexOf(FIELD_SEPARATOR) >= 0) {
+            throw new IllegalArgumentException("field content must not contain separator: \"" + content + "\"");
+        }
+
+        String previous = fields.set(index, content);
+        if (!previous.equals(content)) {
+            isModified = true;
+
+            if (originalFields == null) {
+                originalFields = new String[fields.size()];
+            }
+            if (originalFields[index] == null) {
+                originalFields[index] = previous;
+            }
+        }
+
+        return this;
+    }
+
+    /**
+     * Returns the content the field at the given index had on construction,
+     * before any modification.
+     *
+     * @param index index of field, starting at 0
+     * @return original field content
+     * @throws IndexOutOfBoundsException if field does not exist
+     */
+    public String getOriginalField(int index) {
+        String current = fields.get(index);
+        if ((originalFields == null) || (originalFields[index] == null)) {
+            return current;
+        }
+
+        return originalFields[index];
+    }
+
+    /**
+     * Checks if the field at the given index currently differs from its original
+     * content.
+     *
+     * @param index index of field, starting at 0
+     * @return true if field content differs from original, false if unchanged
+     * @throws IndexOutOfBoundsException if field does not exist
+     */
+    public boolean isFieldModified(int index) {
+        return !getOriginalField(index).equals(fields.get(index));
+    }
+
+    /**
+     * Checks if any field has been set to a different content than it originally
+     * had. Fields which have been changed back to their original content still
+     * count as modified.
+     *
+     * @return true if any field has been changed, false if line is unmodified
+     */
+    public boolean isModified() {
+        return isModified;
+    }
+
+    /**
+     * Reassembles the line from all fields. If no field has been changed, the
+     * original line is returned.
+     *
+     * @return line reassembled from all fields
+     */
+    @Override
+    public String toString() {
+        if (!isModified && (originalLine != null)) {
+            return originalLine;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                sb.append(FIELD_SEPARATOR);
+            }
+            sb.append(fields.get(i));
+        }
+
+        return sb.toString();
+    }
+}
@@ -3,8 +3,6 @@ package org.vatplanner.dataformats.vatsimpublic.privacyfilter;
 import static org.vatplanner.dataformats.vatsimpublic.utils.CollectionHelpers.asUnmodifiableSet;
 
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.vatplanner.dataformats.vatsimpublic.parser.ClientFields;
 
@@ -14,24 +12,31 @@ import org.vatplanner.dataformats.vatsimpublic.parser.ClientFields;
  * and enable this filter via
  * {@link DataFileFilterConfiguration#setRemoveRealNameAndHomebase(boolean)}.
  */
-public class RemoveRealNameAndHomebaseFilter implements VerifiableClientFilter<String> {
+public class RemoveRealNameAndHomebaseFilter implements VerifiableClientFieldFilter<String> {
 
     private static final Set<ClientFields.FieldAccess<String>> AFFECTED_FIELDS = asUnmodifiableSet(
         ClientFields.StringFields.REAL_NAME
     );
 
-    private static final Pattern PATTERN = Pattern.compile("^([^:]*:[^:]*:)[^:]*(:.*)$");
-    private static final String PATTERN_REPLACEMENT = "$1$2";
+    private static final int FIELD_INDEX_REAL_NAME = 2;
 
     @Override
-    public String apply(String t) {
-        Matcher matcher = PATTERN.matcher(t);
+    public int getRawFieldIndex(ClientFields.FieldAccess<String> fieldAccess) {
+        if (fieldAccess == ClientFields.StringFields.REAL_NAME) {
+            return FIELD_INDEX_REAL_NAME;
+        }
 
-        if (!matcher.matches()) {
-            return t;
+        throw new IllegalArgumentException("attempted to locate an unhandled field");
+    }
+
+    @Override
+    public void applyToFields(RawClientLine line) {
+        // field is only processed if followed by other fields
+        if (!line.hasField(FIELD_INDEX_REAL_NAME + 1)) {
+            return;
         }
 
-        return matcher.replaceFirst(PATTERN_REPLACEMENT);
+        line.setField(FIELD_INDEX_REAL_NAME, "");
     }
 
     @Override
@@ -3,8 +3,6 @@ package org.vatplanner.dataformats.vatsimpublic.privacyfilter;
 import static org.vatplanner.dataformats.vatsimpublic.utils.CollectionHelpers.asUnmodifiableSet;
 
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.vatplanner.dataformats.vatsimpublic.parser.ClientFields;
 
@@ -14,7 +12,7 @@ import org.vatplanner.dataformats.vatsimpublic.parser.ClientFields;
  * enable this filter via
  * {@link DataFileFilterConfiguration#setSubstituteObserverPrefix(boolean)}.
  */
-public class SubstituteObserverPrefixFilter implements VerifiableClientFilter<String> {
+public class SubstituteObserverPrefixFilter implements VerifiableClientFieldFilter<String> {
 
     private static final Set<ClientFields.FieldAccess<String>> AFFECTED_FIELDS = asUnmodifiableSet(
         ClientFields.StringFields.CALLSIGN
@@ -23,8 +21,7 @@ public class SubstituteObserverPrefixFilter implements VerifiableClientFilter<St
     private static final String OBSERVER_SUFFIX = "_OBS";
     private static final String OBSERVER_REPLACEMENT = "XX_OBS";
 
-    private static final Pattern PATTERN = Pattern.compile("^[^:]*" + Pattern.quote(OBSERVER_SUFFIX) + "(:.*)$");
-    private static final String PATTERN_REPLACEMENT = OBSERVER_REPLACEMENT + "$1";
+    private static final int FIELD_INDEX_CALLSIGN = 0;
 
     @Override
     public Set<ClientFields.FieldAccess<String>> getAffectedFields() {
@@ -45,13 +42,23 @@ public class SubstituteObserverPrefixFilter implements VerifiableClientFilter<St
     }
 
     @Override
-    public String apply(String t) {
-        Matcher matcher = PATTERN.matcher(t);
+    public int getRawFieldIndex(ClientFields.FieldAccess<String> fieldAccess) {
+        if (fieldAccess == ClientFields.StringFields.CALLSIGN) {
+            return FIELD_INDEX_CALLSIGN;
+        }
+
+        throw new IllegalArgumentException("attempted to locate an unhandled field");
+    }
 
-        if (!matcher.matches()) {
-            return t;
+    @Override
+    public void applyToFields(RawClientLine line) {
+        // field is only processed if followed by other fields
+        if (!line.hasField(FIELD_INDEX_CALLSIGN + 1)) {
+            return;
         }
 
-        return matcher.replaceFirst(PATTERN_REPLACEMENT);
+        if (line.getField(FIELD_INDEX_CALLSIGN).endsWith(OBSERVER_SUFFIX)) {
+            line.setField(FIELD_INDEX_CALLSIGN, OBSERVER_REPLACEMENT);
+        }
     }
 }
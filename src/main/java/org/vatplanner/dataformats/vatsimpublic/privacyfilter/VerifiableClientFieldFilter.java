@@ -0,0 +1,58 @@
+package org.vatplanner.dataformats.vatsimpublic.privacyfilter;
+
+import org.vatplanner.dataformats.vatsimpublic.parser.ClientFields;
+
+/**
+ * A {@link VerifiableClientFilter} which operates on the individual fields of a
+ * line instead of the complete raw line.
+ *
+ * <p>
+ * When all filters of a chain implement this interface, {@link DataFileFilter}
+ * splits each line into fields only once, lets all filters modify the fields
+ * in order and reassembles the line only once. Filters must only modify those
+ * fields they indicate by {@link #getAffectedFields()}; if no field to be
+ * processed exists on a line (line too short), it must be left unmodified.
+ * </p>
+ *
+ * <p>
+ * The same rules regarding state and concurrency as for
+ * {@link VerifiableClientFilter} apply.
+ * </p>
+ *
+ * @param <T> type as used for fields in {@link ClientFields}
+ */
+public interface VerifiableClientFieldFilter<T> extends VerifiableClientFilter<T> {
+
+    /**
+     * Filters the affected fields of the given line in place.
+     *
+     * @param line fields of line to filter
+     */
+    void applyToFields(RawClientLine line);
+
+    /**
+     * Returns the index of the raw field holding the content of the given
+     * affected field. Content of that raw field must be identical to the value
+     * provided by {@link ClientFields.FieldAccess#getFrom(org.vatplanner.dataformats.vatsimpublic.parser.Client)}
+     * after parsing, so verification can be performed on raw fields directly.
+     *
+     * @param field affected field to locate
+     * @return index of raw field, starting at 0
+     * @throws IllegalArgumentException if field is not affected by this filter
+     */
+    int getRawFieldIndex(ClientFields.FieldAccess<T> field);
+
+    /**
+     * Filters a complete raw line by splitting it into fields and applying
+     * {@link #applyToFields(RawClientLine)}.
+     *
+     * @param line raw line to filter
+     * @return filtered line
+     */
+    @Override
+    default String apply(String line) {
+        RawClientLine fields = new RawClientLine(line);
+        applyToFields(fields);
+        return fields.toString();
+    }
+}
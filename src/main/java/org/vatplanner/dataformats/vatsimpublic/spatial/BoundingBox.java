@@ -0,0 +1,166 @@
+package org.vatplanner.dataformats.vatsimpublic.spatial;
+
+import static org.vatplanner.dataformats.vatsimpublic.spatial.GeoMath.normalizeLongitude;
+
+/**
+ * Describes an area bounded by two latitudes and two longitudes. Boxes are
+ * allowed to cross the antimeridian; this is indicated by a western longitude
+ * which is numerically greater than the eastern longitude.
+ */
+public class BoundingBox {
+
+    private final double minimumLatitude;
+    private final double maximumLatitude;
+    private final double westLongitude;
+    private final double eastLongitude;
+    private final boolean spansAllLongitudes;
+
+    /**
+     * Creates a new bounding box. Longitudes are normalized. If the western
+     * longitude is greater than the eastern longitude after normalization, the box
+     * spans across the antimeridian.
+     *
+     * @param minimumLatitude southern latitude (inclusive)
+     * @param westLongitude   western longitude (inclusive)
+     * @param maximumLatitude northern latitude (inclusive)
+     * @param eastLongitude   eastern longitude (inclusive)
+     * @throws IllegalArgumentException if latitudes exceed -90..90 or minimum
+     *                                  latitude is greater than maximum latitude
+     */
+    public BoundingBox(double minimumLatitude, double westLongitude, double maximumLatitude, double eastLongitude) {
+        if ((minimumLatitude < -90.0) || (maximumLatitude > 90.0) || (minimumLatitude > maximumLatitude)) {
+            throw new IllegalArgumentException(
+                "invalid latitude range: " + minimumLatitude + " to " + maximumLatitude
+            );
+        }
+
+        this.minimumLatitude = minimumLatitude;
+        this.maximumLatitude = maximumLatitude;
+        this.spansAllLongitudes = (eastLongitude - westLongitude) >= 360.0;
+
+        if (spansAllLongitudes) {
+            this.westLongitude = -180.0;
+            this.eastLongitude = 180.0;
+        } else {
+            this.westLongitude = normalizeLongitude(westLongitude);
+
+            // keep 180 as the eastern limit, otherwise a box ending exactly on the
+            // antimeridian would be misinterpreted as crossing it
+            double normalizedEastLongitude = normalizeLongitude(eastLongitude);
+            this.eastLongitude = ((normalizedEastLongitude == -180.0) && (eastLongitude > westLongitude))
+                ? 180.0
+                : normalizedEastLongitude;
+        }
+    }
+
+    /**
+     * Creates a box covering at least all points within the given radius around a
+     * center point.
+     *
+     * @param latitude             latitude of center point
+     * @param longitude            longitude of center point
+     * @param radiusNauticalMiles radius around center point in nautical miles
+     * @return box covering at least the given radius
+     */
+    public static BoundingBox around(double latitude, double longitude, double radiusNauticalMiles) {
+        double deltaLatitude = radiusNauticalMiles / GeoMath.NAUTICAL_MILES_PER_DEGREE_LATITUDE;
+        double minimumLatitude = latitude - deltaLatitude;
+        double maximumLatitude = latitude + deltaLatitude;
+
+        if ((minimumLatitude <= -90.0) || (maximumLatitude >= 90.0)) {
+            // circle includes a pole, so all longitudes are affected
+            return new BoundingBox(
+                GeoMath.clampLatitude(minimumLatitude), -180.0,
+                GeoMath.clampLatitude(maximumLatitude), 180.0
+            );
+        }
+
+        double widestLatitude = Math.max(Math.abs(minimumLatitude), Math.abs(maximumLatitude));
+        double deltaLongitude = deltaLatitude / Math.cos(Math.toRadians(widestLatitude));
+        if (deltaLongitude >= 180.0) {
+            return new BoundingBox(minimumLatitude, -180.0, maximumLatitude, 180.0);
+        }
+
+        return new BoundingBox(
+            minimumLatitude, longitude - deltaLongitude,
+            maximumLatitude, longitude + deltaLongitude
+        );
+    }
+
+    /**
+     * Returns the southern latitude of this box.
+     *
+     * @return southern latitude of this box
+     */
+    public double getMinimumLatitude() {
+        return minimumLatitude;
+    }
+
+    /**
+     * Returns the northern latitude of this box.
+     *
+     * @return northern latitude of this box
+     */
+    public double getMaximumLatitude() {
+        return maximumLatitude;
+    }
+
+    /**
+     * Returns the western longitude of this box.
+     *
+     * @return western longitude of this box; greater than eastern
+     *     longitude if box crosses the antimeridian
+     */
+    public double getWestLongitude() {
+        return westLongitude;
+    }
+
+    /**
+     * Returns the eastern longitude of this box.
+     *
+     * @return eastern longitude of this box; less than western
+     *     longitude if box crosses the antimeridian
+     */
+    public double getEastLongitude() {
+        return eastLongitude;
+    }
+
+    /**
+     * Checks if this box spans across the antimeridian (180&deg; east/west).
+     *
+     * @return true if box crosses the antimeridian, false if not
+     */
+    public boolean crossesAntimeridian() {
+        return westLongitude > eastLongitude;
+    }
+
+    /**
+     * Checks if the given point is located inside this box (inclusive).
+     *
+     * @param latitude  latitude of point to check
+     * @param longitude longitude of point to check
+     * @return true if the point is located inside this box, false if not
+     */
+    public boolean contains(double latitude, double longitude) {
+        if ((latitude < minimumLatitude) || (latitude > maximumLatitude)) {
+            return false;
+        }
+
+        if (spansAllLongitudes) {
+            return true;
+        }
+
+        double normalizedLongitude = normalizeLongitude(longitude);
+        if (crossesAntimeridian()) {
+            return (normalizedLongitude >= westLongitude) || (normalizedLongitude <= eastLongitude);
+        }
+
+        return (normalizedLongitude >= westLongitude) && (normalizedLongitude <= eastLongitude);
+    }
+
+    @Override
+    public String toString() {
+        return "BoundingBox(" + minimumLatitude + ", " + westLongitude + " to " + maximumLatitude + ", "
+            + eastLongitude + ")";
+    }
+}
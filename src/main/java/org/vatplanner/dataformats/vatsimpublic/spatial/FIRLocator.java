@@ -0,0 +1,402 @@
+package org.vatplanner.dataformats.vatsimpublic.spatial;
+
+import static org.vatplanner.dataformats.vatsimpublic.spatial.GeoMath.clampLatitude;
+import static org.vatplanner.dataformats.vatsimpublic.spatial.GeoMath.normalizeLongitude;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.IntStream;
+
+import org.vatplanner.commons.geo.GeoPoint2D;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.Flight;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.GeoCoordinates;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.TrackPoint;
+import org.vatplanner.dataformats.vatsimpublic.parser.Client;
+import org.vatplanner.dataformats.vatsimpublic.parser.DataFile;
+import org.vatplanner.dataformats.vatsimpublic.parser.vatspy.FIRBoundary;
+import org.vatplanner.dataformats.vatsimpublic.parser.vatspy.FIRBoundaryFile;
+
+/**
+ * Locates the {@link FIRBoundary} containing a position.
+ *
+ * <p>
+ * Boundaries are prefiltered by their bounding boxes which are sorted into a
+ * regular grid, so only few polygons need to be tested for each position.
+ * Polygons crossing the antimeridian are unwrapped to continuous longitudes.
+ * </p>
+ *
+ * <p>
+ * If multiple boundaries contain a position, precedence is given to extensions
+ * over regular boundaries and to regular boundaries over oceanic ones. Within
+ * the same kind, the boundary with the smaller bounding box wins as it is the
+ * more specific one.
+ * </p>
+ *
+ * <p>
+ * Instances are immutable and thread-safe. Batches of positions are located in
+ * parallel.
+ * </p>
+ */
+public class FIRLocator {
+
+    /**
+     * Default size of grid cells in degrees.
+     */
+    public static final double DEFAULT_CELL_SIZE_DEGREES = 5.0;
+
+    private static final int[] NO_CANDIDATES = new int[0];
+
+    private final double cellSizeDegrees;
+    private final int numRows;
+    private final int numColumns;
+
+    private final Polygon[] polygons;
+    private final int[][] candidatesByCell;
+
+    private static final Comparator<Polygon> PRECEDENCE_COMPARATOR = Comparator
+        .comparingInt((Polygon polygon) -> polygon.rank)
+        .thenComparingDouble(polygon -> polygon.boxArea);
+
+    private static class Polygon {
+        private final FIRBoundary boundary;
+        private final int rank;
+        private final double[] latitudes;
+        private final double[] longitudes; // unwrapped, may exceed -180..180
+        private final double minimumLatitude;
+        private final double maximumLatitude;
+        private final double minimumLongitude;
+        private final double maximumLongitude;
+        private final double boxArea;
+
+        private Polygon(FIRBoundary boundary) {
+            this.boundary = boundary;
+
+            if (boundary.isExtension()) {
+                rank = 0;
+            } else if (!boundary.isOceanic()) {
+                rank = 1;
+            } else {
+                rank = 2;
+            }
+
+            List<GeoPoint2D> points = boundary.getPoints();
+            int numPoints = points.size();
+            latitudes = new double[numPoints];
+            longitudes = new double[numPoints];
+
+            boolean crossesAntimeridian = false;
+            double previousLongitude = Double.NaN;
+            for (int i = 0; i < numPoints; i++) {
+                GeoPoint2D point = points.get(i);
+                double longitude = point.getLongitude();
+
+                // unwrap longitude to stay continuous with previous point
+                if (i > 0) {
+                    double delta = longitude - previousLongitude;
+                    if (delta > 180.0) {
+                        longitude -= 360.0 * Math.ceil((delta - 180.0) / 360.0);
+                        crossesAntimeridian = true;
+                    } else if (delta < -180.0) {
+                        longitude += 360.0 * Math.ceil((-delta - 180.0) / 360.0);
+                        crossesAntimeridian = true;
+                    }
+                }
+
+                latitudes[i] = point.getLatitude();
+                longitudes[i] = longitude;
+                previousLongitude = longitude;
+            }
+
+            // header bounds cannot describe unwrapped polygons, derive them from points instead
+            double[] bounds = crossesAntimeridian ? boundsOf(latitudes, longitudes) : headerBounds(boundary);
+            minimumLatitude = bounds[0];
+            minimumLongitude = bounds[1];
+            maximumLatitude = bounds[2];
+            maximumLongitude = bounds[3];
+
+            boxArea = (maximumLatitude - minimumLatitude) * (maximumLongitude - minimumLongitude);
+        }
+
+        private static double[] headerBounds(FIRBoundary boundary) {
+            double minimumLongitude = boundary.getBoundsMinimum().getLongitude();
+            double maximumLongitude = boundary.getBoundsMaximum().getLongitude();
+            if (minimumLongitude > maximumLongitude) {
+                // bounds box crosses antimeridian
+                maximumLongitude += 360.0;
+            }
+
+            return new double[]{
+                Math.min(boundary.getBoundsMinimum().getLatitude(), boundary.getBoundsMaximum().getLatitude()),
+                minimumLongitude,
+                Math.max(boundary.getBoundsMinimum().getLatitude(), boundary.getBoundsMaximum().getLatitude()),
+                maximumLongitude
+            };
+        }
+
+        private static double[] boundsOf(double[] latitudes, double[] longitudes) {
+            double[] bounds = new double[]{
+                Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY
+            };
+
+            for (int i = 0; i < latitudes.length; i++) {
+                bounds[0] = Math.min(bounds[0], latitudes[i]);
+                bounds[1] = Math.min(bounds[1], longitudes[i]);
+                bounds[2] = Math.max(bounds[2], latitudes[i]);
+                bounds[3] = Math.max(bounds[3], longitudes[i]);
+            }
+
+            return bounds;
+        }
+
+        private boolean contains(double latitude, double longitude) {
+            if ((latitude < minimumLatitude) || (latitude > maximumLatitude) || (latitudes.length < 3)) {
+                return false;
+            }
+
+            // longitudes of unwrapped polygon may be offset by a full revolution
+            for (double offset = -360.0; offset <= 360.0; offset += 360.0) {
+                double shiftedLongitude = longitude + offset;
+                if ((shiftedLongitude >= minimumLongitude) && (shiftedLongitude <= maximumLongitude)
+                    && containsUnwrapped(latitude, shiftedLongitude)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        private boolean containsUnwrapped(double latitude, double longitude) {
+            // even-odd rule (ray casting)
+            boolean inside = false;
+            int numPoints = latitudes.length;
+            for (int i = 0, j = numPoints - 1; i < numPoints; j = i++) {
+                double latitudeI = latitudes[i];
+                double latitudeJ = latitudes[j];
+                if ((latitudeI > latitude) != (latitudeJ > latitude)) {
+                    double intersectionLongitude = longitudes[i]
+                        + (latitude - latitudeI) * (longitudes[j] - longitudes[i]) / (latitudeJ - latitudeI);
+                    if (longitude < intersectionLongitude) {
+                        inside = !inside;
+                    }
+                }
+            }
+            return inside;
+        }
+    }
+
+    /**
+     * Creates a new locator for all boundaries of the given file using
+     * {@link #DEFAULT_CELL_SIZE_DEGREES}.
+     *
+     * @param file boundaries to locate positions in
+     */
+    public FIRLocator(FIRBoundaryFile file) {
+        this(file.getBoundaries(), DEFAULT_CELL_SIZE_DEGREES);
+    }
+
+    /**
+     * Creates a new locator for the given boundaries.
+     *
+     * @param boundaries      boundaries to locate positions in
+     * @param cellSizeDegrees size of grid cells in degrees
+     * @throws IllegalArgumentException if cell size is not positive or exceeds 90
+     *                                  degrees
+     */
+    public FIRLocator(Collection<FIRBoundary> boundaries, double cellSizeDegrees) {
+        if (!(cellSizeDegrees > 0.0) || (cellSizeDegrees > 90.0)) {
+            throw new IllegalArgumentException("cell size must be positive and at most 90 degrees: " + cellSizeDegrees);
+        }
+
+        this.cellSizeDegrees = cellSizeDegrees;
+        this.numRows = (int) Math.ceil(180.0 / cellSizeDegrees);
+        this.numColumns = (int) Math.ceil(360.0 / cellSizeDegrees);
+
+        // sorting by precedence once means the first match found is the best one
+        polygons = boundaries.stream()
+                             .map(Polygon::new)
+                             .sorted(PRECEDENCE_COMPARATOR)
+                             .toArray(Polygon[]::new);
+
+        candidatesByCell = buildGrid();
+    }
+
+    private int[][] buildGrid() {
+        List<List<Integer>> cells = new ArrayList<>(Collections.nCopies(numRows * numColumns, null));
+
+        for (int i = 0; i < polygons.length; i++) {
+            Polygon polygon = polygons[i];
+
+            int minimumRow = rowOf(polygon.minimumLatitude);
+            int maximumRow = rowOf(polygon.maximumLatitude);
+
+            // an unwrapped box may span the antimeridian, columns then wrap around
+            int numSpannedColumns = (int) Math.floor((polygon.maximumLongitude - polygon.minimumLongitude) / cellSizeDegrees) + 2;
+            numSpannedColumns = Math.min(numSpannedColumns, numColumns);
+            int firstColumn = columnOf(polygon.minimumLongitude);
+
+            for (int row = minimumRow; row <= maximumRow; row++) {
+                for (int j = 0; j < numSpannedColumns; j++) {
+                    int cell = row * numColumns + ((firstColumn + j) % numColumns);
+                    List<Integer> candidates = cells.get(cell);
+                    if (candidates == null) {
+                        candidates = new ArrayList<>();
+                        cells.set(cell, candidates);
+                    }
+                    candidates.add(i);
+                }
+            }
+        }
+
+        int[][] out = new int[cells.size()][];
+        for (int cell = 0; cell < out.length; cell++) {
+            List<Integer> candidates = cells.get(cell);
+            out[cell] = (candidates == null)
+                ? NO_CANDIDATES
+                : candidates.stream().mapToInt(Integer::intValue).toArray();
+        }
+        return out;
+    }
+
+    /**
+     * Locates the boundary with highest precedence containing the given position.
+     *
+     * @param latitude  latitude of position
+     * @param longitude longitude of position
+     * @return boundary containing the position; null if not located in any
+     *     boundary or if coordinates are unavailable (NaN)
+     */
+    public FIRBoundary locate(double latitude, double longitude) {
+        if (Double.isNaN(latitude) || Double.isNaN(longitude)) {
+            return null;
+        }
+
+        latitude = clampLatitude(latitude);
+        longitude = normalizeLongitude(longitude);
+
+        // candidates are ordered by precedence
+        for (int i : candidatesAt(latitude, longitude)) {
+            if (polygons[i].contains(latitude, longitude)) {
+                return polygons[i].boundary;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Locates all boundaries containing the given position.
+     *
+     * @param latitude  latitude of position
+     * @param longitude longitude of position
+     * @return all boundaries containing the position, ordered by precedence
+     */
+    public List<FIRBoundary> locateAll(double latitude, double longitude) {
+        List<FIRBoundary> out = new ArrayList<>();
+        if (Double.isNaN(latitude) || Double.isNaN(longitude)) {
+            return out;
+        }
+
+        latitude = clampLatitude(latitude);
+        longitude = normalizeLongitude(longitude);
+
+        for (int i : candidatesAt(latitude, longitude)) {
+            if (polygons[i].contains(latitude, longitude)) {
+                out.add(polygons[i].boundary);
+            }
+        }
+
+        return out;
+    }
+
+    /**
+     * Locates boundaries for a batch of items in parallel.
+     *
+     * @param items             items to locate
+     * @param latitudeFunction  provides latitude of an item
+     * @param longitudeFunction provides longitude of an item
+     * @param <T>               type of items
+     * @return boundaries with highest precedence in same order as items; null
+     *     entries if an item could not be located
+     */
+    public <T> List<FIRBoundary> locate(List<T> items, ToDoubleFunction<T> latitudeFunction, ToDoubleFunction<T> longitudeFunction) {
+        FIRBoundary[] out = new FIRBoundary[items.size()];
+
+        IntStream.range(0, out.length)
+                 .parallel()
+                 .forEach(i -> {
+                     T item = items.get(i);
+                     out[i] = locate(latitudeFunction.applyAsDouble(item), longitudeFunction.applyAsDouble(item));
+                 });
+
+        return Arrays.asList(out);
+    }
+
+    /**
+     * Locates all clients of the given data file in parallel.
+     *
+     * @param dataFile data file to locate clients of
+     * @return boundaries indexed by client; clients which could not be located are
+     *     omitted
+     */
+    public Map<Client, FIRBoundary> locateClients(DataFile dataFile) {
+        List<Client> clients = new ArrayList<>(dataFile.getClients());
+        return toMap(clients, locate(clients, Client::getLatitude, Client::getLongitude));
+    }
+
+    /**
+     * Locates all track points of the given flight in parallel.
+     *
+     * @param flight flight to locate track of
+     * @return boundaries indexed by track point; track points which could not be
+     *     located are omitted
+     */
+    public Map<TrackPoint, FIRBoundary> locateTrack(Flight flight) {
+        List<TrackPoint> trackPoints = new ArrayList<>(flight.getTrack());
+        return toMap(
+            trackPoints,
+            locate(trackPoints, FIRLocator::getTrackPointLatitude, FIRLocator::getTrackPointLongitude)
+        );
+    }
+
+    private static double getTrackPointLatitude(TrackPoint trackPoint) {
+        GeoCoordinates coordinates = trackPoint.getGeoCoordinates();
+        return (coordinates == null) ? Double.NaN : coordinates.getLatitude();
+    }
+
+    private static double getTrackPointLongitude(TrackPoint trackPoint) {
+        GeoCoordinates coordinates = trackPoint.getGeoCoordinates();
+        return (coordinates == null) ? Double.NaN : coordinates.getLongitude();
+    }
+
+    private static <T> Map<T, FIRBoundary> toMap(List<T> items, List<FIRBoundary> boundaries) {
+        Map<T, FIRBoundary> out = new HashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            FIRBoundary boundary = boundaries.get(i);
+            if (boundary != null) {
+                out.put(items.get(i), boundary);
+            }
+        }
+        return out;
+    }
+
+    private int[] candidatesAt(double latitude, double longitude) {
+        return candidatesByCell[rowOf(latitude) * numColumns + columnOf(longitude)];
+    }
+
+    private int rowOf(double latitude) {
+        return Math.min(numRows - 1, Math.max(0, (int) Math.floor((latitude + 90.0) / cellSizeDegrees)));
+    }
+
+    private int columnOf(double longitude) {
+        double normalized = normalizeLongitude(longitude);
+        return Math.min(numColumns - 1, Math.max(0, (int) Math.floor((normalized + 180.0) / cellSizeDegrees)));
+    }
+}
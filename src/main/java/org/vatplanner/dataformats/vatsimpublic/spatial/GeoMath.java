@@ -0,0 +1,142 @@
+package org.vatplanner.dataformats.vatsimpublic.spatial;
+
+import org.vatplanner.commons.geo.GeoPoint2D;
+
+/**
+ * Provides helper methods for calculations on geographic coordinates. Earth is
+ * approximated as a sphere which is sufficiently precise for VATSIM data.
+ */
+public class GeoMath {
+
+    /**
+     * Mean earth radius in nautical miles.
+     */
+    public static final double EARTH_RADIUS_NAUTICAL_MILES = 3440.065;
+
+    /**
+     * Maximum distance between any two points on earth in nautical miles (half
+     * circumference).
+     */
+    public static final double MAXIMUM_DISTANCE_NAUTICAL_MILES = Math.PI * EARTH_RADIUS_NAUTICAL_MILES;
+
+    /**
+     * Approximate distance covered by one degree of latitude in nautical miles.
+     */
+    public static final double NAUTICAL_MILES_PER_DEGREE_LATITUDE = MAXIMUM_DISTANCE_NAUTICAL_MILES / 180.0;
+
+    private GeoMath() {
+        // utility class; hide constructor
+    }
+
+    /**
+     * Calculates the great-circle distance between two points using the haversine
+     * formula.
+     *
+     * @param latitude1  latitude of first point in degrees
+     * @param longitude1 longitude of first point in degrees
+     * @param latitude2  latitude of second point in degrees
+     * @param longitude2 longitude of second point in degrees
+     * @return distance between both points in nautical miles
+     */
+    public static double distanceNauticalMiles(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double phi1 = Math.toRadians(latitude1);
+        double phi2 = Math.toRadians(latitude2);
+        double sinHalfDeltaPhi = Math.sin((phi2 - phi1) / 2.0);
+        double sinHalfDeltaLambda = Math.sin(Math.toRadians(longitude2 - longitude1) / 2.0);
+
+        double a = sinHalfDeltaPhi * sinHalfDeltaPhi
+            + Math.cos(phi1) * Math.cos(phi2) * sinHalfDeltaLambda * sinHalfDeltaLambda;
+
+        return 2.0 * EARTH_RADIUS_NAUTICAL_MILES * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    /**
+     * Calculates the initial bearing (forward azimuth) to follow on the great
+     * circle from the first to the second point.
+     *
+     * @param latitude1  latitude of first point in degrees
+     * @param longitude1 longitude of first point in degrees
+     * @param latitude2  latitude of second point in degrees
+     * @param longitude2 longitude of second point in degrees
+     * @return true bearing in degrees from 0 (inclusive) to 360 (exclusive)
+     */
+    public static double initialBearingDegrees(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double phi1 = Math.toRadians(latitude1);
+        double phi2 = Math.toRadians(latitude2);
+        double deltaLambda = Math.toRadians(longitude2 - longitude1);
+
+        double y = Math.sin(deltaLambda) * Math.cos(phi2);
+        double x = Math.cos(phi1) * Math.sin(phi2) - Math.sin(phi1) * Math.cos(phi2) * Math.cos(deltaLambda);
+
+        return (Math.toDegrees(Math.atan2(y, x)) + 360.0) % 360.0;
+    }
+
+    /**
+     * Calculates the point at the given fraction of the great-circle path
+     * between two points. Antipodal points have no unique great circle, the path
+     * returned for them is arbitrary.
+     *
+     * @param latitude1  latitude of first point in degrees
+     * @param longitude1 longitude of first point in degrees
+     * @param latitude2  latitude of second point in degrees
+     * @param longitude2 longitude of second point in degrees
+     * @param fraction   fraction of the path; 0 returns the first, 1 the second
+     *                   point
+     * @return intermediate point
+     */
+    public static GeoPoint2D intermediatePoint(double latitude1, double longitude1, double latitude2, double longitude2, double fraction) {
+        double phi1 = Math.toRadians(latitude1);
+        double lambda1 = Math.toRadians(longitude1);
+        double phi2 = Math.toRadians(latitude2);
+        double lambda2 = Math.toRadians(longitude2);
+
+        double delta = distanceNauticalMiles(latitude1, longitude1, latitude2, longitude2) / EARTH_RADIUS_NAUTICAL_MILES;
+        double sinDelta = Math.sin(delta);
+        if (sinDelta < 1e-12) {
+            // identical (or antipodal) points
+            return new GeoPoint2D(latitude1, longitude1);
+        }
+
+        double a = Math.sin((1.0 - fraction) * delta) / sinDelta;
+        double b = Math.sin(fraction * delta) / sinDelta;
+
+        double x = a * Math.cos(phi1) * Math.cos(lambda1) + b * Math.cos(phi2) * Math.cos(lambda2);
+        double y = a * Math.cos(phi1) * Math.sin(lambda1) + b * Math.cos(phi2) * Math.sin(lambda2);
+        double z = a * Math.sin(phi1) + b * Math.sin(phi2);
+
+        return new GeoPoint2D(
+            Math.toDegrees(Math.atan2(z, Math.sqrt(x * x + y * y))),
+            normalizeLongitude(Math.toDegrees(Math.atan2(y, x)))
+        );
+    }
+
+    /**
+     * Normalizes the given longitude to a range of -180 (inclusive) to 180
+     * (exclusive) degrees.
+     *
+     * @param longitude longitude to normalize in degrees
+     * @return normalized longitude in degrees
+     */
+    public static double normalizeLongitude(double longitude) {
+        if ((longitude >= -180.0) && (longitude < 180.0)) {
+            return longitude;
+        }
+
+        double normalized = (longitude + 180.0) % 360.0;
+        if (normalized < 0) {
+            normalized += 360.0;
+        }
+
+        return normalized - 180.0;
+    }
+
+    /**
+     * Clamps the given latitude to a range of -90 to 90 degrees (both inclusive).
+     *
+     * @param latitude latitude to clamp in degrees
+     * @return clamped latitude in degrees
+     */
+    public static double clampLatitude(double latitude) {
+        return Math.max(-90.0, Math.min(90.0, latitude));
+    }
+}
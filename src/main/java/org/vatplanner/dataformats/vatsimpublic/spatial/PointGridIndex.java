@@ -0,0 +1,289 @@
+package org.vatplanner.dataformats.vatsimpublic.spatial;
+
+import static org.vatplanner.dataformats.vatsimpublic.spatial.GeoMath.clampLatitude;
+import static org.vatplanner.dataformats.vatsimpublic.spatial.GeoMath.distanceNauticalMiles;
+import static org.vatplanner.dataformats.vatsimpublic.spatial.GeoMath.normalizeLongitude;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+import org.vatplanner.dataformats.vatsimpublic.parser.Client;
+
+/**
+ * Immutable spatial index over items located at single points, such as
+ * {@link Client}s of a data file snapshot. Items are sorted into a regular
+ * latitude/longitude grid on construction (O(n)); queries only need to check
+ * items in grid cells overlapping the queried area.
+ *
+ * <p>
+ * All queries handle areas crossing the antimeridian. Longitudes of indexed
+ * items are normalized and latitudes are clamped to the valid range. Items
+ * without coordinates (NaN) are not indexed.
+ * </p>
+ *
+ * <p>
+ * Instances are thread-safe as they cannot be modified after construction.
+ * </p>
+ *
+ * @param <T> type of indexed items
+ */
+public class PointGridIndex<T> {
+
+    /**
+     * Default size of grid cells in degrees.
+     */
+    public static final double DEFAULT_CELL_SIZE_DEGREES = 1.0;
+
+    private final double cellSizeDegrees;
+    private final int numRows;
+    private final int numColumns;
+
+    // items sorted by cell; items of cell i are held at cellOffsets[i] until cellOffsets[i+1] (exclusive)
+    private final int[] cellOffsets;
+    private final Object[] items;
+    private final double[] latitudes;
+    private final double[] longitudes;
+
+    /**
+     * Describes an item found by a query together with its distance to the
+     * queried point.
+     *
+     * @param <T> type of item
+     */
+    public static class Match<T> {
+        private final T item;
+        private final double distanceNauticalMiles;
+
+        Match(T item, double distanceNauticalMiles) {
+            this.item = item;
+            this.distanceNauticalMiles = distanceNauticalMiles;
+        }
+
+        /**
+         * Returns the matched item.
+         *
+         * @return matched item
+         */
+        public T getItem() {
+            return item;
+        }
+
+        /**
+         * Returns the distance of the matched item to the queried point.
+         *
+         * @return distance to queried point in nautical miles
+         */
+        public double getDistanceNauticalMiles() {
+            return distanceNauticalMiles;
+        }
+    }
+
+    /**
+     * Creates a new index using {@link #DEFAULT_CELL_SIZE_DEGREES}.
+     *
+     * @param items             items to index
+     * @param latitudeFunction  provides latitude of an item
+     * @param longitudeFunction provides longitude of an item
+     */
+    public PointGridIndex(Collection<T> items, ToDoubleFunction<T> latitudeFunction, ToDoubleFunction<T> longitudeFunction) {
+        this(items, latitudeFunction, longitudeFunction, DEFAULT_CELL_SIZE_DEGREES);
+    }
+
+    /**
+     * Creates a new index.
+     *
+     * @param items             items to index
+     * @param latitudeFunction  provides latitude of an item
+     * @param longitudeFunction provides longitude of an item
+     * @param cellSizeDegrees   size of grid cells in degrees
+     * @throws IllegalArgumentException if cell size is not positive or exceeds 90
+     *                                  degrees
+     */
+    public PointGridIndex(Collection<T> items, ToDoubleFunction<T> latitudeFunction, ToDoubleFunction<T> longitudeFunction, double cellSizeDegrees) {
+        if (!(cellSizeDegrees > 0.0) || (cellSizeDegrees > 90.0)) {
+            throw new IllegalArgumentException("cell size must be positive and at most 90 degrees: " + cellSizeDegrees);
+        }
+
+        this.cellSizeDegrees = cellSizeDegrees;
+        this.numRows = (int) Math.ceil(180.0 / cellSizeDegrees);
+        this.numColumns = (int) Math.ceil(360.0 / cellSizeDegrees);
+
+        int numItems = items.size();
+        double[] itemLatitudes = new double[numItems];
+        double[] itemLongitudes = new double[numItems];
+        int[] itemCells = new int[numItems];
+        Object[] itemObjects = new Object[numItems];
+
+        // first pass: collect coordinates and count items per cell
+        int[] counts = new int[numRows * numColumns + 1];
+        int numIndexed = 0;
+        for (T item : items) {
+            double latitude = latitudeFunction.applyAsDouble(item);
+            double longitude = longitudeFunction.applyAsDouble(item);
+            if (Double.isNaN(latitude) || Double.isNaN(longitude)) {
+                continue;
+            }
+
+            latitude = clampLatitude(latitude);
+            longitude = normalizeLongitude(longitude);
+            int cell = cellOf(rowOf(latitude), columnOf(longitude));
+
+            itemObjects[numIndexed] = item;
+            itemLatitudes[numIndexed] = latitude;
+            itemLongitudes[numIndexed] = longitude;
+            itemCells[numIndexed] = cell;
+            counts[cell + 1]++;
+            numIndexed++;
+        }
+
+        // prefix sums yield the first offset of each cell
+        for (int i = 1; i < counts.length; i++) {
+            counts[i] += counts[i - 1];
+        }
+        this.cellOffsets = counts.clone();
+
+        // second pass: sort items into cells
+        this.items = new Object[numIndexed];
+        this.latitudes = new double[numIndexed];
+        this.longitudes = new double[numIndexed];
+        int[] nextOffsets = counts;
+        for (int i = 0; i < numIndexed; i++) {
+            int offset = nextOffsets[itemCells[i]]++;
+            this.items[offset] = itemObjects[i];
+            this.latitudes[offset] = itemLatitudes[i];
+            this.longitudes[offset] = itemLongitudes[i];
+        }
+    }
+
+    /**
+     * Creates an index over all clients which provide a location.
+     *
+     * @param clients clients to index
+     * @return index over all clients providing a location
+     */
+    public static PointGridIndex<Client> forClients(Collection<Client> clients) {
+        return new PointGridIndex<>(clients, Client::getLatitude, Client::getLongitude);
+    }
+
+    /**
+     * Returns the number of indexed items.
+     *
+     * @return number of indexed items
+     */
+    public int size() {
+        return items.length;
+    }
+
+    /**
+     * Returns all items located inside the given box.
+     *
+     * @param box area to search
+     * @return all items located inside the given box; no particular order
+     */
+    public List<T> getWithinBoundingBox(BoundingBox box) {
+        List<T> out = new ArrayList<>();
+        forEachCandidate(box, i -> {
+            if (box.contains(latitudes[i], longitudes[i])) {
+                out.add(item(i));
+            }
+        });
+        return out;
+    }
+
+    /**
+     * Returns all items located within the given radius around a point.
+     *
+     * @param latitude             latitude of center point
+     * @param longitude            longitude of center point
+     * @param radiusNauticalMiles radius to search in nautical miles (inclusive)
+     * @return all items within radius, sorted by ascending distance
+     */
+    public List<Match<T>> getWithinRadius(double latitude, double longitude, double radiusNauticalMiles) {
+        List<Match<T>> out = new ArrayList<>();
+        forEachCandidate(BoundingBox.around(latitude, longitude, radiusNauticalMiles), i -> {
+            double distance = distanceNauticalMiles(latitude, longitude, latitudes[i], longitudes[i]);
+            if (distance <= radiusNauticalMiles) {
+                out.add(new Match<>(item(i), distance));
+            }
+        });
+        out.sort(Comparator.comparingDouble(Match::getDistanceNauticalMiles));
+        return out;
+    }
+
+    /**
+     * Returns the given number of items closest to a point.
+     *
+     * @param latitude  latitude of point
+     * @param longitude longitude of point
+     * @param k         maximum number of items to return
+     * @return up to k items closest to the given point, sorted by ascending
+     *     distance
+     */
+    public List<Match<T>> getNearest(double latitude, double longitude, int k) {
+        if (k <= 0) {
+            return new ArrayList<>();
+        }
+
+        // All items within a radius are found exactly, so the k closest items are
+        // known once at least k items have been found. Search radius grows
+        // geometrically, keeping the number of searches logarithmic.
+        double radius = cellSizeDegrees * GeoMath.NAUTICAL_MILES_PER_DEGREE_LATITUDE;
+        while (true) {
+            List<Match<T>> matches = getWithinRadius(latitude, longitude, radius);
+            if ((matches.size() >= k) || (radius >= GeoMath.MAXIMUM_DISTANCE_NAUTICAL_MILES)) {
+                return (matches.size() > k) ? new ArrayList<>(matches.subList(0, k)) : matches;
+            }
+
+            radius = Math.min(radius * 4.0, GeoMath.MAXIMUM_DISTANCE_NAUTICAL_MILES);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T item(int i) {
+        return (T) items[i];
+    }
+
+    private interface IndexConsumer {
+        void accept(int i);
+    }
+
+    private void forEachCandidate(BoundingBox box, IndexConsumer consumer) {
+        int minimumRow = rowOf(box.getMinimumLatitude());
+        int maximumRow = rowOf(box.getMaximumLatitude());
+        int westColumn = columnOf(box.getWestLongitude());
+        int eastColumn = columnOf(box.getEastLongitude());
+
+        for (int row = minimumRow; row <= maximumRow; row++) {
+            if (box.crossesAntimeridian()) {
+                forEachInColumns(row, westColumn, numColumns - 1, consumer);
+                forEachInColumns(row, 0, eastColumn, consumer);
+            } else {
+                forEachInColumns(row, westColumn, eastColumn, consumer);
+            }
+        }
+    }
+
+    private void forEachInColumns(int row, int firstColumn, int lastColumn, IndexConsumer consumer) {
+        // cells of a row are consecutive, so a range of columns is a single range of items
+        int start = cellOffsets[cellOf(row, firstColumn)];
+        int end = cellOffsets[cellOf(row, lastColumn) + 1];
+        for (int i = start; i < end; i++) {
+            consumer.accept(i);
+        }
+    }
+
+    private int rowOf(double latitude) {
+        return Math.min(numRows - 1, Math.max(0, (int) Math.floor((latitude + 90.0) / cellSizeDegrees)));
+    }
+
+    private int columnOf(double longitude) {
+        return Math.min(numColumns - 1, Math.max(0, (int) Math.floor((longitude + 180.0) / cellSizeDegrees)));
+    }
+
+    private int cellOf(int row, int column) {
+        return row * numColumns + column;
+    }
+}
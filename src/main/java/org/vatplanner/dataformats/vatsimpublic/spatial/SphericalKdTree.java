@@ -0,0 +1,409 @@
+package org.vatplanner.dataformats.vatsimpublic.spatial;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+import org.vatplanner.dataformats.vatsimpublic.parser.vatspy.Airport;
+import org.vatplanner.dataformats.vatsimpublic.spatial.PointGridIndex.Match;
+
+/**
+ * Immutable k-d tree over items located on a sphere, such as {@link Airport}s.
+ *
+ * <p>
+ * Positions are converted to three-dimensional unit vectors, so distances are
+ * measured as straight-line chords through the sphere. Chord length grows
+ * strictly with great-circle distance, so nearest neighbours are the same
+ * either way. Unlike a k-d tree over latitude and longitude, no special
+ * handling of the antimeridian or poles is needed.
+ * </p>
+ *
+ * <p>
+ * The tree is stored implicitly in arrays sorted by recursive median splits.
+ * Queries neither allocate nodes nor box coordinates and run in O(log n) for
+ * nearest-neighbour searches on average. Instances are thread-safe as they
+ * cannot be modified after construction.
+ * </p>
+ *
+ * @param <T> type of indexed items
+ */
+public class SphericalKdTree<T> {
+
+    private static final int DIMENSIONS = 3;
+
+    private final Object[] items;
+    private final double[] coordinates; // x, y, z per item in tree order
+    private final byte[] splitAxes;
+
+    private static class Best {
+        private int index = -1;
+        private double chordSquared;
+
+        private Best(double chordSquared) {
+            this.chordSquared = chordSquared;
+        }
+    }
+
+    /**
+     * Creates a new tree over all given items providing a location. Items without
+     * coordinates (NaN) are not indexed.
+     *
+     * @param items             items to index
+     * @param latitudeFunction  provides latitude of an item
+     * @param longitudeFunction provides longitude of an item
+     */
+    public SphericalKdTree(Collection<T> items, ToDoubleFunction<T> latitudeFunction, ToDoubleFunction<T> longitudeFunction) {
+        List<T> indexedItems = new ArrayList<>(items.size());
+        List<double[]> vectors = new ArrayList<>(items.size());
+        for (T item : items) {
+            double latitude = latitudeFunction.applyAsDouble(item);
+            double longitude = longitudeFunction.applyAsDouble(item);
+            if (Double.isNaN(latitude) || Double.isNaN(longitude)) {
+                continue;
+            }
+
+            indexedItems.add(item);
+            vectors.add(toUnitVector(latitude, longitude));
+        }
+
+        int size = indexedItems.size();
+        this.items = indexedItems.toArray();
+        this.coordinates = new double[size * DIMENSIONS];
+        this.splitAxes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(vectors.get(i), 0, coordinates, i * DIMENSIONS, DIMENSIONS);
+        }
+
+        build(0, size);
+    }
+
+    /**
+     * Creates a tree over the given airports.
+     *
+     * @param airports              airports to index
+     * @param includePseudoAirports true to include pseudo airports, false to omit
+     *                              them
+     * @return tree over airports
+     */
+    public static SphericalKdTree<Airport> forAirports(Collection<Airport> airports, boolean includePseudoAirports) {
+        List<Airport> filtered = new ArrayList<>(airports.size());
+        for (Airport airport : airports) {
+            if (includePseudoAirports || !airport.isPseudo()) {
+                filtered.add(airport);
+            }
+        }
+
+        return new SphericalKdTree<>(
+            filtered,
+            airport -> airport.getLocation().getLatitude(),
+            airport -> airport.getLocation().getLongitude()
+        );
+    }
+
+    /**
+     * Returns the number of indexed items.
+     *
+     * @return number of indexed items
+     */
+    public int size() {
+        return items.length;
+    }
+
+    /**
+     * Returns the item closest to the given position.
+     *
+     * @param latitude  latitude of position
+     * @param longitude longitude of position
+     * @return closest item; null if tree is empty
+     */
+    public T getNearest(double latitude, double longitude) {
+        return getNearestWithin(latitude, longitude, GeoMath.MAXIMUM_DISTANCE_NAUTICAL_MILES, null);
+    }
+
+    /**
+     * Returns the item closest to the given position, considering only items
+     * within the given distance which match the filter.
+     *
+     * @param latitude                    latitude of position
+     * @param longitude                   longitude of position
+     * @param maximumDistanceNauticalMiles maximum distance to search (inclusive)
+     * @param filter                      only items matching this predicate are
+     *                                    considered; null to consider all items
+     * @return closest matching item; null if none was found
+     */
+    public T getNearestWithin(double latitude, double longitude, double maximumDistanceNauticalMiles, Predicate<? super T> filter) {
+        double[] query = toUnitVector(latitude, longitude);
+        double maximumChord = toChord(maximumDistanceNauticalMiles);
+
+        Best best = new Best(maximumChord * maximumChord);
+        searchNearest(0, items.length, query, filter, best);
+
+        return (best.index < 0) ? null : item(best.index);
+    }
+
+    /**
+     * Returns the given number of items closest to a position.
+     *
+     * @param latitude  latitude of position
+     * @param longitude longitude of position
+     * @param k         maximum number of items to return
+     * @param filter    only items matching this predicate are considered; null to
+     *                  consider all items
+     * @return up to k closest matching items, sorted by ascending distance
+     */
+    public List<Match<T>> getNearest(double latitude, double longitude, int k, Predicate<? super T> filter) {
+        List<Match<T>> out = new ArrayList<>();
+        if (k <= 0) {
+            return out;
+        }
+
+        double[] query = toUnitVector(latitude, longitude);
+
+        // max-heap holding indexes of closest items found so far
+        PriorityQueue<double[]> heap = new PriorityQueue<>(
+            k + 1,
+            Comparator.comparingDouble((double[] entry) -> entry[1]).reversed()
+        );
+        searchNearest(0, items.length, query, filter, k, heap);
+
+        List<double[]> entries = new ArrayList<>(heap);
+        entries.sort(Comparator.comparingDouble(entry -> entry[1]));
+        for (double[] entry : entries) {
+            out.add(new Match<>(item((int) entry[0]), toNauticalMiles(Math.sqrt(entry[1]))));
+        }
+        return out;
+    }
+
+    /**
+     * Returns all items within the given radius around a position.
+     *
+     * @param latitude             latitude of position
+     * @param longitude            longitude of position
+     * @param radiusNauticalMiles radius to search in nautical miles (inclusive)
+     * @param filter               only items matching this predicate are
+     *                             considered; null to consider all items
+     * @return all matching items within radius, sorted by ascending distance
+     */
+    public List<Match<T>> getWithinRadius(double latitude, double longitude, double radiusNauticalMiles, Predicate<? super T> filter) {
+        double[] query = toUnitVector(latitude, longitude);
+        double maximumChord = toChord(radiusNauticalMiles);
+
+        List<Match<T>> out = new ArrayList<>();
+        searchWithinRadius(0, items.length, query, maximumChord * maximumChord, filter, out);
+        out.sort(Comparator.comparingDouble(Match::getDistanceNauticalMiles));
+        return out;
+    }
+
+    private void searchNearest(int low, int high, double[] query, Predicate<? super T> filter, Best best) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+
+            double chordSquared = chordSquared(mid, query);
+            if ((chordSquared <= best.chordSquared) && matches(mid, filter)) {
+                best.index = mid;
+                best.chordSquared = chordSquared;
+            }
+
+            int axis = splitAxes[mid];
+            double delta = query[axis] - coordinates[mid * DIMENSIONS + axis];
+
+            // descend into the side containing the query first, then check the other
+            // side only if the splitting plane is closer than the best match
+            if (delta < 0) {
+                searchNearest(low, mid, query, filter, best);
+                if (delta * delta > best.chordSquared) {
+                    return;
+                }
+                low = mid + 1;
+            } else {
+                searchNearest(mid + 1, high, query, filter, best);
+                if (delta * delta > best.chordSquared) {
+                    return;
+                }
+                high = mid;
+            }
+        }
+    }
+
+    private void searchNearest(int low, int high, double[] query, Predicate<? super T> filter, int k, PriorityQueue<double[]> heap) {
+        if (low >= high) {
+            return;
+        }
+
+        int mid = (low + high) >>> 1;
+
+        double chordSquared = chordSquared(mid, query);
+        if (((heap.size() < k) || (chordSquared < heap.peek()[1])) && matches(mid, filter)) {
+            heap.add(new double[]{mid, chordSquared});
+            if (heap.size() > k) {
+                heap.poll();
+            }
+        }
+
+        int axis = splitAxes[mid];
+        double delta = query[axis] - coordinates[mid * DIMENSIONS + axis];
+
+        boolean isLowerFirst = delta < 0;
+        if (isLowerFirst) {
+            searchNearest(low, mid, query, filter, k, heap);
+        } else {
+            searchNearest(mid + 1, high, query, filter, k, heap);
+        }
+
+        if ((heap.size() < k) || (delta * delta < heap.peek()[1])) {
+            if (isLowerFirst) {
+                searchNearest(mid + 1, high, query, filter, k, heap);
+            } else {
+                searchNearest(low, mid, query, filter, k, heap);
+            }
+        }
+    }
+
+    private void searchWithinRadius(int low, int high, double[] query, double maximumChordSquared, Predicate<? super T> filter, List<Match<T>> out) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+
+            double chordSquared = chordSquared(mid, query);
+            if ((chordSquared <= maximumChordSquared) && matches(mid, filter)) {
+                out.add(new Match<>(item(mid), toNauticalMiles(Math.sqrt(chordSquared))));
+            }
+
+            int axis = splitAxes[mid];
+            double delta = query[axis] - coordinates[mid * DIMENSIONS + axis];
+            boolean needsLower = (delta < 0) || (delta * delta <= maximumChordSquared);
+            boolean needsUpper = (delta >= 0) || (delta * delta <= maximumChordSquared);
+
+            if (needsLower && needsUpper) {
+                searchWithinRadius(low, mid, query, maximumChordSquared, filter, out);
+                low = mid + 1;
+            } else if (needsLower) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+    }
+
+    private boolean matches(int index, Predicate<? super T> filter) {
+        return (filter == null) || filter.test(item(index));
+    }
+
+    private double chordSquared(int index, double[] query) {
+        int offset = index * DIMENSIONS;
+        double dx = coordinates[offset] - query[0];
+        double dy = coordinates[offset + 1] - query[1];
+        double dz = coordinates[offset + 2] - query[2];
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T item(int index) {
+        return (T) items[index];
+    }
+
+    private void build(int low, int high) {
+        if (high - low <= 0) {
+            return;
+        }
+
+        int axis = widestAxis(low, high);
+        int mid = (low + high) >>> 1;
+        select(low, high - 1, mid, axis);
+        splitAxes[mid] = (byte) axis;
+
+        build(low, mid);
+        build(mid + 1, high);
+    }
+
+    private int widestAxis(int low, int high) {
+        int widestAxis = 0;
+        double widestSpread = -1.0;
+        for (int axis = 0; axis < DIMENSIONS; axis++) {
+            double minimum = Double.POSITIVE_INFINITY;
+            double maximum = Double.NEGATIVE_INFINITY;
+            for (int i = low; i < high; i++) {
+                double value = coordinates[i * DIMENSIONS + axis];
+                minimum = Math.min(minimum, value);
+                maximum = Math.max(maximum, value);
+            }
+
+            if (maximum - minimum > widestSpread) {
+                widestSpread = maximum - minimum;
+                widestAxis = axis;
+            }
+        }
+        return widestAxis;
+    }
+
+    /**
+     * Partially sorts the given range (quickselect) so that the element at
+     * position k is in its final sorted position on the given axis, all lower
+     * elements are less or equal and all higher elements are greater or equal.
+     */
+    private void select(int left, int right, int k, int axis) {
+        while (right > left) {
+            double pivot = coordinates[((left + right) >>> 1) * DIMENSIONS + axis];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (coordinates[i * DIMENSIONS + axis] < pivot) {
+                    i++;
+                }
+                while (coordinates[j * DIMENSIONS + axis] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i, j);
+                    i++;
+                    j--;
+                }
+            }
+
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int a, int b) {
+        Object item = items[a];
+        items[a] = items[b];
+        items[b] = item;
+
+        int offsetA = a * DIMENSIONS;
+        int offsetB = b * DIMENSIONS;
+        for (int axis = 0; axis < DIMENSIONS; axis++) {
+            double value = coordinates[offsetA + axis];
+            coordinates[offsetA + axis] = coordinates[offsetB + axis];
+            coordinates[offsetB + axis] = value;
+        }
+    }
+
+    private static double[] toUnitVector(double latitude, double longitude) {
+        double phi = Math.toRadians(latitude);
+        double lambda = Math.toRadians(longitude);
+        double cosPhi = Math.cos(phi);
+        return new double[]{cosPhi * Math.cos(lambda), cosPhi * Math.sin(lambda), Math.sin(phi)};
+    }
+
+    private static double toChord(double distanceNauticalMiles) {
+        if (distanceNauticalMiles >= GeoMath.MAXIMUM_DISTANCE_NAUTICAL_MILES) {
+            return 2.0;
+        }
+
+        double angle = distanceNauticalMiles / GeoMath.EARTH_RADIUS_NAUTICAL_MILES;
+        return 2.0 * Math.sin(angle / 2.0);
+    }
+
+    private static double toNauticalMiles(double chord) {
+        return 2.0 * Math.asin(Math.min(1.0, chord / 2.0)) * GeoMath.EARTH_RADIUS_NAUTICAL_MILES;
+    }
+}
@@ -0,0 +1,161 @@
+package org.vatplanner.dataformats.vatsimpublic.spatial;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import org.vatplanner.dataformats.vatsimpublic.entities.status.Flight;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.GeoCoordinates;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.TrackPoint;
+import org.vatplanner.dataformats.vatsimpublic.spatial.PointGridIndex.Match;
+
+/**
+ * Spatial index over historical {@link TrackPoint}s, using time as a third
+ * dimension. Track points are bucketed by the recording time of their report;
+ * each bucket is indexed by its own {@link PointGridIndex} which is built lazily
+ * on first query and rebuilt only if the bucket has been changed.
+ *
+ * <p>
+ * Instances are not thread-safe.
+ * </p>
+ */
+public class TrackPointSpatialIndex {
+
+    private final NavigableMap<Instant, Bucket> bucketsByRecordTime = new TreeMap<>();
+
+    private static class Bucket {
+        private final List<TrackPoint> trackPoints = new ArrayList<>();
+        private PointGridIndex<TrackPoint> index;
+
+        private PointGridIndex<TrackPoint> getIndex() {
+            if (index == null) {
+                index = new PointGridIndex<>(
+                    trackPoints,
+                    trackPoint -> trackPoint.getGeoCoordinates().getLatitude(),
+                    trackPoint -> trackPoint.getGeoCoordinates().getLongitude()
+                );
+            }
+
+            return index;
+        }
+    }
+
+    /**
+     * Adds a track point to the index. Track points without coordinates are
+     * ignored.
+     *
+     * @param trackPoint track point to add
+     * @return this instance for method-chaining
+     */
+    public TrackPointSpatialIndex add(TrackPoint trackPoint) {
+        GeoCoordinates coordinates = trackPoint.getGeoCoordinates();
+        if (coordinates == null) {
+            return this;
+        }
+
+        Bucket bucket = bucketsByRecordTime.computeIfAbsent(
+            trackPoint.getReport().getRecordTime(),
+            x -> new Bucket()
+        );
+        bucket.trackPoints.add(trackPoint);
+        bucket.index = null;
+
+        return this;
+    }
+
+    /**
+     * Adds all track points of the given flights to the index.
+     *
+     * @param flights flights to add track points of
+     * @return this instance for method-chaining
+     */
+    public TrackPointSpatialIndex addAll(Collection<Flight> flights) {
+        for (Flight flight : flights) {
+            for (TrackPoint trackPoint : flight.getTrack()) {
+                add(trackPoint);
+            }
+        }
+
+        return this;
+    }
+
+    /**
+     * Returns the spatial index of the latest snapshot recorded at or before the
+     * given time. The returned index supports radius, bounding box and k-nearest
+     * queries for that point in time.
+     *
+     * @param time time to get snapshot for
+     * @return index of latest snapshot at or before given time; null if no track
+     *     points have been recorded until then
+     */
+    public PointGridIndex<TrackPoint> getSnapshot(Instant time) {
+        Map.Entry<Instant, Bucket> entry = bucketsByRecordTime.floorEntry(time);
+        if (entry == null) {
+            return null;
+        }
+
+        return entry.getValue().getIndex();
+    }
+
+    /**
+     * Returns all track points located inside the given box which have been
+     * recorded during the given period.
+     *
+     * @param box   area to search
+     * @param start start of period (inclusive)
+     * @param end   end of period (inclusive)
+     * @return all matching track points; ordered by recording time
+     */
+    public List<TrackPoint> getWithinBoundingBox(BoundingBox box, Instant start, Instant end) {
+        List<TrackPoint> out = new ArrayList<>();
+        for (Bucket bucket : getBuckets(start, end)) {
+            out.addAll(bucket.getIndex().getWithinBoundingBox(box));
+        }
+        return out;
+    }
+
+    /**
+     * Returns all track points located within the given radius around a point
+     * which have been recorded during the given period.
+     *
+     * @param latitude             latitude of center point
+     * @param longitude            longitude of center point
+     * @param radiusNauticalMiles radius to search in nautical miles (inclusive)
+     * @param start                start of period (inclusive)
+     * @param end                  end of period (inclusive)
+     * @return all matching track points; ordered by recording time, then by
+     *     ascending distance
+     */
+    public List<Match<TrackPoint>> getWithinRadius(double latitude, double longitude, double radiusNauticalMiles, Instant start, Instant end) {
+        List<Match<TrackPoint>> out = new ArrayList<>();
+        for (Bucket bucket : getBuckets(start, end)) {
+            out.addAll(bucket.getIndex().getWithinRadius(latitude, longitude, radiusNauticalMiles));
+        }
+        return out;
+    }
+
+    /**
+     * Returns the number of indexed track points.
+     *
+     * @return number of indexed track points
+     */
+    public int size() {
+        int size = 0;
+        for (Bucket bucket : bucketsByRecordTime.values()) {
+            size += bucket.trackPoints.size();
+        }
+        return size;
+    }
+
+    private Collection<Bucket> getBuckets(Instant start, Instant end) {
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("end " + end + " must not be before start " + start);
+        }
+
+        return bucketsByRecordTime.subMap(start, true, end, true).values();
+    }
+}
@@ -0,0 +1,533 @@
+package org.vatplanner.dataformats.vatsimpublic.synthetic;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.vatplanner.commons.geo.GeoPoint2D;
+import org.vatplanner.dataformats.vatsimpublic.parser.Client;
+import org.vatplanner.dataformats.vatsimpublic.parser.ClientType;
+import org.vatplanner.dataformats.vatsimpublic.parser.DataFile;
+import org.vatplanner.dataformats.vatsimpublic.parser.DataFileMetaData;
+import org.vatplanner.dataformats.vatsimpublic.parser.FSDServer;
+import org.vatplanner.dataformats.vatsimpublic.parser.vatspy.Airport;
+import org.vatplanner.dataformats.vatsimpublic.parser.vatspy.FlightInformationRegion;
+import org.vatplanner.dataformats.vatsimpublic.parser.vatspy.VatSpyFile;
+import org.vatplanner.dataformats.vatsimpublic.spatial.GeoMath;
+
+/**
+ * Generates sequences of synthetic {@link DataFile}s for load and scale
+ * testing, for example of {@link org.vatplanner.dataformats.vatsimpublic.graph.GraphImport}
+ * beyond traffic volumes seen on the actual network. Real data files are not
+ * needed, so tests can run on arbitrary scales without processing
+ * privacy-sensitive information.
+ *
+ * <p>
+ * The generated network is simulated on airports from a {@link VatSpyFile}:
+ * Pilots prefile flight plans, connect at their departure airport, fly along
+ * the great circle towards their destination and disconnect some time after
+ * arrival, after which a new flight begins. Controllers staff random stations
+ * for sessions of varying length, tower and approach stations are often
+ * accompanied by an ATIS whose designator changes regularly. Flight plan
+ * revisions, short connection losses (reconnecting with a new logon time) and
+ * clients without a VATSIM ID are occasionally simulated as well. The network
+ * is initialized in a steady state, so the first snapshot already contains
+ * flights in all stages.
+ * </p>
+ *
+ * <p>
+ * Generation is deterministic: Using the same seed, configuration and
+ * {@link VatSpyFile} always results in the same sequence of snapshots.
+ * Configuration has to be completed before the first snapshot is generated.
+ * Snapshots are independent of each other (all {@link Client}s are created
+ * anew), so they can be serialized by any
+ * {@link org.vatplanner.dataformats.vatsimpublic.export.Writer} or be imported
+ * directly. Instances are not thread-safe.
+ * </p>
+ */
+public class SyntheticDataFileGenerator {
+    private static final long DEFAULT_SEED = 0L;
+    private static final Instant DEFAULT_START_TIME = Instant.parse("2024-01-01T12:00:00Z");
+    private static final Duration DEFAULT_SNAPSHOT_INTERVAL = Duration.ofSeconds(15);
+    private static final int DEFAULT_NUMBER_OF_PILOTS = 1000;
+    private static final int DEFAULT_NUMBER_OF_CONTROLLERS = 100;
+    private static final double DEFAULT_PREFILING_PROBABILITY = 0.3;
+    private static final double DEFAULT_FLIGHT_PLAN_REVISION_PROBABILITY = 0.001;
+    private static final double DEFAULT_RECONNECT_PROBABILITY = 0.0005;
+    private static final double DEFAULT_MISSING_VATSIM_ID_PROBABILITY = 0.001;
+    private static final double DEFAULT_ATIS_PROBABILITY = 0.5;
+
+    private static final Duration MINIMUM_ATIS_RETRIEVAL_INTERVAL = Duration.ofMinutes(5);
+    private static final int FIRST_VATSIM_ID = 1500000;
+    private static final int MAXIMUM_DESTINATION_ATTEMPTS = 30;
+
+    private static final String[] FSD_SERVER_LOCATIONS = { "Americas", "Europe", "Asia", "Oceania" };
+
+    private final List<Airport> airports = new ArrayList<>();
+    private final Map<String, FlightInformationRegion> flightInformationRegionsById = new HashMap<>();
+
+    private long seed = DEFAULT_SEED;
+    private Instant startTime = DEFAULT_START_TIME;
+    private Duration snapshotInterval = DEFAULT_SNAPSHOT_INTERVAL;
+    private int numberOfPilots = DEFAULT_NUMBER_OF_PILOTS;
+    private int numberOfControllers = DEFAULT_NUMBER_OF_CONTROLLERS;
+    private double prefilingProbability = DEFAULT_PREFILING_PROBABILITY;
+    private double flightPlanRevisionProbability = DEFAULT_FLIGHT_PLAN_REVISION_PROBABILITY;
+    private double reconnectProbability = DEFAULT_RECONNECT_PROBABILITY;
+    private double missingVatsimIdProbability = DEFAULT_MISSING_VATSIM_ID_PROBABILITY;
+    private double atisProbability = DEFAULT_ATIS_PROBABILITY;
+
+    private Random random;
+    private Instant currentTime;
+    private int nextVatsimId = FIRST_VATSIM_ID;
+    private final Set<String> callsignsInUse = new HashSet<>();
+    private final List<SyntheticFlight> flights = new ArrayList<>();
+    private final List<SyntheticStation> stations = new ArrayList<>();
+
+    /**
+     * Creates a new generator simulating traffic on the airports of the given
+     * {@link VatSpyFile}. Pseudo airports are ignored.
+     *
+     * @param vatSpyFile provides airports and FIRs; must contain at least two
+     *                   regular airports
+     * @throws IllegalArgumentException if fewer than two regular airports are
+     *                                  available
+     */
+    public SyntheticDataFileGenerator(VatSpyFile vatSpyFile) {
+        for (Airport airport : vatSpyFile.getAirports()) {
+            if (!airport.isPseudo()) {
+                airports.add(airport);
+            }
+        }
+
+        if (airports.size() < 2) {
+            throw new IllegalArgumentException(
+                "at least two regular airports are required, got " + airports.size()
+            );
+        }
+
+        for (FlightInformationRegion fir : vatSpyFile.getFlightInformationRegions()) {
+            flightInformationRegionsById.putIfAbsent(fir.getId(), fir);
+        }
+    }
+
+    /**
+     * Sets the seed for all random decisions. Defaults to 0.
+     *
+     * @param seed seed for random decisions
+     * @return this instance for method-chaining
+     * @throws IllegalStateException if generation has already started
+     */
+    public SyntheticDataFileGenerator setSeed(long seed) {
+        requireNotStarted();
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Sets the timestamp of the first snapshot. Defaults to
+     * 2024-01-01T12:00:00Z.
+     *
+     * @param startTime timestamp of first snapshot
+     * @return this instance for method-chaining
+     * @throws IllegalStateException if generation has already started
+     */
+    public SyntheticDataFileGenerator setStartTime(Instant startTime) {
+        requireNotStarted();
+        if (startTime == null) {
+            throw new IllegalArgumentException("start time must not be null");
+        }
+
+        this.startTime = startTime;
+        return this;
+    }
+
+    /**
+     * Sets the time passing between two snapshots. Defaults to 15 seconds, the
+     * update interval of the actual data feed.
+     *
+     * @param snapshotInterval time between two snapshots; must be positive
+     * @return this instance for method-chaining
+     * @throws IllegalArgumentException if interval is not positive
+     * @throws IllegalStateException    if generation has already started
+     */
+    public SyntheticDataFileGenerator setSnapshotInterval(Duration snapshotInterval) {
+        requireNotStarted();
+        if ((snapshotInterval == null) || snapshotInterval.isNegative() || snapshotInterval.isZero()) {
+            throw new IllegalArgumentException("snapshot interval must be positive, got " + snapshotInterval);
+        }
+
+        this.snapshotInterval = snapshotInterval;
+        return this;
+    }
+
+    /**
+     * Sets the number of simulated pilots. Each pilot cycles through prefiling,
+     * being connected and a short break between flights, so the actual number of
+     * connected pilots per snapshot is somewhat lower (usually about 90%) while
+     * prefiled flight plans are listed in addition. Defaults to 1000.
+     *
+     * @param numberOfPilots number of simulated pilots; must not be negative
+     * @return this instance for method-chaining
+     * @throws IllegalArgumentException if number is negative
+     * @throws IllegalStateException    if generation has already started
+     */
+    public SyntheticDataFileGenerator setNumberOfPilots(int numberOfPilots) {
+        requireNotStarted();
+        if (numberOfPilots < 0) {
+            throw new IllegalArgumentException("number of pilots must not be negative, got " + numberOfPilots);
+        }
+
+        this.numberOfPilots = numberOfPilots;
+        return this;
+    }
+
+    /**
+     * Sets the number of simulated controllers. Controllers take short breaks
+     * between sessions, so the actual number of connected controllers per
+     * snapshot is somewhat lower while some controllers additionally provide an
+     * ATIS. Defaults to 100.
+     *
+     * @param numberOfControllers number of simulated controllers; must not be
+     *                            negative
+     * @return this instance for method-chaining
+     * @throws IllegalArgumentException if number is negative
+     * @throws IllegalStateException    if generation has already started
+     */
+    public SyntheticDataFileGenerator setNumberOfControllers(int numberOfControllers) {
+        requireNotStarted();
+        if (numberOfControllers < 0) {
+            throw new IllegalArgumentException(
+                "number of controllers must not be negative, got " + numberOfControllers
+            );
+        }
+
+        this.numberOfControllers = numberOfControllers;
+        return this;
+    }
+
+    /**
+     * Sets the probability of a flight plan being prefiled before the pilot
+     * connects. Defaults to 0.3.
+     *
+     * @param prefilingProbability probability per flight (0..1)
+     * @return this instance for method-chaining
+     * @throws IllegalArgumentException if probability is out of range
+     * @throws IllegalStateException    if generation has already started
+     */
+    public SyntheticDataFileGenerator setPrefilingProbability(double prefilingProbability) {
+        requireNotStarted();
+        this.prefilingProbability = requireProbability(prefilingProbability, "prefiling probability");
+        return this;
+    }
+
+    /**
+     * Sets the probability of a flight plan being revised. Defaults to 0.001.
+     *
+     * @param flightPlanRevisionProbability probability per flight and snapshot
+     *                                      (0..1)
+     * @return this instance for method-chaining
+     * @throws IllegalArgumentException if probability is out of range
+     * @throws IllegalStateException    if generation has already started
+     */
+    public SyntheticDataFileGenerator setFlightPlanRevisionProbability(double flightPlanRevisionProbability) {
+        requireNotStarted();
+        this.flightPlanRevisionProbability = requireProbability(
+            flightPlanRevisionProbability, "flight plan revision probability"
+        );
+        return this;
+    }
+
+    /**
+     * Sets the probability of a connected client losing connection. Clients
+     * reconnect with a new logon time after missing from one to four snapshots.
+     * Defaults to 0.0005.
+     *
+     * @param reconnectProbability probability per client and snapshot (0..1)
+     * @return this instance for method-chaining
+     * @throws IllegalArgumentException if probability is out of range
+     * @throws IllegalStateException    if generation has already started
+     */
+    public SyntheticDataFileGenerator setReconnectProbability(double reconnectProbability) {
+        requireNotStarted();
+        this.reconnectProbability = requireProbability(reconnectProbability, "reconnect probability");
+        return this;
+    }
+
+    /**
+     * Sets the probability of a member being listed without VATSIM ID. Defaults
+     * to 0.001.
+     *
+     * @param missingVatsimIdProbability probability per flight or ATC session
+     *                                   (0..1)
+     * @return this instance for method-chaining
+     * @throws IllegalArgumentException if probability is out of range
+     * @throws IllegalStateException    if generation has already started
+     */
+    public SyntheticDataFileGenerator setMissingVatsimIdProbability(double missingVatsimIdProbability) {
+        requireNotStarted();
+        this.missingVatsimIdProbability = requireProbability(
+            missingVatsimIdProbability, "missing VATSIM ID probability"
+        );
+        return this;
+    }
+
+    /**
+     * Sets the probability of tower and approach sessions providing an ATIS.
+     * Defaults to 0.5.
+     *
+     * @param atisProbability probability per tower or approach session (0..1)
+     * @return this instance for method-chaining
+     * @throws IllegalArgumentException if probability is out of range
+     * @throws IllegalStateException    if generation has already started
+     */
+    public SyntheticDataFileGenerator setAtisProbability(double atisProbability) {
+        requireNotStarted();
+        this.atisProbability = requireProbability(atisProbability, "ATIS probability");
+        return this;
+    }
+
+    /**
+     * Generates the next snapshot. The first snapshot is recorded at the
+     * configured start time, each following snapshot one interval later.
+     *
+     * @return next snapshot
+     */
+    public DataFile next() {
+        if (currentTime == null) {
+            initialize();
+        } else {
+            currentTime = currentTime.plus(snapshotInterval);
+
+            double intervalSeconds = snapshotInterval.toMillis() / 1000.0;
+            for (SyntheticFlight flight : flights) {
+                flight.advance(currentTime, intervalSeconds);
+            }
+            for (SyntheticStation station : stations) {
+                station.advance(currentTime, intervalSeconds);
+            }
+        }
+
+        return createSnapshot();
+    }
+
+    /**
+     * Generates the given number of consecutive snapshots.
+     *
+     * @param numberOfSnapshots number of snapshots to generate
+     * @return snapshots in chronological order
+     * @see #next()
+     */
+    public List<DataFile> generate(int numberOfSnapshots) {
+        List<DataFile> out = new ArrayList<>(numberOfSnapshots);
+        for (int i = 0; i < numberOfSnapshots; i++) {
+            out.add(next());
+        }
+        return out;
+    }
+
+    private void initialize() {
+        random = new Random(seed);
+        currentTime = startTime;
+
+        for (int i = 0; i < numberOfPilots; i++) {
+            flights.add(new SyntheticFlight(this, currentTime));
+        }
+        for (int i = 0; i < numberOfControllers; i++) {
+            stations.add(new SyntheticStation(this, currentTime));
+        }
+    }
+
+    private DataFile createSnapshot() {
+        List<Client> clients = new ArrayList<>(numberOfPilots + 2 * numberOfControllers);
+        for (SyntheticFlight flight : flights) {
+            Client client = flight.createClient(currentTime);
+            if (client != null) {
+                clients.add(client);
+            }
+        }
+        for (SyntheticStation station : stations) {
+            station.addClients(currentTime, clients);
+        }
+
+        int numberOfConnectedClients = 0;
+        Set<Integer> connectedVatsimIds = new HashSet<>();
+        for (Client client : clients) {
+            if (client.getRawClientType() != ClientType.PILOT_PREFILED) {
+                numberOfConnectedClients++;
+                if (client.getVatsimID() >= 0) {
+                    connectedVatsimIds.add(client.getVatsimID());
+                }
+            }
+        }
+
+        DataFile dataFile = new DataFile();
+        dataFile.setMetaData(
+            new DataFileMetaData()
+                .setTimestamp(currentTime)
+                .setNumberOfConnectedClients(numberOfConnectedClients)
+                .setNumberOfUniqueConnectedUsers(connectedVatsimIds.size())
+                .setMinimumDataFileRetrievalInterval(snapshotInterval)
+                .setMinimumAtisRetrievalInterval(MINIMUM_ATIS_RETRIEVAL_INTERVAL)
+        );
+        dataFile.setClients(clients);
+        dataFile.setFsdServers(createFsdServers());
+        dataFile.setVoiceServers(new ArrayList<>());
+
+        return dataFile;
+    }
+
+    Random getRandom() {
+        return random;
+    }
+
+    double getPrefilingProbability() {
+        return prefilingProbability;
+    }
+
+    double getFlightPlanRevisionProbability() {
+        return flightPlanRevisionProbability;
+    }
+
+    double getReconnectProbability() {
+        return reconnectProbability;
+    }
+
+    double getAtisProbability() {
+        return atisProbability;
+    }
+
+    /**
+     * Allocates the VATSIM ID for a new flight or ATC session.
+     *
+     * @return VATSIM ID; -1 if missing
+     */
+    int nextVatsimId() {
+        if (random.nextDouble() < missingVatsimIdProbability) {
+            return -1;
+        }
+
+        return nextVatsimId++;
+    }
+
+    String createRealName(int vatsimId) {
+        String homeBase = randomAirport().getIcaoCode();
+        if (vatsimId < 0) {
+            return "Synthetic Member " + homeBase;
+        }
+
+        return "Synthetic Member " + vatsimId + " " + homeBase;
+    }
+
+    /**
+     * Reserves the given callsign if not already in use.
+     *
+     * @param callsign callsign to reserve
+     * @return true if reserved, false if already in use
+     */
+    boolean reserveCallsign(String callsign) {
+        return callsignsInUse.add(callsign);
+    }
+
+    void releaseCallsign(String callsign) {
+        callsignsInUse.remove(callsign);
+    }
+
+    String randomServerId() {
+        return getFsdServerId(FSD_SERVER_LOCATIONS[random.nextInt(FSD_SERVER_LOCATIONS.length)]);
+    }
+
+    Airport randomAirport() {
+        return airports.get(random.nextInt(airports.size()));
+    }
+
+    /**
+     * Picks a random airport within the given distance range. If no airport
+     * within range is found after a few attempts, the candidate closest to the
+     * range is used.
+     *
+     * @param origin          airport to measure distance from; never returned
+     * @param minimumDistance minimum distance in nautical miles
+     * @param maximumDistance maximum distance in nautical miles
+     * @return random airport, different from origin
+     */
+    Airport randomAirportWithinDistance(Airport origin, double minimumDistance, double maximumDistance) {
+        GeoPoint2D from = origin.getLocation();
+
+        Airport best = null;
+        double bestDeviation = Double.MAX_VALUE;
+        for (int i = 0; i < MAXIMUM_DESTINATION_ATTEMPTS; i++) {
+            Airport candidate = randomAirport();
+            if (candidate == origin) {
+                continue;
+            }
+
+            GeoPoint2D to = candidate.getLocation();
+            double distance = GeoMath.distanceNauticalMiles(
+                from.getLatitude(), from.getLongitude(), to.getLatitude(), to.getLongitude()
+            );
+            double deviation = Math.max(minimumDistance - distance, distance - maximumDistance);
+            if (deviation <= 0.0) {
+                return candidate;
+            }
+
+            if (deviation < bestDeviation) {
+                best = candidate;
+                bestDeviation = deviation;
+            }
+        }
+
+        if (best == null) {
+            // only hit origin by chance; any other airport will do
+            int index = airports.indexOf(origin);
+            best = airports.get((index + 1) % airports.size());
+        }
+
+        return best;
+    }
+
+    FlightInformationRegion getFlightInformationRegion(String id) {
+        return flightInformationRegionsById.get(id);
+    }
+
+    private void requireNotStarted() {
+        if (currentTime != null) {
+            throw new IllegalStateException("configuration cannot be changed after generating the first snapshot");
+        }
+    }
+
+    private static double requireProbability(double probability, String description) {
+        if (!(probability >= 0.0 && probability <= 1.0)) {
+            throw new IllegalArgumentException(description + " must be between 0 and 1, got " + probability);
+        }
+
+        return probability;
+    }
+
+    private static List<FSDServer> createFsdServers() {
+        List<FSDServer> out = new ArrayList<>(FSD_SERVER_LOCATIONS.length);
+        for (String location : FSD_SERVER_LOCATIONS) {
+            String id = getFsdServerId(location);
+            out.add(
+                new FSDServer()
+                    .setId(id)
+                    .setName(id)
+                    .setLocation(location)
+                    .setAddress(id.toLowerCase(Locale.ROOT) + ".invalid")
+                    .setClientConnectionAllowed(true)
+            );
+        }
+        return out;
+    }
+
+    private static String getFsdServerId(String location) {
+        return "SYNTHETIC-" + location.toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,624 @@
+package org.vatplanner.dataformats.vatsimpublic.synthetic;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Locale;
+import java.util.Random;
+
+import org.vatplanner.commons.geo.GeoPoint2D;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.MilitaryRating;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.PilotRating;
+import org.vatplanner.dataformats.vatsimpublic.parser.Client;
+import org.vatplanner.dataformats.vatsimpublic.parser.ClientType;
+import org.vatplanner.dataformats.vatsimpublic.parser.vatspy.Airport;
+import org.vatplanner.dataformats.vatsimpublic.spatial.GeoMath;
+
+/**
+ * Simulates a single pilot slot for {@link SyntheticDataFileGenerator}. Each
+ * slot repeatedly cycles through a full flight: optionally prefiling a flight
+ * plan, connecting at the departure airport, flying along the great circle to
+ * the destination, remaining connected on ground for a while and finally
+ * disconnecting before the next flight (by another member) starts.
+ */
+class SyntheticFlight {
+    private static final AircraftProfile[] AIRCRAFT_PROFILES = {
+        new AircraftProfile("A320", "M", "SDE2E3FGHIJ1RWY/LB1", 450, 330, 380, 150, 2500, 14),
+        new AircraftProfile("B738", "M", "SDE2E3FGHIRWXY/LB1", 455, 340, 380, 150, 2800, 14),
+        new AircraftProfile("A20N", "M", "SDE3FGHIJ1J5M1RWY/LB1", 450, 340, 390, 150, 3000, 10),
+        new AircraftProfile("E190", "M", "SDE2E3FGHIJ1RWXY/LB1", 430, 320, 370, 100, 1800, 5),
+        new AircraftProfile("DH8D", "M", "SDE3FGHIRWY/S", 300, 200, 250, 80, 900, 3),
+        new AircraftProfile("B77W", "H", "SDE1E2E3FGHIJ2J3J4J5M1RWXY/LB1D1", 490, 330, 410, 1500, 7300, 6),
+        new AircraftProfile("A359", "H", "SDE2E3FGHIJ2J3J4J5M1RWXY/LB1D1", 490, 350, 410, 1500, 8000, 6),
+        new AircraftProfile("B744", "H", "SDE2E3FGHIJ2J3J4J5M1RWXY/LB1D1", 490, 320, 390, 2000, 7000, 3),
+        new AircraftProfile("C172", "L", "SDFGY/S", 110, 45, 95, 30, 300, 10),
+        new AircraftProfile("PA28", "L", "SDFGY/S", 115, 45, 95, 30, 350, 5),
+    };
+
+    private static final int TOTAL_PROFILE_WEIGHT;
+
+    static {
+        int sum = 0;
+        for (AircraftProfile profile : AIRCRAFT_PROFILES) {
+            sum += profile.weight;
+        }
+        TOTAL_PROFILE_WEIGHT = sum;
+    }
+
+    private static final String[] AIRLINES = {
+        "DLH", "BAW", "AFR", "KLM", "UAE", "QTR", "SWR", "AUA", "RYR", "EZY",
+        "AAL", "UAL", "DAL", "SWA", "JBU", "ACA", "WJA", "QFA", "SIA", "CPA",
+        "JAL", "ANA", "THY", "SAS", "IBE", "TAP", "EIN", "VIR", "ETD", "LOT",
+    };
+
+    private static final String[] REMARKS = {
+        "PBN/A1B1C1D1L1O1S1 DOF/%s RMK/TCAS /V/",
+        "PBN/A1B1C1D1O1S1 DOF/%s RMK/NEW PILOT PLEASE BE PATIENT /V/",
+        "PBN/B1D1O1S1 DOF/%s RMK/CHARTS ON BOARD /T/",
+        "PBN/A1B1D1O1S1 DOF/%s RMK/LIVE ON TWITCH.TV/SYNTHETICPILOT /V/",
+        "DOF/%s /R/",
+        "/V/",
+    };
+
+    private static final double MINIMUM_GROUND_SPEED_FACTOR = 0.4;
+    private static final double CLIMB_FEET_PER_NAUTICAL_MILE = 350.0;
+    private static final double DESCENT_FEET_PER_NAUTICAL_MILE = 320.0;
+    private static final double MAXIMUM_CYCLE_SECONDS = 24 * 3600.0;
+    private static final double MAXIMUM_TAXI_SPEED = 25.0;
+
+    private static final double SECONDS_PER_HOUR = 3600.0;
+    private static final double SECONDS_PER_MINUTE = 60.0;
+
+    private final SyntheticDataFileGenerator generator;
+    private final Random random;
+
+    private Phase phase;
+    private double phaseRemainingSeconds;
+    private double reconnectRemainingSeconds;
+
+    private int vatsimId;
+    private String realName;
+    private String callsign;
+    private PilotRating pilotRating;
+    private String serverId;
+    private Instant logonTime;
+
+    private AircraftProfile aircraft;
+    private Airport departure;
+    private Airport destination;
+    private Airport alternate;
+    private double totalDistance;
+    private double distanceFlown;
+    private int cruiseAltitude;
+    private int cruiseGroundSpeed;
+    private int groundHeading;
+    private int transponderCode;
+    private int qnhHectopascal;
+
+    private int flightPlanRevision;
+    private Instant flightPlanLastUpdated;
+    private String rawFlightPlanType;
+    private String rawFiledAltitude;
+    private String filedRoute;
+    private String flightPlanRemarks;
+    private int rawDepartureTimePlanned;
+    private Duration filedTimeEnroute;
+    private Duration filedTimeFuel;
+
+    private enum Phase {
+        /**
+         * Slot is unused until the next flight starts.
+         */
+        IDLE,
+
+        /**
+         * Flight plan has been prefiled but the pilot is not connected yet.
+         */
+        PREFILED,
+
+        /**
+         * Pilot is connected on ground at departure airport.
+         */
+        DEPARTING,
+
+        /**
+         * Pilot is flying towards the destination.
+         */
+        AIRBORNE,
+
+        /**
+         * Pilot is still connected on ground at destination airport.
+         */
+        ARRIVED;
+    }
+
+    private static class AircraftProfile {
+        private final String icaoType;
+        private final String wakeCategory;
+        private final String equipment;
+        private final int cruiseTrueAirSpeed;
+        private final int minimumFlightLevel;
+        private final int maximumFlightLevel;
+        private final double minimumDistance;
+        private final double maximumDistance;
+        private final int weight;
+
+        private AircraftProfile(String icaoType, String wakeCategory, String equipment, int cruiseTrueAirSpeed, int minimumFlightLevel, int maximumFlightLevel, double minimumDistance, double maximumDistance, int weight) {
+            this.icaoType = icaoType;
+            this.wakeCategory = wakeCategory;
+            this.equipment = equipment;
+            this.cruiseTrueAirSpeed = cruiseTrueAirSpeed;
+            this.minimumFlightLevel = minimumFlightLevel;
+            this.maximumFlightLevel = maximumFlightLevel;
+            this.minimumDistance = minimumDistance;
+            this.maximumDistance = maximumDistance;
+            this.weight = weight;
+        }
+
+        private boolean isGeneralAviation() {
+            return "L".equals(wakeCategory);
+        }
+    }
+
+    /**
+     * Creates a new slot in a random state of its cycle, so that all slots of a
+     * freshly created generator already resemble a network in steady state.
+     *
+     * @param generator generator providing configuration and shared state
+     * @param now       time of first snapshot
+     */
+    SyntheticFlight(SyntheticDataFileGenerator generator, Instant now) {
+        this.generator = generator;
+        this.random = generator.getRandom();
+
+        double prefiledSeconds;
+        double departingSeconds;
+        double airborneSeconds;
+        double arrivedSeconds;
+        double idleSeconds;
+        double cycleSeconds;
+        while (true) {
+            planFlight(now);
+
+            prefiledSeconds = (phase == Phase.PREFILED) ? phaseRemainingSeconds : 0.0;
+            departingSeconds = randomMinutes(5, 30);
+            airborneSeconds = estimateAirborneSeconds();
+            arrivedSeconds = randomMinutes(2, 15);
+            idleSeconds = randomMinutes(0, 10);
+            cycleSeconds = prefiledSeconds + departingSeconds + airborneSeconds + arrivedSeconds + idleSeconds;
+
+            // At any point of time, long flights are more likely to be in progress
+            // than short ones, so flights are accepted proportionally to their duration.
+            if (random.nextDouble() * MAXIMUM_CYCLE_SECONDS < cycleSeconds) {
+                break;
+            }
+
+            generator.releaseCallsign(callsign);
+        }
+
+        // pick a random point of time within the planned cycle
+
+        double offset = random.nextDouble() * cycleSeconds;
+        if (offset < prefiledSeconds) {
+            phaseRemainingSeconds = prefiledSeconds - offset;
+            return;
+        }
+        offset -= prefiledSeconds;
+
+        if (offset < departingSeconds) {
+            connect(now.minusSeconds((long) offset), departingSeconds - offset);
+            return;
+        }
+        offset -= departingSeconds;
+
+        if (offset < airborneSeconds) {
+            connect(now.minusSeconds((long) (offset + departingSeconds)), 0.0);
+            phase = Phase.AIRBORNE;
+            distanceFlown = totalDistance * offset / airborneSeconds;
+            return;
+        }
+        offset -= airborneSeconds;
+
+        if (offset < arrivedSeconds) {
+            connect(now.minusSeconds((long) (offset + airborneSeconds + departingSeconds)), 0.0);
+            phase = Phase.ARRIVED;
+            phaseRemainingSeconds = arrivedSeconds - offset;
+            distanceFlown = totalDistance;
+            return;
+        }
+        offset -= arrivedSeconds;
+
+        generator.releaseCallsign(callsign);
+        phase = Phase.IDLE;
+        phaseRemainingSeconds = idleSeconds - offset;
+    }
+
+    /**
+     * Advances the simulation by the given time.
+     *
+     * @param now             time of the snapshot to be created next
+     * @param intervalSeconds seconds passed since previous snapshot
+     */
+    void advance(Instant now, double intervalSeconds) {
+        switch (phase) {
+            case IDLE:
+                phaseRemainingSeconds -= intervalSeconds;
+                if (phaseRemainingSeconds <= 0.0) {
+                    planFlight(now);
+                }
+                return;
+
+            case PREFILED:
+                phaseRemainingSeconds -= intervalSeconds;
+                maybeReviseFlightPlan(now);
+                if (phaseRemainingSeconds <= 0.0) {
+                    connect(now, randomMinutes(5, 30));
+                }
+                return;
+
+            case DEPARTING:
+                phaseRemainingSeconds -= intervalSeconds;
+                maybeReviseFlightPlan(now);
+                if (phaseRemainingSeconds <= 0.0) {
+                    phase = Phase.AIRBORNE;
+                    distanceFlown = 0.0;
+                }
+                break;
+
+            case AIRBORNE:
+                distanceFlown += getGroundSpeed() * intervalSeconds / SECONDS_PER_HOUR;
+                maybeReviseFlightPlan(now);
+                if (distanceFlown >= totalDistance) {
+                    distanceFlown = totalDistance;
+                    phase = Phase.ARRIVED;
+                    phaseRemainingSeconds = randomMinutes(2, 15);
+                }
+                break;
+
+            case ARRIVED:
+                phaseRemainingSeconds -= intervalSeconds;
+                if (phaseRemainingSeconds <= 0.0) {
+                    generator.releaseCallsign(callsign);
+                    phase = Phase.IDLE;
+                    phaseRemainingSeconds = randomMinutes(0, 10);
+                    reconnectRemainingSeconds = 0.0;
+                    return;
+                }
+                break;
+
+            default:
+                throw new UnsupportedOperationException("unhandled phase: " + phase);
+        }
+
+        // connected phases only
+        if (reconnectRemainingSeconds > 0.0) {
+            reconnectRemainingSeconds -= intervalSeconds;
+            if (reconnectRemainingSeconds <= 0.0) {
+                logonTime = now;
+            }
+        } else if (random.nextDouble() < generator.getReconnectProbability()) {
+            // connection is lost for a few snapshots
+            reconnectRemainingSeconds = (1 + random.nextInt(4)) * intervalSeconds;
+        }
+    }
+
+    /**
+     * Creates the client to be listed in the snapshot for the current state.
+     *
+     * @param now time of snapshot
+     * @return client; null if not listed in snapshot
+     */
+    Client createClient(Instant now) {
+        if ((phase == Phase.IDLE) || (reconnectRemainingSeconds > 0.0)) {
+            return null;
+        }
+
+        Client client = new Client();
+        client.setCallsign(callsign);
+        client.setVatsimID(vatsimId);
+        client.setRealName(realName);
+        fillFlightPlan(client);
+
+        if (phase == Phase.PREFILED) {
+            client.setRawClientType(ClientType.PILOT_PREFILED);
+            client.setEffectiveClientType(ClientType.PILOT_PREFILED);
+            client.setLastUpdated(flightPlanLastUpdated);
+            return client;
+        }
+
+        client.setRawClientType(ClientType.PILOT_CONNECTED);
+        client.setEffectiveClientType(ClientType.PILOT_CONNECTED);
+        client.setServerId(serverId);
+        client.setProtocolVersion(100);
+        client.setPilotRating(pilotRating);
+        client.setMilitaryRating(MilitaryRating.M0);
+        client.setLogonTime(logonTime);
+        client.setLastUpdated(now);
+        client.setTransponderCodeDecimal(transponderCode);
+        client.setQnhHectopascal(qnhHectopascal);
+        client.setQnhInchMercury(Math.round(qnhHectopascal / 33.8639 * 100.0) / 100.0);
+
+        if (phase == Phase.AIRBORNE) {
+            GeoPoint2D position = getPosition();
+            client.setLatitude(position.getLatitude());
+            client.setLongitude(position.getLongitude());
+            client.setAltitudeFeet(getAltitude());
+            client.setGroundSpeed((int) Math.round(getGroundSpeed()));
+
+            GeoPoint2D destinationLocation = destination.getLocation();
+            client.setHeading((int) Math.round(GeoMath.initialBearingDegrees(
+                position.getLatitude(), position.getLongitude(),
+                destinationLocation.getLatitude(), destinationLocation.getLongitude()
+            )) % 360);
+        } else {
+            GeoPoint2D location = ((phase == Phase.DEPARTING) ? departure : destination).getLocation();
+            client.setLatitude(location.getLatitude());
+            client.setLongitude(location.getLongitude());
+            client.setAltitudeFeet(0);
+            client.setGroundSpeed(random.nextInt(8) == 0 ? 1 + random.nextInt((int) MAXIMUM_TAXI_SPEED) : 0);
+            client.setHeading(groundHeading);
+        }
+
+        return client;
+    }
+
+    private void fillFlightPlan(Client client) {
+        client.setFlightPlanRevision(flightPlanRevision);
+        client.setRawFlightPlanType(rawFlightPlanType);
+        client.setAircraftType(aircraft.icaoType + "/" + aircraft.wakeCategory + "-" + aircraft.equipment);
+        client.setAircraftTypeFaa(
+            ("H".equals(aircraft.wakeCategory) ? "H/" : "") + aircraft.icaoType
+                + (aircraft.isGeneralAviation() ? "/G" : "/L")
+        );
+        client.setAircraftTypeShort(aircraft.icaoType);
+        client.setFiledTrueAirSpeed(aircraft.cruiseTrueAirSpeed);
+        client.setFiledDepartureAirportCode(departure.getIcaoCode());
+        client.setFiledDestinationAirportCode(destination.getIcaoCode());
+        client.setFiledAlternateAirportCode(alternate.getIcaoCode());
+        client.setRawFiledAltitude(rawFiledAltitude);
+        client.setRawDepartureTimePlanned(rawDepartureTimePlanned);
+        client.setRawDepartureTimeActual(rawDepartureTimePlanned);
+        client.setFiledTimeEnroute(filedTimeEnroute);
+        client.setFiledTimeFuel(filedTimeFuel);
+        client.setFlightPlanRemarks(flightPlanRemarks);
+        client.setFiledRoute(filedRoute);
+        client.setAssignedTransponderCodeDecimal(transponderCode);
+    }
+
+    private void planFlight(Instant now) {
+        aircraft = pickAircraftProfile();
+        departure = generator.randomAirport();
+        destination = generator.randomAirportWithinDistance(
+            departure, aircraft.minimumDistance, aircraft.maximumDistance
+        );
+        alternate = generator.randomAirportWithinDistance(destination, 20.0, 200.0);
+
+        GeoPoint2D from = departure.getLocation();
+        GeoPoint2D to = destination.getLocation();
+        totalDistance = GeoMath.distanceNauticalMiles(
+            from.getLatitude(), from.getLongitude(), to.getLatitude(), to.getLongitude()
+        );
+        distanceFlown = 0.0;
+
+        vatsimId = generator.nextVatsimId();
+        realName = generator.createRealName(vatsimId);
+        callsign = reserveCallsign();
+        pilotRating = PilotRating.values()[random.nextInt(PilotRating.values().length)];
+        serverId = generator.randomServerId();
+
+        cruiseAltitude = 100 * roundToMultiple(
+            aircraft.minimumFlightLevel
+                + random.nextInt(aircraft.maximumFlightLevel - aircraft.minimumFlightLevel + 1),
+            aircraft.isGeneralAviation() ? 5 : 10
+        );
+        cruiseGroundSpeed = aircraft.cruiseTrueAirSpeed - 40 + random.nextInt(81);
+        groundHeading = random.nextInt(360);
+        transponderCode = randomTransponderCode();
+        qnhHectopascal = 990 + random.nextInt(46);
+
+        rawFlightPlanType = aircraft.isGeneralAviation() ? "V" : "I";
+        rawFiledAltitude = formatAltitude(cruiseAltitude);
+        filedRoute = createRoute();
+        flightPlanRevision = 0;
+
+        double enrouteHours = totalDistance / aircraft.cruiseTrueAirSpeed + 0.25;
+        filedTimeEnroute = Duration.ofMinutes(Math.round(enrouteHours * SECONDS_PER_MINUTE));
+        filedTimeFuel = filedTimeEnroute.plusMinutes(45 + random.nextInt(60));
+
+        boolean isPrefiled = random.nextDouble() < generator.getPrefilingProbability();
+        double secondsUntilConnect = isPrefiled ? randomMinutes(10, 120) : 0.0;
+        double secondsUntilDeparture = secondsUntilConnect + randomMinutes(10, 30);
+
+        ZonedDateTime plannedDeparture = now.plusSeconds((long) secondsUntilDeparture).atZone(ZoneOffset.UTC);
+        rawDepartureTimePlanned = plannedDeparture.getHour() * 100 + plannedDeparture.getMinute();
+        flightPlanRemarks = String.format(
+            REMARKS[random.nextInt(REMARKS.length)],
+            String.format(Locale.ROOT, "%02d%02d%02d", plannedDeparture.getYear() % 100, plannedDeparture.getMonthValue(), plannedDeparture.getDayOfMonth())
+        );
+        flightPlanLastUpdated = now;
+
+        reconnectRemainingSeconds = 0.0;
+        if (isPrefiled) {
+            phase = Phase.PREFILED;
+            phaseRemainingSeconds = secondsUntilConnect;
+        } else {
+            connect(now, randomMinutes(5, 30));
+        }
+    }
+
+    private void connect(Instant now, double departingSeconds) {
+        phase = Phase.DEPARTING;
+        phaseRemainingSeconds = departingSeconds;
+        logonTime = now;
+    }
+
+    private void maybeReviseFlightPlan(Instant now) {
+        if (random.nextDouble() >= generator.getFlightPlanRevisionProbability()) {
+            return;
+        }
+
+        flightPlanRevision++;
+        flightPlanLastUpdated = now;
+
+        switch (random.nextInt(3)) {
+            case 0:
+                // step climb or lower level requested
+                cruiseAltitude = Math.max(
+                    aircraft.minimumFlightLevel * 100,
+                    cruiseAltitude + (random.nextBoolean() ? 2000 : -2000)
+                );
+                rawFiledAltitude = formatAltitude(cruiseAltitude);
+                break;
+
+            case 1:
+                filedRoute = createRoute();
+                break;
+
+            default:
+                flightPlanRemarks = flightPlanRemarks + " RMK/REVISED";
+                break;
+        }
+    }
+
+    private AircraftProfile pickAircraftProfile() {
+        int remaining = random.nextInt(TOTAL_PROFILE_WEIGHT);
+        for (AircraftProfile profile : AIRCRAFT_PROFILES) {
+            remaining -= profile.weight;
+            if (remaining < 0) {
+                return profile;
+            }
+        }
+
+        return AIRCRAFT_PROFILES[AIRCRAFT_PROFILES.length - 1];
+    }
+
+    private String reserveCallsign() {
+        while (true) {
+            String candidate;
+            if (aircraft.isGeneralAviation()) {
+                candidate = (random.nextBoolean() ? "D" : "G") + randomLetters(4);
+            } else {
+                candidate = AIRLINES[random.nextInt(AIRLINES.length)] + (1 + random.nextInt(9999));
+            }
+
+            if (generator.reserveCallsign(candidate)) {
+                return candidate;
+            }
+        }
+    }
+
+    private String createRoute() {
+        if (aircraft.isGeneralAviation()) {
+            return "DCT";
+        }
+
+        int numberOfWaypoints = 2 + (int) Math.min(20, totalDistance / 250.0);
+        StringBuilder sb = new StringBuilder();
+        sb.append(randomLetters(5)).append(random.nextInt(10)).append(randomLetters(1));
+        for (int i = 0; i < numberOfWaypoints; i++) {
+            sb.append(' ');
+            if (random.nextBoolean()) {
+                sb.append("DCT ");
+            } else {
+                sb.append(randomLetters(1)).append(1 + random.nextInt(999)).append(' ');
+            }
+            sb.append(randomLetters(5));
+        }
+
+        return sb.toString();
+    }
+
+    private GeoPoint2D getPosition() {
+        GeoPoint2D from = departure.getLocation();
+        GeoPoint2D to = destination.getLocation();
+        double fraction = (totalDistance > 0.0) ? distanceFlown / totalDistance : 1.0;
+
+        return GeoMath.intermediatePoint(
+            from.getLatitude(), from.getLongitude(), to.getLatitude(), to.getLongitude(), fraction
+        );
+    }
+
+    /**
+     * Calculates the time needed to fly the full distance following the same
+     * altitude and speed profile as used for simulation.
+     *
+     * @return estimated airborne time in seconds
+     */
+    private double estimateAirborneSeconds() {
+        // climb and descent meet at the highest reachable altitude on short flights
+        double peakAltitude = Math.min(
+            cruiseAltitude,
+            totalDistance / (1.0 / CLIMB_FEET_PER_NAUTICAL_MILE + 1.0 / DESCENT_FEET_PER_NAUTICAL_MILE)
+        );
+        double cruiseDistance = totalDistance
+            - peakAltitude / CLIMB_FEET_PER_NAUTICAL_MILE
+            - peakAltitude / DESCENT_FEET_PER_NAUTICAL_MILE;
+
+        double hours = estimateClimbOrDescentHours(peakAltitude, CLIMB_FEET_PER_NAUTICAL_MILE)
+            + estimateClimbOrDescentHours(peakAltitude, DESCENT_FEET_PER_NAUTICAL_MILE)
+            + Math.max(0.0, cruiseDistance) / cruiseGroundSpeed;
+
+        return hours * SECONDS_PER_HOUR;
+    }
+
+    private double estimateClimbOrDescentHours(double altitude, double feetPerNauticalMile) {
+        // ground speed increases linearly with altitude; integrated over distance
+        double slope = (1.0 - MINIMUM_GROUND_SPEED_FACTOR) * feetPerNauticalMile / cruiseAltitude;
+        double finalFactor = MINIMUM_GROUND_SPEED_FACTOR
+            + (1.0 - MINIMUM_GROUND_SPEED_FACTOR) * altitude / cruiseAltitude;
+
+        return Math.log(finalFactor / MINIMUM_GROUND_SPEED_FACTOR) / (cruiseGroundSpeed * slope);
+    }
+
+    private int getAltitude() {
+        double climbLimit = distanceFlown * CLIMB_FEET_PER_NAUTICAL_MILE;
+        double descentLimit = (totalDistance - distanceFlown) * DESCENT_FEET_PER_NAUTICAL_MILE;
+
+        return (int) Math.round(Math.max(0.0, Math.min(cruiseAltitude, Math.min(climbLimit, descentLimit))));
+    }
+
+    private double getGroundSpeed() {
+        if (phase != Phase.AIRBORNE) {
+            return 0.0;
+        }
+
+        // slower at lower altitudes; also ensures that aircraft can leave departure
+        // and arrive at destination
+        double altitudeFactor = Math.min(1.0, (double) getAltitude() / cruiseAltitude);
+        return cruiseGroundSpeed
+            * (MINIMUM_GROUND_SPEED_FACTOR + (1.0 - MINIMUM_GROUND_SPEED_FACTOR) * altitudeFactor);
+    }
+
+    private int randomTransponderCode() {
+        int code = 0;
+        for (int i = 0; i < 4; i++) {
+            code = code * 10 + random.nextInt(8);
+        }
+        return code;
+    }
+
+    private double randomMinutes(int minimum, int maximum) {
+        return (minimum + random.nextDouble() * (maximum - minimum)) * SECONDS_PER_MINUTE;
+    }
+
+    private String randomLetters(int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('A' + random.nextInt(26)));
+        }
+        return sb.toString();
+    }
+
+    private static int roundToMultiple(int value, int multiple) {
+        return Math.round((float) value / multiple) * multiple;
+    }
+
+    private static String formatAltitude(int altitudeFeet) {
+        if (altitudeFeet < 10000) {
+            return Integer.toString(altitudeFeet);
+        }
+
+        return String.format(Locale.ROOT, "FL%03d", altitudeFeet / 100);
+    }
+}
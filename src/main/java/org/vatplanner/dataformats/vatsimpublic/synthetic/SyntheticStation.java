@@ -0,0 +1,330 @@
+package org.vatplanner.dataformats.vatsimpublic.synthetic;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Random;
+
+import org.vatplanner.commons.geo.GeoPoint2D;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.ControllerRating;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.FacilityType;
+import org.vatplanner.dataformats.vatsimpublic.parser.Client;
+import org.vatplanner.dataformats.vatsimpublic.parser.ClientType;
+import org.vatplanner.dataformats.vatsimpublic.parser.vatspy.Airport;
+import org.vatplanner.dataformats.vatsimpublic.parser.vatspy.FlightInformationRegion;
+
+/**
+ * Simulates a single controller slot for {@link SyntheticDataFileGenerator}.
+ * Each slot repeatedly cycles through ATC sessions (by different members) at
+ * random stations. Tower and approach sessions may additionally provide an
+ * ATIS whose designator and content change regularly.
+ */
+class SyntheticStation {
+    private static final FacilityType[] FACILITY_TYPES = {
+        FacilityType.DELIVERY,
+        FacilityType.GROUND, FacilityType.GROUND,
+        FacilityType.TOWER, FacilityType.TOWER, FacilityType.TOWER,
+        FacilityType.APPROACH_DEPARTURE, FacilityType.APPROACH_DEPARTURE,
+        FacilityType.CENTER, FacilityType.CENTER,
+    };
+
+    private static final int MINIMUM_SESSION_MINUTES = 30;
+    private static final int MAXIMUM_SESSION_MINUTES = 210;
+
+    private static final double SECONDS_PER_MINUTE = 60.0;
+    private static final String LINE_SEPARATOR = "\n";
+
+    private final SyntheticDataFileGenerator generator;
+    private final Random random;
+
+    private boolean isOnline;
+    private double remainingSeconds;
+    private double reconnectRemainingSeconds;
+
+    private int vatsimId;
+    private String realName;
+    private String callsign;
+    private FacilityType facilityType;
+    private ControllerRating controllerRating;
+    private int frequencyKilohertz;
+    private int visualRange;
+    private GeoPoint2D location;
+    private String serverId;
+    private Instant logonTime;
+    private String controllerMessage;
+    private Instant controllerMessageUpdated;
+
+    private String atisCallsign;
+    private int atisFrequencyKilohertz;
+    private char atisDesignator;
+    private String atisMessage;
+    private Instant atisUpdated;
+    private double atisChangeRemainingSeconds;
+    private int windDirection;
+    private int windSpeed;
+    private int qnhHectopascal;
+
+    /**
+     * Creates a new slot in a random state, so that all slots of a freshly
+     * created generator already resemble a network in steady state.
+     *
+     * @param generator generator providing configuration and shared state
+     * @param now       time of first snapshot
+     */
+    SyntheticStation(SyntheticDataFileGenerator generator, Instant now) {
+        this.generator = generator;
+        this.random = generator.getRandom();
+
+        // sessions last 2 hours on average, breaks between sessions 10 minutes
+        if (random.nextInt(13) == 0) {
+            goOffline();
+        } else {
+            // longer sessions are more likely to be in progress at any point of time
+            double sessionSeconds;
+            do {
+                sessionSeconds = randomSessionSeconds();
+            } while (random.nextDouble() * MAXIMUM_SESSION_MINUTES * SECONDS_PER_MINUTE >= sessionSeconds);
+
+            double elapsedSeconds = random.nextDouble() * sessionSeconds;
+            startSession(now.minusSeconds((long) elapsedSeconds), sessionSeconds - elapsedSeconds);
+        }
+    }
+
+    /**
+     * Advances the simulation by the given time.
+     *
+     * @param now             time of the snapshot to be created next
+     * @param intervalSeconds seconds passed since previous snapshot
+     */
+    void advance(Instant now, double intervalSeconds) {
+        remainingSeconds -= intervalSeconds;
+
+        if (!isOnline) {
+            if (remainingSeconds <= 0.0) {
+                startSession(now, randomSessionSeconds());
+            }
+            return;
+        }
+
+        if (remainingSeconds <= 0.0) {
+            goOffline();
+            return;
+        }
+
+        if (atisCallsign != null) {
+            atisChangeRemainingSeconds -= intervalSeconds;
+            if (atisChangeRemainingSeconds <= 0.0) {
+                changeAtis(now);
+            }
+        }
+
+        if (reconnectRemainingSeconds > 0.0) {
+            reconnectRemainingSeconds -= intervalSeconds;
+            if (reconnectRemainingSeconds <= 0.0) {
+                logonTime = now;
+            }
+        } else if (random.nextDouble() < generator.getReconnectProbability()) {
+            // connection is lost for a few snapshots
+            reconnectRemainingSeconds = (1 + random.nextInt(4)) * intervalSeconds;
+        }
+    }
+
+    /**
+     * Adds clients to be listed in the snapshot for the current state.
+     *
+     * @param now time of snapshot
+     * @param out collection to add clients to
+     */
+    void addClients(Instant now, Collection<Client> out) {
+        if (!isOnline || (reconnectRemainingSeconds > 0.0)) {
+            return;
+        }
+
+        Client controller = createClient(ClientType.ATC_CONNECTED, callsign, frequencyKilohertz);
+        controller.setFacilityType(facilityType);
+        controller.setVisualRange(visualRange);
+        controller.setControllerMessage(controllerMessage);
+        controller.setLastUpdated(controllerMessageUpdated);
+        out.add(controller);
+
+        if (atisCallsign != null) {
+            Client atis = createClient(ClientType.ATIS, atisCallsign, atisFrequencyKilohertz);
+            atis.setFacilityType(FacilityType.TOWER);
+            atis.setVisualRange(visualRange);
+            atis.setAtisDesignator(Character.toString(atisDesignator));
+            atis.setControllerMessage(atisMessage);
+            atis.setLastUpdated(atisUpdated);
+            out.add(atis);
+        }
+    }
+
+    private Client createClient(ClientType clientType, String callsign, int frequencyKilohertz) {
+        Client client = new Client();
+        client.setCallsign(callsign);
+        client.setVatsimID(vatsimId);
+        client.setRealName(realName);
+        client.setRawClientType(clientType);
+        client.setEffectiveClientType(clientType);
+        client.setServedFrequencyKilohertz(frequencyKilohertz);
+        client.setLatitude(location.getLatitude());
+        client.setLongitude(location.getLongitude());
+        client.setServerId(serverId);
+        client.setProtocolVersion(100);
+        client.setControllerRating(controllerRating);
+        client.setLogonTime(logonTime);
+        return client;
+    }
+
+    private void startSession(Instant logonTime, double sessionSeconds) {
+        Airport airport = generator.randomAirport();
+        facilityType = FACILITY_TYPES[random.nextInt(FACILITY_TYPES.length)];
+
+        String prefix = airport.getIcaoCode();
+        if (facilityType == FacilityType.CENTER) {
+            FlightInformationRegion fir = generator.getFlightInformationRegion(airport.getFlightInformationRegionId());
+            if (fir != null) {
+                prefix = fir.getCallsignPrefix().orElse(fir.getId());
+            }
+        }
+
+        callsign = reserveCallsign(prefix, facilityType.getShortName());
+        location = airport.getLocation();
+        vatsimId = generator.nextVatsimId();
+        realName = generator.createRealName(vatsimId);
+        serverId = generator.randomServerId();
+        this.logonTime = logonTime;
+
+        configureFacility();
+
+        controllerMessage = "Synthetic " + facilityType.getShortName() + " station" + LINE_SEPARATOR
+            + "Feedback: https://example.com/feedback/" + callsign.toLowerCase(Locale.ROOT);
+        controllerMessageUpdated = logonTime;
+
+        atisCallsign = null;
+        boolean canProvideAtis = (facilityType == FacilityType.TOWER)
+            || (facilityType == FacilityType.APPROACH_DEPARTURE);
+        if (canProvideAtis && (random.nextDouble() < generator.getAtisProbability())) {
+            String candidate = airport.getIcaoCode() + "_ATIS";
+            if (generator.reserveCallsign(candidate)) {
+                atisCallsign = candidate;
+                atisFrequencyKilohertz = randomFrequency(126000, 128000);
+                atisDesignator = (char) ('A' + random.nextInt(26));
+                windDirection = 10 * (1 + random.nextInt(36));
+                windSpeed = random.nextInt(25);
+                qnhHectopascal = 990 + random.nextInt(46);
+                updateAtisMessage(logonTime);
+            }
+        }
+
+        isOnline = true;
+        remainingSeconds = sessionSeconds;
+        reconnectRemainingSeconds = 0.0;
+    }
+
+    private void configureFacility() {
+        switch (facilityType) {
+            case DELIVERY:
+                frequencyKilohertz = randomFrequency(121600, 121975);
+                visualRange = 20;
+                controllerRating = randomRating(ControllerRating.S1);
+                break;
+
+            case GROUND:
+                frequencyKilohertz = randomFrequency(121600, 122000);
+                visualRange = 20;
+                controllerRating = randomRating(ControllerRating.S1);
+                break;
+
+            case TOWER:
+                frequencyKilohertz = randomFrequency(118000, 120000);
+                visualRange = 50;
+                controllerRating = randomRating(ControllerRating.S2);
+                break;
+
+            case APPROACH_DEPARTURE:
+                frequencyKilohertz = randomFrequency(119000, 128000);
+                visualRange = 150;
+                controllerRating = randomRating(ControllerRating.S3);
+                break;
+
+            case CENTER:
+                frequencyKilohertz = randomFrequency(127000, 135975);
+                visualRange = 400;
+                controllerRating = randomRating(ControllerRating.C1);
+                break;
+
+            default:
+                throw new UnsupportedOperationException("unhandled facility type: " + facilityType);
+        }
+    }
+
+    private void goOffline() {
+        if (isOnline) {
+            generator.releaseCallsign(callsign);
+            if (atisCallsign != null) {
+                generator.releaseCallsign(atisCallsign);
+            }
+        }
+
+        isOnline = false;
+        atisCallsign = null;
+        remainingSeconds = randomMinutes(0, 20);
+    }
+
+    private void changeAtis(Instant now) {
+        atisDesignator = (atisDesignator == 'Z') ? 'A' : (char) (atisDesignator + 1);
+        windDirection = 10 + Math.floorMod(windDirection - 10 + 10 * (random.nextInt(5) - 2), 360);
+        windSpeed = Math.max(0, windSpeed + random.nextInt(5) - 2);
+        qnhHectopascal += random.nextInt(3) - 1;
+        updateAtisMessage(now);
+    }
+
+    private void updateAtisMessage(Instant now) {
+        ZonedDateTime time = now.atZone(ZoneOffset.UTC);
+        int runway = Math.floorMod(Math.round(windDirection / 10.0f) - 1, 36) + 1;
+
+        atisMessage = String.format(
+            Locale.ROOT,
+            "%s INFORMATION %c TIME %02d%02dZ%sRUNWAY IN USE %02d%sWIND %03d DEGREES %d KNOTS%sQNH %d",
+            atisCallsign.substring(0, atisCallsign.indexOf('_')), atisDesignator, time.getHour(), time.getMinute(),
+            LINE_SEPARATOR, runway,
+            LINE_SEPARATOR, windDirection, windSpeed,
+            LINE_SEPARATOR, qnhHectopascal
+        );
+        atisUpdated = now;
+
+        // ATIS is usually updated every 30 minutes
+        atisChangeRemainingSeconds = randomMinutes(20, 40);
+    }
+
+    private String reserveCallsign(String prefix, String suffix) {
+        String candidate = prefix + "_" + suffix;
+        int attempt = 0;
+        while (!generator.reserveCallsign(candidate)) {
+            attempt++;
+            String infix = (attempt <= 26) ? Character.toString((char) ('A' + random.nextInt(26))) : Integer.toString(attempt);
+            candidate = prefix + "_" + infix + "_" + suffix;
+        }
+
+        return candidate;
+    }
+
+    private ControllerRating randomRating(ControllerRating minimum) {
+        int minimumOrdinal = minimum.ordinal();
+        return ControllerRating.values()[minimumOrdinal + random.nextInt(ControllerRating.C3.ordinal() - minimumOrdinal + 1)];
+    }
+
+    private int randomFrequency(int minimumKilohertz, int maximumKilohertz) {
+        return minimumKilohertz + 25 * random.nextInt((maximumKilohertz - minimumKilohertz) / 25 + 1);
+    }
+
+    private double randomSessionSeconds() {
+        return randomMinutes(MINIMUM_SESSION_MINUTES, MAXIMUM_SESSION_MINUTES);
+    }
+
+    private double randomMinutes(int minimum, int maximum) {
+        return (minimum + random.nextDouble() * (maximum - minimum)) * SECONDS_PER_MINUTE;
+    }
+}
@@ -0,0 +1,242 @@
+package org.vatplanner.dataformats.vatsimpublic.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Searches text for occurrence of any of a set of strings using an
+ * Aho-Corasick automaton. The automaton is built once on construction; each
+ * search then runs in time linear to the length of searched text, independent
+ * of the number of strings searched for. Searches can either just check for
+ * any occurrence or report all occurrences of all strings in a single pass.
+ *
+ * <p>
+ * Matching is case-insensitive for US-ASCII letters only, identical to
+ * {@link java.util.regex.Pattern#CASE_INSENSITIVE} without
+ * {@link java.util.regex.Pattern#UNICODE_CASE}. All other characters need to
+ * match exactly.
+ * </p>
+ *
+ * <p>
+ * Instances are immutable and thread-safe.
+ * </p>
+ */
+public class AhoCorasickMatcher {
+
+    private static final int ROOT = 0;
+
+    // transitions of each state; keys are sorted for binary search
+    private final char[][] transitionKeys;
+    private final int[][] transitionTargets;
+    private final int[] failureLinks;
+
+    // true if any search string ends at this state or any state reachable by
+    // failure links
+    private final boolean[] isMatch;
+
+    // indexes of all search strings ending at this state or any state reachable
+    // by failure links
+    private final int[][] matchedNeedles;
+    private final int[] needleLengths;
+
+    /**
+     * Receives occurrences found by {@link #findAll(CharSequence, MatchHandler)}.
+     */
+    @FunctionalInterface
+    public interface MatchHandler {
+        /**
+         * Called for each occurrence of a search string.
+         *
+         * @param needleIndex index of found search string in iteration order of
+         *                    the collection provided on construction
+         * @param start       index of first character of occurrence in searched text
+         */
+        void onMatch(int needleIndex, int start);
+    }
+
+    /**
+     * Builds a new automaton searching for the given strings.
+     *
+     * @param needles strings to search for; must not be null or empty
+     * @throws IllegalArgumentException if collection is null or empty or contains
+     *                                  null or empty strings
+     */
+    public AhoCorasickMatcher(Collection<String> needles) {
+        if ((needles == null) || needles.isEmpty()) {
+            throw new IllegalArgumentException("at least one search string is required");
+        }
+
+        // build trie
+        List<StringBuilder> keys = new ArrayList<>();
+        List<List<Integer>> targets = new ArrayList<>();
+        List<List<Integer>> terminals = new ArrayList<>();
+        keys.add(new StringBuilder());
+        targets.add(new ArrayList<>());
+        terminals.add(new ArrayList<>());
+
+        needleLengths = new int[needles.size()];
+        int needleIndex = 0;
+        for (String needle : needles) {
+            if ((needle == null) || needle.isEmpty()) {
+                throw new IllegalArgumentException("search strings must not be null or empty");
+            }
+
+            int state = ROOT;
+            for (int i = 0; i < needle.length(); i++) {
+                char ch = toLowerCaseAscii(needle.charAt(i));
+                int index = keys.get(state).indexOf(Character.toString(ch));
+                if (index >= 0) {
+                    state = targets.get(state).get(index);
+                } else {
+                    int next = keys.size();
+                    keys.add(new StringBuilder());
+                    targets.add(new ArrayList<>());
+                    terminals.add(new ArrayList<>());
+
+                    keys.get(state).append(ch);
+                    targets.get(state).add(next);
+                    state = next;
+                }
+            }
+            terminals.get(state).add(needleIndex);
+            needleLengths[needleIndex++] = needle.length();
+        }
+
+        int numStates = keys.size();
+        transitionKeys = new char[numStates][];
+        transitionTargets = new int[numStates][];
+        failureLinks = new int[numStates];
+        isMatch = new boolean[numStates];
+        matchedNeedles = new int[numStates][];
+
+        for (int state = 0; state < numStates; state++) {
+            sortTransitions(state, keys.get(state), targets.get(state));
+            matchedNeedles[state] = terminals.get(state).stream().mapToInt(Integer::intValue).toArray();
+            isMatch[state] = (matchedNeedles[state].length > 0);
+        }
+
+        // compute failure links breadth-first so links always point to states
+        // which have already been completed
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int target : transitionTargets[ROOT]) {
+            failureLinks[target] = ROOT;
+            queue.add(target);
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            char[] stateKeys = transitionKeys[state];
+            int[] stateTargets = transitionTargets[state];
+            for (int i = 0; i < stateKeys.length; i++) {
+                int target = stateTargets[i];
+                int failure = follow(failureLinks[state], stateKeys[i]);
+                failureLinks[target] = failure;
+                isMatch[target] |= isMatch[failure];
+                matchedNeedles[target] = concat(matchedNeedles[target], matchedNeedles[failure]);
+                queue.add(target);
+            }
+        }
+    }
+
+    private static int[] concat(int[] a, int[] b) {
+        if (b.length == 0) {
+            return a;
+        }
+
+        int[] out = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, out, a.length, b.length);
+        return out;
+    }
+
+    private void sortTransitions(int state, StringBuilder keys, List<Integer> targets) {
+        int numTransitions = keys.length();
+        Integer[] order = new Integer[numTransitions];
+        for (int i = 0; i < numTransitions; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Character.compare(keys.charAt(a), keys.charAt(b)));
+
+        char[] sortedKeys = new char[numTransitions];
+        int[] sortedTargets = new int[numTransitions];
+        for (int i = 0; i < numTransitions; i++) {
+            sortedKeys[i] = keys.charAt(order[i]);
+            sortedTargets[i] = targets.get(order[i]);
+        }
+
+        transitionKeys[state] = sortedKeys;
+        transitionTargets[state] = sortedTargets;
+    }
+
+    /**
+     * Checks if any of the search strings occurs in the given text.
+     *
+     * @param haystack text to search
+     * @return true if at least one search string occurs in text, false if not
+     */
+    public boolean containsAny(CharSequence haystack) {
+        int state = ROOT;
+        for (int i = 0; i < haystack.length(); i++) {
+            state = follow(state, toLowerCaseAscii(haystack.charAt(i)));
+            if (isMatch[state]) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Reports all occurrences of all search strings in the given text, including
+     * overlapping ones, in a single pass. Occurrences are reported in order of
+     * their end position, not their start position.
+     *
+     * @param haystack text to search
+     * @param handler  receives all occurrences
+     */
+    public void findAll(CharSequence haystack, MatchHandler handler) {
+        int state = ROOT;
+        for (int i = 0; i < haystack.length(); i++) {
+            state = follow(state, toLowerCaseAscii(haystack.charAt(i)));
+            if (isMatch[state]) {
+                for (int needleIndex : matchedNeedles[state]) {
+                    handler.onMatch(needleIndex, i - needleLengths[needleIndex] + 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the state reached from the given state by consuming a character,
+     * following failure links as long as no transition is available.
+     *
+     * @param state state to start from
+     * @param ch    character to consume, already case-folded
+     * @return state reached after consuming the character
+     */
+    private int follow(int state, char ch) {
+        while (true) {
+            int index = Arrays.binarySearch(transitionKeys[state], ch);
+            if (index >= 0) {
+                return transitionTargets[state][index];
+            }
+
+            if (state == ROOT) {
+                return ROOT;
+            }
+
+            state = failureLinks[state];
+        }
+    }
+
+    private static char toLowerCaseAscii(char ch) {
+        if ((ch >= 'A') && (ch <= 'Z')) {
+            return (char) (ch + ('a' - 'A'));
+        }
+
+        return ch;
+    }
+}
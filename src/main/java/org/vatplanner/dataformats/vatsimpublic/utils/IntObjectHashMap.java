@@ -0,0 +1,224 @@
+package org.vatplanner.dataformats.vatsimpublic.utils;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Hash map using primitive <code>int</code> keys. Keys are held in an
+ * open-addressed table (linear probing), so unlike a
+ * <code>HashMap&lt;Integer, V&gt;</code> neither keys need to be boxed nor are
+ * any node objects allocated per entry.
+ *
+ * <p>
+ * Null values are not supported. Entries cannot be removed. Instances are not
+ * thread-safe.
+ * </p>
+ *
+ * @param <V> value type
+ */
+public class IntObjectHashMap<V> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] keys;
+    private Object[] values;
+    private int size = 0;
+
+    private final Collection<V> valuesView = new AbstractCollection<V>() {
+        @Override
+        public Iterator<V> iterator() {
+            return new ValueIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    };
+
+    /**
+     * Creates a new empty map.
+     */
+    public IntObjectHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new empty map able to hold the given number of entries without
+     * having to grow.
+     *
+     * @param expectedSize number of entries expected to be held
+     */
+    public IntObjectHashMap(int expectedSize) {
+        allocate(tableLengthFor(Math.max(expectedSize, 1)));
+    }
+
+    /**
+     * Returns the value stored for given key.
+     *
+     * @param key key to look up
+     * @return value stored for key; null if not found
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+
+        Object value;
+        while ((value = values[slot]) != null) {
+            if (keys[slot] == key) {
+                return (V) value;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        return null;
+    }
+
+    /**
+     * Checks if a value is stored for given key.
+     *
+     * @param key key to look up
+     * @return true if a value is stored for given key, false if not
+     */
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Stores the given value for given key, replacing any value previously stored
+     * for that key.
+     *
+     * @param key   key to store value for
+     * @param value value to store; must not be null
+     * @return previously stored value; null if there was none
+     * @throws IllegalArgumentException if value is null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("null values are not supported");
+        }
+
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+
+        Object existing;
+        while ((existing = values[slot]) != null) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return (V) existing;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+
+        // keep load factor at or below 0.5
+        if (size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the number of entries held by this map.
+     *
+     * @return number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the map is empty.
+     *
+     * @return true if no entries are held, false if the map holds entries
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns an unmodifiable live view of all values held by this map. Values
+     * are iterated in no particular order.
+     *
+     * @return unmodifiable live view of all values
+     */
+    public Collection<V> values() {
+        return valuesView;
+    }
+
+    private void rehash(int newLength) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+
+        allocate(newLength);
+
+        int mask = newLength - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            Object value = oldValues[i];
+            if (value == null) {
+                continue;
+            }
+
+            int slot = hash(oldKeys[i]) & mask;
+            while (values[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+
+            keys[slot] = oldKeys[i];
+            values[slot] = value;
+        }
+    }
+
+    private void allocate(int length) {
+        keys = new int[length];
+        values = new Object[length];
+    }
+
+    private static int tableLengthFor(int expectedSize) {
+        int length = Integer.highestOneBit(expectedSize * 2 - 1) << 1;
+        return Math.max(length, 2);
+    }
+
+    private static int hash(int key) {
+        // VATSIM IDs are mostly sequential; mix bits to avoid long probe sequences
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private class ValueIterator implements Iterator<V> {
+        private final Object[] iteratedValues = values;
+        private int nextSlot = findNext(0);
+
+        @Override
+        public boolean hasNext() {
+            return nextSlot < iteratedValues.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            V value = (V) iteratedValues[nextSlot];
+            nextSlot = findNext(nextSlot + 1);
+            return value;
+        }
+
+        private int findNext(int slot) {
+            while ((slot < iteratedValues.length) && (iteratedValues[slot] == null)) {
+                slot++;
+            }
+            return slot;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package org.vatplanner.dataformats.vatsimpublic.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A bounded, thread-safe cache remembering results of expensive computations
+ * by their input. Once the maximum size is exceeded, the least recently used
+ * entry is evicted.
+ *
+ * <p>
+ * Values are computed outside of the cache lock, so concurrent requests for
+ * the same missing key may compute the value more than once. Only one result
+ * will be retained in that case. Computed values must therefore be immutable
+ * (or at least never be modified by callers) as they are shared between all
+ * callers asking for the same key.
+ * </p>
+ *
+ * <p>
+ * Hits and misses are counted to allow monitoring of cache efficiency, see
+ * {@link #getHitRate()}.
+ * </p>
+ *
+ * @param <K> key type (usually raw input)
+ * @param <V> value type (computation result)
+ */
+public class MemoizingCache<K, V> {
+
+    private final int maximumSize;
+    private final Map<K, V> entries;
+
+    private long hits = 0;
+    private long misses = 0;
+
+    /**
+     * Creates a new cache holding at most the given number of entries.
+     *
+     * @param maximumSize maximum number of entries to retain; must be positive
+     * @throws IllegalArgumentException if maximum size is not positive
+     */
+    public MemoizingCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximum size must be positive, got " + maximumSize);
+        }
+
+        this.maximumSize = maximumSize;
+        this.entries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > MemoizingCache.this.maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the value cached for given key. If no value has been cached yet, it
+     * will be computed using the given function and remembered for later calls.
+     * Null keys and null results are never cached; they are always passed through
+     * to the function.
+     *
+     * @param key      key to look up, usually the raw input to the function
+     * @param function computes the value if it has not been cached yet
+     * @return cached or computed value
+     */
+    public V get(K key, Function<? super K, ? extends V> function) {
+        if (key == null) {
+            return function.apply(key);
+        }
+
+        synchronized (entries) {
+            V value = entries.get(key);
+            if (value != null) {
+                hits++;
+                return value;
+            }
+
+            misses++;
+        }
+
+        V value = function.apply(key);
+        if (value == null) {
+            return null;
+        }
+
+        synchronized (entries) {
+            V previous = entries.putIfAbsent(key, value);
+            if (previous != null) {
+                // another thread was faster; stick with the first result
+                return previous;
+            }
+        }
+
+        return value;
+    }
+
+    /**
+     * Returns the maximum number of entries retained by this cache.
+     *
+     * @return maximum number of entries
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Returns the number of entries currently held by this cache.
+     *
+     * @return number of currently cached entries
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Returns the number of lookups which could be answered from cache.
+     *
+     * @return number of cache hits
+     */
+    public long getHits() {
+        synchronized (entries) {
+            return hits;
+        }
+    }
+
+    /**
+     * Returns the number of lookups which required the value to be computed.
+     *
+     * @return number of cache misses
+     */
+    public long getMisses() {
+        synchronized (entries) {
+            return misses;
+        }
+    }
+
+    /**
+     * Returns the ratio of hits to all lookups performed so far.
+     *
+     * @return ratio of cache hits (0.0..1.0); 0.0 if no lookups have been performed yet
+     */
+    public double getHitRate() {
+        synchronized (entries) {
+            long total = hits + misses;
+            if (total == 0) {
+                return 0.0;
+            }
+
+            return (double) hits / total;
+        }
+    }
+
+    /**
+     * Removes all entries and resets statistics.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            hits = 0;
+            misses = 0;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package org.vatplanner.dataformats.vatsimpublic.entities.status;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class CompactReportTest {
+
+    private final Member member = new Member(1234567);
+
+    @Test
+    void testGetFlights_empty_returnsEmpty() {
+        // Arrange
+        CompactReport report = new CompactReport(Instant.now());
+
+        // Act
+        Collection<Flight> result = report.getFlights();
+
+        // Assert
+        assertThat(result).isEmpty();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 0, 5, 1000})
+    void testGetFlights_manyFlights_returnsAllInOrderOfAddition(int numberOfConnectedClients) {
+        // Arrange
+        CompactReport report = new CompactReport(Instant.now());
+        report.setNumberOfConnectedClients(numberOfConnectedClients);
+
+        List<Flight> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Flight flight = new Flight(member, "ABC" + i);
+            expected.add(flight);
+            report.addFlight(flight);
+        }
+
+        // Act
+        Collection<Flight> result = report.getFlights();
+
+        // Assert
+        assertThat(result).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void testAddFlight_sameInstanceTwice_isRecordedOnlyOnce() {
+        // Arrange
+        CompactReport report = new CompactReport(Instant.now());
+        Flight flight = new Flight(member, "DLH123");
+
+        // Act
+        report.addFlight(flight);
+        report.addFlight(flight);
+
+        // Assert
+        assertThat(report.getFlights()).containsExactly(flight);
+    }
+
+    @Test
+    void testRemoveFlight_added_keepsOrderOfRemainingFlights() {
+        // Arrange
+        CompactReport report = new CompactReport(Instant.now());
+        Flight flight1 = new Flight(member, "DLH123");
+        Flight flight2 = new Flight(new Member(1000000), "DLH123");
+        Flight other = new Flight(member, "BAW1");
+        report.addFlight(flight1);
+        report.addFlight(other);
+        report.addFlight(flight2);
+
+        // Act
+        report.removeFlight(flight1);
+
+        // Assert
+        assertThat(report.getFlights()).containsExactly(other, flight2);
+        assertThat(report.getFlightsByCallsign("DLH123")).containsExactly(flight2);
+    }
+
+    @Test
+    void testRemoveFlight_notAdded_isIgnored() {
+        // Arrange
+        CompactReport report = new CompactReport(Instant.now());
+        Flight flight = new Flight(member, "DLH123");
+        report.addFlight(flight);
+
+        // Act
+        report.removeFlight(new Flight(member, "DLH123"));
+
+        // Assert
+        assertThat(report.getFlights()).containsExactly(flight);
+    }
+
+    @Test
+    void testGetFlightsByCallsign_multipleFlightsForCallsign_returnsAllMatching() {
+        // Arrange
+        CompactReport report = new CompactReport(Instant.now());
+        Flight flight1 = new Flight(member, "DLH123");
+        Flight flight2 = new Flight(new Member(1000000), "DLH123");
+        Flight other = new Flight(member, "BAW1");
+        report.addFlight(flight1);
+        report.addFlight(other);
+        report.addFlight(flight2);
+
+        // Act
+        Collection<Flight> result = report.getFlightsByCallsign("DLH123");
+
+        // Assert
+        assertThat(result).containsExactlyInAnyOrder(flight1, flight2);
+    }
+
+    @Test
+    void testGetFlightsByCallsign_unknownCallsign_returnsEmpty() {
+        // Arrange
+        CompactReport report = new CompactReport(Instant.now());
+        report.addFlight(new Flight(member, "DLH123"));
+
+        // Act
+        Collection<Flight> result = report.getFlightsByCallsign("DLH124");
+
+        // Assert
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void testGetFlightsByCallsign_afterGrowing_findsAllFlights() {
+        // Arrange
+        CompactReport report = new CompactReport(Instant.now());
+        for (int i = 0; i < 1000; i++) {
+            report.addFlight(new Flight(member, "ABC" + i));
+        }
+
+        // Act
+        Collection<Flight> result = report.getFlightsByCallsign("ABC789");
+
+        // Assert
+        assertThat(result).extracting(Flight::getCallsign).containsExactly("ABC789");
+    }
+
+    @Test
+    void testGetFacilityByName_added_returnsFacilityNormalizingName() {
+        // Arrange
+        CompactReport report = new CompactReport(Instant.now());
+        Facility facility = new Facility("EDDF_TWR");
+        report.addFacility(new Facility("EDDF_GND"));
+        report.addFacility(facility);
+
+        // Act
+        Facility result = report.getFacilityByName(" eddf_twr ");
+
+        // Assert
+        assertThat(result).isSameAs(facility);
+    }
+
+    @Test
+    void testGetFacilityByName_unknown_returnsNull() {
+        // Arrange
+        CompactReport report = new CompactReport(Instant.now());
+        report.addFacility(new Facility("EDDF_TWR"));
+
+        // Act
+        Facility result = report.getFacilityByName("EDDF_APP");
+
+        // Assert
+        assertThat(result).isNull();
+    }
+
+    @Test
+    void testAddFacility_nullNameTwice_replacesPreviousFacility() {
+        // Arrange
+        CompactReport report = new CompactReport(Instant.now());
+        Facility facility1 = mock(Facility.class);
+        Facility facility2 = mock(Facility.class);
+        report.addFacility(facility1);
+
+        // Act
+        report.addFacility(facility2);
+
+        // Assert
+        assertThat(report.getFacilities()).containsExactly(facility2);
+    }
+
+    @Test
+    void testAddFacility_sameName_replacesPreviousFacility() {
+        // Arrange
+        CompactReport report = new CompactReport(Instant.now());
+        Facility facility1 = new Facility("EDDF_TWR");
+        Facility facility2 = new Facility("EDDF_TWR");
+        report.addFacility(facility1);
+
+        // Act
+        report.addFacility(facility2);
+
+        // Assert
+        assertThat(report.getFacilities()).containsExactly(facility2);
+    }
+
+    @Test
+    void testTrimToSize_afterAdding_retainsAllEntities() {
+        // Arrange
+        CompactReport report = new CompactReport(Instant.now());
+        report.setNumberOfConnectedClients(500);
+        Flight flight = new Flight(member, "DLH123");
+        Facility facility = new Facility("EDDF_TWR");
+        report.addFlight(flight);
+        report.addFacility(facility);
+
+        // Act
+        report.trimToSize();
+
+        // Assert
+        assertThat(report.getFlights()).containsExactly(flight);
+        assertThat(report.getFlightsByCallsign("DLH123")).containsExactly(flight);
+        assertThat(report.getFacilities()).containsExactly(facility);
+        assertThat(report.getFacilityByName("EDDF_TWR")).isSameAs(facility);
+    }
+
+    @Test
+    void testGetFlights_modification_throwsUnsupportedOperationException() {
+        // Arrange
+        CompactReport report = new CompactReport(Instant.now());
+        Collection<Flight> flights = report.getFlights();
+
+        // Act
+        ThrowingCallable action = () -> flights.add(new Flight(member, "DLH123"));
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void testGetNumberOfConnectedClients_set_returnsValue() {
+        // Arrange
+        CompactReport report = new CompactReport(Instant.now());
+
+        // Act
+        report.setNumberOfConnectedClients(42);
+
+        // Assert
+        assertThat(report.getNumberOfConnectedClients()).isEqualTo(42);
+    }
+}
@@ -112,4 +112,16 @@ public class ControllerRatingTest {
         // Assert
         assertThat(result).isNull();
     }
+
+    @ParameterizedTest
+    @MethodSource("dataProviderShortNameAndEnum")
+    void testGetShortName_enum_returnsExpectedShortName(String expectedShortName, ControllerRating rating) {
+        // Arrange (nothing to do)
+
+        // Act
+        String result = rating.getShortName();
+
+        // Assert
+        assertThat(result).isEqualTo(expectedShortName);
+    }
 }
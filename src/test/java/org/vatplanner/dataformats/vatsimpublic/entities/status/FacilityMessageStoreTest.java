@@ -0,0 +1,118 @@
+package org.vatplanner.dataformats.vatsimpublic.entities.status;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class FacilityMessageStoreTest {
+
+    private static final String LONG_ATIS = "FRANKFURT INFORMATION A MET REPORT TIME 1520 EXPECT ILS APPROACH "
+        + "RUNWAY 25L RUNWAY IN USE FOR LANDING 25L AND 25R RUNWAY IN USE FOR TAKEOFF 18 "
+        + "TRL 70 WIND 240 DEGREES 12 KNOTS VISIBILITY 10 KILOMETERS OR MORE CLOUDS FEW 3000 FEET "
+        + "TEMPERATURE 14 DEWPOINT 8 QNH 1013 NOSIG FRANKFURT INFORMATION A OUT";
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void testIntern_sameText_returnsSameInstance(boolean compress) {
+        // Arrange
+        FacilityMessageStore store = new FacilityMessageStore(compress);
+        FacilityMessageContent first = store.intern(new String(LONG_ATIS));
+
+        // Act
+        FacilityMessageContent result = store.intern(new String(LONG_ATIS));
+
+        // Assert
+        assertThat(result).isSameAs(first);
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void testIntern_differentText_returnsDifferentContent(boolean compress) {
+        // Arrange
+        FacilityMessageStore store = new FacilityMessageStore(compress);
+        FacilityMessageContent first = store.intern(LONG_ATIS);
+
+        // Act
+        FacilityMessageContent result = store.intern(LONG_ATIS.replace("INFORMATION A", "INFORMATION B"));
+
+        // Assert
+        assertThat(result).isNotEqualTo(first);
+        assertThat(store.size()).isEqualTo(2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "short", "EDDF_TWR\nmulti-line\nmessage with umlauts äöü", LONG_ATIS})
+    void testGetText_compressing_returnsOriginalText(String text) {
+        // Arrange
+        FacilityMessageStore store = new FacilityMessageStore(true);
+
+        // Act
+        String result = store.intern(text).getText();
+
+        // Assert
+        assertThat(result).isEqualTo(text);
+    }
+
+    @Test
+    void testIntern_compressingLongText_holdsTextCompressed() {
+        // Arrange
+        FacilityMessageStore store = new FacilityMessageStore(true);
+
+        // Act
+        FacilityMessageContent result = store.intern(LONG_ATIS);
+
+        // Assert
+        assertThat(result.isCompressed()).isTrue();
+    }
+
+    @Test
+    void testIntern_compressingShortText_holdsTextUncompressed() {
+        // Arrange
+        FacilityMessageStore store = new FacilityMessageStore(true);
+
+        // Act
+        FacilityMessageContent result = store.intern("EDDF_TWR");
+
+        // Assert
+        assertThat(result.isCompressed()).isFalse();
+    }
+
+    @Test
+    void testIntern_notCompressing_holdsTextUncompressed() {
+        // Arrange
+        FacilityMessageStore store = new FacilityMessageStore();
+
+        // Act
+        FacilityMessageContent result = store.intern(LONG_ATIS);
+
+        // Assert
+        assertThat(result.isCompressed()).isFalse();
+    }
+
+    @Test
+    void testSeenMessage_togglingContent_sharesContentAcrossMessages() {
+        // Arrange
+        FacilityMessageStore store = new FacilityMessageStore();
+        StatusEntityFactory factory = new DefaultStatusEntityFactory();
+        Facility facility = new Facility("EDDF_ATIS");
+        String variantA = LONG_ATIS;
+        String variantB = LONG_ATIS.replace("INFORMATION A", "INFORMATION B");
+
+        // Act
+        facility.seenMessage(new Report(Instant.ofEpochSecond(0)), store.intern(variantA), factory);
+        facility.seenMessage(new Report(Instant.ofEpochSecond(15)), store.intern(variantA), factory);
+        facility.seenMessage(new Report(Instant.ofEpochSecond(30)), store.intern(variantB), factory);
+        facility.seenMessage(new Report(Instant.ofEpochSecond(45)), store.intern(variantA), factory);
+
+        // Assert
+        assertThat(facility.getMessages()).extracting(FacilityMessage::getMessage)
+                                          .containsExactly(variantA, variantB, variantA);
+        assertThat(facility.getMessages().first().getContent()).isSameAs(facility.getMessages().last().getContent());
+        assertThat(store.size()).isEqualTo(2);
+    }
+}
@@ -91,4 +91,16 @@ public class FacilityTypeTest {
         // Assert
         assertThat(result).isNull();
     }
+
+    @ParameterizedTest
+    @MethodSource("dataProviderShortNameAndEnum")
+    void testGetShortName_enum_returnsExpectedShortName(String expectedShortName, FacilityType facilityType) {
+        // Arrange (nothing to do)
+
+        // Act
+        String result = facilityType.getShortName();
+
+        // Assert
+        assertThat(result).isEqualTo(expectedShortName);
+    }
 }
@@ -49,4 +49,16 @@ class PilotRatingTest {
         // Assert
         assertThat(result).isNull();
     }
+
+    @ParameterizedTest
+    @MethodSource("dataProviderIdAndShortName")
+    void testGetShortName_enum_returnsExpectedShortName(String expectedShortName, PilotRating rating) {
+        // Arrange (nothing to do)
+
+        // Act
+        String result = rating.getShortName();
+
+        // Assert
+        assertThat(result).isEqualTo(expectedShortName);
+    }
 }
@@ -0,0 +1,318 @@
+package org.vatplanner.dataformats.vatsimpublic.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.BarometricPressure;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.Flight;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.FlightPlan;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.GeoCoordinates;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.Member;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.Report;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.TrackPoint;
+import org.vatplanner.dataformats.vatsimpublic.graph.GraphIndex;
+
+class ColumnarGraphWriterTest {
+
+    private static final Instant BASE_TIME = Instant.parse("2023-11-19T12:00:00Z");
+
+    /**
+     * Minimal reader for the exported format, collecting all values by table and
+     * column name.
+     */
+    private static class Decoded {
+        private final List<String> dictionary = new ArrayList<>();
+        private final Map<String, Map<String, List<Object>>> tables = new HashMap<>();
+        private final Map<String, List<Object[]>> statistics = new HashMap<>();
+        private final Map<String, List<Integer>> rowGroupSizes = new HashMap<>();
+        private final Map<String, Long> totalRows = new HashMap<>();
+
+        private static Decoded decode(byte[] bytes) throws IOException {
+            Decoded decoded = new Decoded();
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+
+            byte[] magic = new byte[4];
+            in.readFully(magic);
+            assertThat(new String(magic, "US-ASCII")).isEqualTo("VPCG");
+            assertThat(in.readByte()).isEqualTo((byte) 1);
+
+            Map<Byte, String> tableNames = new HashMap<>();
+            Map<Byte, Map<String, Byte>> columnTypes = new HashMap<>();
+            int numTables = in.readUnsignedByte();
+            for (int i = 0; i < numTables; i++) {
+                byte tableId = in.readByte();
+                String tableName = in.readUTF();
+                tableNames.put(tableId, tableName);
+
+                Map<String, Byte> columns = new LinkedHashMap<>();
+                int numColumns = in.readUnsignedByte();
+                for (int j = 0; j < numColumns; j++) {
+                    columns.put(in.readUTF(), in.readByte());
+                }
+                columnTypes.put(tableId, columns);
+
+                Map<String, List<Object>> values = new LinkedHashMap<>();
+                for (String columnName : columns.keySet()) {
+                    values.put(columnName, new ArrayList<>());
+                }
+                decoded.tables.put(tableName, values);
+            }
+
+            while (true) {
+                byte blockType = in.readByte();
+                if (blockType == 0) {
+                    break;
+                } else if (blockType == 1) {
+                    int numEntries = in.readInt();
+                    for (int i = 0; i < numEntries; i++) {
+                        decoded.dictionary.add(in.readUTF());
+                    }
+                    continue;
+                }
+
+                assertThat(blockType).isEqualTo((byte) 2);
+                byte tableId = in.readByte();
+                String tableName = tableNames.get(tableId);
+                int numRows = in.readInt();
+                decoded.rowGroupSizes.computeIfAbsent(tableName, x -> new ArrayList<>()).add(numRows);
+
+                for (Map.Entry<String, Byte> column : columnTypes.get(tableId).entrySet()) {
+                    List<Object> values = decoded.tables.get(tableName).get(column.getKey());
+                    byte type = column.getValue();
+                    String statisticsKey = tableName + "." + column.getKey();
+
+                    if (type == 1) {
+                        decoded.statistics.computeIfAbsent(statisticsKey, x -> new ArrayList<>())
+                                          .add(new Object[]{in.readInt(), in.readInt()});
+                    } else if (type == 2) {
+                        decoded.statistics.computeIfAbsent(statisticsKey, x -> new ArrayList<>())
+                                          .add(new Object[]{in.readLong(), in.readLong()});
+                    } else if (type == 3) {
+                        decoded.statistics.computeIfAbsent(statisticsKey, x -> new ArrayList<>())
+                                          .add(new Object[]{in.readDouble(), in.readDouble()});
+                    }
+
+                    int numBytes = in.readInt();
+                    int valueSize = (type == 1 || type == 4) ? 4 : 8;
+                    assertThat(numBytes).isEqualTo(numRows * valueSize);
+
+                    for (int i = 0; i < numRows; i++) {
+                        if (type == 1) {
+                            values.add(in.readInt());
+                        } else if (type == 2) {
+                            values.add(in.readLong());
+                        } else if (type == 3) {
+                            values.add(in.readDouble());
+                        } else {
+                            // dictionary must have been written before use
+                            int index = in.readInt();
+                            values.add((index < 0) ? null : decoded.dictionary.get(index));
+                        }
+                    }
+                }
+            }
+
+            for (int i = 0; i < numTables; i++) {
+                decoded.totalRows.put(tableNames.get(in.readByte()), in.readLong());
+            }
+            assertThat(in.read()).isEqualTo(-1);
+
+            return decoded;
+        }
+
+        private List<Object> column(String tableName, String columnName) {
+            return tables.get(tableName).get(columnName);
+        }
+    }
+
+    private static GraphIndex createGraph() {
+        GraphIndex index = new GraphIndex();
+
+        Member member = new Member(1234567);
+        index.add(member);
+
+        Flight flight = new Flight(member, "ABC123");
+        member.addFlight(flight);
+
+        Report firstReport = new Report(BASE_TIME);
+        flight.addFlightPlan(
+            new FlightPlan(flight, 1)
+                .setAircraftType("A320")
+                .setDepartureAirportCode("EDDT")
+                .setDestinationAirportCode("EGLL")
+                .setTrueAirSpeed(450)
+                .setAltitudeFeet(36000)
+                .seenInReport(firstReport)
+        );
+
+        flight.addTrackPoint(
+            new TrackPoint(firstReport)
+                .setGeoCoordinates(new GeoCoordinates(52.5, 13.3, 100, GeoCoordinates.UNIT_FEET))
+                .setGroundSpeed(0)
+                .setHeading(270)
+                .setTransponderCode(2000)
+                .setQnh(BarometricPressure.fromHectopascals(1013))
+        );
+        flight.addTrackPoint(
+            new TrackPoint(new Report(BASE_TIME.plusSeconds(15)))
+                .setGeoCoordinates(new GeoCoordinates(52.6, 13.1, 2500, GeoCoordinates.UNIT_FEET))
+                .setGroundSpeed(180)
+        );
+
+        Member otherMember = new Member(1000000);
+        index.add(otherMember);
+        Flight otherFlight = new Flight(otherMember, "EGLL");
+        otherMember.addFlight(otherFlight);
+
+        return index;
+    }
+
+    private static byte[] serialize(ColumnarGraphWriter writer, GraphIndex index) {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        writer.serialize(index, bos);
+        return bos.toByteArray();
+    }
+
+    @Test
+    void testSetRowGroupSize_zero_throwsIllegalArgumentException() {
+        // Arrange
+        ColumnarGraphWriter writer = new ColumnarGraphWriter();
+
+        // Act
+        ThrowingCallable action = () -> writer.setRowGroupSize(0);
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testSerialize_emptyGraph_writesOnlySchemaAndEnd() throws IOException {
+        // Arrange (nothing to do)
+
+        // Act
+        Decoded result = Decoded.decode(serialize(new ColumnarGraphWriter(), new GraphIndex()));
+
+        // Assert
+        assertThat(result.tables).containsOnlyKeys("flights", "flight_plans", "track_points");
+        assertThat(result.totalRows).containsOnly(
+            entry("flights", 0L),
+            entry("flight_plans", 0L),
+            entry("track_points", 0L)
+        );
+        assertThat(result.rowGroupSizes).isEmpty();
+    }
+
+    @Test
+    void testSerialize_graph_exportsFlights() throws IOException {
+        // Arrange
+        GraphIndex index = createGraph();
+
+        // Act
+        Decoded result = Decoded.decode(serialize(new ColumnarGraphWriter(), index));
+
+        // Assert
+        assertThat(result.column("flights", "vatsim_id")).containsExactlyInAnyOrder(1234567, 1000000);
+        assertThat(result.column("flights", "callsign")).containsExactlyInAnyOrder("ABC123", "EGLL");
+        assertThat(result.column("flights", "flight_id")).containsExactlyInAnyOrder(0, 1);
+    }
+
+    @Test
+    void testSerialize_graph_exportsFlightPlans() throws IOException {
+        // Arrange
+        GraphIndex index = createGraph();
+
+        // Act
+        Decoded result = Decoded.decode(serialize(new ColumnarGraphWriter(), index));
+
+        // Assert
+        int flightId = (Integer) result.column("flights", "flight_id")
+                                       .get(result.column("flights", "callsign").indexOf("ABC123"));
+        assertThat(result.column("flight_plans", "flight_id")).containsExactly(flightId);
+        assertThat(result.column("flight_plans", "revision")).containsExactly(1);
+        assertThat(result.column("flight_plans", "first_seen")).containsExactly(BASE_TIME.toEpochMilli());
+        assertThat(result.column("flight_plans", "aircraft_type")).containsExactly("A320");
+        assertThat(result.column("flight_plans", "departure")).containsExactly("EDDT");
+        assertThat(result.column("flight_plans", "destination")).containsExactly("EGLL");
+        assertThat(result.column("flight_plans", "alternate")).containsExactly((Object) null);
+        assertThat(result.column("flight_plans", "true_air_speed")).containsExactly(450);
+        assertThat(result.column("flight_plans", "altitude")).containsExactly(36000);
+    }
+
+    @Test
+    void testSerialize_graph_exportsTrackPointsWithNulls() throws IOException {
+        // Arrange
+        GraphIndex index = createGraph();
+
+        // Act
+        Decoded result = Decoded.decode(serialize(new ColumnarGraphWriter(), index));
+
+        // Assert
+        assertThat(result.column("track_points", "time")).containsExactly(
+            BASE_TIME.toEpochMilli(),
+            BASE_TIME.plusSeconds(15).toEpochMilli()
+        );
+        assertThat(result.column("track_points", "latitude")).containsExactly(52.5, 52.6);
+        assertThat(result.column("track_points", "longitude")).containsExactly(13.3, 13.1);
+        assertThat(result.column("track_points", "altitude")).containsExactly(100, 2500);
+        assertThat(result.column("track_points", "ground_speed")).containsExactly(0, 180);
+        assertThat(result.column("track_points", "heading")).containsExactly(270, Integer.MIN_VALUE);
+        assertThat(result.column("track_points", "transponder")).containsExactly(2000, Integer.MIN_VALUE);
+        assertThat(result.column("track_points", "qnh")).containsExactly(1013.0, Double.NaN);
+    }
+
+    @Test
+    void testSerialize_graph_writesStatisticsIgnoringNulls() throws IOException {
+        // Arrange
+        GraphIndex index = createGraph();
+
+        // Act
+        Decoded result = Decoded.decode(serialize(new ColumnarGraphWriter(), index));
+
+        // Assert
+        assertThat(result.statistics.get("track_points.heading")).containsExactly(new Object[]{270, 270});
+        assertThat(result.statistics.get("track_points.latitude")).containsExactly(new Object[]{52.5, 52.6});
+        assertThat(result.statistics.get("track_points.qnh")).containsExactly(new Object[]{1013.0, 1013.0});
+        assertThat(result.statistics).doesNotContainKey("flights.callsign");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 1000})
+    void testSerialize_rowGroupSize_splitsRowsIntoRowGroups(int rowGroupSize) throws IOException {
+        // Arrange
+        GraphIndex index = new GraphIndex();
+        for (int i = 0; i < 7; i++) {
+            Member member = new Member(1000000 + i);
+            member.addFlight(new Flight(member, "CS" + i));
+            index.add(member);
+        }
+        ColumnarGraphWriter writer = new ColumnarGraphWriter().setRowGroupSize(rowGroupSize);
+
+        // Act
+        Decoded result = Decoded.decode(serialize(writer, index));
+
+        // Assert
+        List<Integer> rowGroupSizes = result.rowGroupSizes.get("flights");
+        assertThat(rowGroupSizes).allSatisfy(size -> assertThat(size).isLessThanOrEqualTo(rowGroupSize));
+        assertThat(rowGroupSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(7);
+        assertThat(result.totalRows.get("flights")).isEqualTo(7L);
+        assertThat(result.column("flights", "callsign")).containsExactlyInAnyOrder(
+            "CS0", "CS1", "CS2", "CS3", "CS4", "CS5", "CS6"
+        );
+    }
+}
@@ -0,0 +1,306 @@
+package org.vatplanner.dataformats.vatsimpublic.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.ControllerRating;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.FacilityType;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.MilitaryRating;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.PilotRating;
+import org.vatplanner.dataformats.vatsimpublic.parser.Client;
+import org.vatplanner.dataformats.vatsimpublic.parser.ClientType;
+import org.vatplanner.dataformats.vatsimpublic.parser.DataFile;
+import org.vatplanner.dataformats.vatsimpublic.parser.DataFileMetaData;
+import org.vatplanner.dataformats.vatsimpublic.parser.FSDServer;
+import org.vatplanner.dataformats.vatsimpublic.parser.json.v3.DataFileProcessor;
+
+class JsonDataFileWriterTest {
+
+    private static DataFile createDataFile(Client... clients) {
+        DataFile dataFile = new DataFile();
+        dataFile.setMetaData(
+            new DataFileMetaData()
+                .setTimestamp(Instant.parse("2023-11-19T21:58:50Z"))
+                .setMinimumDataFileRetrievalInterval(Duration.ofMinutes(1))
+                .setNumberOfConnectedClients(clients.length)
+                .setNumberOfUniqueConnectedUsers(clients.length)
+                .setVersionFormat(3)
+        );
+        dataFile.setClients(Arrays.asList(clients));
+        dataFile.setFsdServers(Collections.emptyList());
+        return dataFile;
+    }
+
+    private static Client createClient(ClientType clientType, String callsign) {
+        Client client = new Client();
+        client.setRawClientType(clientType);
+        client.setEffectiveClientType(clientType);
+        client.setCallsign(callsign);
+        client.setVatsimID(1234567);
+        client.setRealName("Jane \"JD\" Doe\\EDDT");
+        client.setLastUpdated(Instant.parse("2023-11-19T21:58:40.123456Z"));
+        return client;
+    }
+
+    private static void setFlightPlan(Client client) {
+        client.setRawFlightPlanType("I");
+        client.setAircraftType("A320/M-SDE2E3FGHIJ1RWY/LB1");
+        client.setAircraftTypeFaa("H/A320/L");
+        client.setAircraftTypeShort("A320");
+        client.setFiledDepartureAirportCode("EDDT");
+        client.setFiledDestinationAirportCode("EGLL");
+        client.setFiledAlternateAirportCode("EGKK");
+        client.setFiledTrueAirSpeed(450);
+        client.setRawFiledAltitude("FL360");
+        client.setRawDepartureTimePlanned(2215);
+        client.setFiledTimeEnroute(Duration.ofMinutes(105));
+        client.setFiledTimeFuel(Duration.ofMinutes(200));
+        client.setFlightPlanRemarks("PBN/A1 /V/ ä😀");
+        client.setFiledRoute("DCT\tXYZ");
+        client.setFlightPlanRevision(2);
+        client.setAssignedTransponderCodeDecimal(1000);
+    }
+
+    private static String serialize(DataFile dataFile) {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        new JsonDataFileWriter().serialize(dataFile, bos);
+        return new String(bos.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static DataFile roundTrip(DataFile dataFile) {
+        return new DataFileProcessor().deserialize(serialize(dataFile));
+    }
+
+    @Test
+    void testSerialize_empty_parsesWithoutLogEntries() {
+        // Arrange
+        DataFile dataFile = createDataFile();
+
+        // Act
+        DataFile result = roundTrip(dataFile);
+
+        // Assert
+        assertThat(result.getParserLogEntries()).isEmpty();
+    }
+
+    @Test
+    void testSerialize_metaData_roundTrips() {
+        // Arrange
+        DataFile dataFile = createDataFile(createClient(ClientType.PILOT_PREFILED, "ABC123"));
+        setFlightPlan(dataFile.getClients().iterator().next());
+
+        // Act
+        DataFile result = roundTrip(dataFile);
+
+        // Assert
+        assertThat(result.getMetaData()).isEqualTo(dataFile.getMetaData());
+    }
+
+    @Test
+    void testSerialize_pilotWithFlightPlan_roundTrips() {
+        // Arrange
+        Client pilot = createClient(ClientType.PILOT_CONNECTED, "ABC123");
+        pilot.setServerId("GERMANY");
+        pilot.setPilotRating(PilotRating.IR);
+        pilot.setMilitaryRating(MilitaryRating.M2);
+        pilot.setLatitude(52.1234567);
+        pilot.setLongitude(-0.00001);
+        pilot.setAltitudeFeet(35996);
+        pilot.setGroundSpeed(452);
+        pilot.setTransponderCodeDecimal(7);
+        pilot.setHeading(359);
+        pilot.setQnhInchMercury(29.92);
+        pilot.setQnhHectopascal(1013);
+        pilot.setLogonTime(Instant.parse("2023-11-19T20:00:01Z"));
+        setFlightPlan(pilot);
+
+        // Act
+        DataFile result = roundTrip(createDataFile(pilot));
+
+        // Assert
+        assertThat(result.getParserLogEntries()).isEmpty();
+        assertThat(result.getClients()).singleElement()
+                                       .usingRecursiveComparison()
+                                       .isEqualTo(pilot);
+    }
+
+    @Test
+    void testSerialize_freshPilotWithFlightPlan_roundTripsWithVatsimDefaults() {
+        // Arrange
+        Client pilot = new Client();
+        pilot.setRawClientType(ClientType.PILOT_CONNECTED);
+        pilot.setEffectiveClientType(ClientType.PILOT_CONNECTED);
+        pilot.setCallsign("ABC123");
+        pilot.setServerId("GERMANY");
+        pilot.setPilotRating(PilotRating.UNRATED);
+        pilot.setMilitaryRating(MilitaryRating.M0);
+        pilot.setLatitude(52.1234567);
+        pilot.setLongitude(13.5);
+        pilot.setLogonTime(Instant.parse("2023-11-19T20:00:01Z"));
+        pilot.setLastUpdated(Instant.parse("2023-11-19T21:58:40Z"));
+        pilot.setRawFlightPlanType("V");
+        pilot.setFiledTimeEnroute(Duration.ZERO);
+        pilot.setFiledTimeFuel(Duration.ZERO);
+
+        // Act
+        DataFile result = roundTrip(createDataFile(pilot));
+
+        // Assert
+        assertThat(result.getParserLogEntries()).isEmpty();
+        assertThat(result.getClients()).singleElement()
+                                       .usingRecursiveComparison()
+                                       .ignoringFields("heading", "transponderCodeDecimal", "qnhInchMercury")
+                                       .isEqualTo(pilot);
+        assertThat(result.getClients()).singleElement()
+                                       .extracting(
+                                           Client::getHeading,
+                                           Client::getTransponderCodeDecimal,
+                                           Client::getQnhInchMercury
+                                       )
+                                       .containsExactly(0, 0, 0.0);
+    }
+
+    @Test
+    void testSerialize_unsetMandatoryNumbers_writesVatsimDefaults() {
+        // Arrange
+        Client pilot = new Client();
+        pilot.setRawClientType(ClientType.PILOT_CONNECTED);
+        pilot.setFiledTrueAirSpeed(-1);
+        pilot.setRawFlightPlanType("I");
+
+        // Act
+        String result = serialize(createDataFile(pilot));
+
+        // Assert
+        assertThat(result).contains(
+            "\"heading\":0,",
+            "\"transponder\":\"0000\"",
+            "\"qnh_i_hg\":0.0,",
+            "\"cruise_tas\":\"0\""
+        );
+    }
+
+    @Test
+    void testSerialize_pilotWithoutFlightPlan_writesNullFlightPlan() {
+        // Arrange
+        Client pilot = createClient(ClientType.PILOT_CONNECTED, "ABC123");
+        pilot.setPilotRating(PilotRating.UNRATED);
+        pilot.setMilitaryRating(MilitaryRating.M0);
+
+        // Act
+        String result = serialize(createDataFile(pilot));
+
+        // Assert
+        assertThat(result).contains("\"flight_plan\":null");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"ATC_CONNECTED", "ATIS"})
+    void testSerialize_controllerOrAtis_roundTrips(ClientType clientType) {
+        // Arrange
+        Client client = createClient(clientType, "EDDT_TWR");
+        client.setServerId("GERMANY");
+        client.setServedFrequencyKilohertz(118005);
+        client.setFacilityType(FacilityType.TOWER);
+        client.setControllerRating(ControllerRating.I);
+        client.setVisualRange(50);
+        client.setControllerMessage("line 1\n\nline \"3\"\n");
+        client.setLogonTime(Instant.parse("2023-11-19T20:00:01Z"));
+        if (clientType == ClientType.ATIS) {
+            client.setAtisDesignator("K");
+        }
+
+        // Act
+        DataFile result = roundTrip(createDataFile(client));
+
+        // Assert
+        assertThat(result.getParserLogEntries()).isEmpty();
+        assertThat(result.getClients()).singleElement()
+                                       .usingRecursiveComparison()
+                                       .isEqualTo(client);
+    }
+
+    @Test
+    void testSerialize_emptyControllerMessage_writesNull() {
+        // Arrange
+        Client client = createClient(ClientType.ATC_CONNECTED, "EDDT_TWR");
+        client.setControllerMessage("");
+
+        // Act
+        String result = serialize(createDataFile(client));
+
+        // Assert
+        assertThat(result).contains("\"text_atis\":null");
+    }
+
+    @Test
+    void testSerialize_prefile_roundTrips() {
+        // Arrange
+        Client prefile = createClient(ClientType.PILOT_PREFILED, "ABC123");
+        setFlightPlan(prefile);
+        prefile.setFiledTimeEnroute(Duration.ofMinutes(-90));
+
+        // Act
+        DataFile result = roundTrip(createDataFile(prefile));
+
+        // Assert
+        assertThat(result.getParserLogEntries()).isEmpty();
+        assertThat(result.getClients()).singleElement()
+                                       .usingRecursiveComparison()
+                                       .isEqualTo(prefile);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void testSerialize_server_roundTrips(boolean flags) {
+        // Arrange
+        FSDServer server = new FSDServer();
+        server.setId("SERVER");
+        server.setName("name");
+        server.setAddress("1.2.3.4");
+        server.setLocation("Somewhere");
+        server.setClientConnectionAllowed(flags);
+        server.setSweatbox(flags);
+        DataFile dataFile = createDataFile();
+        dataFile.setFsdServers(Arrays.asList(server));
+
+        // Act
+        DataFile result = roundTrip(dataFile);
+
+        // Assert
+        assertThat(result.getParserLogEntries()).isEmpty();
+        assertThat(result.getFsdServers()).containsExactly(server);
+    }
+
+    @Test
+    void testSerialize_multipleClients_assignsSectionsByRawClientType() {
+        // Arrange
+        Client pilot = createClient(ClientType.PILOT_CONNECTED, "PILOT");
+        Client controller = createClient(ClientType.ATC_CONNECTED, "EDDT_TWR");
+        Client atis = createClient(ClientType.ATIS, "EDDT_ATIS");
+        Client prefile = createClient(ClientType.PILOT_PREFILED, "PREFILE");
+        setFlightPlan(prefile);
+
+        // Act
+        DataFile result = roundTrip(createDataFile(prefile, atis, controller, pilot));
+
+        // Assert
+        assertThat(result.getClients()).extracting(Client::getCallsign, Client::getRawClientType)
+                                       .containsExactlyInAnyOrder(
+                                           tuple("PILOT", ClientType.PILOT_CONNECTED),
+                                           tuple("EDDT_TWR", ClientType.ATC_CONNECTED),
+                                           tuple("EDDT_ATIS", ClientType.ATIS),
+                                           tuple("PREFILE", ClientType.PILOT_PREFILED)
+                                       );
+    }
+}
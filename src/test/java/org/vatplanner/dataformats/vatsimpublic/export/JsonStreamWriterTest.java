@@ -0,0 +1,112 @@
+package org.vatplanner.dataformats.vatsimpublic.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class JsonStreamWriterTest {
+
+    @Test
+    void testValues_nested_writesSeparators() throws IOException {
+        // Arrange
+        StringWriter sw = new StringWriter();
+        JsonStreamWriter json = new JsonStreamWriter(sw);
+
+        // Act
+        json.beginObject()
+            .name("a").value(1)
+            .name("b").beginArray()
+            .value("x").beginObject().endObject().beginArray().endArray().nullValue()
+            .endArray()
+            .name("c").value(true)
+            .endObject();
+
+        // Assert
+        assertThat(sw.toString()).isEqualTo("{\"a\":1,\"b\":[\"x\",{},[],null],\"c\":true}");
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "'', '\"\"'",
+        "abc, '\"abc\"'",
+        "a/b, '\"a/b\"'",
+        "'a\"b', '\"a\\\"b\"'",
+        "a\\b, '\"a\\\\b\"'",
+    })
+    void testValue_string_writesEscapedString(String value, String expectedOutput) throws IOException {
+        // Arrange
+        StringWriter sw = new StringWriter();
+        JsonStreamWriter json = new JsonStreamWriter(sw);
+
+        // Act
+        json.value(value);
+
+        // Assert
+        assertThat(sw.toString()).isEqualTo(expectedOutput);
+    }
+
+    @Test
+    void testValue_controlCharacters_writesEscapes() throws IOException {
+        // Arrange
+        StringWriter sw = new StringWriter();
+        JsonStreamWriter json = new JsonStreamWriter(sw);
+
+        // Act
+        json.value("\n\r\t\b\f\u0001\u001fä");
+
+        // Assert
+        assertThat(sw.toString()).isEqualTo("\"\\n\\r\\t\\b\\f\\u0001\\u001fä\"");
+    }
+
+    @Test
+    void testValue_nullString_writesNull() throws IOException {
+        // Arrange
+        StringWriter sw = new StringWriter();
+        JsonStreamWriter json = new JsonStreamWriter(sw);
+
+        // Act
+        json.value((String) null);
+
+        // Assert
+        assertThat(sw.toString()).isEqualTo("null");
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY})
+    void testValue_nonFiniteDouble_writesNull(double value) throws IOException {
+        // Arrange
+        StringWriter sw = new StringWriter();
+        JsonStreamWriter json = new JsonStreamWriter(sw);
+
+        // Act
+        json.value(value);
+
+        // Assert
+        assertThat(sw.toString()).isEqualTo("null");
+    }
+
+    @Test
+    void testBeginArray_deeplyNested_writesAllLevels() throws IOException {
+        // Arrange
+        StringWriter sw = new StringWriter();
+        JsonStreamWriter json = new JsonStreamWriter(sw);
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            json.beginArray().value(i);
+        }
+        for (int i = 0; i < 20; i++) {
+            json.endArray();
+        }
+
+        // Assert
+        assertThat(sw.toString()).startsWith("[0,[1,[2,")
+                                 .endsWith("[19]]]");
+    }
+}
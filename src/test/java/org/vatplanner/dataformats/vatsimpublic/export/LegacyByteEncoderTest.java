@@ -0,0 +1,205 @@
+package org.vatplanner.dataformats.vatsimpublic.export;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class LegacyByteEncoderTest {
+
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmss")
+                                                                             .withZone(ZoneId.of("UTC"));
+
+    private Locale originalLocale;
+
+    @BeforeEach
+    void rememberLocale() {
+        originalLocale = Locale.getDefault(Locale.Category.FORMAT);
+    }
+
+    @AfterEach
+    void restoreLocale() {
+        Locale.setDefault(Locale.Category.FORMAT, originalLocale);
+    }
+
+    private byte[] encode(Consumer<LegacyByteEncoder> action) throws IOException {
+        LegacyByteEncoder encoder = new LegacyByteEncoder();
+        encoder.reset();
+        action.accept(encoder);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        encoder.writeTo(baos);
+        return baos.toByteArray();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "abc", "a:b", "äß§", "€", "\ud83d\ude00", "\ud800x", "x\udc00"})
+    void testAppend_text_encodesSameAsStringEncoding(String s) throws IOException {
+        // Arrange
+        byte[] expected = s.getBytes(ISO_8859_1);
+
+        // Act
+        byte[] result = encode(encoder -> encoder.append(s));
+
+        // Assert
+        assertThat(result).isEqualTo(expected);
+    }
+
+    @Test
+    void testAppendSanitized_separators_replacesBySpaces() throws IOException {
+        // Arrange (nothing to do)
+
+        // Act
+        byte[] result = encode(encoder -> encoder.appendSanitized("a:b::c"));
+
+        // Assert
+        assertThat(result).isEqualTo("a b  c".getBytes(ISO_8859_1));
+    }
+
+    @Test
+    void testAppendSanitized_null_appendsNothing() throws IOException {
+        // Arrange (nothing to do)
+
+        // Act
+        byte[] result = encode(encoder -> encoder.appendSanitized(null));
+
+        // Assert
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void testAppendControllerMessage_lineBreaksAndSeparators_replacesBoth() throws IOException {
+        // Arrange (nothing to do)
+
+        // Act
+        byte[] result = encode(encoder -> encoder.appendControllerMessage("a:b\nc\n"));
+
+        // Assert
+        assertThat(result).isEqualTo(new byte[]{'a', ' ', 'b', 0x5E, (byte) 0xA7, 'c', 0x5E, (byte) 0xA7});
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {0, 1, -1, 9, 10, 123456789, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE})
+    void testAppend_long_encodesSameAsToString(long x) throws IOException {
+        // Arrange (nothing to do)
+
+        // Act
+        byte[] result = encode(encoder -> encoder.append(x));
+
+        // Assert
+        assertThat(result).isEqualTo(Long.toString(x).getBytes(ISO_8859_1));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 5, 118000, 121500, 999999})
+    void testAppendFrequency_kilohertz_encodesSameAsFormat(int kilohertz) throws IOException {
+        // Arrange
+        byte[] expected = String.format("%d.%03d", kilohertz / 1000, kilohertz % 1000).getBytes(ISO_8859_1);
+
+        // Act
+        byte[] result = encode(encoder -> encoder.appendFrequency(kilohertz));
+
+        // Assert
+        assertThat(result).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "0.0, 5",
+        "-0.0, 5",
+        "-0.000001, 5",
+        "52.123455, 5",
+        "52.123445, 5",
+        "-179.999995, 5",
+        "13.000005, 5",
+        "0.15, 1",
+        "29.925, 2",
+        "29.915, 2",
+        "-29.92, 2",
+        "1e12, 5",
+        "1e-300, 2",
+        "NaN, 5",
+        "Infinity, 2",
+        "-Infinity, 2",
+    })
+    void testAppendFixedPoint_value_encodesSameAsFormat(double value, int decimals) throws IOException {
+        // Arrange
+        byte[] expected = String.format("%." + decimals + "f", value).getBytes(ISO_8859_1);
+
+        // Act
+        byte[] result = encode(encoder -> encoder.appendFixedPoint(value, decimals));
+
+        // Assert
+        assertThat(result).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"de-DE", "ar-EG", "hi-IN-u-nu-deva"})
+    void testAppendFixedPoint_otherLocale_encodesSameAsFormat(String languageTag) throws IOException {
+        // Arrange
+        Locale.setDefault(Locale.Category.FORMAT, Locale.forLanguageTag(languageTag));
+        byte[] expected = String.format("%.5f", -52.123456).getBytes(ISO_8859_1);
+
+        // Act
+        byte[] result = encode(encoder -> encoder.appendFixedPoint(-52.123456, 5));
+
+        // Assert
+        assertThat(result).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "1970-01-01T00:00:00Z",
+        "2019-03-11T09:00:00.999Z",
+        "2000-02-29T23:59:59Z",
+        "2100-03-01T12:34:56Z",
+        "1969-12-31T23:59:59Z",
+        "0001-01-01T00:00:00Z",
+        "9999-12-31T23:59:59Z",
+        "0000-12-31T23:59:59Z",
+        "+10000-01-01T00:00:00Z",
+    })
+    void testAppendTimestamp_instant_encodesSameAsFormatter(String isoTimestamp) throws IOException {
+        // Arrange
+        Instant timestamp = Instant.parse(isoTimestamp);
+        byte[] expected = TIME_FORMATTER.format(timestamp).getBytes(ISO_8859_1);
+
+        // Act
+        byte[] result = encode(encoder -> encoder.appendTimestamp(timestamp, TIME_FORMATTER));
+
+        // Assert
+        assertThat(result).isEqualTo(expected);
+    }
+
+    @Test
+    void testReset_afterGrowing_startsEmpty() throws IOException {
+        // Arrange
+        LegacyByteEncoder encoder = new LegacyByteEncoder();
+        encoder.reset();
+        for (int i = 0; i < 10000; i++) {
+            encoder.append("abc");
+        }
+
+        // Act
+        encoder.reset();
+        encoder.append("xyz");
+
+        // Assert
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        encoder.writeTo(baos);
+        assertThat(baos.toByteArray()).isEqualTo("xyz".getBytes(ISO_8859_1));
+    }
+}
@@ -0,0 +1,194 @@
+package org.vatplanner.dataformats.vatsimpublic.export;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.ControllerRating;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.FacilityType;
+import org.vatplanner.dataformats.vatsimpublic.parser.Client;
+import org.vatplanner.dataformats.vatsimpublic.parser.ClientType;
+import org.vatplanner.dataformats.vatsimpublic.parser.DataFile;
+import org.vatplanner.dataformats.vatsimpublic.parser.DataFileMetaData;
+import org.vatplanner.dataformats.vatsimpublic.parser.FSDServer;
+import org.vatplanner.dataformats.vatsimpublic.parser.legacy.DataFileParser;
+
+class LegacyDataFileWriterTest {
+
+    private static final ClientType[] CLIENT_TYPES = {
+        ClientType.PILOT_CONNECTED,
+        ClientType.ATC_CONNECTED,
+        ClientType.PILOT_PREFILED,
+        ClientType.ATIS,
+    };
+
+    private static DataFile createDataFile(int numClients) {
+        DataFile dataFile = new DataFile();
+        dataFile.setMetaData(
+            new DataFileMetaData()
+                .setTimestamp(Instant.parse("2019-03-11T09:00:00Z"))
+                .setMinimumDataFileRetrievalInterval(Duration.ofSeconds(90))
+                .setNumberOfConnectedClients(numClients)
+                .setNumberOfUniqueConnectedUsers(numClients - 1)
+        );
+
+        List<Client> clients = new ArrayList<>();
+        for (int i = 0; i < numClients; i++) {
+            boolean isEven = (i % 2) == 0;
+
+            Client client = new Client();
+            client.setCallsign("CS" + i + (isEven ? "" : ":X"));
+            client.setVatsimID(1000000 + i);
+            client.setRealName(isEven ? "Jürgen Doe €" : null);
+            client.setRawClientType(CLIENT_TYPES[i % CLIENT_TYPES.length]);
+            client.setServedFrequencyKilohertz(isEven ? 118000 + i : -1);
+            client.setLatitude(isEven ? 52.123455 + i : Double.NaN);
+            client.setLongitude(-13.0 - i / 7.0);
+            client.setAltitudeFeet(-i);
+            client.setGroundSpeed(isEven ? i : -1);
+            client.setFiledTimeEnroute(isEven ? Duration.ofMinutes(61 + i) : null);
+            client.setControllerRating(isEven ? ControllerRating.S2 : null);
+            client.setFacilityType(isEven ? FacilityType.TOWER : null);
+            client.setFlightPlanRemarks("PBN/A1 /V/ 😀");
+            client.setControllerMessage(isEven ? "line 1\nline: 2" : "");
+            client.setLastUpdated(Instant.parse("2019-03-11T08:59:00Z"));
+            client.setLogonTime(isEven ? Instant.parse("2019-03-11T07:00:00Z") : null);
+            client.setQnhInchMercury(isEven ? 29.925 : Double.NaN);
+            clients.add(client);
+        }
+        dataFile.setClients(clients);
+
+        FSDServer server = new FSDServer();
+        server.setId("SERVER:1");
+        server.setName("name");
+        server.setAddress("1.2.3.4");
+        server.setLocation("Somewhere");
+        server.setClientConnectionAllowed(true);
+        dataFile.setFsdServers(Arrays.asList(server));
+
+        return dataFile;
+    }
+
+    private static byte[] serialize(LegacyDataFileWriter writer, DataFile dataFile) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writer.serialize(dataFile, baos);
+        return baos.toByteArray();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 10, 1000})
+    void testSerialize_directByteEncoding_producesIdenticalOutput(int numClients) {
+        // Arrange
+        DataFile dataFile = createDataFile(numClients);
+        byte[] expected = serialize(new LegacyDataFileWriter("some\nheader"), dataFile);
+        LegacyDataFileWriter writer = new LegacyDataFileWriter("some\nheader").setDirectByteEncoding(true);
+
+        // Act
+        byte[] result = serialize(writer, dataFile);
+
+        // Assert
+        assertThat(result).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 10, 1000})
+    void testSerialize_parallelEncoding_producesIdenticalOutput(int numClients) {
+        // Arrange
+        DataFile dataFile = createDataFile(numClients);
+        byte[] expected = serialize(new LegacyDataFileWriter(), dataFile);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        LegacyDataFileWriter writer = new LegacyDataFileWriter().setDirectByteEncoding(true)
+                                                                .setParallelEncodingExecutor(executor);
+
+        try {
+            // Act
+            byte[] result = serialize(writer, dataFile);
+
+            // Assert
+            assertThat(result).isEqualTo(expected);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testSerialize_directByteEncodingRepeatedly_reusesBuffersWithoutLeftovers() {
+        // Arrange
+        DataFile largeDataFile = createDataFile(1000);
+        DataFile smallDataFile = createDataFile(3);
+        byte[] expected = serialize(new LegacyDataFileWriter(), smallDataFile);
+        LegacyDataFileWriter writer = new LegacyDataFileWriter().setDirectByteEncoding(true)
+                                                                .setParallelEncodingExecutor(Runnable::run);
+        serialize(writer, largeDataFile);
+
+        // Act
+        byte[] result = serialize(writer, smallDataFile);
+
+        // Assert
+        assertThat(result).isEqualTo(expected);
+    }
+
+    @Test
+    void testSerialize_directByteEncodingFailure_writesNothing() {
+        // Arrange
+        DataFile dataFile = createDataFile(10);
+        dataFile.getClients().iterator().next().setControllerMessage(null);
+        LegacyDataFileWriter writer = new LegacyDataFileWriter().setDirectByteEncoding(true);
+
+        // Act
+        byte[] result = serialize(writer, dataFile);
+
+        // Assert
+        assertThat(result).isEmpty();
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void testSerialize_prefilingAndMissingVatsimId_isParseable(boolean directByteEncoding) {
+        // Arrange
+        Client prefiling = new Client();
+        prefiling.setCallsign("PRE123");
+        prefiling.setVatsimID(1234567);
+        prefiling.setRawClientType(ClientType.PILOT_PREFILED);
+        prefiling.setFlightPlanRevision(1);
+        prefiling.setFiledTimeEnroute(Duration.ofMinutes(75));
+        prefiling.setFiledTimeFuel(Duration.ofMinutes(140));
+
+        Client pilot = new Client();
+        pilot.setCallsign("ABC123");
+        pilot.setRawClientType(ClientType.PILOT_CONNECTED);
+        pilot.setServerId("SERVER1");
+        pilot.setLatitude(52.0);
+        pilot.setLongitude(8.5);
+        pilot.setLogonTime(Instant.parse("2019-03-11T08:00:00Z"));
+
+        DataFile dataFile = createDataFile(0);
+        dataFile.setClients(Arrays.asList(prefiling, pilot));
+
+        LegacyDataFileWriter writer = new LegacyDataFileWriter().setDirectByteEncoding(directByteEncoding);
+
+        // Act
+        byte[] result = serialize(writer, dataFile);
+
+        // Assert
+        DataFile parsed = new DataFileParser().deserialize(new String(result, ISO_8859_1));
+        assertThat(parsed.getParserLogEntries()).isEmpty();
+        assertThat(parsed.getClients()).extracting(Client::getCallsign, Client::getVatsimID, Client::getRawClientType)
+                                       .containsExactly(
+                                           tuple("ABC123", -1, ClientType.PILOT_CONNECTED),
+                                           tuple("PRE123", 1234567, ClientType.PILOT_PREFILED)
+                                       );
+    }
+}
@@ -0,0 +1,221 @@
+package org.vatplanner.dataformats.vatsimpublic.graph;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.vatplanner.dataformats.vatsimpublic.entities.status.GeoCoordinates.UNIT_FEET;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.FlightPhase;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.GeoCoordinates;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.Report;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.TrackPoint;
+import org.vatplanner.dataformats.vatsimpublic.graph.FlightPhaseTracker.Transition;
+
+class FlightPhaseTrackerTest {
+
+    private static TrackPoint createTrackPoint(int minute, int groundSpeed, int altitudeFeet) {
+        return new TrackPoint(new Report(Instant.ofEpochSecond(minute * 60L)))
+            .setGeoCoordinates(new GeoCoordinates(50.0, 8.5, altitudeFeet, UNIT_FEET))
+            .setGroundSpeed(groundSpeed);
+    }
+
+    private static FlightPhaseTracker createAirborneTracker() {
+        FlightPhaseTracker tracker = new FlightPhaseTracker();
+        tracker.update(createTrackPoint(0, 400, 30000));
+        tracker.update(createTrackPoint(1, 400, 30000));
+        return tracker;
+    }
+
+    @Test
+    void testUpdate_firstTrackPointOnGround_taxiWithoutTransition() {
+        // Arrange
+        FlightPhaseTracker tracker = new FlightPhaseTracker();
+
+        // Act
+        Transition result = tracker.update(createTrackPoint(0, 0, 300));
+
+        // Assert
+        assertThat(result).isEqualTo(Transition.NONE);
+        assertThat(tracker.getPhase()).isEqualTo(FlightPhase.TAXI);
+    }
+
+    @Test
+    void testUpdate_firstTrackPointAirborne_departedAtFirstTrackPoint() {
+        // Arrange
+        FlightPhaseTracker tracker = new FlightPhaseTracker();
+        TrackPoint trackPoint = createTrackPoint(0, 450, 35000);
+
+        // Act
+        Transition result = tracker.update(trackPoint);
+
+        // Assert
+        assertThat(result).isEqualTo(Transition.DEPARTED);
+        assertThat(tracker.getPhase()).isEqualTo(FlightPhase.CRUISE);
+        assertThat(tracker.getEventTrackPoints()).containsExactly(trackPoint);
+        assertThat(tracker.getTrackPointBeforeEvent()).isNull();
+    }
+
+    @Test
+    void testUpdate_singleFastTrackPointOnGround_remainsTaxi() {
+        // Arrange
+        FlightPhaseTracker tracker = new FlightPhaseTracker();
+        tracker.update(createTrackPoint(0, 10, 300));
+        tracker.update(createTrackPoint(1, 60, 300));
+
+        // Act
+        Transition result = tracker.update(createTrackPoint(2, 15, 300));
+
+        // Assert
+        assertThat(result).isEqualTo(Transition.NONE);
+        assertThat(tracker.getPhase()).isEqualTo(FlightPhase.TAXI);
+    }
+
+    @Test
+    void testUpdate_confirmedTakeoff_departedAtFirstFastTrackPoint() {
+        // Arrange
+        FlightPhaseTracker tracker = new FlightPhaseTracker();
+        TrackPoint taxi = createTrackPoint(0, 10, 300);
+        TrackPoint rolling = createTrackPoint(1, 120, 300);
+        TrackPoint confirmation = createTrackPoint(2, 160, 800);
+        tracker.update(taxi);
+        tracker.update(rolling);
+
+        // Act
+        Transition result = tracker.update(confirmation);
+
+        // Assert
+        assertThat(result).isEqualTo(Transition.DEPARTED);
+        assertThat(tracker.getPhase()).isEqualTo(FlightPhase.TAKEOFF);
+        assertThat(tracker.getEventTrackPoints()).containsExactly(rolling, confirmation);
+        assertThat(tracker.getTrackPointBeforeEvent()).isSameAs(taxi);
+    }
+
+    @Test
+    void testUpdate_unknownGroundSpeedDuringPendingTakeoff_doesNotResetConfirmation() {
+        // Arrange
+        FlightPhaseTracker tracker = new FlightPhaseTracker();
+        TrackPoint taxi = createTrackPoint(0, 10, 300);
+        TrackPoint rolling = createTrackPoint(1, 120, 300);
+        TrackPoint unknown = createTrackPoint(2, -1, 500);
+        TrackPoint confirmation = createTrackPoint(3, 160, 800);
+        tracker.update(taxi);
+        tracker.update(rolling);
+        tracker.update(unknown);
+
+        // Act
+        Transition result = tracker.update(confirmation);
+
+        // Assert
+        assertThat(result).isEqualTo(Transition.DEPARTED);
+        assertThat(tracker.getEventTrackPoints()).containsExactly(rolling, unknown, confirmation);
+    }
+
+    @Test
+    void testUpdate_climbingAboveTakeoffHeight_climb() {
+        // Arrange
+        FlightPhaseTracker tracker = new FlightPhaseTracker();
+        tracker.update(createTrackPoint(0, 10, 300));
+        tracker.update(createTrackPoint(1, 120, 300));
+        tracker.update(createTrackPoint(2, 160, 1000));
+
+        // Act
+        tracker.update(createTrackPoint(3, 200, 2500));
+
+        // Assert
+        assertThat(tracker.getPhase()).isEqualTo(FlightPhase.CLIMB);
+    }
+
+    @Test
+    void testUpdate_singleDescendingTrackPointInCruise_remainsCruise() {
+        // Arrange
+        FlightPhaseTracker tracker = createAirborneTracker();
+
+        // Act
+        tracker.update(createTrackPoint(2, 400, 29000));
+
+        // Assert
+        assertThat(tracker.getPhase()).isEqualTo(FlightPhase.CRUISE);
+    }
+
+    @Test
+    void testUpdate_confirmedDescent_descent() {
+        // Arrange
+        FlightPhaseTracker tracker = createAirborneTracker();
+        tracker.update(createTrackPoint(2, 400, 29000));
+
+        // Act
+        tracker.update(createTrackPoint(3, 400, 28000));
+
+        // Assert
+        assertThat(tracker.getPhase()).isEqualTo(FlightPhase.DESCENT);
+    }
+
+    @Test
+    void testUpdate_slowDescentWhileDescending_remainsDescent() {
+        // Arrange
+        FlightPhaseTracker tracker = createAirborneTracker();
+        tracker.update(createTrackPoint(2, 400, 29000));
+        tracker.update(createTrackPoint(3, 400, 28000));
+
+        // Act
+        tracker.update(createTrackPoint(4, 400, 27700));
+        tracker.update(createTrackPoint(5, 400, 27400));
+
+        // Assert
+        assertThat(tracker.getPhase()).isEqualTo(FlightPhase.DESCENT);
+    }
+
+    @Test
+    void testUpdate_speedBetweenThresholdsWhileAirborne_remainsAirborne() {
+        // Arrange
+        FlightPhaseTracker tracker = createAirborneTracker();
+
+        // Act
+        Transition first = tracker.update(createTrackPoint(2, 45, 30000));
+        Transition second = tracker.update(createTrackPoint(3, 45, 30000));
+
+        // Assert
+        assertThat(first).isEqualTo(Transition.NONE);
+        assertThat(second).isEqualTo(Transition.NONE);
+        assertThat(tracker.getPhase().isAirborne()).isTrue();
+    }
+
+    @Test
+    void testUpdate_confirmedLanding_landedAtFirstSlowTrackPoint() {
+        // Arrange
+        FlightPhaseTracker tracker = createAirborneTracker();
+        TrackPoint touchdown = createTrackPoint(2, 30, 300);
+        TrackPoint confirmation = createTrackPoint(3, 20, 300);
+        tracker.update(touchdown);
+
+        // Act
+        Transition result = tracker.update(confirmation);
+
+        // Assert
+        assertThat(result).isEqualTo(Transition.LANDED);
+        assertThat(tracker.getPhase()).isEqualTo(FlightPhase.LANDED);
+        assertThat(tracker.getEventTrackPoints()).containsExactly(touchdown, confirmation);
+    }
+
+    @Test
+    void testUpdate_takeoffAfterLanding_departedAgain() {
+        // Arrange
+        FlightPhaseTracker tracker = createAirborneTracker();
+        tracker.update(createTrackPoint(2, 30, 300));
+        tracker.update(createTrackPoint(3, 20, 300));
+        TrackPoint lineUp = createTrackPoint(4, 5, 300);
+        TrackPoint rolling = createTrackPoint(5, 120, 300);
+        tracker.update(lineUp);
+        tracker.update(rolling);
+
+        // Act
+        Transition result = tracker.update(createTrackPoint(6, 160, 800));
+
+        // Assert
+        assertThat(result).isEqualTo(Transition.DEPARTED_AGAIN);
+        assertThat(tracker.getPhase()).isEqualTo(FlightPhase.TAKEOFF);
+        assertThat(tracker.getEventTrackPoints()).first().isSameAs(rolling);
+        assertThat(tracker.getTrackPointBeforeEvent()).isSameAs(lineUp);
+    }
+}
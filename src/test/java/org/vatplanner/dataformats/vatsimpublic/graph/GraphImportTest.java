@@ -0,0 +1,228 @@
+package org.vatplanner.dataformats.vatsimpublic.graph;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.vatplanner.dataformats.vatsimpublic.entities.TimeSpan;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.DefaultStatusEntityFactory;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.Flight;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.FlightEvent;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.Report;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.TrackPoint;
+import org.vatplanner.dataformats.vatsimpublic.parser.Client;
+import org.vatplanner.dataformats.vatsimpublic.parser.ClientType;
+import org.vatplanner.dataformats.vatsimpublic.parser.DataFile;
+import org.vatplanner.dataformats.vatsimpublic.parser.DataFileMetaData;
+
+class GraphImportTest {
+
+    private static final int VATSIM_ID = 1234567;
+    private static final Instant LOGON_TIME = Instant.parse("2023-11-19T20:00:00Z");
+    private static final double LATITUDE = 52.5;
+    private static final double INVALID_LATITUDE = 100.0;
+
+    /**
+     * Ground speed and altitude of a single pilot reported once per minute: taxi,
+     * takeoff, landing, taxi and takeoff again without disconnecting.
+     */
+    private static final int[][] CIRCUIT = {
+        {0, 300}, // 0: taxi
+        {150, 300}, // 1: takeoff roll (AIRBORNE)
+        {160, 800}, // 2: confirms takeoff
+        {300, 5000}, // 3
+        {300, 3000}, // 4
+        {20, 300}, // 5: touchdown (LANDED)
+        {10, 300}, // 6: confirms landing
+        {0, 300}, // 7: taxi (BEFORE_AIRBORNE of new flight)
+        {150, 300}, // 8: takeoff roll (AIRBORNE of new flight)
+        {160, 800} // 9: confirms second takeoff
+    };
+
+    private GraphImport graphImport;
+    private List<Report> reports;
+
+    @BeforeEach
+    void setUp() {
+        graphImport = new GraphImport(new DefaultStatusEntityFactory());
+        reports = new ArrayList<>();
+
+        for (int minute = 0; minute < CIRCUIT.length; minute++) {
+            reports.add(graphImport.importDataFile(createDataFile(minute, CIRCUIT[minute][0], CIRCUIT[minute][1])));
+        }
+    }
+
+    private static DataFile createDataFile(int minute, int groundSpeed, int altitudeFeet) {
+        return createDataFile(minute, groundSpeed, altitudeFeet, LATITUDE);
+    }
+
+    private static DataFile createDataFile(int minute, int groundSpeed, int altitudeFeet, double latitude) {
+        Client client = new Client();
+        client.setRawClientType(ClientType.PILOT_CONNECTED);
+        client.setEffectiveClientType(ClientType.PILOT_CONNECTED);
+        client.setCallsign("ABC123");
+        client.setVatsimID(VATSIM_ID);
+        client.setRealName("Jane Doe EDDT");
+        client.setLogonTime(LOGON_TIME);
+        client.setLatitude(latitude);
+        client.setLongitude(13.4);
+        client.setAltitudeFeet(altitudeFeet);
+        client.setGroundSpeed(groundSpeed);
+
+        DataFile dataFile = new DataFile();
+        dataFile.setMetaData(
+            new DataFileMetaData()
+                .setTimestamp(getRecordTime(minute))
+                .setNumberOfConnectedClients(1)
+        );
+        dataFile.setClients(Collections.singletonList(client));
+        return dataFile;
+    }
+
+    private static Instant getRecordTime(int minute) {
+        return LOGON_TIME.plusSeconds(minute * 60L);
+    }
+
+    private Flight getFlight(boolean completed) {
+        return graphImport.getIndex()
+                          .getMemberByVatsimId(VATSIM_ID)
+                          .getFlights()
+                          .stream()
+                          .filter(x -> x.isCompleted() == completed)
+                          .findFirst()
+                          .orElse(null);
+    }
+
+    private List<Instant> getTrackRecordTimes(Flight flight) {
+        return flight.getTrack()
+                     .stream()
+                     .map(TrackPoint::getReport)
+                     .map(Report::getRecordTime)
+                     .collect(Collectors.toList());
+    }
+
+    private TrackPoint getTrackPoint(Flight flight, int minute) {
+        return flight.getTrack()
+                     .stream()
+                     .filter(x -> x.getReport().getRecordTime().equals(getRecordTime(minute)))
+                     .findFirst()
+                     .orElse(null);
+    }
+
+    @Test
+    void testImportDataFile_takeoffAfterLanding_completesFlightAndStartsNewFlight() {
+        // Arrange (nothing to do)
+
+        // Act
+        Flight completedFlight = getFlight(true);
+        Flight newFlight = getFlight(false);
+
+        // Assert
+        assertThat(graphImport.getIndex().getMemberByVatsimId(VATSIM_ID).getFlights()).hasSize(2);
+        assertThat(completedFlight).isNotNull();
+        assertThat(newFlight).isNotNull();
+        assertThat(newFlight.getLatestConnection()).isSameAs(completedFlight.getLatestConnection());
+    }
+
+    @Test
+    void testImportDataFile_takeoffAfterLanding_movesTrackPointsFromEventToNewFlight() {
+        // Arrange (nothing to do)
+
+        // Act
+        Flight completedFlight = getFlight(true);
+        Flight newFlight = getFlight(false);
+
+        // Assert
+        assertThat(getTrackRecordTimes(completedFlight)).containsExactly(
+            getRecordTime(0), getRecordTime(1), getRecordTime(2), getRecordTime(3),
+            getRecordTime(4), getRecordTime(5), getRecordTime(6)
+        );
+        assertThat(getTrackRecordTimes(newFlight)).containsExactly(
+            getRecordTime(7), getRecordTime(8), getRecordTime(9)
+        );
+        assertThat(newFlight.getTrack()).allSatisfy(x -> assertThat(x.getFlight()).isSameAs(newFlight));
+    }
+
+    @Test
+    void testImportDataFile_takeoffAfterLanding_marksEventsOnBothFlights() {
+        // Arrange (nothing to do)
+
+        // Act
+        Flight completedFlight = getFlight(true);
+        Flight newFlight = getFlight(false);
+
+        // Assert
+        assertThat(completedFlight.getEvents()).containsOnly(
+            entry(getTrackPoint(completedFlight, 0), FlightEvent.BEFORE_AIRBORNE),
+            entry(getTrackPoint(completedFlight, 1), FlightEvent.AIRBORNE),
+            entry(getTrackPoint(completedFlight, 5), FlightEvent.LANDED)
+        );
+        assertThat(newFlight.getEvents()).containsOnly(
+            entry(getTrackPoint(newFlight, 7), FlightEvent.BEFORE_AIRBORNE),
+            entry(getTrackPoint(newFlight, 8), FlightEvent.AIRBORNE)
+        );
+    }
+
+    @Test
+    void testImportDataFile_takeoffAfterLanding_listsOnlyNewFlightOnReportsOfMovedTrackPoints() {
+        // Arrange (nothing to do)
+
+        // Act
+        Flight completedFlight = getFlight(true);
+        Flight newFlight = getFlight(false);
+
+        // Assert
+        assertThat(reports.get(6).getFlights()).containsExactly(completedFlight);
+        assertThat(reports.get(7).getFlights()).containsExactly(newFlight);
+        assertThat(reports.get(8).getFlights()).containsExactly(newFlight);
+        assertThat(reports.get(9).getFlights()).containsExactly(newFlight);
+    }
+
+    @Test
+    void testImportDataFile_takeoffAfterLanding_indexesSplitTimeSpans() {
+        // Arrange
+        TimeIntervalIndex<Flight> flightTimeIndex = graphImport.getIndex().getFlightTimeIndex();
+
+        // Act
+        TimeSpan completedTimeSpan = flightTimeIndex.getTimeSpan(getFlight(true));
+        TimeSpan newTimeSpan = flightTimeIndex.getTimeSpan(getFlight(false));
+
+        // Assert
+        assertThat(completedTimeSpan.getStart()).isEqualTo(getRecordTime(0));
+        assertThat(completedTimeSpan.getEnd()).isEqualTo(getRecordTime(6));
+        assertThat(newTimeSpan.getStart()).isEqualTo(getRecordTime(7));
+        assertThat(newTimeSpan.getEnd()).isEqualTo(getRecordTime(9));
+        assertThat(flightTimeIndex.getAt(getRecordTime(8))).containsExactly(getFlight(false));
+    }
+
+    @Test
+    void testImportDataFile_noValidCoordinatesForLongerThanContinuationPeriod_keepsFlightPhase() {
+        // Arrange
+        graphImport = new GraphImport(new DefaultStatusEntityFactory());
+        for (int minute = 0; minute < 4; minute++) {
+            graphImport.importDataFile(createDataFile(minute, CIRCUIT[minute][0], CIRCUIT[minute][1]));
+        }
+        for (int minute = 4; minute < 41; minute++) {
+            graphImport.importDataFile(createDataFile(minute, 300, 5000, INVALID_LATITUDE));
+        }
+
+        // Act
+        graphImport.importDataFile(createDataFile(41, 300, 5000));
+        graphImport.importDataFile(createDataFile(42, 300, 5000));
+
+        // Assert
+        assertThat(graphImport.getIndex().getMemberByVatsimId(VATSIM_ID).getFlights()).hasSize(1);
+        Flight flight = getFlight(false);
+        assertThat(flight.getEvents()).containsOnly(
+            entry(getTrackPoint(flight, 0), FlightEvent.BEFORE_AIRBORNE),
+            entry(getTrackPoint(flight, 1), FlightEvent.AIRBORNE)
+        );
+    }
+}
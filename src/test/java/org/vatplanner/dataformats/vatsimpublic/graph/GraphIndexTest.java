@@ -0,0 +1,185 @@
+package org.vatplanner.dataformats.vatsimpublic.graph;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.Member;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.Report;
+
+class GraphIndexTest {
+
+    @Test
+    void testGetMemberByVatsimId_added_returnsMember() {
+        // Arrange
+        GraphIndex index = new GraphIndex();
+        Member member = new Member(1234567);
+        index.add(new Member(1000000));
+        index.add(member);
+
+        // Act
+        Member result = index.getMemberByVatsimId(1234567);
+
+        // Assert
+        assertThat(result).isSameAs(member);
+    }
+
+    @Test
+    void testGetMemberByVatsimId_unknown_returnsNull() {
+        // Arrange
+        GraphIndex index = new GraphIndex();
+        index.add(new Member(1000000));
+
+        // Act
+        Member result = index.getMemberByVatsimId(1234567);
+
+        // Assert
+        assertThat(result).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {0, 1, 14, 15, 29, 30, 1000, 1499, 1500, 2000})
+    void testGetLatestReportBefore_manyReports_returnsPreviousReport(long epochSecond) {
+        // Arrange
+        GraphIndex index = new GraphIndex();
+        for (int i = 1; i <= 100; i++) {
+            index.add(new Report(Instant.ofEpochSecond(i * 15)));
+        }
+
+        long expectedEpochSecond = Math.min(((epochSecond - 1) / 15) * 15, 1500);
+
+        // Act
+        Report result = index.getLatestReportBefore(new Report(Instant.ofEpochSecond(epochSecond)));
+
+        // Assert
+        if (expectedEpochSecond < 15) {
+            assertThat(result).isNull();
+        } else {
+            assertThat(result.getRecordTime()).isEqualTo(Instant.ofEpochSecond(expectedEpochSecond));
+        }
+    }
+
+    @Test
+    void testGetLatestReportBefore_subSecondRecordTimes_returnsPreviousReport() {
+        // Arrange
+        GraphIndex index = new GraphIndex();
+        Report expected = new Report(Instant.ofEpochSecond(10, 100));
+        index.add(new Report(Instant.ofEpochSecond(10)));
+        index.add(expected);
+        index.add(new Report(Instant.ofEpochSecond(10, 200)));
+
+        // Act
+        Report result = index.getLatestReportBefore(new Report(Instant.ofEpochSecond(10, 200)));
+
+        // Assert
+        assertThat(result).isSameAs(expected);
+    }
+
+    @Test
+    void testAdd_notChronological_throwsIllegalArgumentException() {
+        // Arrange
+        GraphIndex index = new GraphIndex();
+        index.add(new Report(Instant.ofEpochSecond(30)));
+
+        // Act
+        ThrowingCallable action = () -> index.add(new Report(Instant.ofEpochSecond(15)));
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testAdd_sameRecordTime_throwsIllegalArgumentException() {
+        // Arrange
+        GraphIndex index = new GraphIndex();
+        index.add(new Report(Instant.ofEpochSecond(30)));
+
+        // Act
+        ThrowingCallable action = () -> index.add(new Report(Instant.ofEpochSecond(30)));
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {15, 30, 45})
+    void testHasReportWithRecordTime_indexed_returnsTrue(long epochSecond) {
+        // Arrange
+        GraphIndex index = new GraphIndex();
+        index.add(new Report(Instant.ofEpochSecond(15)));
+        index.add(new Report(Instant.ofEpochSecond(30)));
+        index.add(new Report(Instant.ofEpochSecond(45)));
+
+        // Act
+        boolean result = index.hasReportWithRecordTime(Instant.ofEpochSecond(epochSecond));
+
+        // Assert
+        assertThat(result).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {0, 16, 44, 46})
+    void testHasReportWithRecordTime_notIndexed_returnsFalse(long epochSecond) {
+        // Arrange
+        GraphIndex index = new GraphIndex();
+        index.add(new Report(Instant.ofEpochSecond(15)));
+        index.add(new Report(Instant.ofEpochSecond(30)));
+        index.add(new Report(Instant.ofEpochSecond(45)));
+
+        // Act
+        boolean result = index.hasReportWithRecordTime(Instant.ofEpochSecond(epochSecond));
+
+        // Assert
+        assertThat(result).isFalse();
+    }
+
+    @Test
+    void testHasReportAfterRecordTime_laterIndexed_returnsTrue() {
+        // Arrange
+        GraphIndex index = new GraphIndex();
+        index.add(new Report(Instant.ofEpochSecond(15)));
+        index.add(new Report(Instant.ofEpochSecond(30)));
+
+        // Act
+        boolean result = index.hasReportAfterRecordTime(Instant.ofEpochSecond(29));
+
+        // Assert
+        assertThat(result).isTrue();
+    }
+
+    @Test
+    void testHasReportAfterRecordTime_noLaterIndexed_returnsFalse() {
+        // Arrange
+        GraphIndex index = new GraphIndex();
+        index.add(new Report(Instant.ofEpochSecond(15)));
+        index.add(new Report(Instant.ofEpochSecond(30)));
+
+        // Act
+        boolean result = index.hasReportAfterRecordTime(Instant.ofEpochSecond(30));
+
+        // Assert
+        assertThat(result).isFalse();
+    }
+
+    @Test
+    void testGetAllReports_manyReports_returnsAllInChronologicalOrder() {
+        // Arrange
+        GraphIndex index = new GraphIndex();
+        for (int i = 1; i <= 200; i++) {
+            index.add(new Report(Instant.ofEpochSecond(i * 15)));
+        }
+
+        // Act
+        Iterable<Report> result = index.getAllReports();
+
+        // Assert
+        assertThat(result).hasSize(200)
+                          .extracting(Report::getRecordTime)
+                          .isSorted();
+    }
+}
@@ -0,0 +1,206 @@
+package org.vatplanner.dataformats.vatsimpublic.graph;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.vatplanner.dataformats.vatsimpublic.entities.TimeSpan;
+
+class TimeIntervalIndexTest {
+
+    private static TimeIntervalIndex<String> createIndex() {
+        return new TimeIntervalIndex<String>()
+            .expandTo("A", Instant.ofEpochSecond(100)).expandTo("A", Instant.ofEpochSecond(200))
+            .expandTo("B", Instant.ofEpochSecond(150)).expandTo("B", Instant.ofEpochSecond(400))
+            .expandTo("C", Instant.ofEpochSecond(300)).expandTo("C", Instant.ofEpochSecond(350))
+            .expandTo("D", Instant.ofEpochSecond(500));
+    }
+
+    static Stream<Arguments> dataProviderPointsInTime() {
+        return Stream.of(
+            Arguments.of(99, new String[0]),
+            Arguments.of(100, new String[]{"A"}),
+            Arguments.of(150, new String[]{"A", "B"}),
+            Arguments.of(200, new String[]{"A", "B"}),
+            Arguments.of(201, new String[]{"B"}),
+            Arguments.of(325, new String[]{"B", "C"}),
+            Arguments.of(450, new String[0]),
+            Arguments.of(500, new String[]{"D"}),
+            Arguments.of(501, new String[0])
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("dataProviderPointsInTime")
+    void testGetAt_pointInTime_returnsPresentItems(long epochSecond, String[] expected) {
+        // Arrange
+        TimeIntervalIndex<String> index = createIndex();
+
+        // Act
+        List<String> result = index.getAt(Instant.ofEpochSecond(epochSecond));
+
+        // Assert
+        assertThat(result).containsExactlyInAnyOrder(expected);
+    }
+
+    static Stream<Arguments> dataProviderRanges() {
+        return Stream.of(
+            Arguments.of(0, 99, new String[0]),
+            Arguments.of(0, 100, new String[]{"A"}),
+            Arguments.of(201, 299, new String[]{"B"}),
+            Arguments.of(201, 300, new String[]{"B", "C"}),
+            Arguments.of(0, 1000, new String[]{"A", "B", "C", "D"}),
+            Arguments.of(401, 499, new String[0]),
+            Arguments.of(400, 500, new String[]{"B", "D"})
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("dataProviderRanges")
+    void testGetOverlapping_range_returnsOverlappingItems(long startEpochSecond, long endEpochSecond, String[] expected) {
+        // Arrange
+        TimeIntervalIndex<String> index = createIndex();
+
+        // Act
+        List<String> result = index.getOverlapping(
+            Instant.ofEpochSecond(startEpochSecond),
+            Instant.ofEpochSecond(endEpochSecond)
+        );
+
+        // Assert
+        assertThat(result).containsExactlyInAnyOrder(expected);
+    }
+
+    @Test
+    void testGetAt_expandedAfterQuery_returnsUpdatedResult() {
+        // Arrange
+        TimeIntervalIndex<String> index = createIndex();
+        index.getAt(Instant.ofEpochSecond(450));
+
+        // Act
+        index.expandTo("C", Instant.ofEpochSecond(450));
+        List<String> result = index.getAt(Instant.ofEpochSecond(450));
+
+        // Assert
+        assertThat(result).containsExactly("C");
+    }
+
+    @Test
+    void testGetOverlapping_endBeforeStart_throwsIllegalArgumentException() {
+        // Arrange
+        TimeIntervalIndex<String> index = createIndex();
+
+        // Act
+        ThrowingCallable action = () -> index.getOverlapping(Instant.ofEpochSecond(200), Instant.ofEpochSecond(100));
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testGetTimeSpan_expandedBothDirections_returnsFullPeriod() {
+        // Arrange
+        TimeIntervalIndex<String> index = new TimeIntervalIndex<>();
+        index.expandTo("A", Instant.ofEpochSecond(200))
+             .expandTo("A", Instant.ofEpochSecond(100))
+             .expandTo("A", Instant.ofEpochSecond(300));
+
+        // Act
+        TimeSpan result = index.getTimeSpan("A");
+
+        // Assert
+        assertThat(result.getStart()).isEqualTo(Instant.ofEpochSecond(100));
+        assertThat(result.getEnd()).isEqualTo(Instant.ofEpochSecond(300));
+    }
+
+    @Test
+    void testExpandTo_null_isIgnored() {
+        // Arrange
+        TimeIntervalIndex<String> index = new TimeIntervalIndex<>();
+
+        // Act
+        index.expandTo("A", null);
+
+        // Assert
+        assertThat(index.size()).isEqualTo(0);
+        assertThat(index.getTimeSpan("A")).isNull();
+    }
+
+    @Test
+    void testGetAt_afterExtendingAllEnds_doesNotSortIndexAgain() {
+        // Arrange
+        TimeIntervalIndex<Integer> index = new TimeIntervalIndex<>();
+        for (int i = 0; i < 1000; i++) {
+            index.expandTo(i, Instant.ofEpochSecond(i));
+        }
+        index.getAt(Instant.ofEpochSecond(0));
+        long sortedBefore = index.getNumberOfSortedEntries();
+
+        // simulates an import updating all items which are still online
+        for (int i = 0; i < 1000; i++) {
+            index.expandTo(i, Instant.ofEpochSecond(2000));
+        }
+
+        // Act
+        List<Integer> result = index.getAt(Instant.ofEpochSecond(1500));
+
+        // Assert
+        assertThat(result).hasSize(1000);
+        assertThat(index.getNumberOfSortedEntries()).isEqualTo(sortedBefore);
+    }
+
+    @Test
+    void testGetOverlapping_manyItems_returnsItemsSortedByStart() {
+        // Arrange
+        TimeIntervalIndex<Integer> index = new TimeIntervalIndex<>();
+        for (int i = 0; i < 200; i++) {
+            index.expandTo(i, Instant.ofEpochSecond(1000 - i))
+                 .expandTo(i, Instant.ofEpochSecond(1000 + i));
+        }
+
+        // Act
+        List<Integer> result = index.getOverlapping(Instant.ofEpochSecond(1150), Instant.ofEpochSecond(1160));
+
+        // Assert
+        assertThat(result).hasSize(50)
+                          .startsWith(199)
+                          .isSortedAccordingTo((a, b) -> Integer.compare(b, a));
+    }
+
+    @Test
+    void testRemove_indexedItem_isNoLongerReturned() {
+        // Arrange
+        TimeIntervalIndex<String> index = createIndex();
+
+        // Act
+        index.remove("B");
+
+        // Assert
+        assertThat(index.getOverlapping(Instant.ofEpochSecond(0), Instant.ofEpochSecond(1000)))
+            .containsExactly("A", "C", "D");
+        assertThat(index.getTimeSpan("B")).isNull();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void testRemove_reAdded_returnsOnlyNewPeriod() {
+        // Arrange
+        TimeIntervalIndex<String> index = createIndex();
+        index.getAt(Instant.ofEpochSecond(0));
+
+        // Act
+        index.remove("B").expandTo("B", Instant.ofEpochSecond(320));
+
+        // Assert
+        assertThat(index.getAt(Instant.ofEpochSecond(200))).containsExactly("A");
+        assertThat(index.getAt(Instant.ofEpochSecond(320))).containsExactly("C", "B");
+    }
+}
@@ -137,6 +137,20 @@ class DataFileMetaDataTest {
         assertThat(result).isFalse();
     }
 
+    @Test
+    void testGetMinimumRetrievalInterval_dataFileIntervalSet_returnsDataFileInterval() {
+        // Arrange
+        DataFileMetaData metaData = new DataFileMetaData()
+            .setMinimumAtisRetrievalInterval(Duration.ofMinutes(5))
+            .setMinimumDataFileRetrievalInterval(Duration.ofSeconds(15));
+
+        // Act
+        Duration result = metaData.getMinimumRetrievalInterval();
+
+        // Assert
+        assertThat(result).isEqualTo(Duration.ofSeconds(15));
+    }
+
     private DataFileMetaData createMetaData(int versionFormat, String timestampIso, int numberOfConnectedClients, int numberOfUniqueConnectedUsers, String minimumDataFileRetrievalIntervalIso, String minimumAtisRetrievalIntervalIso) {
         Instant timestamp = parseInstantNull(timestampIso);
         Duration minimumDataFileRetrievalInterval = parseDurationNull(minimumDataFileRetrievalIntervalIso);
@@ -0,0 +1,237 @@
+package org.vatplanner.dataformats.vatsimpublic.parser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+class OnlineTransceiverIndexTest {
+
+    private static Client createClient(String callsign, ClientType clientType) {
+        Client client = new Client();
+        client.setCallsign(callsign);
+        client.setRawClientType(clientType);
+        return client;
+    }
+
+    private static OnlineTransceiver createTransceiver(int id, int frequencyHertz, double latitude, double longitude) {
+        OnlineTransceiver transceiver = new OnlineTransceiver();
+        transceiver.setId(id);
+        transceiver.setFrequencyHertz(frequencyHertz);
+        transceiver.setLatitude(latitude);
+        transceiver.setLongitude(longitude);
+        return transceiver;
+    }
+
+    private static OnlineTransceiverStation createStation(String callsign, OnlineTransceiver... transceivers) {
+        OnlineTransceiverStation station = new OnlineTransceiverStation();
+        station.setCallsign(callsign);
+        station.setTransceivers(new ArrayList<>(Arrays.asList(transceivers)));
+        return station;
+    }
+
+    private static DataFile createDataFile(Client... clients) {
+        DataFile dataFile = new DataFile();
+        dataFile.setClients(Arrays.asList(clients));
+        return dataFile;
+    }
+
+    private static OnlineTransceiversFile createTransceiversFile(OnlineTransceiverStation... stations) {
+        OnlineTransceiversFile transceiversFile = new OnlineTransceiversFile();
+        transceiversFile.setStations(Arrays.asList(stations));
+        return transceiversFile;
+    }
+
+    @Test
+    void testGetByFrequencyHertz_multipleStations_returnsAllTransceiversJoinedWithClients() {
+        // Arrange
+        Client pilot = createClient("DLH123", ClientType.PILOT_CONNECTED);
+        Client controller = createClient("EDDF_TWR", ClientType.ATC_CONNECTED);
+        OnlineTransceiverIndex index = new OnlineTransceiverIndex().update(
+            createDataFile(pilot, controller),
+            createTransceiversFile(
+                createStation("DLH123", createTransceiver(0, 119900000, 50.0, 8.5), createTransceiver(1, 121500000, 50.0, 8.5)),
+                createStation("EDDF_TWR", createTransceiver(0, 119900000, 50.03, 8.57)),
+                createStation("UNKNOWN", createTransceiver(0, 119900000, 50.1, 8.6))
+            )
+        );
+
+        // Act
+        List<OnlineTransceiverIndex.Entry> result = index.getByFrequencyHertz(119900000);
+
+        // Assert
+        assertThat(result).extracting(
+            OnlineTransceiverIndex.Entry::getCallsign,
+            OnlineTransceiverIndex.Entry::getClient,
+            entry -> entry.getTransceiver().getId()
+        ).containsExactly(
+            tuple("DLH123", Optional.of(pilot), 0),
+            tuple("EDDF_TWR", Optional.of(controller), 0),
+            tuple("UNKNOWN", Optional.empty(), 0)
+        );
+    }
+
+    @Test
+    void testGetByFrequencyHertz_unusedFrequency_returnsEmpty() {
+        // Arrange
+        OnlineTransceiverIndex index = new OnlineTransceiverIndex().update(
+            createDataFile(),
+            createTransceiversFile(createStation("DLH123", createTransceiver(0, 119900000, 50.0, 8.5)))
+        );
+
+        // Act
+        List<OnlineTransceiverIndex.Entry> result = index.getByFrequencyHertz(121500000);
+
+        // Assert
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void testGetByFrequencyHertz_unavailableFrequency_isNotIndexedByFrequency() {
+        // Arrange
+        OnlineTransceiverIndex index = new OnlineTransceiverIndex().update(
+            createDataFile(),
+            createTransceiversFile(createStation("DLH123", createTransceiver(0, OnlineTransceiver.UNAVAILABLE_INTEGER, 50.0, 8.5)))
+        );
+
+        // Act
+        List<OnlineTransceiverIndex.Entry> result = index.getByFrequencyHertz(OnlineTransceiver.UNAVAILABLE_INTEGER);
+
+        // Assert
+        assertThat(result).isEmpty();
+        assertThat(index.getByCallsign("DLH123")).hasSize(1);
+    }
+
+    @Test
+    void testGetByCallsign_repeatedStation_returnsTransceiversOfAllOccurrences() {
+        // Arrange
+        OnlineTransceiverIndex index = new OnlineTransceiverIndex().update(
+            createDataFile(createClient("EDGG_CTR", ClientType.ATC_CONNECTED)),
+            createTransceiversFile(
+                createStation("EDGG_CTR", createTransceiver(0, 136955000, 50.0, 8.0)),
+                createStation("EDGG_CTR", createTransceiver(1, 136955000, 51.0, 9.0))
+            )
+        );
+
+        // Act
+        List<OnlineTransceiverIndex.Entry> result = index.getByCallsign("EDGG_CTR");
+
+        // Assert
+        assertThat(result).extracting(entry -> entry.getTransceiver().getId())
+                          .containsExactly(0, 1);
+    }
+
+    @Test
+    void testGetClientByCallsign_prefiledAndConnected_returnsConnectedClient() {
+        // Arrange
+        Client prefiled = createClient("DLH123", ClientType.PILOT_PREFILED);
+        Client connected = createClient("DLH123", ClientType.PILOT_CONNECTED);
+        OnlineTransceiverIndex index = new OnlineTransceiverIndex().update(
+            createDataFile(prefiled, connected),
+            createTransceiversFile()
+        );
+
+        // Act
+        Optional<Client> result = index.getClientByCallsign("DLH123");
+
+        // Assert
+        assertThat(result).containsSame(connected);
+    }
+
+    @Test
+    void testGetClientByCallsign_onlyPrefiled_returnsEmpty() {
+        // Arrange
+        OnlineTransceiverIndex index = new OnlineTransceiverIndex().update(
+            createDataFile(createClient("DLH123", ClientType.PILOT_PREFILED)),
+            createTransceiversFile()
+        );
+
+        // Act
+        Optional<Client> result = index.getClientByCallsign("DLH123");
+
+        // Assert
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void testFindByFrequencyHertzNear_multipleStations_returnsStationsInRangeByIncreasingDistance() {
+        // Arrange
+        OnlineTransceiverIndex index = new OnlineTransceiverIndex().update(
+            createDataFile(),
+            createTransceiversFile(
+                createStation("FAR", createTransceiver(0, 121500000, 53.0, 8.5)),
+                createStation("NEAR", createTransceiver(0, 121500000, 50.5, 8.5), createTransceiver(1, 121500000, 50.1, 8.5)),
+                createStation("NOWHERE", createTransceiver(0, 121500000, Double.NaN, Double.NaN)),
+                createStation("MIDDLE", createTransceiver(0, 121500000, 51.0, 8.5)),
+                createStation("OTHER", createTransceiver(0, 122800000, 50.0, 8.5))
+            )
+        );
+
+        // Act
+        List<OnlineTransceiverIndex.Entry> result = index.findByFrequencyHertzNear(121500000, 50.0, 8.5, 100.0);
+
+        // Assert
+        assertThat(result).extracting(
+            OnlineTransceiverIndex.Entry::getCallsign,
+            entry -> entry.getTransceiver().getId()
+        ).containsExactly(
+            tuple("NEAR", 1),
+            tuple("MIDDLE", 0)
+        );
+    }
+
+    @Test
+    void testUpdate_repeated_replacesPreviousContent() {
+        // Arrange
+        OnlineTransceiverIndex index = new OnlineTransceiverIndex();
+        index.update(
+            createDataFile(createClient("DLH123", ClientType.PILOT_CONNECTED)),
+            createTransceiversFile(createStation("DLH123", createTransceiver(0, 121500000, 50.0, 8.5)))
+        );
+
+        // Act
+        index.update(
+            createDataFile(createClient("BAW456", ClientType.PILOT_CONNECTED)),
+            createTransceiversFile(createStation("BAW456", createTransceiver(0, 122800000, 51.0, 0.0)))
+        );
+
+        // Assert
+        assertThat(index.getByFrequencyHertz(121500000)).isEmpty();
+        assertThat(index.getByCallsign("DLH123")).isEmpty();
+        assertThat(index.getClientByCallsign("DLH123")).isEmpty();
+        assertThat(index.getByFrequencyHertz(122800000)).extracting(OnlineTransceiverIndex.Entry::getCallsign)
+                                                        .containsExactly("BAW456");
+    }
+
+    @Test
+    void testUpdate_nullFiles_resultsInEmptyIndex() {
+        // Arrange
+        OnlineTransceiverIndex index = new OnlineTransceiverIndex();
+
+        // Act
+        index.update(null, null);
+
+        // Assert
+        assertThat(index.getByFrequencyHertz(121500000)).isEmpty();
+        assertThat(index.getByCallsign("DLH123")).isEmpty();
+    }
+
+    @Test
+    void testUpdate_nullCollections_resultsInEmptyIndex() {
+        // Arrange
+        OnlineTransceiverIndex index = new OnlineTransceiverIndex();
+        DataFile dataFile = new DataFile();
+        dataFile.setClients(null);
+
+        // Act
+        index.update(dataFile, new OnlineTransceiversFile());
+
+        // Assert
+        assertThat(index.getClientByCallsign("DLH123")).isEmpty();
+    }
+}
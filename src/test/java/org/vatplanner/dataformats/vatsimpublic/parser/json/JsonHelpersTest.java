@@ -0,0 +1,109 @@
+package org.vatplanner.dataformats.vatsimpublic.parser.json;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.vatplanner.dataformats.vatsimpublic.parser.DataFile;
+
+import com.github.cliftonlabs.json_simple.JsonKey;
+import com.github.cliftonlabs.json_simple.JsonObject;
+
+class JsonHelpersTest {
+
+    private enum Key implements JsonKey {
+        VALUE("value");
+
+        private final String key;
+
+        Key(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            return null;
+        }
+    }
+
+    @Test
+    void testGetMandatory_null_returnsEmptyAndLogs() {
+        // Arrange
+        JsonObject object = new JsonObject();
+        object.put("value", null);
+        DataFile logCollector = new DataFile();
+
+        // Act
+        Optional<Object> result = JsonHelpers.getMandatory(x -> object.get(x.getKey()), Key.VALUE, "section", logCollector);
+
+        // Assert
+        assertThat(result).isEmpty();
+        assertThat(logCollector.getParserLogEntries()).singleElement()
+                                                      .matches(x -> x.getMessage().equals("key value is undefined"));
+    }
+
+    @Test
+    void testGetMandatoryTyped_null_returnsEmptyAndLogsOnce() {
+        // Arrange
+        JsonObject object = new JsonObject();
+        object.put("value", null);
+        DataFile logCollector = new DataFile();
+
+        // Act
+        Optional<String> result = JsonHelpers.getMandatory(x -> object.get(x.getKey()), Key.VALUE, String.class, "section", logCollector);
+
+        // Assert
+        assertThat(result).isEmpty();
+        assertThat(logCollector.getParserLogEntries()).hasSize(1);
+    }
+
+    @Test
+    void testGetMandatoryTyped_missingKey_returnsEmptyAndLogsOnce() {
+        // Arrange
+        JsonObject object = new JsonObject();
+        DataFile logCollector = new DataFile();
+
+        // Act
+        Optional<String> result = JsonHelpers.getMandatory(x -> object.get(x.getKey()), Key.VALUE, String.class, "section", logCollector);
+
+        // Assert
+        assertThat(result).isEmpty();
+        assertThat(logCollector.getParserLogEntries()).hasSize(1);
+    }
+
+    @Test
+    void testGetMandatoryTyped_wrongType_returnsEmptyAndLogs() {
+        // Arrange
+        JsonObject object = new JsonObject();
+        object.put("value", 123);
+        DataFile logCollector = new DataFile();
+
+        // Act
+        Optional<String> result = JsonHelpers.getMandatory(x -> object.get(x.getKey()), Key.VALUE, String.class, "section", logCollector);
+
+        // Assert
+        assertThat(result).isEmpty();
+        assertThat(logCollector.getParserLogEntries()).hasSize(1);
+    }
+
+    @Test
+    void testGetMandatoryTyped_matchingType_returnsValueWithoutLogging() {
+        // Arrange
+        JsonObject object = new JsonObject();
+        object.put("value", "abc");
+        DataFile logCollector = new DataFile();
+
+        // Act
+        Optional<String> result = JsonHelpers.getMandatory(x -> object.get(x.getKey()), Key.VALUE, String.class, "section", logCollector);
+
+        // Assert
+        assertThat(result).contains("abc");
+        assertThat(logCollector.getParserLogEntries()).isEmpty();
+    }
+}
@@ -0,0 +1,180 @@
+package org.vatplanner.dataformats.vatsimpublic.parser.vatspy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.vatplanner.dataformats.vatsimpublic.parser.ParserLogEntry;
+
+class VatSpyBinaryCacheTest {
+
+    private static final String VATSPY_DAT = String.join(
+        "\n",
+        "; comment",
+        "[Countries]",
+        "Germany|ED|Center",
+        "Fiji|NF|",
+        "[Airports]",
+        "EDDF|Frankfurt/Main|50.033|8.570|FRA|EDGG|0",
+        "EDDM|Munich|48.354|11.786||EDMM|0",
+        "XEDF|Frankfurt Pseudo|50.0|8.5||EDGG|1",
+        "[FIRs]",
+        "EDGG|Langen|EDGG|EDGG",
+        "NFFF|Nadi||",
+        "[UIRs]",
+        "EURM|Euro Middle|EDGG,EDMM",
+        "[IDL]",
+        "-10.0|180.0",
+        "-20.0|-175.0",
+        "[Unknown]",
+        "something"
+    );
+
+    private static final String FIR_BOUNDARIES_DAT = String.join(
+        "\n",
+        "EDGG|0|0|4|48.0|6.0|52.0|12.0|50.0|9.0",
+        "48.0|6.0",
+        "52.0|6.0",
+        "52.0|12.0",
+        "48.0|12.0",
+        "NFFF|1|0|3|-25.0|170.0|-10.0|-170.0|-17.0|178.0",
+        "-25.0|170.0",
+        "-10.0|170.0",
+        "-10.0|-170.0"
+    );
+
+    private static final byte[] HASH = VatSpyBinaryCache.hash(
+        VATSPY_DAT.getBytes(StandardCharsets.UTF_8),
+        FIR_BOUNDARIES_DAT.getBytes(StandardCharsets.UTF_8)
+    );
+
+    private static ByteBuffer writeCache(byte[] sourceHash) throws IOException {
+        VatSpyFile vatSpyFile = new VatSpyFileParser().deserialize(VATSPY_DAT);
+        FIRBoundaryFile firBoundaryFile = new FIRBoundaryFileParser().deserialize(FIR_BOUNDARIES_DAT);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        VatSpyBinaryCache.write(vatSpyFile, firBoundaryFile, sourceHash, baos);
+        return ByteBuffer.wrap(baos.toByteArray());
+    }
+
+    @Test
+    void testLoad_matchingHash_restoresVatSpyFile() throws IOException {
+        // Arrange
+        VatSpyFile expected = new VatSpyFileParser().deserialize(VATSPY_DAT);
+        ByteBuffer buffer = writeCache(HASH);
+
+        // Act
+        VatSpyBinaryCache.Data result = VatSpyBinaryCache.load(buffer, HASH);
+
+        // Assert
+        VatSpyFile vatSpyFile = result.getVatSpyFile();
+        assertThat(result.isFromCache()).isTrue();
+        assertThat(vatSpyFile.getCountries()).usingRecursiveFieldByFieldElementComparator()
+                                             .containsExactlyElementsOf(expected.getCountries());
+        assertThat(vatSpyFile.getAirports()).usingRecursiveFieldByFieldElementComparator()
+                                            .containsExactlyElementsOf(expected.getAirports());
+        assertThat(vatSpyFile.getFlightInformationRegions()).usingRecursiveFieldByFieldElementComparator()
+                                                            .containsExactlyElementsOf(expected.getFlightInformationRegions());
+        assertThat(vatSpyFile.getUpperInformationRegions()).usingRecursiveFieldByFieldElementComparator()
+                                                           .containsExactlyElementsOf(expected.getUpperInformationRegions());
+        assertThat(vatSpyFile.getInternationalDateLine()).usingRecursiveFieldByFieldElementComparator()
+                                                         .containsExactlyElementsOf(expected.getInternationalDateLine());
+        assertThat(vatSpyFile.getParserLogEntries()).extracting(ParserLogEntry::getLineContent)
+                                                    .containsExactlyElementsOf(
+                                                        expected.getParserLogEntries()
+                                                                .stream()
+                                                                .map(ParserLogEntry::getLineContent)
+                                                                .collect(Collectors.toList())
+                                                    );
+    }
+
+    @Test
+    void testLoad_matchingHash_restoresFIRBoundaryFile() throws IOException {
+        // Arrange
+        FIRBoundaryFile expected = new FIRBoundaryFileParser().deserialize(FIR_BOUNDARIES_DAT);
+        ByteBuffer buffer = writeCache(HASH);
+
+        // Act
+        VatSpyBinaryCache.Data result = VatSpyBinaryCache.load(buffer, HASH);
+
+        // Assert
+        assertThat(result.getFIRBoundaryFile().getBoundaries()).usingRecursiveFieldByFieldElementComparator()
+                                                               .containsExactlyElementsOf(expected.getBoundaries());
+    }
+
+    @Test
+    void testLoad_differentHash_returnsNull() throws IOException {
+        // Arrange
+        ByteBuffer buffer = writeCache(HASH);
+        byte[] otherHash = VatSpyBinaryCache.hash(new byte[0], new byte[0]);
+
+        // Act
+        VatSpyBinaryCache.Data result = VatSpyBinaryCache.load(buffer, otherHash);
+
+        // Assert
+        assertThat(result).isNull();
+    }
+
+    @Test
+    void testLoad_truncated_returnsNull() throws IOException {
+        // Arrange
+        ByteBuffer complete = writeCache(HASH);
+        ByteBuffer truncated = ByteBuffer.wrap(complete.array(), 0, complete.limit() / 2);
+
+        // Act
+        VatSpyBinaryCache.Data result = VatSpyBinaryCache.load(truncated, HASH);
+
+        // Assert
+        assertThat(result).isNull();
+    }
+
+    @Test
+    void testLoadOrParse_repeated_parsesOnlyOnce(@TempDir Path directory) throws IOException {
+        // Arrange
+        Path vatSpyDat = Files.write(directory.resolve("VATSpy.dat"), VATSPY_DAT.getBytes(StandardCharsets.UTF_8));
+        Path firBoundariesDat = Files.write(
+            directory.resolve("FIRBoundaries.dat"),
+            FIR_BOUNDARIES_DAT.getBytes(StandardCharsets.UTF_8)
+        );
+        Path cacheFile = directory.resolve("vatspy.cache");
+
+        // Act
+        VatSpyBinaryCache.Data first = VatSpyBinaryCache.loadOrParse(vatSpyDat, firBoundariesDat, StandardCharsets.UTF_8, cacheFile);
+        VatSpyBinaryCache.Data second = VatSpyBinaryCache.loadOrParse(vatSpyDat, firBoundariesDat, StandardCharsets.UTF_8, cacheFile);
+
+        // Assert
+        assertThat(first.isFromCache()).isFalse();
+        assertThat(second.isFromCache()).isTrue();
+        assertThat(second.getVatSpyFile().getAirports()).hasSize(3);
+        assertThat(second.getFIRBoundaryFile().getBoundaries()).hasSize(2);
+    }
+
+    @Test
+    void testLoadOrParse_sourceChanged_parsesAgain(@TempDir Path directory) throws IOException {
+        // Arrange
+        Path vatSpyDat = Files.write(directory.resolve("VATSpy.dat"), VATSPY_DAT.getBytes(StandardCharsets.UTF_8));
+        Path firBoundariesDat = Files.write(
+            directory.resolve("FIRBoundaries.dat"),
+            FIR_BOUNDARIES_DAT.getBytes(StandardCharsets.UTF_8)
+        );
+        Path cacheFile = directory.resolve("vatspy.cache");
+        VatSpyBinaryCache.loadOrParse(vatSpyDat, firBoundariesDat, StandardCharsets.UTF_8, cacheFile);
+
+        Files.write(vatSpyDat, (VATSPY_DAT + "\n[Airports]\nEDDH|Hamburg|53.630|9.988|HAM|EDWW|0").getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        VatSpyBinaryCache.Data result = VatSpyBinaryCache.loadOrParse(vatSpyDat, firBoundariesDat, StandardCharsets.UTF_8, cacheFile);
+
+        // Assert
+        assertThat(result.isFromCache()).isFalse();
+        assertThat(result.getVatSpyFile().getAirports()).hasSize(4);
+    }
+}
@@ -0,0 +1,264 @@
+package org.vatplanner.dataformats.vatsimpublic.parser.vatspy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class VatSpyIndexTest {
+
+    private static final String VATSPY_DAT = String.join(
+        "\n",
+        "[Countries]",
+        "Germany|ED|Center",
+        "[Airports]",
+        "XEDF|Frankfurt Pseudo|50.0|8.5|FRA|EDGG|1",
+        "EDDF|Frankfurt/Main|50.033|8.570|FRA|EDGG|0",
+        "EDDM|Munich|48.354|11.786||EDMM|0",
+        "EDDM|Munich Pseudo|48.3|11.7||EDMM|1",
+        "[FIRs]",
+        "EDGG|Langen|EDGG|EDGG",
+        "EDGG|Langen East|EDGG_E|EDGG",
+        "EDMM|Munich||EDMM",
+        "EDGE|Edge|EDDM|EDGE",
+        "[UIRs]",
+        "EURM|Euro Middle|EDGG,EDMM,XXXX",
+        "EDDF|Conflicting|EDMM"
+    );
+
+    private static VatSpyIndex createIndex() {
+        return new VatSpyIndex(new VatSpyFileParser().deserialize(VATSPY_DAT));
+    }
+
+    @Test
+    void testGetAirportByIcaoCode_duplicateWithPseudo_returnsNonPseudo() {
+        // Arrange
+        VatSpyIndex index = createIndex();
+
+        // Act
+        Optional<Airport> result = index.getAirportByIcaoCode("EDDM");
+
+        // Assert
+        assertThat(result).get()
+                          .extracting(Airport::getName)
+                          .isEqualTo("Munich");
+    }
+
+    @Test
+    void testGetAirportByIcaoCode_unknown_returnsEmpty() {
+        // Arrange
+        VatSpyIndex index = createIndex();
+
+        // Act
+        Optional<Airport> result = index.getAirportByIcaoCode("KJFK");
+
+        // Assert
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void testGetAirportsByAlternativeCode_shared_returnsNonPseudoFirst() {
+        // Arrange
+        VatSpyIndex index = createIndex();
+
+        // Act
+        List<Airport> result = index.getAirportsByAlternativeCode("FRA");
+
+        // Assert
+        assertThat(result).extracting(Airport::getIcaoCode)
+                          .containsExactly("EDDF", "XEDF");
+    }
+
+    @Test
+    void testGetFlightInformationRegionsById_duplicate_returnsAllInOrder() {
+        // Arrange
+        VatSpyIndex index = createIndex();
+
+        // Act
+        List<FlightInformationRegion> result = index.getFlightInformationRegionsById("EDGG");
+
+        // Assert
+        assertThat(result).extracting(FlightInformationRegion::getName)
+                          .containsExactly("Langen", "Langen East");
+    }
+
+    @Test
+    void testGetUpperInformationRegionById_known_returnsUIR() {
+        // Arrange
+        VatSpyIndex index = createIndex();
+
+        // Act
+        Optional<UpperInformationRegion> result = index.getUpperInformationRegionById("EURM");
+
+        // Assert
+        assertThat(result).get()
+                          .extracting(UpperInformationRegion::getName)
+                          .isEqualTo("Euro Middle");
+    }
+
+    @Test
+    void testGetFlightInformationRegionsByUpperInformationRegionId_known_expandsKnownFIRsInOrder() {
+        // Arrange
+        VatSpyIndex index = createIndex();
+
+        // Act
+        List<FlightInformationRegion> result = index.getFlightInformationRegionsByUpperInformationRegionId("EURM");
+
+        // Assert
+        assertThat(result).extracting(FlightInformationRegion::getName)
+                          .containsExactly("Langen", "Langen East", "Munich");
+    }
+
+    @Test
+    void testGetFlightInformationRegionsByUpperInformationRegionId_unknown_returnsEmpty() {
+        // Arrange
+        VatSpyIndex index = createIndex();
+
+        // Act
+        List<FlightInformationRegion> result = index.getFlightInformationRegionsByUpperInformationRegionId("XXXX");
+
+        // Assert
+        assertThat(result).isEmpty();
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "EDDF_TWR, EDDF, Frankfurt/Main",
+        "EDDF_N_TWR, EDDF, Frankfurt/Main",
+        "EDDF_DEL, EDDF, Frankfurt/Main",
+        "EDDF_ATIS, EDDF, Frankfurt/Main",
+        "eddf_gnd, EDDF, Frankfurt/Main",
+        "FRA_APP, FRA, Frankfurt/Main",
+        "EDDM_DEP, EDDM, Munich",
+        "XEDF_TWR, XEDF, Frankfurt Pseudo",
+    })
+    void testResolveCallsign_airportStation_resolvesAirport(String callsign, String expectedPrefix, String expectedName) {
+        // Arrange
+        VatSpyIndex index = createIndex();
+
+        // Act
+        Optional<CallsignResolution> result = index.resolveCallsign(callsign);
+
+        // Assert
+        assertThat(result).get()
+                          .satisfies(resolution -> {
+                              assertThat(resolution.getMatchedPrefix()).isEqualTo(expectedPrefix);
+                              assertThat(resolution.getAirport()).get()
+                                                                 .extracting(Airport::getName)
+                                                                 .isEqualTo(expectedName);
+                              assertThat(resolution.getFlightInformationRegion()).isEmpty();
+                              assertThat(resolution.getUpperInformationRegion()).isEmpty();
+                              assertThat(resolution.getFlightInformationRegions()).isEmpty();
+                          });
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "EDGG_CTR, EDGG, Langen",
+        "EDGG_E_CTR, EDGG_E, Langen East",
+        "EDGG_W_CTR, EDGG, Langen",
+        "EDGG_E_1_CTR, EDGG_E, Langen East",
+        "EDMM_FSS, EDMM, Munich",
+        "EDDM_CTR, EDDM, Edge",
+        "EDGE_CTR, EDGE, Edge",
+    })
+    void testResolveCallsign_centerStationOfFIR_resolvesFIR(String callsign, String expectedPrefix, String expectedName) {
+        // Arrange
+        VatSpyIndex index = createIndex();
+
+        // Act
+        Optional<CallsignResolution> result = index.resolveCallsign(callsign);
+
+        // Assert
+        assertThat(result).get()
+                          .satisfies(resolution -> {
+                              assertThat(resolution.getMatchedPrefix()).isEqualTo(expectedPrefix);
+                              assertThat(resolution.getAirport()).isEmpty();
+                              assertThat(resolution.getFlightInformationRegion()).get()
+                                                                                 .extracting(FlightInformationRegion::getName)
+                                                                                 .isEqualTo(expectedName);
+                              assertThat(resolution.getUpperInformationRegion()).isEmpty();
+                              assertThat(resolution.getFlightInformationRegions()).extracting(FlightInformationRegion::getName)
+                                                                                  .containsExactly(expectedName);
+                          });
+    }
+
+    @Test
+    void testResolveCallsign_centerStationOfUIR_resolvesExpandedUIR() {
+        // Arrange
+        VatSpyIndex index = createIndex();
+
+        // Act
+        Optional<CallsignResolution> result = index.resolveCallsign("EURM_CTR");
+
+        // Assert
+        assertThat(result).get()
+                          .satisfies(resolution -> {
+                              assertThat(resolution.getAirport()).isEmpty();
+                              assertThat(resolution.getFlightInformationRegion()).isEmpty();
+                              assertThat(resolution.getUpperInformationRegion()).get()
+                                                                                .extracting(UpperInformationRegion::getId)
+                                                                                .isEqualTo("EURM");
+                              assertThat(resolution.getFlightInformationRegions()).extracting(FlightInformationRegion::getName)
+                                                                                  .containsExactly("Langen", "Langen East", "Munich");
+                          });
+    }
+
+    @Test
+    void testResolveCallsign_uirIdMatchingAirport_resolvesUIRForCenterStation() {
+        // Arrange
+        VatSpyIndex index = createIndex();
+
+        // Act
+        Optional<CallsignResolution> result = index.resolveCallsign("EDDF_CTR");
+
+        // Assert
+        assertThat(result).get()
+                          .extracting(CallsignResolution::getUpperInformationRegion)
+                          .isEqualTo(index.getUpperInformationRegionById("EDDF"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "EDDF", "_TWR", "EDDF_", "EDDF_OBS", "EDDF_SUP", "EDD_TWR", "EDDFX_TWR", "KJFK_TWR", "EDG_CTR", "EDGGE_CTR", "EDGG_TWR" })
+    void testResolveCallsign_unresolvable_returnsEmpty(String callsign) {
+        // Arrange
+        VatSpyIndex index = createIndex();
+
+        // Act
+        Optional<CallsignResolution> result = index.resolveCallsign(callsign);
+
+        // Assert
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void testResolveCallsign_null_returnsEmpty() {
+        // Arrange
+        VatSpyIndex index = createIndex();
+
+        // Act
+        Optional<CallsignResolution> result = index.resolveCallsign(null);
+
+        // Assert
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void testResolveCallsign_fileModifiedAfterIndexing_ignoresModification() {
+        // Arrange
+        VatSpyFile vatSpyFile = new VatSpyFileParser().deserialize(VATSPY_DAT);
+        VatSpyIndex index = new VatSpyIndex(vatSpyFile);
+        vatSpyFile.addAirport(new Airport("KJFK", "New York", null, "JFK", "KZNY", false));
+
+        // Act
+        Optional<CallsignResolution> result = index.resolveCallsign("KJFK_TWR");
+
+        // Assert
+        assertThat(result).isEmpty();
+    }
+}
@@ -0,0 +1,488 @@
+package org.vatplanner.dataformats.vatsimpublic.polling;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.vatplanner.dataformats.vatsimpublic.MinimumRetrievalIntervalProvider;
+import org.vatplanner.dataformats.vatsimpublic.parser.Parser;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+class DataFeedPollerTest {
+
+    private HttpServer server;
+
+    private volatile String content = "";
+    private volatile boolean useETag = false;
+    private volatile boolean useGzip = false;
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final List<String> receivedIfNoneMatch = new CopyOnWriteArrayList<>();
+
+    private static class Result implements MinimumRetrievalIntervalProvider {
+        private final String content;
+        private final Duration minimumRetrievalInterval;
+
+        private Result(String content, Duration minimumRetrievalInterval) {
+            this.content = content;
+            this.minimumRetrievalInterval = minimumRetrievalInterval;
+        }
+
+        @Override
+        public Duration getMinimumRetrievalInterval() {
+            return minimumRetrievalInterval;
+        }
+    }
+
+    /**
+     * Parses content to {@link Result}s; a line "interval=x" sets the requested
+     * retrieval interval to x seconds.
+     */
+    private static class CountingParser implements Parser<Result> {
+        private int numInvocations = 0;
+
+        @Override
+        public Result deserialize(CharSequence s) {
+            numInvocations++;
+
+            String content = s.toString();
+            Duration interval = Arrays.stream(content.split("\n"))
+                                      .filter(line -> line.startsWith("interval="))
+                                      .map(line -> Duration.ofSeconds(Long.parseLong(line.substring(9))))
+                                      .findFirst()
+                                      .orElse(null);
+
+            return new Result(content, interval);
+        }
+
+        @Override
+        public Result deserialize(Reader reader) {
+            try (BufferedReader br = new BufferedReader(reader)) {
+                return deserialize(br.lines().collect(Collectors.joining("\n")));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/feed", this::serveFeed);
+        server.createContext("/broken", exchange -> {
+            requests.add("/broken");
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private void serveFeed(HttpExchange exchange) throws IOException {
+        requests.add("/feed");
+
+        String etag = "\"" + content.hashCode() + "\"";
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch != null) {
+            receivedIfNoneMatch.add(ifNoneMatch);
+        }
+
+        if (useETag && etag.equals(ifNoneMatch)) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+
+        byte[] body = content.getBytes(UTF_8);
+        if (useETag) {
+            exchange.getResponseHeaders().add("ETag", etag);
+        }
+        if (useGzip) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(baos)) {
+                gzip.write(body);
+            }
+            body = baos.toByteArray();
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(body);
+        }
+    }
+
+    private URL url(String path) throws IOException {
+        return new URL("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + path);
+    }
+
+    private DataFeedPoller<Result> createPoller(CountingParser parser, List<Result> consumed, String... paths) throws IOException {
+        List<URL> urls = new ArrayList<>();
+        for (String path : paths) {
+            urls.add(url(path));
+        }
+
+        return new DataFeedPoller<>(parser)
+            .setUrls(urls)
+            .setConsumer(consumed::add)
+            .setUpdateMarkerExtractor(new DataFileUpdateMarkerExtractor())
+            .setMaximumJitter(Duration.ZERO);
+    }
+
+    @Test
+    void testPoll_firstPoll_parsesAndConsumesContent() throws IOException {
+        // Arrange
+        content = "UPDATE = 1\ndata";
+        CountingParser parser = new CountingParser();
+        List<Result> consumed = new ArrayList<>();
+        DataFeedPoller<Result> poller = createPoller(parser, consumed, "/feed");
+
+        // Act
+        DataFeedPoller.Outcome result = poller.poll();
+
+        // Assert
+        assertThat(result).isEqualTo(DataFeedPoller.Outcome.UPDATED);
+        assertThat(consumed).extracting(x -> x.content)
+                            .containsExactly("UPDATE = 1\ndata");
+    }
+
+    @Test
+    void testPoll_gzipEncoded_decodesContent() throws IOException {
+        // Arrange
+        content = "UPDATE = 1\ndata";
+        useGzip = true;
+        CountingParser parser = new CountingParser();
+        List<Result> consumed = new ArrayList<>();
+        DataFeedPoller<Result> poller = createPoller(parser, consumed, "/feed");
+
+        // Act
+        poller.poll();
+
+        // Assert
+        assertThat(consumed).extracting(x -> x.content)
+                            .containsExactly("UPDATE = 1\ndata");
+    }
+
+    @Test
+    void testPoll_unchangedWithETag_returnsNotModifiedWithoutParsing() throws IOException {
+        // Arrange
+        content = "UPDATE = 1\ndata";
+        useETag = true;
+        CountingParser parser = new CountingParser();
+        List<Result> consumed = new ArrayList<>();
+        DataFeedPoller<Result> poller = createPoller(parser, consumed, "/feed");
+        poller.poll();
+
+        // Act
+        DataFeedPoller.Outcome result = poller.poll();
+
+        // Assert
+        assertThat(result).isEqualTo(DataFeedPoller.Outcome.NOT_MODIFIED);
+        assertThat(receivedIfNoneMatch).containsExactly("\"" + content.hashCode() + "\"");
+        assertThat(parser.numInvocations).isEqualTo(1);
+        assertThat(consumed).hasSize(1);
+    }
+
+    @Test
+    void testPoll_unchangedWithoutValidators_returnsUnchangedContentWithoutParsing() throws IOException {
+        // Arrange
+        content = "UPDATE = 1\ndata";
+        CountingParser parser = new CountingParser();
+        List<Result> consumed = new ArrayList<>();
+        DataFeedPoller<Result> poller = createPoller(parser, consumed, "/feed");
+        poller.poll();
+
+        // Act
+        DataFeedPoller.Outcome result = poller.poll();
+
+        // Assert
+        assertThat(result).isEqualTo(DataFeedPoller.Outcome.UNCHANGED_CONTENT);
+        assertThat(parser.numInvocations).isEqualTo(1);
+        assertThat(consumed).hasSize(1);
+    }
+
+    @Test
+    void testPoll_changedContentWithSameUpdateMarker_returnsUnchangedUpdateMarkerWithoutParsing() throws IOException {
+        // Arrange
+        content = "UPDATE = 1\ndata";
+        CountingParser parser = new CountingParser();
+        List<Result> consumed = new ArrayList<>();
+        DataFeedPoller<Result> poller = createPoller(parser, consumed, "/feed");
+        poller.poll();
+        content = "UPDATE = 1\nother data";
+
+        // Act
+        DataFeedPoller.Outcome result = poller.poll();
+
+        // Assert
+        assertThat(result).isEqualTo(DataFeedPoller.Outcome.UNCHANGED_UPDATE_MARKER);
+        assertThat(parser.numInvocations).isEqualTo(1);
+        assertThat(consumed).hasSize(1);
+    }
+
+    @Test
+    void testPoll_changedUpdateMarker_parsesAndConsumesContent() throws IOException {
+        // Arrange
+        content = "UPDATE = 1\ndata";
+        CountingParser parser = new CountingParser();
+        List<Result> consumed = new ArrayList<>();
+        DataFeedPoller<Result> poller = createPoller(parser, consumed, "/feed");
+        poller.poll();
+        content = "UPDATE = 2\nnew data";
+
+        // Act
+        DataFeedPoller.Outcome result = poller.poll();
+
+        // Assert
+        assertThat(result).isEqualTo(DataFeedPoller.Outcome.UPDATED);
+        assertThat(consumed).extracting(x -> x.content)
+                            .containsExactly("UPDATE = 1\ndata", "UPDATE = 2\nnew data");
+    }
+
+    @Test
+    void testPoll_firstMirrorFails_rotatesToNextMirrorAndStaysThere() throws IOException {
+        // Arrange
+        content = "UPDATE = 1\ndata";
+        CountingParser parser = new CountingParser();
+        List<Result> consumed = new ArrayList<>();
+        DataFeedPoller<Result> poller = createPoller(parser, consumed, "/broken", "/feed");
+
+        // Act
+        DataFeedPoller.Outcome firstResult = poller.poll();
+        DataFeedPoller.Outcome secondResult = poller.poll();
+
+        // Assert
+        assertThat(firstResult).isEqualTo(DataFeedPoller.Outcome.UPDATED);
+        assertThat(secondResult).isEqualTo(DataFeedPoller.Outcome.UNCHANGED_CONTENT);
+        assertThat(requests).containsExactly("/broken", "/feed", "/feed");
+    }
+
+    @Test
+    void testPoll_allMirrorsFail_returnsFailed() throws IOException {
+        // Arrange
+        CountingParser parser = new CountingParser();
+        List<Result> consumed = new ArrayList<>();
+        DataFeedPoller<Result> poller = createPoller(parser, consumed, "/broken", "/broken");
+
+        // Act
+        DataFeedPoller.Outcome result = poller.poll();
+
+        // Assert
+        assertThat(result).isEqualTo(DataFeedPoller.Outcome.FAILED);
+        assertThat(requests).containsExactly("/broken", "/broken");
+        assertThat(consumed).isEmpty();
+    }
+
+    @Test
+    void testPoll_noUrls_returnsFailed() {
+        // Arrange
+        DataFeedPoller<Result> poller = new DataFeedPoller<>(new CountingParser()).setUrls(Collections.emptyList());
+
+        // Act
+        DataFeedPoller.Outcome result = poller.poll();
+
+        // Assert
+        assertThat(result).isEqualTo(DataFeedPoller.Outcome.FAILED);
+    }
+
+    @Test
+    void testGetDelayBeforeNextPoll_notPolled_returnsZero() {
+        // Arrange
+        DataFeedPoller<Result> poller = new DataFeedPoller<>(new CountingParser());
+
+        // Act
+        Duration result = poller.getDelayBeforeNextPoll();
+
+        // Assert
+        assertThat(result).isEqualTo(Duration.ZERO);
+    }
+
+    @Test
+    void testGetDelayBeforeNextPoll_requestedIntervalLongerThanMinimum_returnsRequestedInterval() throws IOException {
+        // Arrange
+        content = "UPDATE = 1\ninterval=60";
+        DataFeedPoller<Result> poller = createPoller(new CountingParser(), new ArrayList<>(), "/feed")
+            .setMinimumInterval(Duration.ofSeconds(15));
+        poller.poll();
+
+        // Act
+        Duration result = poller.getDelayBeforeNextPoll();
+
+        // Assert
+        assertThat(result).isEqualTo(Duration.ofSeconds(60));
+    }
+
+    @Test
+    void testGetDelayBeforeNextPoll_requestedIntervalShorterThanMinimum_returnsMinimumInterval() throws IOException {
+        // Arrange
+        content = "UPDATE = 1\ninterval=5";
+        DataFeedPoller<Result> poller = createPoller(new CountingParser(), new ArrayList<>(), "/feed")
+            .setMinimumInterval(Duration.ofSeconds(15));
+        poller.poll();
+
+        // Act
+        Duration result = poller.getDelayBeforeNextPoll();
+
+        // Assert
+        assertThat(result).isEqualTo(Duration.ofSeconds(15));
+    }
+
+    @Test
+    void testGetDelayBeforeNextPoll_requestedIntervalOfEarlierResult_keepsRequestedInterval() throws IOException {
+        // Arrange
+        content = "UPDATE = 1\ninterval=60";
+        DataFeedPoller<Result> poller = createPoller(new CountingParser(), new ArrayList<>(), "/feed")
+            .setMinimumInterval(Duration.ofSeconds(15));
+        poller.poll();
+        poller.poll();
+
+        // Act
+        Duration result = poller.getDelayBeforeNextPoll();
+
+        // Assert
+        assertThat(poller.getLastOutcome()).isEqualTo(DataFeedPoller.Outcome.UNCHANGED_CONTENT);
+        assertThat(result).isEqualTo(Duration.ofSeconds(60));
+    }
+
+    @Test
+    void testGetDelayBeforeNextPoll_failed_returnsFailureRetryInterval() throws IOException {
+        // Arrange
+        DataFeedPoller<Result> poller = createPoller(new CountingParser(), new ArrayList<>(), "/broken")
+            .setFailureRetryInterval(Duration.ofSeconds(42));
+        poller.poll();
+
+        // Act
+        Duration result = poller.getDelayBeforeNextPoll();
+
+        // Assert
+        assertThat(result).isEqualTo(Duration.ofSeconds(42));
+    }
+
+    @Test
+    void testGetDelayBeforeNextPoll_jitter_addsRandomDelay() throws IOException {
+        // Arrange
+        content = "UPDATE = 1\ndata";
+        Random random = new Random() {
+            @Override
+            public double nextDouble() {
+                return 0.5;
+            }
+        };
+        DataFeedPoller<Result> poller = createPoller(new CountingParser(), new ArrayList<>(), "/feed")
+            .setMinimumInterval(Duration.ofSeconds(15))
+            .setMaximumJitter(Duration.ofSeconds(4))
+            .setRandom(random);
+        poller.poll();
+
+        // Act
+        Duration result = poller.getDelayBeforeNextPoll();
+
+        // Assert
+        assertThat(result).isEqualTo(Duration.ofSeconds(17));
+    }
+
+    @Test
+    void testStart_scheduled_pollsRepeatedlyUntilStopped() throws IOException, InterruptedException {
+        // Arrange
+        content = "UPDATE = 1\ndata";
+        CountDownLatch latch = new CountDownLatch(3);
+        server.createContext("/count", exchange -> {
+            latch.countDown();
+            serveFeed(exchange);
+        });
+        DataFeedPoller<Result> poller = new DataFeedPoller<>(new CountingParser())
+            .setUrls(Collections.singletonList(url("/count")))
+            .setMinimumInterval(Duration.ZERO)
+            .setMaximumJitter(Duration.ZERO);
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+
+        try {
+            // Act
+            poller.start(executor);
+            boolean completed = latch.await(10, TimeUnit.SECONDS);
+            poller.stop();
+
+            // Assert
+            assertThat(completed).isTrue();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testStart_alreadyStarted_throwsIllegalStateException() {
+        // Arrange
+        DataFeedPoller<Result> poller = new DataFeedPoller<>(new CountingParser())
+            .setUrls(Collections.emptyList());
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+
+        try {
+            poller.start(executor);
+
+            // Act
+            ThrowingCallable action = () -> poller.start(executor);
+
+            // Assert
+            assertThatThrownBy(action).isInstanceOf(IllegalStateException.class);
+        } finally {
+            poller.stop();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testSetMinimumInterval_negative_throwsIllegalArgumentException() {
+        // Arrange
+        DataFeedPoller<Result> poller = new DataFeedPoller<>(new CountingParser());
+
+        // Act
+        ThrowingCallable action = () -> poller.setMinimumInterval(Duration.ofSeconds(-1));
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testSetTimeout_zero_throwsIllegalArgumentException() {
+        // Arrange
+        DataFeedPoller<Result> poller = new DataFeedPoller<>(new CountingParser());
+
+        // Act
+        ThrowingCallable action = () -> poller.setTimeout(Duration.ZERO);
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,74 @@
+package org.vatplanner.dataformats.vatsimpublic.polling;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class DataFileUpdateMarkerExtractorTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "!GENERAL:\nVERSION = 8\nUPDATE = 20220402064210\nCONNECTED CLIENTS = 1\n",
+        "; comment\r\n!GENERAL:\r\nUPDATE = 20220402064210\r\n",
+        "{\"general\":{\"version\":3,\"update\":\"20220402064210\",\"update_timestamp\":\"2022-04-02T06:42:10Z\"}}",
+        "{\n  \"general\": {\n    \"update\" : \"20220402064210\"\n  }\n}",
+    })
+    void testApply_containsTimestamp_returnsTimestamp(String content) {
+        // Arrange
+        DataFileUpdateMarkerExtractor extractor = new DataFileUpdateMarkerExtractor();
+
+        // Act
+        String result = extractor.apply(content.getBytes(UTF_8));
+
+        // Assert
+        assertThat(result).isEqualTo("20220402064210");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "",
+        "!GENERAL:\nVERSION = 8\n",
+        "; UPDATE = 20220402064210\n",
+        "{\"general\":{\"update_timestamp\":\"2022-04-02T06:42:10Z\"}}",
+    })
+    void testApply_noTimestamp_returnsNull(String content) {
+        // Arrange
+        DataFileUpdateMarkerExtractor extractor = new DataFileUpdateMarkerExtractor();
+
+        // Act
+        String result = extractor.apply(content.getBytes(UTF_8));
+
+        // Assert
+        assertThat(result).isNull();
+    }
+
+    @Test
+    void testApply_timestampBeyondSearchLength_returnsNull() {
+        // Arrange
+        String content = "!GENERAL:\nUPDATE = 20220402064210\n";
+        DataFileUpdateMarkerExtractor extractor = new DataFileUpdateMarkerExtractor(20);
+
+        // Act
+        String result = extractor.apply(content.getBytes(UTF_8));
+
+        // Assert
+        assertThat(result).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, -1})
+    void testConstructor_nonPositiveSearchLength_throwsIllegalArgumentException(int maximumSearchLength) {
+        // Arrange (nothing to do)
+
+        // Act
+        ThrowingCallable action = () -> new DataFileUpdateMarkerExtractor(maximumSearchLength);
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,252 @@
+package org.vatplanner.dataformats.vatsimpublic.privacyfilter;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+import static org.vatplanner.dataformats.vatsimpublic.privacyfilter.errorhandling.DefaultErrorHandlingStrategies.REMOVE_LINE;
+import static org.vatplanner.dataformats.vatsimpublic.privacyfilter.errorhandling.DefaultErrorHandlingStrategies.THROW_EXCEPTION;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.vatplanner.dataformats.vatsimpublic.privacyfilter.errorhandling.ErrorHandlingStrategy;
+
+class BatchDataFileFilterTest {
+
+    private static final String HEADER = "!GENERAL:\n"
+        + "VERSION = 8\n"
+        + "RELOAD = 1\n"
+        + "UPDATE = 20190311090000\n"
+        + "ATIS ALLOW MIN = 5\n"
+        + "CONNECTED CLIENTS = 1\n"
+        + "!CLIENTS:\n";
+
+    private static final String OBSERVER_LINE = "JD_OBS:123456:John Doe:ATC:123.450:52.12345:13.54321:0:::0::::MYSERVER:100:2::3:300::::::::::::::::$ SOME.SERVER.NET/WHATEVER:20190311090000:20190311083000::::";
+    private static final String OBSERVER_LINE_FILTERED = "XX_OBS:123456:John Doe:ATC:123.450:52.12345:13.54321:0:::0::::MYSERVER:100:2::3:300::::::::::::::::$ SOME.SERVER.NET/WHATEVER:20190311090000:20190311083000::::";
+    private static final String BROKEN_LINE = "AB_OBS:broken";
+
+    private static DataFileFilter createObserverFilter(ErrorHandlingStrategy incompleteFilteringErrorHandlingStrategy) {
+        DataFileFilterConfiguration configuration = new DataFileFilterConfiguration()
+            .setSubstituteObserverPrefix(true);
+        configuration.setIncompleteFilteringErrorHandlingStrategy(incompleteFilteringErrorHandlingStrategy);
+
+        return new DataFileFilter(configuration);
+    }
+
+    @Test
+    void testConstructor_nullFilter_throwsIllegalArgumentException() {
+        // Arrange (nothing to do)
+
+        // Act
+        ThrowingCallable action = () -> new BatchDataFileFilter(null, 1);
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 0})
+    void testConstructor_invalidParallelism_throwsIllegalArgumentException(int parallelism) {
+        // Arrange
+        DataFileFilter filter = createObserverFilter(THROW_EXCEPTION);
+
+        // Act
+        ThrowingCallable action = () -> new BatchDataFileFilter(filter, parallelism);
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testFilter_duplicateFileNames_throwsIllegalArgumentException(@TempDir Path directory) throws IOException {
+        // Arrange
+        Path inputFile1 = writeFile(Files.createDirectory(directory.resolve("a")).resolve("data.txt"), OBSERVER_LINE);
+        Path inputFile2 = writeFile(Files.createDirectory(directory.resolve("b")).resolve("data.txt"), OBSERVER_LINE);
+        Path outputDirectory = Files.createDirectory(directory.resolve("out"));
+        BatchDataFileFilter batchFilter = new BatchDataFileFilter(createObserverFilter(THROW_EXCEPTION), 2);
+
+        // Act
+        ThrowingCallable action = () -> batchFilter.filter(Arrays.asList(inputFile1, inputFile2), outputDirectory);
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testFilter_inputInOutputDirectory_throwsIllegalArgumentException(@TempDir Path directory) throws IOException {
+        // Arrange
+        Path inputFile = writeFile(directory.resolve("data.txt"), OBSERVER_LINE);
+        BatchDataFileFilter batchFilter = new BatchDataFileFilter(createObserverFilter(THROW_EXCEPTION), 2);
+
+        // Act
+        ThrowingCallable action = () -> batchFilter.filter(Arrays.asList(inputFile), directory);
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 4})
+    void testFilter_validFiles_publishesFilteredFiles(int parallelism, @TempDir Path directory) throws IOException {
+        // Arrange
+        Path inputDirectory = Files.createDirectory(directory.resolve("in"));
+        Path outputDirectory = Files.createDirectory(directory.resolve("out"));
+        List<Path> inputFiles = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            inputFiles.add(writeFile(inputDirectory.resolve("data" + i + ".txt"), OBSERVER_LINE));
+        }
+        BatchDataFileFilter batchFilter = new BatchDataFileFilter(createObserverFilter(THROW_EXCEPTION), parallelism);
+
+        // Act
+        List<BatchDataFileFilter.Result> results = batchFilter.filter(inputFiles, outputDirectory);
+
+        // Assert
+        assertThat(results).extracting(BatchDataFileFilter.Result::getInputFile)
+                           .containsExactlyElementsOf(inputFiles);
+        assertThat(results).extracting(BatchDataFileFilter.Result::getStatus)
+                           .containsOnly(BatchDataFileFilter.Status.PUBLISHED);
+        for (BatchDataFileFilter.Result result : results) {
+            assertThat(readFile(result.getOutputFile())).isEqualTo(HEADER + OBSERVER_LINE_FILTERED + "\n");
+        }
+    }
+
+    @Test
+    void testFilter_removedLine_reportsOutcome(@TempDir Path directory) throws IOException {
+        // Arrange
+        Path inputFile = writeFile(Files.createDirectory(directory.resolve("in")).resolve("data.txt"), BROKEN_LINE + "\n" + OBSERVER_LINE);
+        Path outputDirectory = Files.createDirectory(directory.resolve("out"));
+        BatchDataFileFilter batchFilter = new BatchDataFileFilter(createObserverFilter(REMOVE_LINE), 2);
+
+        // Act
+        List<BatchDataFileFilter.Result> results = batchFilter.filter(Arrays.asList(inputFile), outputDirectory);
+
+        // Assert
+        BatchDataFileFilter.Result result = results.get(0);
+        assertThat(result.getStatus()).isEqualTo(BatchDataFileFilter.Status.PUBLISHED);
+        assertThat(result.getFilterReport().countEntries(FilterReport.Outcome.REMOVED)).isEqualTo(1);
+        assertThat(readFile(result.getOutputFile())).isEqualTo(HEADER + OBSERVER_LINE_FILTERED + "\n");
+    }
+
+    @Test
+    void testFilter_abortedFile_publishesOnlyOtherFiles(@TempDir Path directory) throws IOException {
+        // Arrange
+        Path inputDirectory = Files.createDirectory(directory.resolve("in"));
+        Path outputDirectory = Files.createDirectory(directory.resolve("out"));
+        Path brokenFile = writeFile(inputDirectory.resolve("broken.txt"), BROKEN_LINE);
+        Path validFile = writeFile(inputDirectory.resolve("valid.txt"), OBSERVER_LINE);
+        BatchDataFileFilter batchFilter = new BatchDataFileFilter(createObserverFilter(THROW_EXCEPTION), 2);
+
+        // Act
+        List<BatchDataFileFilter.Result> results = batchFilter.filter(Arrays.asList(brokenFile, validFile), outputDirectory);
+
+        // Assert
+        assertThat(results).extracting(BatchDataFileFilter.Result::getStatus)
+                           .containsExactly(BatchDataFileFilter.Status.ABORTED, BatchDataFileFilter.Status.PUBLISHED);
+        assertThat(results.get(0).getException()).isInstanceOf(ErrorHandlingStrategy.FailWithException.class);
+        assertThat(results.get(0).getFilterReport().countEntries(FilterReport.Outcome.ABORTED)).isEqualTo(1);
+        assertThat(outputDirectory.toFile().list()).containsExactly("valid.txt");
+    }
+
+    @Test
+    void testFilter_missingInputFile_reportsFailure(@TempDir Path directory) throws IOException {
+        // Arrange
+        Path missingFile = Files.createDirectory(directory.resolve("in")).resolve("missing.txt");
+        Path outputDirectory = Files.createDirectory(directory.resolve("out"));
+        BatchDataFileFilter batchFilter = new BatchDataFileFilter(createObserverFilter(THROW_EXCEPTION), 2);
+
+        // Act
+        List<BatchDataFileFilter.Result> results = batchFilter.filter(Arrays.asList(missingFile), outputDirectory);
+
+        // Assert
+        assertThat(results.get(0).getStatus()).isEqualTo(BatchDataFileFilter.Status.FAILED);
+        assertThat(outputDirectory.toFile().list()).isEmpty();
+    }
+
+    @Test
+    void testFilter_jsonFile_reportsFailureWithoutPublishing(@TempDir Path directory) throws IOException {
+        // Arrange
+        Path inputDirectory = Files.createDirectory(directory.resolve("in"));
+        Path outputDirectory = Files.createDirectory(directory.resolve("out"));
+        Path jsonFile = Files.write(
+            inputDirectory.resolve("data.json"),
+            ("{\"general\":{\"version\":3,\"update_timestamp\":\"2019-03-11T09:00:00Z\"},"
+                + "\"pilots\":[{\"cid\":123456,\"name\":\"John Doe\",\"callsign\":\"ABC123\"}],"
+                + "\"controllers\":[],\"atis\":[],\"servers\":[],\"prefiles\":[]}\n").getBytes(ISO_8859_1)
+        );
+        Path validFile = writeFile(inputDirectory.resolve("valid.txt"), OBSERVER_LINE);
+        BatchDataFileFilter batchFilter = new BatchDataFileFilter(createObserverFilter(THROW_EXCEPTION), 2);
+
+        // Act
+        List<BatchDataFileFilter.Result> results = batchFilter.filter(Arrays.asList(jsonFile, validFile), outputDirectory);
+
+        // Assert
+        assertThat(results).extracting(BatchDataFileFilter.Result::getStatus)
+                           .containsExactly(BatchDataFileFilter.Status.FAILED, BatchDataFileFilter.Status.PUBLISHED);
+        assertThat(results.get(0).getException()).isInstanceOf(IllegalArgumentException.class);
+        assertThat(outputDirectory.toFile().list()).containsExactly("valid.txt");
+    }
+
+    @Test
+    void testFilter_unsupportedLegacyFormatVersion_reportsFailureWithoutPublishing(@TempDir Path directory) throws IOException {
+        // Arrange
+        Path inputDirectory = Files.createDirectory(directory.resolve("in"));
+        Path outputDirectory = Files.createDirectory(directory.resolve("out"));
+        Path inputFile = Files.write(
+            inputDirectory.resolve("data.txt"),
+            (HEADER.replace("VERSION = 8", "VERSION = 9") + OBSERVER_LINE + "\n").getBytes(ISO_8859_1)
+        );
+        BatchDataFileFilter batchFilter = new BatchDataFileFilter(createObserverFilter(THROW_EXCEPTION), 1);
+
+        // Act
+        List<BatchDataFileFilter.Result> results = batchFilter.filter(Arrays.asList(inputFile), outputDirectory);
+
+        // Assert
+        assertThat(results).extracting(BatchDataFileFilter.Result::getStatus)
+                           .containsExactly(BatchDataFileFilter.Status.FAILED);
+        assertThat(outputDirectory.toFile().list()).isEmpty();
+    }
+
+    @Test
+    void testFilter_unexpectedExceptionDuringVerification_reportsFailureForEachFile(@TempDir Path directory) throws IOException {
+        // Arrange
+        Path inputDirectory = Files.createDirectory(directory.resolve("in"));
+        Path outputDirectory = Files.createDirectory(directory.resolve("out"));
+        List<Path> inputFiles = Arrays.asList(
+            writeFile(inputDirectory.resolve("data1.txt"), OBSERVER_LINE),
+            writeFile(inputDirectory.resolve("data2.txt"), OBSERVER_LINE)
+        );
+        DataFileFilter filter = spy(createObserverFilter(THROW_EXCEPTION));
+        doThrow(new IllegalStateException("unexpected")).when(filter).verifyNoAdditionalLogMessages(any(), any());
+        BatchDataFileFilter batchFilter = new BatchDataFileFilter(filter, 2);
+
+        // Act
+        List<BatchDataFileFilter.Result> results = batchFilter.filter(inputFiles, outputDirectory);
+
+        // Assert
+        assertThat(results).extracting(BatchDataFileFilter.Result::getStatus)
+                           .containsExactly(BatchDataFileFilter.Status.FAILED, BatchDataFileFilter.Status.FAILED);
+        assertThat(results).extracting(BatchDataFileFilter.Result::getException)
+                           .allSatisfy(x -> assertThat(x).isInstanceOf(IllegalStateException.class));
+        assertThat(outputDirectory.toFile().list()).isEmpty();
+    }
+
+    private Path writeFile(Path file, String clientLines) throws IOException {
+        return Files.write(file, (HEADER + clientLines + "\n").getBytes(ISO_8859_1));
+    }
+
+    private String readFile(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), ISO_8859_1);
+    }
+}
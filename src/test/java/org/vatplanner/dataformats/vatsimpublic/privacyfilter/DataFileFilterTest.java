@@ -1,16 +1,31 @@
 package org.vatplanner.dataformats.vatsimpublic.privacyfilter;
 
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.Mockito.mock;
-
+import static org.vatplanner.dataformats.vatsimpublic.privacyfilter.errorhandling.DefaultErrorHandlingStrategies.REMOVE_LINE;
+import static org.vatplanner.dataformats.vatsimpublic.privacyfilter.errorhandling.DefaultErrorHandlingStrategies.THROW_EXCEPTION;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.vatplanner.dataformats.vatsimpublic.parser.DataFile;
 import org.vatplanner.dataformats.vatsimpublic.parser.DataFileMetaData;
+import org.vatplanner.dataformats.vatsimpublic.parser.ParserLogEntry;
+import org.vatplanner.dataformats.vatsimpublic.privacyfilter.errorhandling.ErrorHandlingStrategy;
 
 class DataFileFilterTest {
 
@@ -142,6 +157,300 @@ class DataFileFilterTest {
         assertThat(result).isEqualTo(expectedResult);
     }
 
+    private static final String OBSERVER_LINE = "JD_OBS:123456:John Doe:ATC:123.450:52.12345:13.54321:0:::0::::MYSERVER:100:2::3:300::::::::::::::::$ SOME.SERVER.NET/WHATEVER:20190311090000:20190311083000::::";
+    private static final String OBSERVER_LINE_FILTERED = "XX_OBS:123456:John Doe:ATC:123.450:52.12345:13.54321:0:::0::::MYSERVER:100:2::3:300::::::::::::::::$ SOME.SERVER.NET/WHATEVER:20190311090000:20190311083000::::";
+    private static final String PILOT_LINE = "ABC123:123456:J\u00fcrgen:PILOT::12.34567:12.34567:12345:123:B738:420:EDDT:30000:EHAM:someserver:1:1:1234:::1:I:1000:1000:1:30:3:0:EDDW:remarks:DCT:0:0:0:0:::20180101094500:270:29.92:1013:";
+
+    private static DataFileFilter createObserverFilter(ErrorHandlingStrategy incompleteFilteringErrorHandlingStrategy) {
+        DataFileFilterConfiguration configuration = new DataFileFilterConfiguration()
+            .setSubstituteObserverPrefix(true);
+        configuration.setIncompleteFilteringErrorHandlingStrategy(incompleteFilteringErrorHandlingStrategy);
+
+        return new DataFileFilter(configuration);
+    }
+
+    @Test
+    void testFilter_clientSection_filtersClientLinesOnly() {
+        // Arrange
+        String original = "; comment JD_OBS\r\n"
+            + "!GENERAL:\r\n"
+            + "VERSION = 8\r\n"
+            + "!CLIENTS:\r\n"
+            + OBSERVER_LINE + "\r\n"
+            + PILOT_LINE + "\r\n"
+            + ";\r\n"
+            + "!SERVERS:\r\n"
+            + "AB_OBS:something\r\n";
+        String expected = "; comment JD_OBS\r\n"
+            + "!GENERAL:\r\n"
+            + "VERSION = 8\r\n"
+            + "!CLIENTS:\r\n"
+            + OBSERVER_LINE_FILTERED + "\r\n"
+            + PILOT_LINE + "\r\n"
+            + ";\r\n"
+            + "!SERVERS:\r\n"
+            + "AB_OBS:something\r\n";
+        DataFileFilter filter = createObserverFilter(THROW_EXCEPTION);
+
+        // Act
+        String result = filter.filter(8, original);
+
+        // Assert
+        assertThat(result).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"\n", "\r\n", ""})
+    void testFilter_lastLine_keepsLineEnding(String lineEnding) {
+        // Arrange
+        String original = "!PREFILE:\n" + OBSERVER_LINE + lineEnding;
+        DataFileFilter filter = createObserverFilter(THROW_EXCEPTION);
+
+        // Act
+        String result = filter.filter(8, original);
+
+        // Assert
+        assertThat(result).isEqualTo("!PREFILE:\n" + OBSERVER_LINE_FILTERED + lineEnding);
+    }
+
+    @Test
+    void testFilter_unverifiableLineWithRemoveLineStrategy_removesLine() {
+        // Arrange
+        String original = "!CLIENTS:\nAB_OBS:broken\n" + OBSERVER_LINE + "\n";
+        DataFileFilter filter = createObserverFilter(REMOVE_LINE);
+
+        // Act
+        String result = filter.filter(8, original);
+
+        // Assert
+        assertThat(result).isEqualTo("!CLIENTS:\n" + OBSERVER_LINE_FILTERED + "\n");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 3, 7, 9})
+    void testFilter_unsupportedFormatVersion_throwsIllegalArgumentException(int formatVersion) {
+        // Arrange
+        String original = "!CLIENTS:\n" + OBSERVER_LINE + "\n";
+        DataFileFilter filter = createObserverFilter(THROW_EXCEPTION);
+
+        // Act
+        ThrowingCallable action = () -> filter.filter(formatVersion, original);
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testFilter_unverifiableLineWithThrowExceptionStrategy_throwsFailWithException() {
+        // Arrange
+        String original = "!CLIENTS:\nAB_OBS:broken\n";
+        DataFileFilter filter = createObserverFilter(THROW_EXCEPTION);
+
+        // Act
+        ThrowingCallable action = () -> filter.filter(8, original);
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(ErrorHandlingStrategy.FailWithException.class);
+    }
+
+    @Test
+    void testFilter_streams_usesIso8859Charset() throws IOException {
+        // Arrange
+        String original = "!CLIENTS:\r\n" + PILOT_LINE + "\r\n" + OBSERVER_LINE + "\r\n";
+        String expected = "!CLIENTS:\r\n" + PILOT_LINE + "\r\n" + OBSERVER_LINE_FILTERED + "\r\n";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataFileFilter filter = createObserverFilter(THROW_EXCEPTION);
+
+        // Act
+        filter.filter(new ByteArrayInputStream(original.getBytes(ISO_8859_1)), out);
+
+        // Assert
+        assertThat(out.toByteArray()).isEqualTo(expected.getBytes(ISO_8859_1));
+    }
+
+    @Test
+    void testFilter_withReport_recordsHandledErrors() throws IOException {
+        // Arrange
+        String original = "!CLIENTS:\nAB_OBS:broken\n" + OBSERVER_LINE + "\nCD_OBS:broken\n";
+        DataFileFilter filter = createObserverFilter(REMOVE_LINE);
+        FilterReport report = new FilterReport();
+
+        // Act
+        filter.filter(new StringReader(original), new StringWriter(), report);
+
+        // Assert
+        assertThat(report.getEntries()).extracting(
+            FilterReport.Entry::getLineNumber,
+            FilterReport.Entry::getErrorType,
+            FilterReport.Entry::getOutcome
+        ).containsExactly(
+            tuple(2, FilterReport.ErrorType.INCOMPLETE_FILTERING, FilterReport.Outcome.REMOVED),
+            tuple(4, FilterReport.ErrorType.INCOMPLETE_FILTERING, FilterReport.Outcome.REMOVED)
+        );
+    }
+
+    @Test
+    void testFilter_withReportAborted_recordsAbortedLine() {
+        // Arrange
+        String original = "!CLIENTS:\n" + OBSERVER_LINE + "\nAB_OBS:broken\n";
+        DataFileFilter filter = createObserverFilter(THROW_EXCEPTION);
+        FilterReport report = new FilterReport();
+
+        // Act
+        ThrowingCallable action = () -> filter.filter(new StringReader(original), new StringWriter(), report);
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(ErrorHandlingStrategy.FailWithException.class);
+        assertThat(report.getEntries()).extracting(FilterReport.Entry::getLineNumber, FilterReport.Entry::getOutcome)
+                                       .containsExactly(tuple(3, FilterReport.Outcome.ABORTED));
+    }
+
+    @Test
+    void testFilter_withReportNoErrors_recordsNothing() throws IOException {
+        // Arrange
+        String original = "!CLIENTS:\n" + OBSERVER_LINE + "\n" + PILOT_LINE + "\n";
+        DataFileFilter filter = createObserverFilter(THROW_EXCEPTION);
+        FilterReport report = new FilterReport();
+
+        // Act
+        filter.filter(new StringReader(original), new StringWriter(), report);
+
+        // Assert
+        assertThat(report.hasEntries()).isFalse();
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "'', '', true",
+        "'CLIENTS/true', 'CLIENTS/true', true",
+        "'CLIENTS/true,PREFILE/false', 'PREFILE/false', true",
+        "'', 'CLIENTS/true', false",
+        "'CLIENTS/true', 'CLIENTS/true,CLIENTS/true', false",
+        "'CLIENTS/true', 'CLIENTS/false', false",
+        "'CLIENTS/true', 'PREFILE/true', false",
+    })
+    void testVerifyNoAdditionalLogMessages_logEntries_returnsExpectedResult(String originalEntries, String filteredEntries, boolean expectedResult) {
+        // Arrange
+        DataFile original = createDataFileWithLogEntries(originalEntries, "original content");
+        DataFile filtered = createDataFileWithLogEntries(filteredEntries, "filtered content");
+        DataFileFilter filter = createAnyFilterForIndependentMethods();
+
+        // Act
+        boolean result = filter.verifyNoAdditionalLogMessages(original, filtered);
+
+        // Assert
+        assertThat(result).isEqualTo(expectedResult);
+    }
+
+    private DataFile createDataFileWithLogEntries(String entries, String content) {
+        DataFile dataFile = new DataFile();
+        for (String entry : entries.split(",")) {
+            if (entry.isEmpty()) {
+                continue;
+            }
+
+            String[] parts = entry.split("/");
+            dataFile.addParserLogEntry(new ParserLogEntry(parts[0], content, Boolean.parseBoolean(parts[1]), "message about " + content, null));
+        }
+
+        return dataFile;
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void testFilter_fieldDiffVerification_filtersSameAsFullVerification(boolean fieldDiffVerification) {
+        // Arrange
+        String original = "!CLIENTS:\n" + PILOT_LINE + "\n" + OBSERVER_LINE + "\n";
+        String expected = "!CLIENTS:\n" + PILOT_LINE + "\n" + OBSERVER_LINE_FILTERED + "\n";
+        DataFileFilterConfiguration configuration = new DataFileFilterConfiguration()
+            .setSubstituteObserverPrefix(true)
+            .setFieldDiffVerification(fieldDiffVerification);
+        DataFileFilter filter = new DataFileFilter(configuration);
+
+        // Act
+        String result = filter.filter(8, original);
+
+        // Assert
+        assertThat(result).isEqualTo(expected);
+    }
+
+    @Test
+    void testFilter_fieldDiffVerificationUnmodifiedLine_returnsSameInstanceWithoutVerification() throws IOException {
+        // Arrange
+        FilterReport report = new FilterReport();
+        DataFileFilterConfiguration configuration = new DataFileFilterConfiguration()
+            .setSubstituteObserverPrefix(true)
+            .setFieldDiffVerification(true);
+        configuration.setUnwantedModificationErrorHandlingStrategy(THROW_EXCEPTION);
+        configuration.setIncompleteFilteringErrorHandlingStrategy(THROW_EXCEPTION);
+        DataFileFilter filter = new DataFileFilter(configuration);
+
+        // an unparseable line which still holds all fields would only be noticed
+        // by full verification
+        String line = PILOT_LINE.replace(":PILOT:", ":INVALID:");
+        StringWriter writer = new StringWriter();
+
+        // Act
+        filter.filter(new StringReader("!CLIENTS:\n" + line + "\n"), writer, report);
+
+        // Assert
+        assertThat(writer.toString()).isEqualTo("!CLIENTS:\n" + line + "\n");
+        assertThat(report.hasEntries()).isFalse();
+    }
+
+    @Test
+    void testFilter_fieldDiffVerificationShortLine_handlesIncompleteFiltering() {
+        // Arrange
+        String original = "!CLIENTS:\nAB_OBS:123456:John Doe\n" + OBSERVER_LINE + "\n";
+        DataFileFilterConfiguration configuration = new DataFileFilterConfiguration()
+            .setSubstituteObserverPrefix(true)
+            .setFieldDiffVerification(true);
+        configuration.setIncompleteFilteringErrorHandlingStrategy(REMOVE_LINE);
+        DataFileFilter filter = new DataFileFilter(configuration);
+
+        // Act
+        String result = filter.filter(8, original);
+
+        // Assert
+        assertThat(result).isEqualTo("!CLIENTS:\n" + OBSERVER_LINE_FILTERED + "\n");
+    }
+
+    @Test
+    void testFilter_fieldDiffVerificationFailedAffectedField_handlesIncompleteFiltering() throws IOException {
+        // Arrange
+        FilterReport report = new FilterReport();
+        DataFileFilterConfiguration configuration = new DataFileFilterConfiguration()
+            .setSubstituteObserverPrefix(true)
+            .setFieldDiffVerification(true);
+        configuration.setIncompleteFilteringErrorHandlingStrategy(REMOVE_LINE);
+        DataFileFilter filter = new DataFileFilter(configuration) {
+            @Override
+            VerifiableClientFilterFactory getVerifiableClientFilterFactory() {
+                return new VerifiableClientFilterFactory() {
+                    @Override
+                    public List<VerifiableClientFilter<?>> buildFromConfiguration(DataFileFilterConfiguration configuration) {
+                        // substitutes with a wrong alias
+                        return Collections.singletonList(new SubstituteObserverPrefixFilter() {
+                            @Override
+                            public void applyToFields(RawClientLine line) {
+                                line.setField(0, "YY_OBS");
+                            }
+                        });
+                    }
+                };
+            }
+        };
+        StringWriter writer = new StringWriter();
+
+        // Act
+        filter.filter(new StringReader("!CLIENTS:\n" + OBSERVER_LINE + "\n"), writer, report);
+
+        // Assert
+        assertThat(writer.toString()).isEqualTo("!CLIENTS:\n");
+        assertThat(report.getEntries()).extracting(FilterReport.Entry::getErrorType, FilterReport.Entry::getOutcome)
+                                       .containsExactly(tuple(FilterReport.ErrorType.INCOMPLETE_FILTERING, FilterReport.Outcome.REMOVED));
+    }
+
     private DataFileFilter createAnyFilterForIndependentMethods() {
         DataFileFilterConfiguration configuration = new DataFileFilterConfiguration()
             .setRemoveRealNameAndHomebase(true);
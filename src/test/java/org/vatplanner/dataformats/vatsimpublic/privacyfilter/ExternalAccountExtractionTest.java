@@ -0,0 +1,59 @@
+package org.vatplanner.dataformats.vatsimpublic.privacyfilter;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class ExternalAccountExtractionTest {
+
+    static Stream<Arguments> dataProviderFieldContents() {
+        return Stream.of(
+            // no keywords
+            Arguments.of("", Collections.emptyList()),
+            Arguments.of("PBN/A1B1C1D1L1O1S1 DOF/230101 RMK/TCAS /V/", Collections.emptyList()),
+
+            // keywords without accounts
+            Arguments.of("twitch", Collections.emptyList()),
+            Arguments.of("LIVE ON TWITCH: flyer99", Collections.emptyList()),
+
+            // account following keyword
+            Arguments.of("/V/ TWITCH.TV/PILOT_ONE", asList("PILOT_ONE")),
+            Arguments.of("WWW.TWITCH.TV/ABC RMK/LIVE STREAM", asList("ABC")),
+            Arguments.of("youtube.com/c/SimFlyer", asList("SimFlyer")),
+            Arguments.of("discord.gg/abc123", asList("abc123")),
+            Arguments.of("instagram @x_plane_pilot", asList("x_plane_pilot")),
+            Arguments.of("Follow me on twitter @simpilot", asList("simpilot")),
+
+            // account preceding keyword
+            Arguments.of("joe on youtube", asList("joe")),
+            Arguments.of("twitchy on youtube", asList("twitchy")),
+
+            // search resumes after end of previous match
+            Arguments.of("a on twitchy on youtube", Collections.emptyList()),
+
+            // overlapping matches
+            Arguments.of("TWITCH/ONE TWITCH/TWO", asList("ONE TWITCH", "ONE", "TWO"))
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("dataProviderFieldContents")
+    void testExtractAccounts_fieldContent_returnsExpectedAccounts(String fieldContent, Collection<String> expectedAccounts) {
+        // Arrange
+        ExternalAccountExtraction extraction = new ExternalAccountExtraction();
+
+        // Act
+        Set<String> result = extraction.extractAccounts(fieldContent);
+
+        // Assert
+        assertThat(result).containsExactlyInAnyOrderElementsOf(expectedAccounts);
+    }
+}
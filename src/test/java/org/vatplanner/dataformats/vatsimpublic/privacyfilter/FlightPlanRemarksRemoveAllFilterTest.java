@@ -259,6 +259,35 @@ class FlightPlanRemarksRemoveAllFilterTest {
         assertThatThrownBy(action).isInstanceOf(Exception.class);
     }
 
+    @Test
+    void testGetRawFieldIndex_handledField_returnsThirtiethField() {
+        // Arrange
+        FlightPlanRemarksRemoveAllFilter filter = new FlightPlanRemarksRemoveAllFilter(null);
+
+        // Act
+        int result = filter.getRawFieldIndex(ClientFields.StringFields.FLIGHT_PLAN_REMARKS);
+
+        // Assert
+        assertThat(result).isEqualTo(29);
+    }
+
+    @ParameterizedTest
+    @EnumSource(
+        value = ClientFields.StringFields.class,
+        mode = EnumSource.Mode.EXCLUDE,
+        names = {"FLIGHT_PLAN_REMARKS"}
+    )
+    void testGetRawFieldIndex_unhandledField_throwsIllegalArgumentException(ClientFields.FieldAccess<String> unhandledFieldAccess) {
+        // Arrange
+        FlightPlanRemarksRemoveAllFilter filter = new FlightPlanRemarksRemoveAllFilter(null);
+
+        // Act
+        ThrowingCallable action = () -> filter.getRawFieldIndex(unhandledFieldAccess);
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(IllegalArgumentException.class);
+    }
+
     static Stream<Arguments> dataProviderApplicationInputAndExpectedFilteredOutput() {
         return Stream.of(
             // field content needs to be passed in order to verify that
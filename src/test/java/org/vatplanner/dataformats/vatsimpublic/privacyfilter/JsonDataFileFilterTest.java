@@ -0,0 +1,316 @@
+package org.vatplanner.dataformats.vatsimpublic.privacyfilter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.vatplanner.dataformats.vatsimpublic.privacyfilter.errorhandling.DefaultErrorHandlingStrategies.REMOVE_LINE;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class JsonDataFileFilterTest {
+
+    private static final String GENERAL = "\"general\": {\"version\": 3, \"name\": \"John Doe\"}";
+
+    @Test
+    void testConstructor_null_throwsIllegalArgumentException() {
+        // Arrange (nothing to do)
+
+        // Act
+        ThrowingCallable action = () -> new JsonDataFileFilter(null);
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 0, 1, 2, 4})
+    void testIsFormatVersionSupported_unsupported_returnsFalse(int formatVersion) {
+        // Arrange
+        JsonDataFileFilter filter = new JsonDataFileFilter(
+            new DataFileFilterConfiguration().setSubstituteObserverPrefix(true)
+        );
+
+        // Act
+        boolean result = filter.isFormatVersionSupported(formatVersion);
+
+        // Assert
+        assertThat(result).isFalse();
+    }
+
+    @Test
+    void testIsFormatVersionSupported_3_returnsTrue() {
+        // Arrange
+        JsonDataFileFilter filter = new JsonDataFileFilter(
+            new DataFileFilterConfiguration().setSubstituteObserverPrefix(true)
+        );
+
+        // Act
+        boolean result = filter.isFormatVersionSupported(3);
+
+        // Assert
+        assertThat(result).isTrue();
+    }
+
+    @Test
+    void testFilter_nothingToFilter_returnsIdenticalContent() {
+        // Arrange
+        String original = "{\n"
+            + "  " + GENERAL + ",\n"
+            + "  \"pilots\": [{\"cid\": 1, \"name\": \"J\\u00fcrgen \\\"X\\\"\", \"callsign\": \"ABC\","
+            + " \"altitude\": -1.5e3, \"flight_plan\": {\"remarks\": \"/V/\"}}],\n"
+            + "  \"controllers\": [{\"name\": \"Jane\", \"callsign\": \"EDDT_TWR\", \"text_atis\": null}]\n"
+            + "}\n";
+        JsonDataFileFilter filter = new JsonDataFileFilter(
+            new DataFileFilterConfiguration().setSubstituteObserverPrefix(true)
+        );
+
+        // Act
+        String result = filter.filter(original);
+
+        // Assert
+        assertThat(result).isEqualTo(original);
+    }
+
+    @Test
+    void testFilter_realNameRemoval_removesNamesOfClientsOnly() {
+        // Arrange
+        String original = "{" + GENERAL + ", "
+            + "\"pilots\": [{\"name\": \"John Doe EDDT\", \"callsign\": \"ABC\"}], "
+            + "\"controllers\": [{\"name\": \"Jane\", \"callsign\": \"EDDT_TWR\"}], "
+            + "\"atis\": [{\"name\": \"Jane\", \"callsign\": \"EDDT_ATIS\", \"text_atis\": [\"Jane\"]}], "
+            + "\"prefiles\": [{\"name\": \"J\\u00f6rg\", \"callsign\": \"DEF\"}], "
+            + "\"facilities\": [{\"id\": 0, \"short\": \"OBS\", \"long\": \"Observer\"}], "
+            + "\"servers\": [{\"name\": \"Server\"}]}";
+        JsonDataFileFilter filter = new JsonDataFileFilter(
+            new DataFileFilterConfiguration().setRemoveRealNameAndHomebase(true)
+        );
+
+        // Act
+        String result = filter.filter(original);
+
+        // Assert
+        assertThat(result).isEqualTo(
+            "{" + GENERAL + ", "
+                + "\"pilots\": [{\"name\": \"\", \"callsign\": \"ABC\"}], "
+                + "\"controllers\": [{\"name\": \"\", \"callsign\": \"EDDT_TWR\"}], "
+                + "\"atis\": [{\"name\": \"\", \"callsign\": \"EDDT_ATIS\", \"text_atis\": [\"Jane\"]}], "
+                + "\"prefiles\": [{\"name\": \"\", \"callsign\": \"DEF\"}], "
+                + "\"facilities\": [{\"id\": 0, \"short\": \"OBS\", \"long\": \"Observer\"}], "
+                + "\"servers\": [{\"name\": \"Server\"}]}"
+        );
+    }
+
+    @Test
+    void testFilter_observerPrefixSubstitution_replacesObserverCallsigns() {
+        // Arrange
+        String original = "{\"controllers\": [{\"callsign\": \"JD_OBS\"}, {\"callsign\": \"EDDT_TWR\"}]}";
+        JsonDataFileFilter filter = new JsonDataFileFilter(
+            new DataFileFilterConfiguration().setSubstituteObserverPrefix(true)
+        );
+
+        // Act
+        String result = filter.filter(original);
+
+        // Assert
+        assertThat(result).isEqualTo("{\"controllers\": [{\"callsign\": \"XX_OBS\"}, {\"callsign\": \"EDDT_TWR\"}]}");
+    }
+
+    @Test
+    void testFilter_flightPlanRemarksTrigger_filtersRemarksOfFlightPlansOnly() {
+        // Arrange
+        String original = "{\"pilots\": [{\"remarks\": \"twitch.tv\", \"flight_plan\": {\"remarks\": \"PBN/A1 twitch.tv/abc /V/\"}}], "
+            + "\"prefiles\": [{\"flight_plan\": {\"remarks\": \"+VFPS+/T/\"}}]}";
+        JsonDataFileFilter filter = new JsonDataFileFilter(
+            new DataFileFilterConfiguration().setFlightPlanRemarksRemoveAllIfContaining(Arrays.asList("twitch"))
+        );
+
+        // Act
+        String result = filter.filter(original);
+
+        // Assert
+        assertThat(result).isEqualTo(
+            "{\"pilots\": [{\"remarks\": \"twitch.tv\", \"flight_plan\": {\"remarks\": \"/V/\"}}], "
+                + "\"prefiles\": [{\"flight_plan\": {\"remarks\": \"+VFPS+/T/\"}}]}"
+        );
+    }
+
+    @Test
+    void testFilter_filteredValueRequiringEscapes_writesEscapedString() {
+        // Arrange
+        String original = "{\"controllers\": [{\"callsign\": \"\\\"\\\\_OBS\"}]}";
+        JsonDataFileFilter filter = new JsonDataFileFilter(
+            new DataFileFilterConfiguration().setSubstituteObserverPrefix(true)
+        );
+
+        // Act
+        String result = filter.filter(original);
+
+        // Assert
+        assertThat(result).isEqualTo("{\"controllers\": [{\"callsign\": \"XX_OBS\"}]}");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "",
+        "{",
+        "{\"pilots\": [}",
+        "{\"pilots\": [{\"name\": \"abc}]}",
+        "{\"pilots\": [{\"name\" \"abc\"}]}",
+        "{\"pilots\": [{\"name\": t\"}]}",
+        "{\"pilots\": [{\"name\": \"a\\x\"}]}",
+        "{\"pilots\": [{\"cid\": 1 2}]}",
+        "{\"pilots\": [{\"cid\" 1}]}",
+        "{\"pilots\": [{\"cid\": 1,}]}",
+        "{\"pilots\": [{\"cid\": }]}",
+        "{} {}",
+    })
+    void testFilter_malformed_throwsIllegalArgumentException(String original) {
+        // Arrange
+        JsonDataFileFilter filter = new JsonDataFileFilter(
+            new DataFileFilterConfiguration().setRemoveRealNameAndHomebase(true)
+        );
+
+        // Act
+        ThrowingCallable action = () -> filter.filter(original);
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static JsonDataFileFilter createFilterSubstitutingWrongObserverAlias() {
+        DataFileFilterConfiguration configuration = new DataFileFilterConfiguration()
+            .setSubstituteObserverPrefix(true);
+        configuration.setIncompleteFilteringErrorHandlingStrategy(REMOVE_LINE);
+
+        return new JsonDataFileFilter(configuration) {
+            @Override
+            VerifiableClientFilterFactory getVerifiableClientFilterFactory() {
+                return new VerifiableClientFilterFactory() {
+                    @Override
+                    public List<VerifiableClientFilter<?>> buildFromConfiguration(DataFileFilterConfiguration configuration) {
+                        // substitutes with a wrong alias
+                        return Collections.singletonList(new SubstituteObserverPrefixFilter() {
+                            @Override
+                            public void applyToFields(RawClientLine line) {
+                                line.setField(0, "YY_OBS");
+                            }
+                        });
+                    }
+                };
+            }
+        };
+    }
+
+    @Test
+    void testFilter_incompleteFilteringRemoval_replacesValueByEmptyStringAndReports() throws IOException {
+        // Arrange
+        JsonDataFileFilter filter = createFilterSubstitutingWrongObserverAlias();
+        String original = "{\n"
+            + "  \"controllers\": [\n"
+            + "    {\"callsign\": \"JD_OBS\"}\n"
+            + "  ]\n"
+            + "}\n";
+        StringWriter writer = new StringWriter();
+        FilterReport report = new FilterReport();
+
+        // Act
+        filter.filter(new StringReader(original), writer, report);
+
+        // Assert
+        assertThat(writer.toString()).isEqualTo(original.replace("JD_OBS", ""));
+        assertThat(report.getEntries()).extracting(FilterReport.Entry::getLineNumber, FilterReport.Entry::getErrorType, FilterReport.Entry::getOutcome)
+                                       .containsExactly(tuple(3, FilterReport.ErrorType.INCOMPLETE_FILTERING, FilterReport.Outcome.REMOVED));
+    }
+
+    @Test
+    void testFilter_lineBreaksBetweenSkippedMembers_reportsLineOfValue() throws IOException {
+        // Arrange
+        JsonDataFileFilter filter = createFilterSubstitutingWrongObserverAlias();
+        String original = "{\"controllers\": [{\n"
+            + "  \"cid\": 1,\n"
+            + "  \"server\" :\r\n"
+            + "    \"SERVER\",\n"
+            + "  \"callsign\": \"JD_OBS\"\n"
+            + "}]}";
+        StringWriter writer = new StringWriter();
+        FilterReport report = new FilterReport();
+
+        // Act
+        filter.filter(new StringReader(original), writer, report);
+
+        // Assert
+        assertThat(writer.toString()).isEqualTo(original.replace("JD_OBS", ""));
+        assertThat(report.getEntries()).extracting(FilterReport.Entry::getLineNumber)
+                                       .containsExactly(5);
+    }
+
+    @Test
+    void testFilter_exceedingReadBuffer_filtersAllValues() {
+        // Arrange
+        StringBuilder original = new StringBuilder("{" + GENERAL + ", \"controllers\": [");
+        StringBuilder expected = new StringBuilder("{" + GENERAL + ", \"controllers\": [");
+        for (int i = 0; i < 2000; i++) {
+            String separator = (i > 0) ? "," : "";
+            String entry = "{\"cid\": " + i + ", \"na\\u006de\": \"Jane\", \"callsign\": \"J" + i + "_OBS\", \"text_atis\": [\"a\\\"b\"]}";
+            original.append(separator).append(entry);
+            expected.append(separator).append(entry.replace("\"J" + i + "_OBS\"", "\"XX_OBS\""));
+        }
+        original.append("]}");
+        expected.append("]}");
+
+        JsonDataFileFilter filter = new JsonDataFileFilter(
+            new DataFileFilterConfiguration().setSubstituteObserverPrefix(true)
+        );
+
+        // Act
+        String result = filter.filter(original.toString());
+
+        // Assert
+        assertThat(result).isEqualTo(expected.toString());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"1", "2", "4", "3.0", "\"3\"", "null"})
+    void testFilter_unsupportedFormatVersion_throwsIllegalArgumentExceptionWithoutWritingFurtherOutput(String version) {
+        // Arrange
+        String original = "{\"general\": {\"version\": " + version + ", \"reload\": 1}, "
+            + "\"controllers\": [{\"callsign\": \"JD_OBS\"}]}";
+        JsonDataFileFilter filter = new JsonDataFileFilter(
+            new DataFileFilterConfiguration().setSubstituteObserverPrefix(true)
+        );
+        StringWriter writer = new StringWriter();
+
+        // Act
+        ThrowingCallable action = () -> filter.filter(new StringReader(original), writer);
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(IllegalArgumentException.class)
+                                  .hasMessageContaining("unsupported format version");
+        assertThat(writer.toString()).doesNotContain("controllers");
+    }
+
+    @Test
+    void testFilter_supportedFormatVersion_filters() {
+        // Arrange
+        String original = "{\"general\": {\"reload\": 1, \"version\": 3}, \"controllers\": [{\"callsign\": \"JD_OBS\"}]}";
+        JsonDataFileFilter filter = new JsonDataFileFilter(
+            new DataFileFilterConfiguration().setSubstituteObserverPrefix(true)
+        );
+
+        // Act
+        String result = filter.filter(original);
+
+        // Assert
+        assertThat(result).isEqualTo(original.replace("JD_OBS", "XX_OBS"));
+    }
+}
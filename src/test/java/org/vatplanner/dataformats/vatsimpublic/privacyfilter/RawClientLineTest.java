@@ -0,0 +1,251 @@
+package org.vatplanner.dataformats.vatsimpublic.privacyfilter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class RawClientLineTest {
+
+    @Test
+    void testConstructor_null_throwsIllegalArgumentException() {
+        // Arrange (nothing to do)
+
+        // Act
+        ThrowingCallable action = () -> new RawClientLine(null);
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "'', 1",
+        "abc, 1",
+        ":, 2",
+        "a:b:c, 3",
+        "a::c:, 4",
+        ":::, 4",
+    })
+    void testGetNumberOfFields_line_returnsExpectedCount(String line, int expectedCount) {
+        // Arrange
+        RawClientLine rawClientLine = new RawClientLine(line);
+
+        // Act
+        int result = rawClientLine.getNumberOfFields();
+
+        // Assert
+        assertThat(result).isEqualTo(expectedCount);
+    }
+
+    @Test
+    void testGetField_existing_returnsContent() {
+        // Arrange
+        RawClientLine rawClientLine = new RawClientLine("a::c:");
+
+        // Act
+        String[] result = new String[]{
+            rawClientLine.getField(0),
+            rawClientLine.getField(1),
+            rawClientLine.getField(2),
+            rawClientLine.getField(3),
+        };
+
+        // Assert
+        assertThat(result).containsExactly("a", "", "c", "");
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "-1, false",
+        "0, true",
+        "3, true",
+        "4, false",
+    })
+    void testHasField_index_returnsExpectedResult(int index, boolean expectedResult) {
+        // Arrange
+        RawClientLine rawClientLine = new RawClientLine("a::c:");
+
+        // Act
+        boolean result = rawClientLine.hasField(index);
+
+        // Assert
+        assertThat(result).isEqualTo(expectedResult);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "abc", "a:b:c", "a::c:", ":::"})
+    void testToString_unmodified_returnsOriginalLine(String line) {
+        // Arrange
+        RawClientLine rawClientLine = new RawClientLine(line);
+
+        // Act
+        String result = rawClientLine.toString();
+
+        // Assert
+        assertThat(result).isSameAs(line);
+    }
+
+    @Test
+    void testToString_modified_returnsReassembledLine() {
+        // Arrange
+        RawClientLine rawClientLine = new RawClientLine("a::c:");
+        rawClientLine.setField(1, "new").setField(3, "end");
+
+        // Act
+        String result = rawClientLine.toString();
+
+        // Assert
+        assertThat(result).isEqualTo("a:new:c:end");
+    }
+
+    @Test
+    void testGetOriginalField_modified_returnsContentBeforeModification() {
+        // Arrange
+        RawClientLine rawClientLine = new RawClientLine("a:b:c");
+        rawClientLine.setField(1, "x").setField(1, "y");
+
+        // Act
+        String result = rawClientLine.getOriginalField(1);
+
+        // Assert
+        assertThat(result).isEqualTo("b");
+    }
+
+    @Test
+    void testGetOriginalField_unmodified_returnsCurrentContent() {
+        // Arrange
+        RawClientLine rawClientLine = new RawClientLine("a:b:c");
+        rawClientLine.setField(1, "x");
+
+        // Act
+        String result = rawClientLine.getOriginalField(2);
+
+        // Assert
+        assertThat(result).isEqualTo("c");
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "0, x, true",
+        "1, x, false",
+        "1, b, false",
+    })
+    void testIsFieldModified_afterSetField_returnsExpectedResult(int setIndex, String content, boolean expectedFirstFieldModified) {
+        // Arrange
+        RawClientLine rawClientLine = new RawClientLine("a:b:c");
+        rawClientLine.setField(setIndex, content);
+
+        // Act
+        boolean result = rawClientLine.isFieldModified(0);
+
+        // Assert
+        assertThat(result).isEqualTo(expectedFirstFieldModified);
+    }
+
+    @Test
+    void testIsFieldModified_setBackToOriginal_returnsFalse() {
+        // Arrange
+        RawClientLine rawClientLine = new RawClientLine("a:b:c");
+        rawClientLine.setField(1, "x").setField(1, "b");
+
+        // Act
+        boolean result = rawClientLine.isFieldModified(1);
+
+        // Assert
+        assertThat(result).isFalse();
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "b, false",
+        "x, true",
+    })
+    void testIsModified_afterSetField_returnsExpectedResult(String content, boolean expectedResult) {
+        // Arrange
+        RawClientLine rawClientLine = new RawClientLine("a:b:c");
+        rawClientLine.setField(1, content);
+
+        // Act
+        boolean result = rawClientLine.isModified();
+
+        // Assert
+        assertThat(result).isEqualTo(expectedResult);
+    }
+
+    @Test
+    void testSetField_containsSeparator_throwsIllegalArgumentException() {
+        // Arrange
+        RawClientLine rawClientLine = new RawClientLine("a:b");
+
+        // Act
+        ThrowingCallable action = () -> rawClientLine.setField(0, "x:y");
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testSetField_missingField_throwsIndexOutOfBoundsException() {
+        // Arrange
+        RawClientLine rawClientLine = new RawClientLine("a:b");
+
+        // Act
+        ThrowingCallable action = () -> rawClientLine.setField(2, "x");
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void testForSingleField_content_setsOnlyGivenField() {
+        // Arrange (nothing to do)
+
+        // Act
+        RawClientLine result = RawClientLine.forSingleField(4, 2, "a:b");
+
+        // Assert
+        assertThat(result).extracting(RawClientLine::getNumberOfFields, line -> line.getField(1), line -> line.getField(2))
+                          .containsExactly(4, "", "a:b");
+    }
+
+    @Test
+    void testForSingleField_null_throwsIllegalArgumentException() {
+        // Arrange (nothing to do)
+
+        // Act
+        ThrowingCallable action = () -> RawClientLine.forSingleField(4, 2, null);
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testToString_forSingleField_joinsAllFields() {
+        // Arrange
+        RawClientLine line = RawClientLine.forSingleField(4, 2, "abc");
+
+        // Act
+        String result = line.toString();
+
+        // Assert
+        assertThat(result).isEqualTo("::abc:");
+    }
+
+    @Test
+    void testToString_forSingleFieldModified_joinsAllFields() {
+        // Arrange
+        RawClientLine line = RawClientLine.forSingleField(3, 0, "abc");
+        line.setField(1, "def");
+
+        // Act
+        String result = line.toString();
+
+        // Assert
+        assertThat(result).isEqualTo("abc:def:");
+    }
+}
@@ -104,6 +104,33 @@ class RemoveRealNameAndHomebaseFilterTest {
         assertThatThrownBy(action).isInstanceOf(Exception.class);
     }
 
+    @Test
+    void testGetRawFieldIndex_handledField_returnsThirdField() {
+        // Arrange (nothing to do)
+
+        // Act
+        int result = filter.getRawFieldIndex(ClientFields.StringFields.REAL_NAME);
+
+        // Assert
+        assertThat(result).isEqualTo(2);
+    }
+
+    @ParameterizedTest
+    @EnumSource(
+        value = ClientFields.StringFields.class,
+        mode = EnumSource.Mode.EXCLUDE,
+        names = {"REAL_NAME"}
+    )
+    void testGetRawFieldIndex_unhandledField_throwsIllegalArgumentException(ClientFields.FieldAccess<String> fieldAccess) {
+        // Arrange (nothing to do)
+
+        // Act
+        ThrowableAssert.ThrowingCallable action = () -> filter.getRawFieldIndex(fieldAccess);
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(IllegalArgumentException.class);
+    }
+
     @ParameterizedTest
     @CsvSource({
         "'', '', true",
@@ -86,6 +86,33 @@ class SubstituteObserverPrefixFilterTest {
         assertThatThrownBy(action).isInstanceOf(Exception.class);
     }
 
+    @Test
+    void testGetRawFieldIndex_handledField_returnsFirstField() {
+        // Arrange (nothing to do)
+
+        // Act
+        int result = filter.getRawFieldIndex(ClientFields.StringFields.CALLSIGN);
+
+        // Assert
+        assertThat(result).isEqualTo(0);
+    }
+
+    @ParameterizedTest
+    @EnumSource(
+        value = ClientFields.StringFields.class,
+        mode = EnumSource.Mode.EXCLUDE,
+        names = {"CALLSIGN"}
+    )
+    void testGetRawFieldIndex_unhandledField_throwsIllegalArgumentException(ClientFields.FieldAccess<String> fieldAccess) {
+        // Arrange (nothing to do)
+
+        // Act
+        ThrowingCallable action = () -> filter.getRawFieldIndex(fieldAccess);
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(IllegalArgumentException.class);
+    }
+
     @ParameterizedTest
     @CsvSource({
         // full online examples (pilots)
@@ -0,0 +1,117 @@
+package org.vatplanner.dataformats.vatsimpublic.spatial;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.vatplanner.commons.geo.GeoPoint2D;
+import org.vatplanner.dataformats.vatsimpublic.parser.vatspy.FIRBoundary;
+
+class FIRLocatorTest {
+
+    private static final List<FIRBoundary> BOUNDARIES = Arrays.asList(
+        createBoundary("EDGG", false, false, 48, 6, 52, 6, 52, 12, 48, 12),
+        createBoundary("EDGG-EXT", false, true, 49, 7, 50, 7, 50, 8, 49, 8),
+        createBoundary("OCEANIC", true, false, 40, -30, 60, -30, 60, 20, 40, 20),
+        createBoundary("NFFF", false, false, -25, 170, -10, 170, -10, -170, -25, -170)
+    );
+
+    private static FIRBoundary createBoundary(String id, boolean isOceanic, boolean isExtension, double... coordinates) {
+        List<GeoPoint2D> points = new ArrayList<>();
+        double minimumLatitude = 90.0;
+        double maximumLatitude = -90.0;
+        double minimumLongitude = 180.0;
+        double maximumLongitude = -180.0;
+        for (int i = 0; i < coordinates.length; i += 2) {
+            points.add(new GeoPoint2D(coordinates[i], coordinates[i + 1]));
+            minimumLatitude = Math.min(minimumLatitude, coordinates[i]);
+            maximumLatitude = Math.max(maximumLatitude, coordinates[i]);
+            minimumLongitude = Math.min(minimumLongitude, coordinates[i + 1]);
+            maximumLongitude = Math.max(maximumLongitude, coordinates[i + 1]);
+        }
+
+        return new FIRBoundary(
+            id, isOceanic, isExtension,
+            new GeoPoint2D(minimumLatitude, minimumLongitude),
+            new GeoPoint2D(maximumLatitude, maximumLongitude),
+            new GeoPoint2D((minimumLatitude + maximumLatitude) / 2, (minimumLongitude + maximumLongitude) / 2),
+            points
+        );
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "50.0, 10.0, EDGG",
+        "49.5, 7.5, EDGG-EXT",
+        "45.0, 0.0, OCEANIC",
+        "-15.0, 175.0, NFFF",
+        "-15.0, -175.0, NFFF",
+        "-15.0, 185.0, NFFF"
+    })
+    void testLocate_insideBoundary_returnsBoundaryWithHighestPrecedence(double latitude, double longitude, String expectedId) {
+        // Arrange
+        FIRLocator locator = new FIRLocator(BOUNDARIES, 5.0);
+
+        // Act
+        FIRBoundary result = locator.locate(latitude, longitude);
+
+        // Assert
+        assertThat(result.getId()).isEqualTo(expectedId);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "0.0, 0.0",
+        "-15.0, -165.0",
+        "-15.0, 165.0",
+        "NaN, NaN"
+    })
+    void testLocate_outsideAllBoundaries_returnsNull(double latitude, double longitude) {
+        // Arrange
+        FIRLocator locator = new FIRLocator(BOUNDARIES, 5.0);
+
+        // Act
+        FIRBoundary result = locator.locate(latitude, longitude);
+
+        // Assert
+        assertThat(result).isNull();
+    }
+
+    @Test
+    void testLocateAll_overlappingBoundaries_returnsAllOrderedByPrecedence() {
+        // Arrange
+        FIRLocator locator = new FIRLocator(BOUNDARIES, 5.0);
+
+        // Act
+        List<FIRBoundary> result = locator.locateAll(49.5, 7.5);
+
+        // Assert
+        assertThat(result).extracting(FIRBoundary::getId).containsExactly("EDGG-EXT", "EDGG", "OCEANIC");
+    }
+
+    @Test
+    void testLocate_batch_returnsBoundariesInOrderOfItems() {
+        // Arrange
+        FIRLocator locator = new FIRLocator(BOUNDARIES, 5.0);
+        List<double[]> positions = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            positions.add(new double[]{50.0, 10.0});
+            positions.add(new double[]{0.0, 0.0});
+        }
+
+        // Act
+        List<FIRBoundary> result = locator.locate(positions, position -> position[0], position -> position[1]);
+
+        // Assert
+        assertThat(result).hasSize(2000);
+        for (int i = 0; i < 2000; i += 2) {
+            assertThat(result.get(i).getId()).isEqualTo("EDGG");
+            assertThat(result.get(i + 1)).isNull();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.vatplanner.dataformats.vatsimpublic.spatial;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.vatplanner.commons.geo.GeoPoint2D;
+
+class GeoMathTest {
+
+    @ParameterizedTest
+    @CsvSource({
+        "50.033, 8.570, 51.477, -0.461, 354",
+        "0.0, 179.5, 0.0, -179.5, 60",
+        "0.0, 0.0, 0.0, 180.0, 10807",
+        "10.0, 20.0, 10.0, 20.0, 0"
+    })
+    void testDistanceNauticalMiles_points_returnsExpectedDistance(double latitude1, double longitude1, double latitude2, double longitude2, double expectedNauticalMiles) {
+        // Arrange (nothing to do)
+
+        // Act
+        double result = GeoMath.distanceNauticalMiles(latitude1, longitude1, latitude2, longitude2);
+
+        // Assert
+        assertThat(result).isCloseTo(expectedNauticalMiles, within(1.0));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "0.0, 0.0",
+        "-180.0, -180.0",
+        "180.0, -180.0",
+        "190.0, -170.0",
+        "-190.0, 170.0",
+        "540.0, -180.0",
+        "-721.5, -1.5"
+    })
+    void testNormalizeLongitude_longitude_returnsNormalized(double longitude, double expected) {
+        // Arrange (nothing to do)
+
+        // Act
+        double result = GeoMath.normalizeLongitude(longitude);
+
+        // Assert
+        assertThat(result).isCloseTo(expected, within(0.000001));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "0.0, 0.0, 10.0, 0.0, 0.0",
+        "0.0, 0.0, 0.0, 10.0, 90.0",
+        "0.0, 0.0, -10.0, 0.0, 180.0",
+        "0.0, 0.0, 0.0, -10.0, 270.0",
+        "0.0, 179.5, 0.0, -179.5, 90.0",
+        "50.033, 8.570, 40.640, -73.779, 294.4"
+    })
+    void testInitialBearingDegrees_points_returnsExpectedBearing(double latitude1, double longitude1, double latitude2, double longitude2, double expectedBearing) {
+        // Arrange (nothing to do)
+
+        // Act
+        double result = GeoMath.initialBearingDegrees(latitude1, longitude1, latitude2, longitude2);
+
+        // Assert
+        assertThat(result).isCloseTo(expectedBearing, within(0.1));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "0.0, 0.0, 0.0, 90.0, 0.0, 0.0, 0.0",
+        "0.0, 0.0, 0.0, 90.0, 1.0, 0.0, 90.0",
+        "0.0, 0.0, 0.0, 90.0, 0.5, 0.0, 45.0",
+        "0.0, 170.0, 0.0, -170.0, 0.5, 0.0, -180.0",
+        "-45.0, 0.0, 45.0, 0.0, 0.25, -22.5, 0.0",
+        "50.033, 8.570, 40.640, -73.779, 0.5, 53.3, -36.8",
+        "10.0, 20.0, 10.0, 20.0, 0.5, 10.0, 20.0"
+    })
+    void testIntermediatePoint_fraction_returnsPointOnGreatCircle(double latitude1, double longitude1, double latitude2, double longitude2, double fraction, double expectedLatitude, double expectedLongitude) {
+        // Arrange (nothing to do)
+
+        // Act
+        GeoPoint2D result = GeoMath.intermediatePoint(latitude1, longitude1, latitude2, longitude2, fraction);
+
+        // Assert
+        assertThat(result.getLatitude()).isCloseTo(expectedLatitude, within(0.1));
+        assertThat(result.getLongitude()).isCloseTo(expectedLongitude, within(0.1));
+    }
+}
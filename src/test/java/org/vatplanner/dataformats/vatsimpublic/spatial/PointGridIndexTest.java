@@ -0,0 +1,143 @@
+package org.vatplanner.dataformats.vatsimpublic.spatial;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.vatplanner.dataformats.vatsimpublic.spatial.PointGridIndex.Match;
+
+class PointGridIndexTest {
+
+    private static class Position {
+        private final String name;
+        private final double latitude;
+        private final double longitude;
+
+        private Position(String name, double latitude, double longitude) {
+            this.name = name;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+    }
+
+    private static final Position EDDF = new Position("EDDF", 50.033, 8.570);
+    private static final Position EDDM = new Position("EDDM", 48.354, 11.786);
+    private static final Position EGLL = new Position("EGLL", 51.477, -0.461);
+    private static final Position NFFN = new Position("NFFN", -17.755, 177.443);
+    private static final Position NSTU = new Position("NSTU", -14.331, -170.711);
+    private static final Position NO_POSITION = new Position("NONE", Double.NaN, Double.NaN);
+
+    private static final List<Position> POSITIONS = Arrays.asList(EDDF, EDDM, EGLL, NFFN, NSTU, NO_POSITION);
+
+    private static PointGridIndex<Position> createIndex(double cellSizeDegrees) {
+        return new PointGridIndex<>(POSITIONS, p -> p.latitude, p -> p.longitude, cellSizeDegrees);
+    }
+
+    @Test
+    void testSize_itemsWithoutCoordinates_areNotIndexed() {
+        // Arrange
+        PointGridIndex<Position> index = createIndex(1.0);
+
+        // Act
+        int result = index.size();
+
+        // Assert
+        assertThat(result).isEqualTo(5);
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {0.1, 1.0, 5.0, 90.0})
+    void testGetWithinRadius_aroundFrankfurt_returnsNearbySortedByDistance(double cellSizeDegrees) {
+        // Arrange
+        PointGridIndex<Position> index = createIndex(cellSizeDegrees);
+
+        // Act
+        List<Match<Position>> result = index.getWithinRadius(50.0, 8.5, 400);
+
+        // Assert
+        assertThat(result).extracting(Match::getItem).containsExactly(EDDF, EDDM, EGLL);
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {0.1, 1.0, 5.0, 90.0})
+    void testGetWithinRadius_acrossAntimeridian_returnsItemsOnBothSides(double cellSizeDegrees) {
+        // Arrange
+        PointGridIndex<Position> index = createIndex(cellSizeDegrees);
+
+        // Act
+        List<Match<Position>> result = index.getWithinRadius(-16.0, 180.0, 600);
+
+        // Assert
+        assertThat(result).extracting(Match::getItem).containsExactlyInAnyOrder(NFFN, NSTU);
+    }
+
+    @Test
+    void testGetWithinBoundingBox_acrossAntimeridian_returnsItemsOnBothSides() {
+        // Arrange
+        PointGridIndex<Position> index = createIndex(1.0);
+        BoundingBox box = new BoundingBox(-20.0, 170.0, -10.0, -165.0);
+
+        // Act
+        List<Position> result = index.getWithinBoundingBox(box);
+
+        // Assert
+        assertThat(result).containsExactlyInAnyOrder(NFFN, NSTU);
+    }
+
+    @Test
+    void testGetWithinBoundingBox_notCrossingAntimeridian_returnsContainedItems() {
+        // Arrange
+        PointGridIndex<Position> index = createIndex(1.0);
+        BoundingBox box = new BoundingBox(45.0, 5.0, 55.0, 15.0);
+
+        // Act
+        List<Position> result = index.getWithinBoundingBox(box);
+
+        // Assert
+        assertThat(result).containsExactlyInAnyOrder(EDDF, EDDM);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 5})
+    void testGetNearest_k_returnsClosestItemsSortedByDistance(int k) {
+        // Arrange
+        PointGridIndex<Position> index = createIndex(1.0);
+        List<Position> expected = Arrays.asList(EGLL, EDDF, EDDM, NSTU, NFFN);
+
+        // Act
+        List<Match<Position>> result = index.getNearest(51.0, 0.0, k);
+
+        // Assert
+        assertThat(result).extracting(Match::getItem).containsExactlyElementsOf(expected.subList(0, k));
+    }
+
+    @Test
+    void testGetNearest_moreThanIndexed_returnsAllItems() {
+        // Arrange
+        PointGridIndex<Position> index = createIndex(1.0);
+
+        // Act
+        List<Match<Position>> result = index.getNearest(0.0, 0.0, 100);
+
+        // Assert
+        assertThat(result).hasSize(5);
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {0.0, -1.0, 90.1, Double.NaN})
+    void testConstructor_invalidCellSize_throwsIllegalArgumentException(double cellSizeDegrees) {
+        // Arrange (nothing to do)
+
+        // Act
+        ThrowingCallable action = () -> createIndex(cellSizeDegrees);
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,134 @@
+package org.vatplanner.dataformats.vatsimpublic.spatial;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.vatplanner.commons.geo.GeoPoint2D;
+import org.vatplanner.dataformats.vatsimpublic.parser.vatspy.Airport;
+import org.vatplanner.dataformats.vatsimpublic.spatial.PointGridIndex.Match;
+
+class SphericalKdTreeTest {
+
+    private static final Airport EDDF = createAirport("EDDF", 50.033, 8.570, false);
+    private static final Airport EDFE = createAirport("EDFE", 49.961, 8.644, false);
+    private static final Airport EDDM = createAirport("EDDM", 48.354, 11.786, false);
+    private static final Airport PSEUDO = createAirport("XEDF", 50.030, 8.565, true);
+    private static final Airport NFFN = createAirport("NFFN", -17.755, 177.443, false);
+    private static final Airport NFTF = createAirport("NFTF", -21.241, -175.150, false);
+    private static final Airport NZSP = createAirport("NZSP", -90.0, 0.0, false);
+
+    private static final List<Airport> AIRPORTS = Arrays.asList(EDDF, EDFE, EDDM, PSEUDO, NFFN, NFTF, NZSP);
+
+    private static Airport createAirport(String icaoCode, double latitude, double longitude, boolean isPseudo) {
+        return new Airport(icaoCode, icaoCode, new GeoPoint2D(latitude, longitude), null, "XXXX", isPseudo);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "50.03, 8.57, EDDF",
+        "49.96, 8.64, EDFE",
+        "48.0, 12.0, EDDM",
+        "-19.0, 179.9, NFFN",
+        "-21.0, -179.9, NFTF",
+        "-89.0, 120.0, NZSP"
+    })
+    void testGetNearest_withoutPseudoAirports_returnsClosestAirport(double latitude, double longitude, String expectedIcaoCode) {
+        // Arrange
+        SphericalKdTree<Airport> tree = SphericalKdTree.forAirports(AIRPORTS, false);
+
+        // Act
+        Airport result = tree.getNearest(latitude, longitude);
+
+        // Assert
+        assertThat(result.getIcaoCode()).isEqualTo(expectedIcaoCode);
+    }
+
+    @Test
+    void testGetNearest_withPseudoAirports_returnsClosestPseudoAirport() {
+        // Arrange
+        SphericalKdTree<Airport> tree = SphericalKdTree.forAirports(AIRPORTS, true);
+
+        // Act
+        Airport result = tree.getNearest(50.030, 8.565);
+
+        // Assert
+        assertThat(result).isSameAs(PSEUDO);
+    }
+
+    @Test
+    void testGetNearestWithin_filtered_returnsClosestMatchingAirport() {
+        // Arrange
+        SphericalKdTree<Airport> tree = SphericalKdTree.forAirports(AIRPORTS, true);
+
+        // Act
+        Airport result = tree.getNearestWithin(50.030, 8.565, 100.0, airport -> !airport.isPseudo());
+
+        // Assert
+        assertThat(result).isSameAs(EDDF);
+    }
+
+    @Test
+    void testGetNearestWithin_noneWithinMaximumDistance_returnsNull() {
+        // Arrange
+        SphericalKdTree<Airport> tree = SphericalKdTree.forAirports(AIRPORTS, false);
+
+        // Act
+        Airport result = tree.getNearestWithin(0.0, 0.0, 100.0, null);
+
+        // Assert
+        assertThat(result).isNull();
+    }
+
+    @Test
+    void testGetWithinRadius_aroundFrankfurt_returnsAirportsSortedByDistance() {
+        // Arrange
+        SphericalKdTree<Airport> tree = SphericalKdTree.forAirports(AIRPORTS, true);
+
+        // Act
+        List<Match<Airport>> result = tree.getWithinRadius(50.033, 8.570, 10.0, null);
+
+        // Assert
+        assertThat(result).extracting(Match::getItem).containsExactly(EDDF, PSEUDO, EDFE);
+    }
+
+    @Test
+    void testGetWithinRadius_acrossAntimeridian_returnsAirportsOnBothSides() {
+        // Arrange
+        SphericalKdTree<Airport> tree = SphericalKdTree.forAirports(AIRPORTS, false);
+
+        // Act
+        List<Match<Airport>> result = tree.getWithinRadius(-19.5, 180.0, 300.0, null);
+
+        // Assert
+        assertThat(result).extracting(Match::getItem).containsExactlyInAnyOrder(NFFN, NFTF);
+    }
+
+    @Test
+    void testGetNearest_k_returnsClosestAirportsSortedByDistance() {
+        // Arrange
+        SphericalKdTree<Airport> tree = SphericalKdTree.forAirports(AIRPORTS, false);
+
+        // Act
+        List<Match<Airport>> result = tree.getNearest(50.0, 8.6, 3, null);
+
+        // Assert
+        assertThat(result).extracting(Match::getItem).containsExactly(EDFE, EDDF, EDDM);
+    }
+
+    @Test
+    void testSize_withoutPseudoAirports_omitsPseudoAirports() {
+        // Arrange
+        SphericalKdTree<Airport> tree = SphericalKdTree.forAirports(AIRPORTS, false);
+
+        // Act
+        int result = tree.size();
+
+        // Assert
+        assertThat(result).isEqualTo(6);
+    }
+}
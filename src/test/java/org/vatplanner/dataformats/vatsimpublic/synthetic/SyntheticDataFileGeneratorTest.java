@@ -0,0 +1,349 @@
+package org.vatplanner.dataformats.vatsimpublic.synthetic;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.DefaultStatusEntityFactory;
+import org.vatplanner.dataformats.vatsimpublic.entities.status.Report;
+import org.vatplanner.dataformats.vatsimpublic.export.JsonDataFileWriter;
+import org.vatplanner.dataformats.vatsimpublic.export.LegacyDataFileWriter;
+import org.vatplanner.dataformats.vatsimpublic.export.Writer;
+import org.vatplanner.dataformats.vatsimpublic.graph.GraphImport;
+import org.vatplanner.dataformats.vatsimpublic.parser.Client;
+import org.vatplanner.dataformats.vatsimpublic.parser.ClientType;
+import org.vatplanner.dataformats.vatsimpublic.parser.DataFile;
+import org.vatplanner.dataformats.vatsimpublic.parser.json.v3.DataFileProcessor;
+import org.vatplanner.dataformats.vatsimpublic.parser.legacy.DataFileParser;
+import org.vatplanner.dataformats.vatsimpublic.parser.vatspy.VatSpyFile;
+import org.vatplanner.dataformats.vatsimpublic.parser.vatspy.VatSpyFileParser;
+
+class SyntheticDataFileGeneratorTest {
+
+    private static final String VATSPY_DAT = String.join(
+        "\n",
+        "[Countries]",
+        "Germany|ED|Center",
+        "United States|K|Center",
+        "[Airports]",
+        "EDDF|Frankfurt/Main|50.033|8.570|FRA|EDGG|0",
+        "EDDM|Munich|48.354|11.786|MUC|EDMM|0",
+        "EDDH|Hamburg|53.630|9.988|HAM|EDWW|0",
+        "EGLL|London Heathrow|51.471|-0.461|LHR|EGTT|0",
+        "LFPG|Paris Charles de Gaulle|49.010|2.548|CDG|LFFF|0",
+        "KJFK|New York Kennedy|40.640|-73.779|JFK|KZNY|0",
+        "KBOS|Boston Logan|42.364|-71.005|BOS|KZBW|0",
+        "KORD|Chicago O'Hare|41.979|-87.904|ORD|KZAU|0",
+        "XEDF|Frankfurt Pseudo|50.0|8.5||EDGG|1",
+        "[FIRs]",
+        "EDGG|Langen||",
+        "EDMM|Munich||",
+        "EDWW|Bremen||",
+        "EGTT|London|LON|",
+        "LFFF|Paris||",
+        "KZNY|New York|NY|",
+        "KZBW|Boston|BOS|",
+        "KZAU|Chicago|CHI|",
+        "[UIRs]"
+    );
+
+    private static VatSpyFile createVatSpyFile() {
+        return new VatSpyFileParser().deserialize(VATSPY_DAT);
+    }
+
+    private static SyntheticDataFileGenerator createGenerator() {
+        return new SyntheticDataFileGenerator(createVatSpyFile())
+            .setSeed(42)
+            .setNumberOfPilots(200)
+            .setNumberOfControllers(30);
+    }
+
+    private static byte[] serialize(Writer<DataFile> writer, DataFile dataFile) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writer.serialize(dataFile, baos);
+        return baos.toByteArray();
+    }
+
+    private static List<String> getCallsigns(DataFile dataFile) {
+        return dataFile.getClients()
+                       .stream()
+                       .map(Client::getCallsign)
+                       .sorted()
+                       .collect(Collectors.toList());
+    }
+
+    @Test
+    void testConstructor_lessThanTwoAirports_throwsIllegalArgumentException() {
+        // Arrange
+        VatSpyFile vatSpyFile = new VatSpyFileParser().deserialize(String.join(
+            "\n",
+            "[Airports]",
+            "EDDF|Frankfurt/Main|50.033|8.570|FRA|EDGG|0",
+            "XEDF|Frankfurt Pseudo|50.0|8.5||EDGG|1"
+        ));
+
+        // Act
+        ThrowingCallable action = () -> new SyntheticDataFileGenerator(vatSpyFile);
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {-0.1, 1.1, Double.NaN})
+    void testSetPrefilingProbability_outOfRange_throwsIllegalArgumentException(double probability) {
+        // Arrange
+        SyntheticDataFileGenerator generator = createGenerator();
+
+        // Act
+        ThrowingCallable action = () -> generator.setPrefilingProbability(probability);
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testSetNumberOfPilots_negative_throwsIllegalArgumentException() {
+        // Arrange
+        SyntheticDataFileGenerator generator = createGenerator();
+
+        // Act
+        ThrowingCallable action = () -> generator.setNumberOfPilots(-1);
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testSetSnapshotInterval_zero_throwsIllegalArgumentException() {
+        // Arrange
+        SyntheticDataFileGenerator generator = createGenerator();
+
+        // Act
+        ThrowingCallable action = () -> generator.setSnapshotInterval(Duration.ZERO);
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testSetSeed_afterGeneratingSnapshot_throwsIllegalStateException() {
+        // Arrange
+        SyntheticDataFileGenerator generator = createGenerator();
+        generator.next();
+
+        // Act
+        ThrowingCallable action = () -> generator.setSeed(1);
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void testGenerate_sameSeed_returnsSameSnapshots() {
+        // Arrange
+        SyntheticDataFileGenerator generator1 = createGenerator();
+        SyntheticDataFileGenerator generator2 = createGenerator();
+
+        // Act
+        List<DataFile> result1 = generator1.generate(20);
+        List<DataFile> result2 = generator2.generate(20);
+
+        // Assert
+        for (int i = 0; i < result1.size(); i++) {
+            DataFile dataFile1 = result1.get(i);
+            DataFile dataFile2 = result2.get(i);
+            assertThat(serialize(new LegacyDataFileWriter(), dataFile1))
+                .isEqualTo(serialize(new LegacyDataFileWriter(), dataFile2));
+        }
+    }
+
+    @Test
+    void testGenerate_differentSeed_returnsDifferentSnapshots() {
+        // Arrange
+        SyntheticDataFileGenerator generator1 = createGenerator();
+        SyntheticDataFileGenerator generator2 = createGenerator().setSeed(43);
+
+        // Act
+        DataFile result1 = generator1.next();
+        DataFile result2 = generator2.next();
+
+        // Assert
+        assertThat(getCallsigns(result1)).isNotEqualTo(getCallsigns(result2));
+    }
+
+    @Test
+    void testGenerate_configuredInterval_advancesTimestamps() {
+        // Arrange
+        Instant startTime = Instant.parse("2023-06-10T18:00:00Z");
+        SyntheticDataFileGenerator generator = createGenerator()
+            .setStartTime(startTime)
+            .setSnapshotInterval(Duration.ofMinutes(1));
+
+        // Act
+        List<DataFile> result = generator.generate(3);
+
+        // Assert
+        assertThat(result).extracting(dataFile -> dataFile.getMetaData().getTimestamp())
+                          .containsExactly(
+                              startTime,
+                              Instant.parse("2023-06-10T18:01:00Z"),
+                              Instant.parse("2023-06-10T18:02:00Z")
+                          );
+    }
+
+    @Test
+    void testNext_default_containsAllClientTypes() {
+        // Arrange
+        SyntheticDataFileGenerator generator = createGenerator().setAtisProbability(1.0);
+
+        // Act
+        DataFile result = generator.next();
+
+        // Assert
+        assertThat(result.getClients()).extracting(Client::getRawClientType)
+                                       .contains(
+                                           ClientType.PILOT_CONNECTED,
+                                           ClientType.PILOT_PREFILED,
+                                           ClientType.ATC_CONNECTED,
+                                           ClientType.ATIS
+                                       );
+    }
+
+    @Test
+    void testNext_default_callsignsAreUnique() {
+        // Arrange
+        SyntheticDataFileGenerator generator = createGenerator();
+
+        // Act
+        List<DataFile> result = generator.generate(40);
+
+        // Assert
+        for (DataFile dataFile : result) {
+            assertThat(getCallsigns(dataFile)).doesNotHaveDuplicates();
+        }
+    }
+
+    @Test
+    void testNext_default_numberOfConnectedClientsMatchesOnlineClients() {
+        // Arrange
+        SyntheticDataFileGenerator generator = createGenerator();
+
+        // Act
+        DataFile result = generator.next();
+
+        // Assert
+        long expected = result.getClients()
+                              .stream()
+                              .filter(client -> client.getRawClientType() != ClientType.PILOT_PREFILED)
+                              .count();
+        assertThat(result.getMetaData().getNumberOfConnectedClients()).isEqualTo((int) expected);
+    }
+
+    @Test
+    void testNext_missingVatsimIdProbabilityOne_allVatsimIdsAreMissing() {
+        // Arrange
+        SyntheticDataFileGenerator generator = createGenerator().setMissingVatsimIdProbability(1.0);
+
+        // Act
+        DataFile result = generator.next();
+
+        // Assert
+        assertThat(result.getClients()).isNotEmpty()
+                                       .extracting(Client::getVatsimID)
+                                       .containsOnly(-1);
+    }
+
+    @Test
+    void testNext_connectedPilots_positionsAreValid() {
+        // Arrange
+        SyntheticDataFileGenerator generator = createGenerator();
+
+        // Act
+        DataFile result = generator.next();
+
+        // Assert
+        Consumer<Client> requirements = client -> {
+            assertThat(client.getLatitude()).isBetween(-90.0, 90.0);
+            assertThat(client.getLongitude()).isBetween(-180.0, 180.0);
+            assertThat(client.getHeading()).isBetween(0, 359);
+            assertThat(client.getAltitudeFeet()).isNotNegative();
+        };
+        assertThat(result.getClients()).filteredOn(client -> client.getRawClientType() == ClientType.PILOT_CONNECTED)
+                                       .isNotEmpty()
+                                       .allSatisfy(requirements);
+    }
+
+    @Test
+    void testGenerate_serializedAsLegacyFormat_isParseableWithoutErrors() {
+        // Arrange
+        SyntheticDataFileGenerator generator = createGenerator()
+            .setReconnectProbability(0.01)
+            .setFlightPlanRevisionProbability(0.01)
+            .setMissingVatsimIdProbability(0.05);
+        List<DataFile> dataFiles = generator.generate(20);
+
+        for (DataFile dataFile : dataFiles) {
+            // Act
+            byte[] serialized = serialize(new LegacyDataFileWriter(), dataFile);
+            DataFile result = new DataFileParser().deserialize(new String(serialized, ISO_8859_1));
+
+            // Assert
+            assertThat(result.getParserLogEntries()).isEmpty();
+            assertThat(getCallsigns(result)).isEqualTo(getCallsigns(dataFile));
+        }
+    }
+
+    @Test
+    void testGenerate_serializedAsJson_isParseableWithoutErrors() {
+        // Arrange
+        SyntheticDataFileGenerator generator = createGenerator()
+            .setReconnectProbability(0.01)
+            .setFlightPlanRevisionProbability(0.01)
+            .setMissingVatsimIdProbability(0.05);
+        List<DataFile> dataFiles = generator.generate(20);
+
+        for (DataFile dataFile : dataFiles) {
+            // Act
+            byte[] serialized = serialize(new JsonDataFileWriter(), dataFile);
+            DataFile result = new DataFileProcessor().deserialize(new String(serialized, UTF_8));
+
+            // Assert
+            assertThat(result.getParserLogEntries()).isEmpty();
+            assertThat(getCallsigns(result)).isEqualTo(getCallsigns(dataFile));
+        }
+    }
+
+    @Test
+    void testGenerate_importedToGraph_createsReportsWithFlights() {
+        // Arrange
+        SyntheticDataFileGenerator generator = createGenerator()
+            .setNumberOfPilots(2000)
+            .setNumberOfControllers(200)
+            .setSnapshotInterval(Duration.ofMinutes(1));
+        GraphImport graphImport = new GraphImport(new DefaultStatusEntityFactory());
+
+        // Act
+        for (DataFile dataFile : generator.generate(30)) {
+            graphImport.importDataFile(dataFile);
+        }
+
+        // Assert
+        assertThat(graphImport.getIndex().getAllReports())
+            .hasSize(30)
+            .extracting(Report::getFlights)
+            .allSatisfy(flights -> assertThat(flights).hasSizeGreaterThan(1000));
+    }
+}
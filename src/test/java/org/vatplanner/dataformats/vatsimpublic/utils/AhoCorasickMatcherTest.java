@@ -0,0 +1,144 @@
+package org.vatplanner.dataformats.vatsimpublic.utils;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class AhoCorasickMatcherTest {
+
+    static Stream<Arguments> dataProviderInvalidNeedles() {
+        return Stream.of(
+            Arguments.of((Collection<String>) null),
+            Arguments.of(new ArrayList<String>()),
+            Arguments.of(asList("abc", null)),
+            Arguments.of(asList("", "abc"))
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("dataProviderInvalidNeedles")
+    void testConstructor_invalidNeedles_throwsIllegalArgumentException(Collection<String> needles) {
+        // Arrange (nothing to do)
+
+        // Act
+        ThrowingCallable action = () -> new AhoCorasickMatcher(needles);
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    static Stream<Arguments> dataProviderSearches() {
+        return Stream.of(
+            // single needle
+            Arguments.of(asList("abc"), "", false),
+            Arguments.of(asList("abc"), "abc", true),
+            Arguments.of(asList("abc"), "xxabcxx", true),
+            Arguments.of(asList("abc"), "ab c", false),
+
+            // case-insensitive for ASCII only
+            Arguments.of(asList("AbC"), "xaBcx", true),
+            Arguments.of(asList("straße"), "STRAßE", true),
+            Arguments.of(asList("ä"), "Ä", false),
+
+            // overlapping needles require failure links
+            Arguments.of(asList("abcd", "bce"), "abce", true),
+            Arguments.of(asList("abcd", "bc"), "abx bc", true),
+            Arguments.of(asList("he", "she", "his", "hers"), "ushers", true),
+            Arguments.of(asList("he", "she", "his", "hers"), "uhsr", false),
+
+            // needle contained in another needle
+            Arguments.of(asList("twitch.tv/abc", "tv"), "twitch.t", false),
+            Arguments.of(asList("twitch.tv/abc", "tv"), "twitch.tv", true),
+
+            // special characters are not interpreted
+            Arguments.of(asList(".*"), "abc", false),
+            Arguments.of(asList(".*"), "a.*c", true),
+            Arguments.of(asList("\n"), "line\nbreak", true)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("dataProviderSearches")
+    void testContainsAny_haystack_returnsExpectedResult(Collection<String> needles, String haystack, boolean expectedResult) {
+        // Arrange
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(needles);
+
+        // Act
+        boolean result = matcher.containsAny(haystack);
+
+        // Assert
+        assertThat(result).isEqualTo(expectedResult);
+    }
+
+    @Test
+    void testContainsAny_manyNeedles_findsEachNeedle() {
+        // Arrange
+        Collection<String> needles = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            needles.add("trigger" + i + "/");
+        }
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(needles);
+
+        // Act
+        long numFound = needles.stream()
+                               .map(needle -> "prefix " + needle.toUpperCase() + " suffix")
+                               .filter(matcher::containsAny)
+                               .count();
+        boolean foundUnknown = matcher.containsAny(String.join(" ", Collections.nCopies(100, "trigger500")));
+
+        // Assert
+        assertThat(numFound).isEqualTo(500);
+        assertThat(foundUnknown).isFalse();
+    }
+
+    @Test
+    void testFindAll_overlappingNeedles_reportsAllOccurrences() {
+        // Arrange
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(asList("he", "she", "his", "hers"));
+        List<int[]> occurrences = new ArrayList<>();
+
+        // Act
+        matcher.findAll("uSHers his", (needleIndex, start) -> occurrences.add(new int[]{needleIndex, start}));
+
+        // Assert
+        assertThat(occurrences).extracting(occurrence -> occurrence[0], occurrence -> occurrence[1])
+                               .containsExactlyInAnyOrder(
+                                   tuple(1, 1),
+                                   tuple(0, 2),
+                                   tuple(3, 2),
+                                   tuple(2, 7)
+                               );
+    }
+
+    @Test
+    void testFindAll_duplicateNeedles_reportsEachIndex() {
+        // Arrange
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(asList("abc", "x", "abc"));
+        List<int[]> occurrences = new ArrayList<>();
+
+        // Act
+        matcher.findAll("xxabc", (needleIndex, start) -> occurrences.add(new int[]{needleIndex, start}));
+
+        // Assert
+        assertThat(occurrences).extracting(occurrence -> occurrence[0], occurrence -> occurrence[1])
+                               .containsExactlyInAnyOrder(
+                                   tuple(1, 0),
+                                   tuple(1, 1),
+                                   tuple(0, 2),
+                                   tuple(2, 2)
+                               );
+    }
+}
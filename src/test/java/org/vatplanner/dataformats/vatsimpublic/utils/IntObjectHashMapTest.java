@@ -0,0 +1,130 @@
+package org.vatplanner.dataformats.vatsimpublic.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class IntObjectHashMapTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, -1, 1234567, Integer.MIN_VALUE, Integer.MAX_VALUE})
+    void testGet_stored_returnsValue(int key) {
+        // Arrange
+        IntObjectHashMap<String> map = new IntObjectHashMap<>();
+        map.put(key, "value");
+
+        // Act
+        String result = map.get(key);
+
+        // Assert
+        assertThat(result).isEqualTo("value");
+    }
+
+    @Test
+    void testGet_unknownKey_returnsNull() {
+        // Arrange
+        IntObjectHashMap<String> map = new IntObjectHashMap<>();
+        map.put(1, "a");
+
+        // Act
+        String result = map.get(2);
+
+        // Assert
+        assertThat(result).isNull();
+    }
+
+    @Test
+    void testPut_existingKey_replacesAndReturnsPreviousValue() {
+        // Arrange
+        IntObjectHashMap<String> map = new IntObjectHashMap<>();
+        map.put(42, "old");
+
+        // Act
+        String result = map.put(42, "new");
+
+        // Assert
+        assertThat(result).isEqualTo("old");
+        assertThat(map.get(42)).isEqualTo("new");
+        assertThat(map.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testPut_null_throwsIllegalArgumentException() {
+        // Arrange
+        IntObjectHashMap<String> map = new IntObjectHashMap<>();
+
+        // Act
+        ThrowingCallable action = () -> map.put(1, null);
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 10, 100000})
+    void testGet_manySequentialKeys_returnsAllValues(int expectedSize) {
+        // Arrange
+        IntObjectHashMap<Integer> map = new IntObjectHashMap<>(expectedSize);
+        for (int i = 0; i < 10000; i++) {
+            map.put(1000000 + i, i);
+        }
+
+        // Act
+        List<Integer> result = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            result.add(map.get(1000000 + i));
+        }
+
+        // Assert
+        for (int i = 0; i < 10000; i++) {
+            assertThat(result.get(i)).isEqualTo(i);
+        }
+        assertThat(map.size()).isEqualTo(10000);
+    }
+
+    @Test
+    void testValues_stored_returnsAllValues() {
+        // Arrange
+        IntObjectHashMap<String> map = new IntObjectHashMap<>();
+        map.put(3, "c");
+        map.put(1, "a");
+        map.put(2, "b");
+
+        // Act
+        List<String> result = new ArrayList<>(map.values());
+
+        // Assert
+        assertThat(result).containsExactlyInAnyOrder("a", "b", "c");
+    }
+
+    @Test
+    void testValues_modification_throwsUnsupportedOperationException() {
+        // Arrange
+        IntObjectHashMap<String> map = new IntObjectHashMap<>();
+
+        // Act
+        ThrowingCallable action = () -> map.values().add("a");
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void testIsEmpty_new_returnsTrue() {
+        // Arrange
+        IntObjectHashMap<String> map = new IntObjectHashMap<>();
+
+        // Act
+        boolean result = map.isEmpty();
+
+        // Assert
+        assertThat(result).isTrue();
+    }
+}
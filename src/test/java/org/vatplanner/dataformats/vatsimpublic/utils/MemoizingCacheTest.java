@@ -0,0 +1,178 @@
+package org.vatplanner.dataformats.vatsimpublic.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class MemoizingCacheTest {
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final Function<String, Integer> countingLength = s -> {
+        calls.incrementAndGet();
+        return s.length();
+    };
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, -1, -100})
+    void testConstructor_nonPositiveSize_throwsIllegalArgumentException(int maximumSize) {
+        // Arrange (nothing to do)
+
+        // Act
+        ThrowingCallable action = () -> new MemoizingCache<>(maximumSize);
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testGet_repeatedKey_computesOnlyOnce() {
+        // Arrange
+        MemoizingCache<String, Integer> cache = new MemoizingCache<>(10);
+
+        // Act
+        cache.get("FL350", countingLength);
+        cache.get("FL350", countingLength);
+        Integer result = cache.get("FL350", countingLength);
+
+        // Assert
+        assertThat(result).isEqualTo(5);
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void testGet_repeatedKey_countsHitsAndMisses() {
+        // Arrange
+        MemoizingCache<String, Integer> cache = new MemoizingCache<>(10);
+
+        // Act
+        cache.get("FL350", countingLength);
+        cache.get("FL350", countingLength);
+        cache.get("FL350", countingLength);
+        cache.get("/V/", countingLength);
+
+        // Assert
+        assertThat(cache.getHits()).isEqualTo(2);
+        assertThat(cache.getMisses()).isEqualTo(2);
+        assertThat(cache.getHitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    void testGetHitRate_noLookups_returnsZero() {
+        // Arrange
+        MemoizingCache<String, Integer> cache = new MemoizingCache<>(10);
+
+        // Act
+        double result = cache.getHitRate();
+
+        // Assert
+        assertThat(result).isEqualTo(0.0);
+    }
+
+    @Test
+    void testGet_exceedingMaximumSize_evictsLeastRecentlyUsed() {
+        // Arrange
+        MemoizingCache<String, Integer> cache = new MemoizingCache<>(2);
+        cache.get("a", countingLength);
+        cache.get("bb", countingLength);
+        cache.get("a", countingLength); // "bb" is now least recently used
+
+        // Act
+        cache.get("ccc", countingLength);
+        int callsBefore = calls.get();
+        cache.get("a", countingLength);
+        int callsAfterRetained = calls.get();
+        cache.get("bb", countingLength);
+        int callsAfterEvicted = calls.get();
+
+        // Assert
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(callsAfterRetained).isEqualTo(callsBefore);
+        assertThat(callsAfterEvicted).isEqualTo(callsBefore + 1);
+    }
+
+    @Test
+    void testGet_nullKey_alwaysComputesWithoutCaching() {
+        // Arrange
+        MemoizingCache<String, Integer> cache = new MemoizingCache<>(10);
+        Function<String, Integer> function = s -> {
+            calls.incrementAndGet();
+            return 42;
+        };
+
+        // Act
+        cache.get(null, function);
+        Integer result = cache.get(null, function);
+
+        // Assert
+        assertThat(result).isEqualTo(42);
+        assertThat(calls).hasValue(2);
+        assertThat(cache.size()).isEqualTo(0);
+    }
+
+    @Test
+    void testGet_nullResult_isNotCached() {
+        // Arrange
+        MemoizingCache<String, Integer> cache = new MemoizingCache<>(10);
+        Function<String, Integer> function = s -> {
+            calls.incrementAndGet();
+            return null;
+        };
+
+        // Act
+        cache.get("abc", function);
+        Integer result = cache.get("abc", function);
+
+        // Assert
+        assertThat(result).isNull();
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void testClear_afterLookups_resetsEntriesAndStatistics() {
+        // Arrange
+        MemoizingCache<String, Integer> cache = new MemoizingCache<>(10);
+        cache.get("a", countingLength);
+        cache.get("a", countingLength);
+
+        // Act
+        cache.clear();
+
+        // Assert
+        assertThat(cache.size()).isEqualTo(0);
+        assertThat(cache.getHits()).isEqualTo(0);
+        assertThat(cache.getMisses()).isEqualTo(0);
+    }
+
+    @Test
+    void testGetMaximumSize_returnsConfiguredSize() {
+        // Arrange
+        MemoizingCache<String, Integer> cache = new MemoizingCache<>(123);
+
+        // Act
+        int result = cache.getMaximumSize();
+
+        // Assert
+        assertThat(result).isEqualTo(123);
+    }
+
+    @Test
+    void testGet_functionThrows_propagatesException() {
+        // Arrange
+        MemoizingCache<String, Integer> cache = new MemoizingCache<>(10);
+
+        // Act
+        ThrowingCallable action = () -> cache.get("x", s -> {
+            throw new IllegalStateException("test");
+        });
+
+        // Assert
+        assertThatThrownBy(action).isInstanceOf(IllegalStateException.class);
+    }
+}